@@ -0,0 +1,109 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.between.BulkBetween;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 成批计算时间差：CommonUse 逐个 atZone 后 until / Period.between 与 {@link BulkBetween} 的对比
+ * <p>
+ * start 取最近10年内的随机值，end 在 start 前后30年内，每次操作计算 {@link #SIZE} 对
+ *
+ * @author 张远卓
+ * @date 2026/10/18 13:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBetweenBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"Asia/Shanghai", "America/New_York"})
+    public String zoneId;
+
+    private ZoneId zone;
+    private long[] start;
+    private long[] end;
+    private long[] out;
+    private int[] years;
+    private int[] months;
+    private int[] days;
+    private BulkBetween between;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = 1602572427000L;
+        long span = 30 * 365 * 86_400_000L;
+        start = random.longs(SIZE, now - 10 * 365 * 86_400_000L, now).toArray();
+        end = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            end[i] = start[i] + random.longs(1, -span, span).sum();
+        }
+        out = new long[SIZE];
+        years = new int[SIZE];
+        months = new int[SIZE];
+        days = new int[SIZE];
+        zone = ZoneId.of(zoneId);
+        between = BulkBetween.of(zone);
+    }
+
+    @Benchmark
+    public long[] monthsCommonUse() {
+        for (int i = 0; i < SIZE; i++) {
+            ZonedDateTime s = Instant.ofEpochMilli(start[i]).atZone(zone);
+            out[i] = s.until(Instant.ofEpochMilli(end[i]).atZone(zone), ChronoUnit.MONTHS);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] monthsBulk() {
+        between.until(start, end, ChronoUnit.MONTHS, out);
+        return out;
+    }
+
+    @Benchmark
+    public long[] hoursCommonUse() {
+        for (int i = 0; i < SIZE; i++) {
+            ZonedDateTime s = Instant.ofEpochMilli(start[i]).atZone(zone);
+            out[i] = s.until(Instant.ofEpochMilli(end[i]).atZone(zone), ChronoUnit.HOURS);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] hoursBulk() {
+        between.until(start, end, ChronoUnit.HOURS, out);
+        return out;
+    }
+
+    @Benchmark
+    public int[] periodCommonUse() {
+        for (int i = 0; i < SIZE; i++) {
+            Period period = Period.between(Instant.ofEpochMilli(start[i]).atZone(zone).toLocalDate(),
+                    Instant.ofEpochMilli(end[i]).atZone(zone).toLocalDate());
+            years[i] = period.getYears();
+            months[i] = period.getMonths();
+            days[i] = period.getDays();
+        }
+        return days;
+    }
+
+    @Benchmark
+    public int[] periodBulk() {
+        between.period(start, end, years, months, days);
+        return days;
+    }
+}
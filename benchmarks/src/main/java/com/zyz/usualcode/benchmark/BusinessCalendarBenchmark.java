@@ -0,0 +1,110 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.calendar.BusinessCalendar;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 加 N 个工作日、两个日期之间的工作日数：逐天判断周末和节假日 Set 与 {@link BusinessCalendar} 的对比
+ * <p>
+ * 每年随机20天节假日，日期取2000到2030年之间，每次操作计算 {@link #SIZE} 笔
+ *
+ * @author 张远卓
+ * @date 2026/10/18 14:30
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessCalendarBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"3", "60"})
+    public int days;
+
+    private final Set<LocalDate> holidays = new HashSet<>();
+    private BusinessCalendar calendar;
+    private LocalDate[] dates;
+    private LocalDate[] results;
+    private int[] counts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        BusinessCalendar.Builder builder = BusinessCalendar.builder(2000, 2031);
+        for (int year = 2000; year <= 2031; year++) {
+            for (int i = 0; i < 20; i++) {
+                LocalDate holiday = LocalDate.ofYearDay(year, 1 + random.nextInt(365));
+                holidays.add(holiday);
+                builder.holiday(holiday);
+            }
+        }
+        calendar = builder.build();
+        dates = new LocalDate[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            dates[i] = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(30 * 365));
+        }
+        results = new LocalDate[SIZE];
+        counts = new int[SIZE];
+    }
+
+    @Benchmark
+    public LocalDate[] plusLoop() {
+        for (int i = 0; i < SIZE; i++) {
+            LocalDate date = dates[i];
+            for (int remaining = days; remaining > 0; ) {
+                date = date.plusDays(1);
+                if (isBusinessDay(date)) {
+                    remaining--;
+                }
+            }
+            results[i] = date;
+        }
+        return results;
+    }
+
+    @Benchmark
+    public LocalDate[] plusCalendar() {
+        for (int i = 0; i < SIZE; i++) {
+            results[i] = dates[i].with(calendar.plusBusinessDays(days));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public int[] betweenLoop() {
+        for (int i = 0; i < SIZE; i++) {
+            int count = 0;
+            LocalDate end = dates[i].plus(days, ChronoUnit.DAYS);
+            for (LocalDate date = dates[i]; date.isBefore(end); date = date.plusDays(1)) {
+                count += isBusinessDay(date) ? 1 : 0;
+            }
+            counts[i] = count;
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public int[] betweenCalendar() {
+        for (int i = 0; i < SIZE; i++) {
+            long start = dates[i].toEpochDay();
+            counts[i] = calendar.businessDaysBetween(start, start + days);
+        }
+        return counts;
+    }
+
+    private boolean isBusinessDay(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+}
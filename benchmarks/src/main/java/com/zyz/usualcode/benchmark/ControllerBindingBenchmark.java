@@ -0,0 +1,79 @@
+package com.zyz.usualcode.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyz.usualcode.dateTime.request.DateTimeJacksonModule;
+import com.zyz.usualcode.dateTime.request.DateTimeWebMvcConfig;
+import com.zyz.usualcode.dateTime.request.TestController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * TestController 的 /localDate 绑定路径，在进程内通过 MockMvc 调用，不经过网络
+ *
+ * @author 张远卓
+ * @date 2026/10/17 16:45
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBindingBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        new DateTimeWebMvcConfig().addFormatters(conversionService);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new DateTimeJacksonModule(ZoneId.systemDefault()));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController(), new LegacyController())
+                .setConversionService(conversionService)
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult getLocalDate() throws Exception {
+        return mockMvc.perform(get("/localDate").param("date", "2020-10-13")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getLocalDateAnnotated() throws Exception {
+        return mockMvc.perform(get("/legacy/localDate").param("date", "2020-10-13")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postLocalDate() throws Exception {
+        return mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content("\"2020-10-13\"")).andReturn();
+    }
+
+    /**
+     * 改造前 TestController.m1 的写法，依赖 @DateTimeFormat
+     */
+    @RestController
+    public static class LegacyController {
+        @GetMapping("/legacy/localDate")
+        public String m1(@RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+            return date.toString();
+        }
+    }
+}
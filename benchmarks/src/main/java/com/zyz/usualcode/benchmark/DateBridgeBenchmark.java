@@ -0,0 +1,98 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.bridge.DateBridge;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommonUse 中 Date、Instant、LocalDateTime 互转的写法与 {@link DateBridge} 的对比
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBridgeBenchmark {
+
+    private final DateBridge bridge = DateBridge.systemDefault();
+
+    private LocalDateTime dateTime;
+    private Date date;
+    private Timestamp timestamp;
+    private long epochMilli;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        dateTime = LocalDateTime.of(2020, 10, 13, 15, 0, 27, 123_000_000);
+        epochMilli = dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        date = new Date(epochMilli);
+        timestamp = new Timestamp(epochMilli);
+    }
+
+    // ------------------------------------------------------------------ LocalDateTime 转 Date、时间戳
+
+    @Benchmark
+    public Date toDateCommonUse() {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Benchmark
+    public Date toDateBridge() {
+        return bridge.toDate(dateTime);
+    }
+
+    @Benchmark
+    public long toEpochMilliCommonUse() {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public long toEpochMilliBridge() {
+        return bridge.toEpochMilli(dateTime);
+    }
+
+    // ------------------------------------------------------------------ Date、时间戳转 LocalDateTime
+
+    @Benchmark
+    public LocalDateTime fromDateCommonUse() {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    @Benchmark
+    public LocalDateTime fromDateBridge() {
+        return bridge.toLocalDateTime(date);
+    }
+
+    /**
+     * Timestamp 自带的转换，只能按 jvm 默认时区
+     */
+    @Benchmark
+    public LocalDateTime fromTimestampJdk() {
+        return timestamp.toLocalDateTime();
+    }
+
+    @Benchmark
+    public LocalDateTime fromTimestampBridge() {
+        return bridge.toLocalDateTime(timestamp);
+    }
+
+    @Benchmark
+    public LocalDateTime fromEpochMilliCommonUse() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    @Benchmark
+    public LocalDateTime fromEpochMilliBridge() {
+        return bridge.toLocalDateTime(epochMilli);
+    }
+}
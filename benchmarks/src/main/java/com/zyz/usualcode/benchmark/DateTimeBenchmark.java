@@ -0,0 +1,143 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import com.zyz.usualcode.dateTime.format.EpochMillisCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommonUse 中日期时间常见写法的开销：格式化、解析、TemporalAdjusters、Period/Duration/ChronoUnit.between
+ *
+ * @author 张远卓
+ * @date 2026/10/17 16:20
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private final ZoneId china = ZoneId.of("Asia/Shanghai");
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(PATTERN);
+    private final EpochMillisCodec codec = EpochMillisCodec.of(china);
+    private final char[] buffer = new char[EpochMillisCodec.LENGTH];
+
+    private long epochMilli;
+    private String text;
+    private LocalDate date;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        epochMilli = 1602572427000L;
+        text = "2020-10-13 15:00:27";
+        date = LocalDate.of(2019, 2, 9);
+        start = LocalDateTime.of(2020, 1, 15, 8, 21, 12);
+        end = LocalDateTime.of(2020, 10, 13, 15, 0, 27);
+    }
+
+    // ------------------------------------------------------------------ 时间戳转字符串
+
+    @Benchmark
+    public String formatNewFormatter() {
+        // CommonUse 的写法：每次 ofPattern
+        return DateTimeFormatter.ofPattern(PATTERN).format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), china));
+    }
+
+    @Benchmark
+    public String formatSharedFormatter() {
+        return formatter.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), china));
+    }
+
+    @Benchmark
+    public String formatRegistryFormatter() {
+        return DateTimeFormatterRegistry.ofPattern(PATTERN).format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), china));
+    }
+
+    @Benchmark
+    public String formatCodec() {
+        return codec.format(epochMilli);
+    }
+
+    @Benchmark
+    public char[] formatCodecIntoBuffer() {
+        codec.format(epochMilli, buffer, 0);
+        return buffer;
+    }
+
+    // ------------------------------------------------------------------ 字符串转时间戳
+
+    @Benchmark
+    public long parseNewFormatter() {
+        return LocalDateTime.parse(text, DateTimeFormatter.ofPattern(PATTERN)).atZone(china).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public long parseSharedFormatter() {
+        return LocalDateTime.parse(text, formatter).atZone(china).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public long parseCodec() {
+        return codec.parse(text);
+    }
+
+    // ------------------------------------------------------------------ TemporalAdjusters
+
+    @Benchmark
+    public LocalDate firstDayOfMonth() {
+        return date.with(TemporalAdjusters.firstDayOfMonth());
+    }
+
+    @Benchmark
+    public LocalDate lastInMonth() {
+        return date.with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY));
+    }
+
+    @Benchmark
+    public LocalDate dayOfWeekInMonth() {
+        return date.with(TemporalAdjusters.dayOfWeekInMonth(-2, DayOfWeek.MONDAY));
+    }
+
+    @Benchmark
+    public LocalDate lastDayOfNextMonthLambda() {
+        return date.with(temporal -> {
+            Temporal nextMonths = temporal.plus(1, ChronoUnit.MONTHS);
+            return nextMonths.with(ChronoField.DAY_OF_MONTH, nextMonths.range(ChronoField.DAY_OF_MONTH).getMaximum());
+        });
+    }
+
+    // ------------------------------------------------------------------ 间隔
+
+    @Benchmark
+    public Period periodBetween() {
+        return Period.between(start.toLocalDate(), end.toLocalDate());
+    }
+
+    @Benchmark
+    public Duration durationBetween() {
+        return Duration.between(start, end);
+    }
+
+    @Benchmark
+    public long chronoUnitMonths() {
+        return start.until(end, ChronoUnit.MONTHS);
+    }
+
+    @Benchmark
+    public long chronoUnitSeconds() {
+        return ChronoUnit.SECONDS.between(start, end);
+    }
+}
@@ -0,0 +1,98 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.UsualCodeApplication;
+import com.zyz.usualcode.jFinal.EdgeServer;
+import com.zyz.usualcode.jFinal.LiteHttpServer;
+import com.zyz.usualcode.metrics.LogHistogram;
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.web.WebExecutionConfig;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.time.ZoneId;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 同样的 /localDate、/users/{loginName} 接口，spring boot（lean 配置，tomcat）与 {@link LiteHttpServer} 的对比，
+ * 不是 jmh 基准，直接运行 main：
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.zyz.usualcode.benchmark.EdgeServerLoadTest [lite|spring] [并发数] [秒数] [查询耗时毫秒]
+ * </pre>
+ * 启动时间和堆占用只有在新的 JVM 中测才准确（类加载、JIT 互不影响），所以一次只测一种，两种各运行一次对比；
+ * 堆占用是启动前后各 full gc 一次的已用堆之差。客户端是 {@link UserEndpointLoadTest.KeepAliveClient}，
+ * 每个并发一个持久连接
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+public class EdgeServerLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String server = args.length > 0 ? args[0] : "lite";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int daoMillis = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        MockUserDao dao = new UserEndpointLoadTest.SleepingUserDao(daoMillis);
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        AutoCloseable closeable;
+        int port;
+        if ("spring".equals(server)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(UsualCodeApplication.class)
+                    .profiles("lean")
+                    .properties("server.port=0", "server.tomcat.threads.max=20",
+                            "server.tomcat.accept-count=" + concurrency * 2,
+                            WebExecutionConfig.MODE_PROPERTY + "=sync", "usualcode.startup.timeline=false",
+                            "logging.level.root=WARN")
+                    .initializers(ctx -> ctx.getBeanFactory().registerSingleton("userDao", dao))
+                    .run();
+            port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            closeable = context;
+        } else {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(20, 20, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(concurrency * 2));
+            LiteHttpServer lite = EdgeServer.create(0, dao, ZoneId.systemDefault(), executor).start();
+            port = lite.getPort();
+            closeable = () -> {
+                lite.close();
+                executor.shutdown();
+            };
+        }
+        long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heapDelta = usedHeapAfterGc() - heapBefore;
+        System.out.printf("server=%s startup=%d ms heap=%.1f MB concurrency=%d seconds=%d daoMillis=%d%n",
+                server, startupMillis, heapDelta / 1048576.0, concurrency, seconds, daoMillis);
+        System.out.printf("%-40s %10s %10s %10s %10s %8s%n", "url", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        try {
+            for (String path : new String[]{"/localDate?date=2020-10-13", "/users/zyz"}) {
+                URL url = new URL("http://127.0.0.1:" + port + path);
+                // 预热
+                UserEndpointLoadTest.load(url, concurrency, TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 5)),
+                        new LogHistogram(), new LongAdder());
+                LogHistogram latency = new LogHistogram();
+                LongAdder errors = new LongAdder();
+                long nanos = TimeUnit.SECONDS.toNanos(seconds);
+                UserEndpointLoadTest.load(url, concurrency, nanos, latency, errors);
+                LogHistogram.Snapshot snapshot = latency.snapshot();
+                System.out.printf("%-40s %10.0f %10.2f %10.2f %10.2f %8d%n", path, snapshot.getCount() * 1e9 / nanos,
+                        snapshot.percentile(0.5) / 1e6, snapshot.percentile(0.99) / 1e6, snapshot.getMax() / 1e6,
+                        errors.sum());
+            }
+        } finally {
+            closeable.close();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
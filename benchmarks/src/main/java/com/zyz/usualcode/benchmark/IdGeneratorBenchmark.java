@@ -0,0 +1,45 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.mockito.user.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 32位用户 ID：UUID 去掉横线 与 IdGenerator 对比，多线程时加 -t 参数，例如 -t 4
+ *
+ * @author 张远卓
+ * @date 2026/10/17 22:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final IdGenerator generator = new IdGenerator(1);
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String idGenerator() {
+        return generator.nextId();
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final char[] chars = new char[IdGenerator.LENGTH];
+    }
+
+    @Benchmark
+    public char[] idGeneratorToCharArray(Buffer buffer) {
+        generator.nextId(buffer.chars, 0);
+        return buffer.chars;
+    }
+}
@@ -0,0 +1,76 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.request.DateTimeWebMvcConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求参数绑定到 LocalDate 的转换本身：spring 默认的 @DateTimeFormat 处理与 DateTimeWebMvcConfig 注册的全局转换器的对比，
+ * 不经过 MockMvc，完整的请求路径见 {@link ControllerBindingBenchmark}
+ * <p>
+ * 输入为2020年每一天的 yyyy-MM-dd，轮流使用
+ *
+ * @author 张远卓
+ * @date 2026/10/17 16:45
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateBindingBenchmark {
+
+    private final TypeDescriptor source = TypeDescriptor.valueOf(String.class);
+    private TypeDescriptor annotatedTarget;
+    private TypeDescriptor plainTarget;
+    private DefaultFormattingConversionService annotationBased;
+    private DefaultFormattingConversionService configured;
+    private String[] inputs;
+    private int next;
+
+    @SuppressWarnings("unused")
+    void annotated(@DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+    }
+
+    @SuppressWarnings("unused")
+    void plain(LocalDate date) {
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        annotatedTarget = new TypeDescriptor(new MethodParameter(
+                LocalDateBindingBenchmark.class.getDeclaredMethod("annotated", LocalDate.class), 0));
+        plainTarget = new TypeDescriptor(new MethodParameter(
+                LocalDateBindingBenchmark.class.getDeclaredMethod("plain", LocalDate.class), 0));
+        annotationBased = new DefaultFormattingConversionService();
+        configured = new DefaultFormattingConversionService();
+        new DateTimeWebMvcConfig().addFormatters(configured);
+        inputs = new String[366];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = LocalDate.of(2020, 1, 1).plusDays(i).toString();
+        }
+    }
+
+    @Benchmark
+    public Object dateTimeFormat() {
+        return annotationBased.convert(nextInput(), source, annotatedTarget);
+    }
+
+    @Benchmark
+    public Object converter() {
+        return configured.convert(nextInput(), source, plainTarget);
+    }
+
+    private String nextInput() {
+        String input = inputs[next];
+        next = next + 1 == inputs.length ? 0 : next + 1;
+        return input;
+    }
+}
@@ -0,0 +1,108 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import com.zyz.usualcode.dateTime.format.MixedDateParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一列混有多种格式时的解析：CommonUse 的写法逐个 DateTimeFormatter try/catch 与 {@link MixedDateParser} 的对比
+ * <p>
+ * 语料中 CommonUse 演示过的6种格式随机混合，invalidPercent 为无法解析的比例（乱码、2月30日、13月），
+ * 每次操作解析 {@link #SIZE} 个，结果统一为毫秒时间戳，失败记为 Long.MIN_VALUE
+ *
+ * @author 张远卓
+ * @date 2026/10/18 15:20
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixedDateParserBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+            DateTimeFormatter.BASIC_ISO_DATE,
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatterRegistry.ofPattern("MM dd yyyy"),
+            DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日"),
+    };
+
+    private static final DateTimeFormatter[] DATE_TIME_FORMATTERS = {
+            DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日 HH时mm分ss秒"),
+    };
+
+    private static final String[] INVALID = {"N/A", "2020-02-30", "20201301", "2020年13月01日", "-", "2020-10-13 25:00:00"};
+
+    @Param({"0", "20"})
+    public int invalidPercent;
+
+    private String[] corpus;
+    private long[] out;
+    private MixedDateParser parser;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        corpus = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            if (random.nextInt(100) < invalidPercent) {
+                corpus[i] = INVALID[random.nextInt(INVALID.length)];
+                continue;
+            }
+            LocalDateTime dateTime = LocalDateTime.of(2010, 1, 1, 0, 0, 0).plusSeconds(random.nextInt(315_360_000));
+            int format = random.nextInt(DATE_FORMATTERS.length + DATE_TIME_FORMATTERS.length);
+            corpus[i] = format < DATE_FORMATTERS.length ? DATE_FORMATTERS[format].format(dateTime)
+                    : DATE_TIME_FORMATTERS[format - DATE_FORMATTERS.length].format(dateTime);
+        }
+        out = new long[SIZE];
+        parser = new MixedDateParser(ZONE);
+    }
+
+    @Benchmark
+    public long[] tryFormatters() {
+        for (int i = 0; i < SIZE; i++) {
+            out[i] = tryEach(corpus[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] mixedParser() {
+        for (int i = 0; i < SIZE; i++) {
+            out[i] = parser.parse(corpus[i]) > 0 ? parser.toEpochMilli() : Long.MIN_VALUE;
+        }
+        return out;
+    }
+
+    private static long tryEach(String text) {
+        for (DateTimeFormatter formatter : DATE_TIME_FORMATTERS) {
+            try {
+                return LocalDateTime.parse(text, formatter).atZone(ZONE).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                // 试下一种
+            }
+        }
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return LocalDate.parse(text, formatter).atStartOfDay(ZONE).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                // 试下一种
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,71 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.metrics.web.RequestMetrics;
+import com.zyz.usualcode.metrics.web.RequestMetricsFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求耗时统计本身的开销：只记录一次，以及经过整个过滤器（不含业务处理）。
+ * record 在多线程下竞争同一个接口的桶，用 -t 指定线程数对比
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestMetricsBenchmark {
+
+    private static final String[] PATTERNS = {"/localDate", "/users/{id}", "/users", "/metrics"};
+
+    private RequestMetrics metrics;
+    private RequestMetricsFilter filter;
+
+    @Setup
+    public void setUp() {
+        metrics = new RequestMetrics();
+        filter = new RequestMetricsFilter(metrics);
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+        int next;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        FilterChain chain;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/localDate");
+            response = new MockHttpServletResponse();
+            // DispatcherServlet 匹配到映射后放进 request 的路径模板
+            chain = (req, res) -> req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/localDate");
+        }
+    }
+
+    @Benchmark
+    public void record(Request state) {
+        String pattern = PATTERNS[state.next++ & (PATTERNS.length - 1)];
+        metrics.begin();
+        metrics.end("GET", pattern, 1_000_000 + state.next, false);
+    }
+
+    @Benchmark
+    public void filter(Request state) throws Exception {
+        filter.doFilter(state.request, state.response, state.chain);
+    }
+
+    @Benchmark
+    public void noFilter(Request state) throws Exception {
+        state.chain.doFilter(state.request, state.response);
+    }
+}
@@ -0,0 +1,151 @@
+package com.zyz.usualcode.benchmark;
+
+import com.google.common.collect.Sets;
+import com.zyz.usualcode.guava.primitive.IntBitmap;
+import com.zyz.usualcode.guava.primitive.IntHashSet;
+import com.zyz.usualcode.guava.primitive.IntSet;
+import com.zyz.usualcode.guava.primitive.IntSets;
+import com.zyz.usualcode.guava.primitive.SortedIntSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * guava.BasicUse 中 Sets.intersection/union/difference 视图与直接物化的 jdk 集合对比
+ * 视图每次遍历都要重新探测两个集合，所以分别测试 一次遍历 和 遍历多次 的情况。
+ * 另外对比 primitive 包中不装箱的 哈希集合、有序数组、位图 三种表示的交集和并集
+ *
+ * @author 张远卓
+ * @date 2026/10/17 16:32
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetsBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * 结果被遍历的次数
+     */
+    @Param({"1", "4"})
+    private int passes;
+
+    private Set<Integer> setA;
+    private Set<Integer> setB;
+    private IntHashSet hashA;
+    private IntHashSet hashB;
+    private SortedIntSet sortedA;
+    private SortedIntSet sortedB;
+    private IntBitmap bitmapA;
+    private IntBitmap bitmapB;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        setA = new HashSet<>();
+        setB = new HashSet<>();
+        while (setA.size() < size) {
+            setA.add(random.nextInt(size * 4));
+        }
+        while (setB.size() < size) {
+            setB.add(random.nextInt(size * 4));
+        }
+        int[] a = setA.stream().mapToInt(Integer::intValue).toArray();
+        int[] b = setB.stream().mapToInt(Integer::intValue).toArray();
+        hashA = IntHashSet.of(a);
+        hashB = IntHashSet.of(b);
+        sortedA = SortedIntSet.of(a);
+        sortedB = SortedIntSet.of(b);
+        bitmapA = IntBitmap.of(a);
+        bitmapB = IntBitmap.of(b);
+    }
+
+    @Benchmark
+    public void guavaIntersectionView(Blackhole bh) {
+        consume(Sets.intersection(setA, setB), bh);
+    }
+
+    @Benchmark
+    public void jdkIntersection(Blackhole bh) {
+        Set<Integer> result = new HashSet<>(setA);
+        result.retainAll(setB);
+        consume(result, bh);
+    }
+
+    @Benchmark
+    public void guavaUnionView(Blackhole bh) {
+        consume(Sets.union(setA, setB), bh);
+    }
+
+    @Benchmark
+    public void jdkUnion(Blackhole bh) {
+        Set<Integer> result = new HashSet<>(setA);
+        result.addAll(setB);
+        consume(result, bh);
+    }
+
+    @Benchmark
+    public void guavaDifferenceView(Blackhole bh) {
+        consume(Sets.difference(setA, setB), bh);
+    }
+
+    @Benchmark
+    public void jdkDifference(Blackhole bh) {
+        Set<Integer> result = new HashSet<>(setA);
+        result.removeAll(setB);
+        consume(result, bh);
+    }
+
+    private void consume(Set<Integer> set, Blackhole bh) {
+        for (int i = 0; i < passes; i++) {
+            for (Integer value : set) {
+                bh.consume(value);
+            }
+        }
+    }
+
+    @Benchmark
+    public void primitiveHashIntersection(Blackhole bh) {
+        consume(IntSets.intersection(hashA, hashB).materialize(), bh);
+    }
+
+    @Benchmark
+    public void primitiveSortedIntersection(Blackhole bh) {
+        consume(IntSets.intersection(sortedA, sortedB).materialize(), bh);
+    }
+
+    @Benchmark
+    public void primitiveBitmapIntersection(Blackhole bh) {
+        consume(IntSets.intersection(bitmapA, bitmapB).materialize(), bh);
+    }
+
+    @Benchmark
+    public int primitiveBitmapIntersectionSize() {
+        return IntSets.intersectionSize(bitmapA, bitmapB);
+    }
+
+    @Benchmark
+    public void primitiveSortedUnion(Blackhole bh) {
+        consume(IntSets.union(sortedA, sortedB).materialize(), bh);
+    }
+
+    @Benchmark
+    public void primitiveBitmapUnion(Blackhole bh) {
+        consume(IntSets.union(bitmapA, bitmapB).materialize(), bh);
+    }
+
+    private void consume(IntSet set, Blackhole bh) {
+        for (int i = 0; i < passes; i++) {
+            set.forEach(bh::consume);
+        }
+    }
+}
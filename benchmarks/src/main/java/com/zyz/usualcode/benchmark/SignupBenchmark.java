@@ -0,0 +1,118 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.MockUserService;
+import com.zyz.usualcode.mockito.user.PasswordHasher;
+import com.zyz.usualcode.mockito.user.SaveResult;
+import com.zyz.usualcode.mockito.user.ServiceException;
+import com.zyz.usualcode.mockito.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重名很多的注册流程：9成请求的登录名已被占用
+ * <p>
+ * saveWithStackTrace 打开 ServiceException 的调用栈，相当于改造之前每次失败都填充调用栈；
+ * 调用栈的开销与深度成正比，depth 模拟 web 容器、过滤器、代理等在业务方法外面的调用层数。
+ * 只比较失败路径的开销，DAO 是内存 Map，密码哈希是空操作
+ *
+ * @author 张远卓
+ * @date 2026/10/18 11:20
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignupBenchmark {
+
+    private static final int TAKEN = 10_000;
+
+    @Param({"20", "120"})
+    public int depth;
+
+    private MockUserService service;
+    private User[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, User> users = new HashMap<>();
+        for (int i = 0; i < TAKEN; i++) {
+            users.put("user" + i, new User().setId(Integer.toString(i)).setLoginName("user" + i));
+        }
+        MockUserDao dao = new MockUserDao() {
+            @Override
+            public User findUserByLoginName(String loginName) {
+                return users.get(loginName);
+            }
+
+            @Override
+            public void save(User user) {
+                // 不保存，下一轮同样的新登录名仍然可以注册成功
+            }
+        };
+        PasswordHasher hasher = new PasswordHasher() {
+            @Override
+            public String hash(String rawPassword) {
+                return rawPassword;
+            }
+
+            @Override
+            public boolean matches(String rawPassword, String hashedPassword) {
+                return rawPassword.equals(hashedPassword);
+            }
+        };
+        service = new MockUserService(dao, hasher);
+        requests = new User[1000];
+        for (int i = 0; i < requests.length; i++) {
+            String loginName = i % 10 == 0 ? "new" + i : "user" + (i * 7 % TAKEN);
+            requests[i] = new User().setLoginName(loginName).setPassword("123456");
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dusualcode.service-exception.stack-trace=true")
+    public Object saveWithStackTrace() {
+        return save(depth);
+    }
+
+    @Benchmark
+    public Object saveStackless() {
+        return save(depth);
+    }
+
+    @Benchmark
+    public Object trySave() {
+        return trySave(depth);
+    }
+
+    private Object save(int depth) {
+        if (depth > 0) {
+            return save(depth - 1);
+        }
+        try {
+            return service.save(nextRequest());
+        } catch (ServiceException ex) {
+            return ex.getErrorCode();
+        }
+    }
+
+    private Object trySave(int depth) {
+        if (depth > 0) {
+            return trySave(depth - 1);
+        }
+        SaveResult result = service.trySave(nextRequest());
+        return result.isSuccess() ? result.getId() : result.getErrorCode();
+    }
+
+    private User nextRequest() {
+        User user = requests[next];
+        next = next + 1 == requests.length ? 0 : next + 1;
+        return user;
+    }
+}
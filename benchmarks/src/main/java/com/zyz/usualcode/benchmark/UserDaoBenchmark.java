@@ -0,0 +1,128 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.mockito.user.JdbcUserDao;
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.MybatisUserDao;
+import com.zyz.usualcode.mockito.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存 H2（MySQL 兼容模式）上 100万 用户的批量导入，以及导入后按登录名查询
+ * load 每次迭代使用新库，比较 JDBC batch、MyBatis BATCH 执行器 和 逐条 save
+ *
+ * @author 张远卓
+ * @date 2026/10/17 19:40
+ */
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserDaoBenchmark {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @State(Scope.Benchmark)
+    public static class LoadState {
+        @Param({"jdbc", "mybatis", "rowByRow"})
+        String dao;
+
+        @Param({"1000000"})
+        int users;
+
+        List<User> data;
+        SingleConnectionDataSource dataSource;
+        MockUserDao userDao;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            data = users(users);
+        }
+
+        @Setup(Level.Iteration)
+        public void createDatabase() {
+            dataSource = dataSource();
+            JdbcUserDao.createTable(dataSource);
+            userDao = "mybatis".equals(dao) ? MybatisUserDao.create(dataSource) : new JdbcUserDao(dataSource);
+        }
+
+        @TearDown(Level.Iteration)
+        public void dropDatabase() {
+            new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+            dataSource.destroy();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LookupState {
+        @Param({"1000000"})
+        int users;
+
+        SingleConnectionDataSource dataSource;
+        JdbcUserDao userDao;
+
+        @Setup(Level.Trial)
+        public void load() {
+            dataSource = dataSource();
+            JdbcUserDao.createTable(dataSource);
+            userDao = new JdbcUserDao(dataSource);
+            userDao.saveAll(users(users));
+        }
+
+        @TearDown(Level.Trial)
+        public void drop() {
+            new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+            dataSource.destroy();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long load(LoadState state) {
+        if ("rowByRow".equals(state.dao)) {
+            for (User user : state.data) {
+                state.userDao.save(user);
+            }
+        } else {
+            state.userDao.saveAll(state.data);
+        }
+        return state.data.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 3, time = 1)
+    public User findUserByLoginName(LookupState state) {
+        return state.userDao.findUserByLoginName("user" + ThreadLocalRandom.current().nextInt(state.users));
+    }
+
+    /**
+     * 单连接的内存库，避免每次操作创建连接
+     */
+    private static SingleConnectionDataSource dataSource() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:users" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource.setAutoCommit(true);
+        return dataSource;
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User().setId(UUID.randomUUID().toString().replace("-", ""))
+                    .setLoginName("user" + i)
+                    .setPassword("123456"));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,258 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.UsualCodeApplication;
+import com.zyz.usualcode.metrics.LogHistogram;
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.User;
+import com.zyz.usualcode.web.WebExecutionConfig;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * /users/{loginName} 在同步、异步两种执行方式下的吞吐量对比，不是 jmh 基准，直接运行 main：
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.zyz.usualcode.benchmark.UserEndpointLoadTest [并发数] [秒数] [查询耗时毫秒] [tomcat 线程数]
+ * </pre>
+ * 查询用 sleep 模拟数据库 I/O。同步方式下吞吐量上限约为 tomcat 线程数 / 查询耗时，
+ * 异步方式下请求线程不被占用，上限取决于阻塞执行器（虚拟线程或有界线程池）。
+ * 客户端见 {@link KeepAliveClient}
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:40
+ */
+public class UserEndpointLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int daoMillis = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int tomcatThreads = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        System.out.printf("concurrency=%d seconds=%d daoMillis=%d tomcatThreads=%d%n",
+                concurrency, seconds, daoMillis, tomcatThreads);
+        System.out.printf("%-6s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String mode : new String[]{"sync", "async"}) {
+            run(mode, concurrency, seconds, daoMillis, tomcatThreads);
+        }
+    }
+
+    private static void run(String mode, int concurrency, int seconds, int daoMillis, int tomcatThreads)
+            throws Exception {
+        MockUserDao dao = new SleepingUserDao(daoMillis);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UsualCodeApplication.class)
+                .profiles("lean")
+                .properties("server.port=0", "server.tomcat.threads.max=" + tomcatThreads,
+                        "server.tomcat.accept-count=" + concurrency * 2,
+                        WebExecutionConfig.MODE_PROPERTY + "=" + mode, "usualcode.startup.timeline=false",
+                        "logging.level.root=WARN")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("userDao", dao))
+                .run();
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URL url = new URL("http://127.0.0.1:" + port + "/users/zyz");
+            // 预热
+            load(url, concurrency, TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 5)), new LogHistogram(), new LongAdder());
+            LogHistogram latency = new LogHistogram();
+            LongAdder errors = new LongAdder();
+            long nanos = TimeUnit.SECONDS.toNanos(seconds);
+            load(url, concurrency, nanos, latency, errors);
+            LogHistogram.Snapshot snapshot = latency.snapshot();
+            System.out.printf("%-6s %10.0f %10.1f %10.1f %10.1f %8d%n", mode, snapshot.getCount() * 1e9 / nanos,
+                    snapshot.percentile(0.5) / 1e6, snapshot.percentile(0.99) / 1e6, snapshot.getMax() / 1e6,
+                    errors.sum());
+        } finally {
+            context.close();
+        }
+    }
+
+    static void load(URL url, int concurrency, long nanos, LogHistogram latency, LongAdder errors)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> {
+                KeepAliveClient client = new KeepAliveClient(url);
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.get();
+                        } catch (IOException | RuntimeException ex) {
+                            status = -1;
+                        }
+                        if (status == 200) {
+                            latency.record(System.nanoTime() - start);
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                } finally {
+                    client.close();
+                    done.countDown();
+                }
+            }, "client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+    }
+
+    /**
+     * 每个客户端线程一个持久连接的最小 HTTP/1.1 客户端，请求一次写完，关闭 Nagle 算法
+     * <p>
+     * 不用 HttpURLConnection：它的空闲连接池每个地址只保留5个连接，并发更高时大部分请求重新建连；
+     * 读 chunked 响应时还会在服务器的最后一个分块上等待延迟 ACK，tomcat 的 p50 因此在40ms左右，
+     * 测出来的是客户端的开销而不是服务器的
+     */
+    static final class KeepAliveClient implements Closeable {
+        private final InetSocketAddress address;
+        private final byte[] request;
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        KeepAliveClient(URL url) {
+            this.address = new InetSocketAddress(url.getHost(), url.getPort());
+            this.request = ("GET " + url.getFile() + " HTTP/1.1\r\nHost: " + url.getHost() + ":" + url.getPort()
+                    + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * 发送一个请求并读完响应，出错时关闭连接，下次调用重新建连
+         *
+         * @return 状态码
+         */
+        int get() throws IOException {
+            try {
+                if (socket == null) {
+                    socket = new Socket();
+                    socket.setTcpNoDelay(true);
+                    socket.connect(address);
+                    in = new BufferedInputStream(socket.getInputStream());
+                    out = socket.getOutputStream();
+                }
+                out.write(request);
+                String statusLine = readLine();
+                int status = Integer.parseInt(statusLine.substring(9, 12));
+                long length = -1;
+                boolean chunked = false;
+                boolean close = false;
+                for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+                    int colon = line.indexOf(':');
+                    String name = line.substring(0, colon).trim();
+                    String value = line.substring(colon + 1).trim();
+                    if (name.equalsIgnoreCase("Content-Length")) {
+                        length = Long.parseLong(value);
+                    } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                        chunked = value.equalsIgnoreCase("chunked");
+                    } else if (name.equalsIgnoreCase("Connection")) {
+                        close = value.equalsIgnoreCase("close");
+                    }
+                }
+                if (chunked) {
+                    for (String line = readLine(); ; line = readLine()) {
+                        int extension = line.indexOf(';');
+                        long size = Long.parseLong((extension < 0 ? line : line.substring(0, extension)).trim(), 16);
+                        if (size == 0) {
+                            break;
+                        }
+                        skip(size);
+                        readLine();
+                    }
+                    // trailer
+                    while (!readLine().isEmpty()) {
+                        // 丢弃
+                    }
+                } else if (length >= 0) {
+                    skip(length);
+                } else {
+                    while (in.read() >= 0) {
+                        // 没有长度时读到连接关闭
+                    }
+                    close = true;
+                }
+                if (close) {
+                    close();
+                }
+                return status;
+            } catch (IOException | RuntimeException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b < 0) {
+                    throw new EOFException();
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private void skip(long n) throws IOException {
+            while (n > 0) {
+                long skipped = in.skip(n);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException();
+                    }
+                    skipped = 1;
+                }
+                n -= skipped;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // 已经不用了
+                }
+                socket = null;
+            }
+        }
+    }
+
+    /**
+     * 每次查询 sleep 固定时间，模拟数据库往返
+     */
+    static final class SleepingUserDao extends MockUserDao {
+        private final int millis;
+
+        SleepingUserDao(int millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public User findUserByLoginName(String loginName) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new User().setId("0123456789abcdef0123456789abcdef").setLoginName(loginName);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zyz.usualcode.benchmark;
+
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionCache;
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一批时间戳转为某个时区的本地时间：CommonUse 的 ZoneId.of + atZone 与 {@link ZoneTransitionCache} 的对比
+ * <p>
+ * 时间戳取最近10年内的随机值，结果统一为本地毫秒，每次操作转换 {@link #SIZE} 个
+ *
+ * @author 张远卓
+ * @date 2026/10/18 10:30
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneConversionBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"Asia/Shanghai", "America/New_York", "+05:30"})
+    public String zoneId;
+
+    private long[] epochMillis;
+    private long[] sorted;
+    private long[] locals;
+    private ZoneTransitionTable table;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = 1602572427000L;
+        epochMillis = random.longs(SIZE, now - 10 * 365 * 86_400_000L, now).toArray();
+        sorted = epochMillis.clone();
+        Arrays.sort(sorted);
+        locals = new long[SIZE];
+        table = ZoneTransitionCache.getDefault().table(zoneId);
+    }
+
+    @Benchmark
+    public long[] commonUse() {
+        for (int i = 0; i < SIZE; i++) {
+            LocalDateTime dateTime = Instant.ofEpochMilli(epochMillis[i]).atZone(ZoneId.of(zoneId)).toLocalDateTime();
+            locals[i] = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+        }
+        return locals;
+    }
+
+    @Benchmark
+    public long[] zoneRulesOffset() {
+        ZoneId zone = ZoneId.of(zoneId);
+        for (int i = 0; i < SIZE; i++) {
+            locals[i] = epochMillis[i] + zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis[i])).getTotalSeconds() * 1000L;
+        }
+        return locals;
+    }
+
+    @Benchmark
+    public long[] tableSingle() {
+        for (int i = 0; i < SIZE; i++) {
+            locals[i] = table.toLocalMillis(epochMillis[i]);
+        }
+        return locals;
+    }
+
+    @Benchmark
+    public long[] tableBulk() {
+        table.toLocalMillis(epochMillis, locals);
+        return locals;
+    }
+
+    @Benchmark
+    public long[] tableBulkSorted() {
+        table.toLocalMillis(sorted, locals);
+        return locals;
+    }
+}
@@ -1,12 +1,12 @@
 package com.zyz.usualcode;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.Configuration;
 
-@Configuration
+@SpringBootConfiguration
 @ComponentScan(basePackages = "com.zyz.usualcode")
 @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class})
 public class UsualCodeApplication {
@@ -1,11 +1,18 @@
 package com.zyz.usualcode.dateTime;
 
+import com.zyz.usualcode.dateTime.bucket.BucketUnit;
+import com.zyz.usualcode.dateTime.bucket.TimeBuckets;
+import com.zyz.usualcode.dateTime.clock.CachedClock;
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import com.zyz.usualcode.dateTime.format.EpochMillisCodec;
+
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.stream.Collectors;
@@ -153,7 +160,7 @@ public class CommonUse {
         // 日期格式化，解析字符串
         String goodFriday = "08 18 2014";
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM dd yyyy");
+            DateTimeFormatter formatter = DateTimeFormatterRegistry.ofPattern("MM dd yyyy");
             LocalDate holiday = LocalDate.parse(goodFriday, formatter);
             System.out.printf("Successfully parsed String %s, date is %s%n", goodFriday, holiday);
         } catch (DateTimeParseException ex) {
@@ -164,7 +171,7 @@ public class CommonUse {
         // 日期格式化，格式化输出
         LocalDateTime arrivalDate = LocalDateTime.now();
         try {
-            DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a");
+            DateTimeFormatter format = DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd hh:mm a");
             String landing = arrivalDate.format(format);
             System.out.printf("Arriving at : %s %n", landing);
         } catch (DateTimeException ex) {
@@ -178,7 +185,7 @@ public class CommonUse {
 
         // 时间戳转时间字符串
         try {
-            DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            DateTimeFormatter format = DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd HH:mm:ss");
             LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(1602572427000L), china);
             String timeStr = format.format(localDateTime);
             System.out.println(timeStr);
@@ -188,7 +195,7 @@ public class CommonUse {
 
         // 时间字符串转时间戳
         try {
-            DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            DateTimeFormatter format = DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd HH:mm:ss");
             LocalDateTime parse = LocalDateTime.parse("2020-10-13 15:00:27", format);
             long milli = LocalDateTime.from(parse).atZone(china).toInstant().toEpochMilli();
             System.out.println(milli);
@@ -196,6 +203,13 @@ public class CommonUse {
             ex.printStackTrace();
         }
 
+        // 高频场景下复用编解码器，不再每次创建 DateTimeFormatter 和 LocalDateTime
+        EpochMillisCodec codec = EpochMillisCodec.of(china);
+        // 2020-10-13 15:00:27
+        System.out.println(codec.format(1602572427000L));
+        // 1602572427000
+        System.out.println(codec.parse("2020-10-13 15:00:27"));
+
         // 获取指定日期时间
         // 2020-03-25T21:44:32
         LocalDateTime.of(2020, 3, 25, 21, 44, 32);
@@ -313,25 +327,25 @@ public class CommonUse {
         // 指定日期时间
         ZonedDateTime now = ZonedDateTime.now();
         // 2020-03-25 22:29:33
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd HH:mm:ss").format(now);
         // 2020-03-25 等同于DateTimeFormatter.ISO_LOCAL_DATE
-        DateTimeFormatter.ofPattern("yyyy-MM-dd").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd").format(now);
         // 2020年03月25日 22时29分33秒
-        DateTimeFormatter.ofPattern("yyyy年MM月dd日 HH时mm分ss秒").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日 HH时mm分ss秒").format(now);
         // 2020年03月25日
-        DateTimeFormatter.ofPattern("yyyy年MM月dd日").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日").format(now);
         // 2020-03
-        DateTimeFormatter.ofPattern("yyyy-MM").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy-MM").format(now);
         // 2020年03月
-        DateTimeFormatter.ofPattern("yyyy年MM月").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyy年MM月").format(now);
         // 20200325
-        DateTimeFormatter.ofPattern("yyyyMMdd").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyyMMdd").format(now);
         // 202003
-        DateTimeFormatter.ofPattern("yyyyMM").format(now);
+        DateTimeFormatterRegistry.ofPattern("yyyyMM").format(now);
 
         // 解析
         try {
-            DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy年MM月dd日");
+            DateTimeFormatter dateTimeFormatter = DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日");
             // 2020-03-25
             LocalDate.parse("2020年03月25日", dateTimeFormatter);
             // 2020-03-25
@@ -394,6 +408,13 @@ public class CommonUse {
                 .sorted(Comparator.comparing(YearMonth::getYear).thenComparing(YearMonth::getMonthValue))
                 .collect(Collectors.toList())
                 .forEach(System.out::println);
+        // 大批量的时间戳按天、周、月、年归桶，使用预计算的表，不创建 LocalDate
+        TimeBuckets buckets = TimeBuckets.of(china);
+        long[] eventTimes = {1602572427000L, 1585143872000L};
+        long[] monthStarts = new long[eventTimes.length];
+        buckets.bucket(eventTimes, monthStarts, BucketUnit.MONTH);
+        // [1601481600000, 1582992000000]
+        System.out.println(Arrays.toString(monthStarts));
 
     }
 
@@ -401,7 +422,18 @@ public class CommonUse {
      * 取本月第一天
      */
     public static LocalDate firstDayOfThisMonth() {
-        LocalDate today = LocalDate.now();
+        return firstDayOfThisMonth(Clock.systemDefaultZone());
+    }
+
+    /**
+     * 取本月第一天，当前时间由 clock 决定，方便测试和复用时钟
+     * 传入 {@link CachedClock} 时直接使用它缓存的值
+     */
+    public static LocalDate firstDayOfThisMonth(Clock clock) {
+        if (clock instanceof CachedClock) {
+            return ((CachedClock) clock).firstDayOfMonth();
+        }
+        LocalDate today = LocalDate.now(clock);
         return today.with(TemporalAdjusters.firstDayOfMonth());
     }
 
@@ -409,7 +441,14 @@ public class CommonUse {
      * 取本月第N天
      */
     public static LocalDate dayOfThisMonth(int n) {
-        LocalDate today = LocalDate.now();
+        return dayOfThisMonth(n, Clock.systemDefaultZone());
+    }
+
+    /**
+     * 取本月第N天
+     */
+    public static LocalDate dayOfThisMonth(int n, Clock clock) {
+        LocalDate today = clock instanceof CachedClock ? ((CachedClock) clock).today() : LocalDate.now(clock);
         return today.withDayOfMonth(n);
     }
 
@@ -417,7 +456,17 @@ public class CommonUse {
      * 取本月最后一天
      */
     public static LocalDate lastDayOfThisMonth() {
-        LocalDate today = LocalDate.now();
+        return lastDayOfThisMonth(Clock.systemDefaultZone());
+    }
+
+    /**
+     * 取本月最后一天
+     */
+    public static LocalDate lastDayOfThisMonth(Clock clock) {
+        if (clock instanceof CachedClock) {
+            return ((CachedClock) clock).lastDayOfMonth();
+        }
+        LocalDate today = LocalDate.now(clock);
         return today.with(TemporalAdjusters.lastDayOfMonth());
     }
 
@@ -425,14 +474,34 @@ public class CommonUse {
      * 取本月第一天的开始时间
      */
     public static LocalDateTime startOfThisMonth() {
-        return LocalDateTime.of(firstDayOfThisMonth(), LocalTime.MIN);
+        return startOfThisMonth(Clock.systemDefaultZone());
+    }
+
+    /**
+     * 取本月第一天的开始时间
+     */
+    public static LocalDateTime startOfThisMonth(Clock clock) {
+        if (clock instanceof CachedClock) {
+            return ((CachedClock) clock).startOfMonth();
+        }
+        return LocalDateTime.of(firstDayOfThisMonth(clock), LocalTime.MIN);
     }
 
     /**
      * 取本月最后一天的结束时间
      */
     public static LocalDateTime endOfThisMonth() {
-        return LocalDateTime.of(lastDayOfThisMonth(), LocalTime.MAX);
+        return endOfThisMonth(Clock.systemDefaultZone());
+    }
+
+    /**
+     * 取本月最后一天的结束时间
+     */
+    public static LocalDateTime endOfThisMonth(Clock clock) {
+        if (clock instanceof CachedClock) {
+            return ((CachedClock) clock).endOfMonth();
+        }
+        return LocalDateTime.of(lastDayOfThisMonth(clock), LocalTime.MAX);
     }
 
 }
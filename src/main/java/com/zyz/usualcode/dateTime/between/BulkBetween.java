@@ -0,0 +1,334 @@
+package com.zyz.usualcode.dateTime.between;
+
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionCache;
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionTable;
+
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 成批计算两个时间戳之间的差值，对应 CommonUse 中逐个调用的
+ * {@code Period.between}、{@code Duration.between}、{@code until(..., ChronoUnit.X)}
+ * <p>
+ * 输入是两个毫秒时间戳数组 start、end，按下标一一配对，结果写入调用方提供的数组：
+ * <ul>
+ *     <li>{@link #until}：与 {@code start.atZone(zone).until(end.atZone(zone), unit)} 相同。
+ *     DAYS 及以上按本地日期时间计算（跨夏令时切换的一天仍算一天，不足一个月按日历截断），
+ *     HALF_DAYS 及以下是精确时长，与时区无关</li>
+ *     <li>{@link #period}：与 {@code Period.between(start 的本地日期, end 的本地日期)} 相同，
+ *     分别写入年、月、日</li>
+ * </ul>
+ * 日历换算用整数公式代替 LocalDate，时区偏移量取自 {@link ZoneTransitionTable}，
+ * 除了每段一块换算本地时间用的缓冲区外不创建对象。
+ * 传入 ForkJoinPool 且数量超过 {@value #PARALLEL_THRESHOLD} 时分段并行。
+ * <p>
+ * 线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/18 13:40
+ */
+public final class BulkBetween {
+
+    /**
+     * 数量超过这个值才并行
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * 并行时每段至少的个数
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    /**
+     * 换算本地时间的缓冲区大小
+     */
+    private static final int BLOCK = 1024;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 0000-03-01 到 1970-01-01 的天数，日历公式以3月为一年的开始
+     */
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    private static final long DAYS_PER_400_YEARS = 146_097L;
+
+    private final ZoneTransitionTable table;
+
+    public BulkBetween(ZoneTransitionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * 使用 {@link ZoneTransitionCache#getDefault()} 中的时区表
+     */
+    public static BulkBetween of(ZoneId zone) {
+        return new BulkBetween(ZoneTransitionCache.getDefault().table(zone));
+    }
+
+    public ZoneId getZone() {
+        return table.getZone();
+    }
+
+    /**
+     * 单线程计算
+     *
+     * @see #until(long[], long[], ChronoUnit, long[], ForkJoinPool)
+     */
+    public void until(long[] start, long[] end, ChronoUnit unit, long[] out) {
+        until(start, end, unit, out, null);
+    }
+
+    /**
+     * out[i] 为 start[i] 到 end[i] 的差值，end 在前时为负数
+     *
+     * @param pool 为 null 时不并行
+     * @throws UnsupportedTemporalTypeException unit 为 FOREVER
+     * @throws ArithmeticException              NANOS、MICROS 超出 long 范围
+     */
+    public void until(long[] start, long[] end, ChronoUnit unit, long[] out, ForkJoinPool pool) {
+        if (unit == ChronoUnit.FOREVER) {
+            throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+        }
+        checkLength(start, end, out.length);
+        run(new Task(this, start, end, unit, out, null, null, null, 0, start.length), pool);
+    }
+
+    /**
+     * 单线程计算
+     *
+     * @see #period(long[], long[], int[], int[], int[], ForkJoinPool)
+     */
+    public void period(long[] start, long[] end, int[] years, int[] months, int[] days) {
+        period(start, end, years, months, days, null);
+    }
+
+    /**
+     * years[i]、months[i]、days[i] 为两个本地日期之间的 Period，各字段符号相同
+     *
+     * @param pool 为 null 时不并行
+     */
+    public void period(long[] start, long[] end, int[] years, int[] months, int[] days, ForkJoinPool pool) {
+        checkLength(start, end, Math.min(years.length, Math.min(months.length, days.length)));
+        run(new Task(this, start, end, null, null, years, months, days, 0, start.length), pool);
+    }
+
+    private static void checkLength(long[] start, long[] end, int outLength) {
+        if (end.length != start.length) {
+            throw new IllegalArgumentException("start.length != end.length: " + start.length + " != " + end.length);
+        }
+        if (outLength < start.length) {
+            throw new IllegalArgumentException("output length < " + start.length + ": " + outLength);
+        }
+    }
+
+    private static void run(Task task, ForkJoinPool pool) {
+        if (pool != null && task.to - task.from > PARALLEL_THRESHOLD) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+    }
+
+    /**
+     * 计算 [from, to)，本地时间按 {@link #BLOCK} 个一块换算
+     */
+    private void compute(long[] start, long[] end, ChronoUnit unit, long[] out, int[] years, int[] months, int[] days,
+                         int from, int to) {
+        if (unit != null && unit.isTimeBased()) {
+            long unitMillis = unit.getDuration().toMillis();
+            for (int i = from; i < to; i++) {
+                out[i] = exactUntil(start[i], end[i], unit, unitMillis);
+            }
+            return;
+        }
+        long[] localStart = new long[Math.min(BLOCK, to - from)];
+        long[] localEnd = new long[localStart.length];
+        for (int block = from; block < to; block += BLOCK) {
+            int n = Math.min(BLOCK, to - block);
+            table.toLocalMillis(start, block, localStart, 0, n);
+            table.toLocalMillis(end, block, localEnd, 0, n);
+            if (unit != null) {
+                for (int i = 0; i < n; i++) {
+                    out[block + i] = dateUntil(localStart[i], localEnd[i], unit);
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    period(Math.floorDiv(localStart[i], MILLIS_PER_DAY), Math.floorDiv(localEnd[i], MILLIS_PER_DAY),
+                            years, months, days, block + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * 精确时长，向零截断，与 Duration.between 后按单位取整相同
+     */
+    private static long exactUntil(long start, long end, ChronoUnit unit, long unitMillis) {
+        long millis = Math.subtractExact(end, start);
+        switch (unit) {
+            case NANOS:
+                return Math.multiplyExact(millis, 1_000_000L);
+            case MICROS:
+                return Math.multiplyExact(millis, 1_000L);
+            default:
+                return millis / unitMillis;
+        }
+    }
+
+    /**
+     * 与 LocalDateTime.until 的日期单位部分相同：结束时刻的时间早于开始时刻时，最后一天不算整天
+     */
+    static long dateUntil(long localStart, long localEnd, ChronoUnit unit) {
+        long startDay = Math.floorDiv(localStart, MILLIS_PER_DAY);
+        long endDay = Math.floorDiv(localEnd, MILLIS_PER_DAY);
+        long startTime = Math.floorMod(localStart, MILLIS_PER_DAY);
+        long endTime = Math.floorMod(localEnd, MILLIS_PER_DAY);
+        if (endDay > startDay && endTime < startTime) {
+            endDay--;
+        } else if (endDay < startDay && endTime > startTime) {
+            endDay++;
+        }
+        switch (unit) {
+            case DAYS:
+                return endDay - startDay;
+            case WEEKS:
+                return (endDay - startDay) / 7;
+            case MONTHS:
+                return monthsUntil(startDay, endDay);
+            case YEARS:
+                return monthsUntil(startDay, endDay) / 12;
+            case DECADES:
+                return monthsUntil(startDay, endDay) / 120;
+            case CENTURIES:
+                return monthsUntil(startDay, endDay) / 1200;
+            case MILLENNIA:
+                return monthsUntil(startDay, endDay) / 12000;
+            case ERAS:
+                return era(endDay) - era(startDay);
+            default:
+                throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+        }
+    }
+
+    /**
+     * 与 LocalDate.until(end, MONTHS) 相同，不足一个月的部分按日期比较截断
+     */
+    private static long monthsUntil(long startDay, long endDay) {
+        return (packedMonthDay(endDay) - packedMonthDay(startDay)) / 32;
+    }
+
+    private static long era(long epochDay) {
+        return Math.floorDiv(Math.floorDiv(packedMonthDay(epochDay), 32), 12) >= 1 ? 1 : 0;
+    }
+
+    /**
+     * 与 Period.between 相同的算法，结果写入下标 i
+     */
+    private static void period(long startDay, long endDay, int[] years, int[] months, int[] days, int i) {
+        long startPacked = packedMonthDay(startDay);
+        long endPacked = packedMonthDay(endDay);
+        long startMonth = Math.floorDiv(startPacked, 32);
+        long endMonth = Math.floorDiv(endPacked, 32);
+        int startDom = (int) Math.floorMod(startPacked, 32);
+        long totalMonths = endMonth - startMonth;
+        long dayDiff = Math.floorMod(endPacked, 32) - startDom;
+        if (totalMonths > 0 && dayDiff < 0) {
+            totalMonths--;
+            // start 加上 totalMonths 个月，日期超过月末时取月末
+            long month = startMonth + totalMonths;
+            long year = Math.floorDiv(month, 12);
+            int monthOfYear = (int) Math.floorMod(month, 12) + 1;
+            dayDiff = endDay - epochDay(year, monthOfYear, Math.min(startDom, lengthOfMonth(year, monthOfYear)));
+        } else if (totalMonths < 0 && dayDiff > 0) {
+            totalMonths++;
+            dayDiff -= lengthOfMonth(Math.floorDiv(endMonth, 12), (int) Math.floorMod(endMonth, 12) + 1);
+        }
+        years[i] = Math.toIntExact(totalMonths / 12);
+        months[i] = (int) (totalMonths % 12);
+        days[i] = (int) dayDiff;
+    }
+
+    /**
+     * epochDay 对应的 (年 * 12 + 月 - 1) * 32 + 日，与 LocalDate.until 中的写法相同，两者相减除以32即为相差的月数
+     */
+    static long packedMonthDay(long epochDay) {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_400_YEARS);
+        long dayOfEra = z - era * DAYS_PER_400_YEARS;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        // 以3月为0
+        long marchMonth = (5 * dayOfYear + 2) / 153;
+        long dayOfMonth = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        long month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year * 12 + month - 1) * 32 + dayOfMonth;
+    }
+
+    static long epochDay(long year, int month, int dayOfMonth) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final BulkBetween between;
+        private final long[] start;
+        private final long[] end;
+        /**
+         * 为 null 时计算 Period
+         */
+        private final ChronoUnit unit;
+        private final long[] out;
+        private final int[] years;
+        private final int[] months;
+        private final int[] days;
+        private final int from;
+        private final int to;
+
+        Task(BulkBetween between, long[] start, long[] end, ChronoUnit unit, long[] out, int[] years, int[] months,
+             int[] days, int from, int to) {
+            this.between = between;
+            this.start = start;
+            this.end = end;
+            this.unit = unit;
+            this.out = out;
+            this.years = years;
+            this.months = months;
+            this.days = days;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_CHUNK || !inForkJoinPool()) {
+                between.compute(start, end, unit, out, years, months, days, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(between, start, end, unit, out, years, months, days, from, mid),
+                    new Task(between, start, end, unit, out, years, months, days, mid, to));
+        }
+    }
+}
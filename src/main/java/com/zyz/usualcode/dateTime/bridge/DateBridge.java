@@ -0,0 +1,218 @@
+package com.zyz.usualcode.dateTime.bridge;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * java.util.Date、java.sql.Timestamp、毫秒时间戳与 java.time 类型之间的转换
+ * <p>
+ * CommonUse 中的写法 {@code Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant())}
+ * 每次都要查一遍时区规则，还会创建 ZonedDateTime、Instant 两个中间对象。
+ * 这里缓存最近一段偏移量不变的区间（两次时区切换之间，东八区从1991年至今都是同一段），
+ * 区间内只做整数运算，除了结果对象本身不再创建其他对象；
+ * 区间外、夏令时切换前后有歧义的本地时间走 jdk 的实现，结果与 atZone 一致。
+ * <p>
+ * 另外 {@code java.sql.Date.toInstant()} 会抛 UnsupportedOperationException，
+ * 这里统一用 getTime() 取时间戳，Timestamp 保留纳秒。
+ * <p>
+ * 线程安全，同一时区建议通过 {@link #of(ZoneId)} 复用
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+public final class DateBridge {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private static final ConcurrentMap<ZoneId, DateBridge> BRIDGES = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+
+    /**
+     * 最近一次使用的区间，不可变对象整体替换
+     */
+    private volatile Span span;
+
+    private DateBridge(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * 取指定时区的转换器，每个时区只创建一次
+     */
+    public static DateBridge of(ZoneId zone) {
+        DateBridge bridge = BRIDGES.get(zone);
+        return bridge != null ? bridge : BRIDGES.computeIfAbsent(zone, DateBridge::new);
+    }
+
+    public static DateBridge systemDefault() {
+        return of(ZoneId.systemDefault());
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // ------------------------------------------------------------------ 转为时间戳
+
+    /**
+     * 与 {@code dateTime.atZone(zone).toInstant().toEpochMilli()} 相同，毫秒以下截断
+     */
+    public long toEpochMilli(LocalDateTime dateTime) {
+        // 超出 long 能表示的时间戳时抛 ArithmeticException，与 jdk 一致
+        long localMillis = Math.multiplyExact(dateTime.toLocalDate().toEpochDay(), MILLIS_PER_DAY)
+                + dateTime.toLocalTime().toSecondOfDay() * 1000L + dateTime.getNano() / NANOS_PER_MILLI;
+        Span s = span;
+        if (s != null && localMillis >= s.localFrom && localMillis < s.localTo) {
+            return localMillis - s.offsetMillis;
+        }
+        long epochMilli = dateTime.atZone(zone).toInstant().toEpochMilli();
+        span(epochMilli);
+        return epochMilli;
+    }
+
+    /**
+     * 当天零点
+     */
+    public long toEpochMilli(LocalDate date) {
+        long localMillis = Math.multiplyExact(date.toEpochDay(), MILLIS_PER_DAY);
+        Span s = span;
+        if (s != null && localMillis >= s.localFrom && localMillis < s.localTo) {
+            return localMillis - s.offsetMillis;
+        }
+        long epochMilli = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        span(epochMilli);
+        return epochMilli;
+    }
+
+    // ------------------------------------------------------------------ 从时间戳转换
+
+    /**
+     * 与 {@code LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone)} 相同
+     */
+    public LocalDateTime toLocalDateTime(long epochMilli) {
+        return toLocalDateTime(epochMilli, (int) Math.floorMod(epochMilli, 1000L) * NANOS_PER_MILLI);
+    }
+
+    public LocalDateTime toLocalDateTime(Date date) {
+        if (date instanceof Timestamp) {
+            return toLocalDateTime(date.getTime(), ((Timestamp) date).getNanos());
+        }
+        return toLocalDateTime(date.getTime());
+    }
+
+    public LocalDateTime toLocalDateTime(Instant instant) {
+        return toLocalDateTime(instant.toEpochMilli(), instant.getNano());
+    }
+
+    public LocalDate toLocalDate(long epochMilli) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMilli + span(epochMilli).offsetMillis, MILLIS_PER_DAY));
+    }
+
+    public LocalDate toLocalDate(Date date) {
+        return toLocalDate(date.getTime());
+    }
+
+    /**
+     * 与 {@code Date.from(dateTime.atZone(zone).toInstant())} 相同
+     */
+    public Date toDate(LocalDateTime dateTime) {
+        return new Date(toEpochMilli(dateTime));
+    }
+
+    public Date toDate(LocalDate date) {
+        return new Date(toEpochMilli(date));
+    }
+
+    /**
+     * 保留纳秒，与 {@code dateTime.atZone(zone).toInstant()} 相同
+     */
+    public Instant toInstant(LocalDateTime dateTime) {
+        return Instant.ofEpochSecond(Math.floorDiv(toEpochMilli(dateTime), 1000L), dateTime.getNano());
+    }
+
+    /**
+     * 保留纳秒，与 {@code Timestamp.from(dateTime.atZone(zone).toInstant())} 相同
+     */
+    public Timestamp toTimestamp(LocalDateTime dateTime) {
+        Timestamp timestamp = new Timestamp(toEpochMilli(dateTime));
+        timestamp.setNanos(dateTime.getNano());
+        return timestamp;
+    }
+
+    /**
+     * @param nano 秒以下的纳秒数，epochMilli 中的毫秒部分被它覆盖
+     */
+    private LocalDateTime toLocalDateTime(long epochMilli, int nano) {
+        long localMillis = epochMilli + span(epochMilli).offsetMillis;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000L), nano, ZoneOffset.UTC);
+    }
+
+    private Span span(long epochMilli) {
+        Span s = span;
+        if (s != null && epochMilli >= s.from && epochMilli < s.to) {
+            return s;
+        }
+        s = Span.compute(rules, epochMilli);
+        span = s;
+        return s;
+    }
+
+    /**
+     * 两次时区切换之间偏移量不变的区间 [from, to)
+     */
+    private static final class Span {
+        final long from;
+        final long to;
+        final int offsetMillis;
+        /**
+         * 可以直接减去偏移量的本地时间范围，排除了切换前后不存在或有歧义的时段
+         */
+        final long localFrom;
+        final long localTo;
+
+        private Span(long from, long to, int offsetMillis, long localFrom, long localTo) {
+            this.from = from;
+            this.to = to;
+            this.offsetMillis = offsetMillis;
+            this.localFrom = localFrom;
+            this.localTo = localTo;
+        }
+
+        static Span compute(ZoneRules rules, long epochMilli) {
+            Instant instant = Instant.ofEpochMilli(epochMilli);
+            int offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+            long localFrom = Long.MIN_VALUE;
+            long localTo = Long.MAX_VALUE;
+            // previousTransition 取严格早于参数的切换点，+1ms 使得恰好在切换点上时也能取到
+            ZoneOffsetTransition previous = rules.previousTransition(Instant.ofEpochMilli(epochMilli + 1));
+            if (previous != null) {
+                from = previous.toEpochSecond() * 1000;
+                // 切换点之后的本地时间：跳过的时段不存在，重叠的时段 atZone 取切换前的偏移量，都要排除
+                localFrom = from + Math.max(previous.getOffsetBefore().getTotalSeconds(),
+                        previous.getOffsetAfter().getTotalSeconds()) * 1000L;
+            }
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            if (next != null) {
+                to = next.toEpochSecond() * 1000;
+                // 下一次切换前重叠的时段 atZone 取的正是当前偏移量，不用排除
+                localTo = to + offsetMillis;
+            }
+            return new Span(from, to, offsetMillis, localFrom, localTo);
+        }
+    }
+}
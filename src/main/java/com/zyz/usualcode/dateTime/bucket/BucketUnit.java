@@ -0,0 +1,26 @@
+package com.zyz.usualcode.dateTime.bucket;
+
+/**
+ * 时间分桶的粒度，桶的起点都是当地时间的零点
+ *
+ * @author 张远卓
+ * @date 2026/10/17 13:20
+ */
+public enum BucketUnit {
+    /**
+     * 当天零点
+     */
+    DAY,
+    /**
+     * ISO 周，即本周一零点
+     */
+    WEEK,
+    /**
+     * 本月第一天零点
+     */
+    MONTH,
+    /**
+     * 本年第一天零点
+     */
+    YEAR
+}
@@ -0,0 +1,317 @@
+package com.zyz.usualcode.dateTime.bucket;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 批量把毫秒时间戳归到 天、周、月、年 的起点（当地零点对应的时间戳）
+ * <p>
+ * 按时区预先算出 [fromYear, toYear] 内每一天零点的时间戳，以及每一天所在周、月、年的起点，
+ * 归桶时先用偏移量估算是第几天，再和相邻两天的零点比较修正，最后查表，不创建任何 LocalDate 对象。
+ * 夏令时、零点不存在的日子都以 LocalDate.atStartOfDay(zone) 为准。超出预计算范围的时间戳退回 java.time 计算
+ * <p>
+ * 不可变，线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 13:25
+ */
+public final class TimeBuckets {
+
+    public static final int DEFAULT_FROM_YEAR = 1970;
+    public static final int DEFAULT_TO_YEAR = 2100;
+
+    /**
+     * 超过这个长度才拆分成并行任务
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 表的开头多留一周，保证第一年年初那几天也能查到所在周的周一
+     */
+    private static final int PADDING_DAYS = 7;
+
+    private static final ConcurrentMap<ZoneId, TimeBuckets> DEFAULTS = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final long baseEpochDay;
+    /**
+     * dayStart[i] 是第 baseEpochDay + i 天零点的时间戳，多一个元素作为最后一天的结束
+     */
+    private final long[] dayStart;
+    private final long[] weekStart;
+    private final long[] monthStart;
+    private final long[] yearStart;
+    /**
+     * 预计算范围 [minMillis, maxMillis)
+     */
+    private final long minMillis;
+    private final long maxMillis;
+    /**
+     * 估算天数时使用的偏移量
+     */
+    private final long guessOffsetMillis;
+
+    private TimeBuckets(ZoneId zone, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear > toYear: " + fromYear + " > " + toYear);
+        }
+        this.zone = zone;
+        LocalDate first = LocalDate.of(fromYear, 1, 1);
+        LocalDate start = first.minusDays(PADDING_DAYS);
+        LocalDate end = LocalDate.of(toYear + 1, 1, 1);
+        this.baseEpochDay = start.toEpochDay();
+        int days = (int) (end.toEpochDay() - baseEpochDay);
+
+        dayStart = new long[days + 1];
+        weekStart = new long[days];
+        monthStart = new long[days];
+        yearStart = new long[days];
+        LocalDate date = start;
+        for (int i = 0; i <= days; i++, date = date.plusDays(1)) {
+            dayStart[i] = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        date = start;
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            int mondayIndex = i - (date.getDayOfWeek().getValue() - 1);
+            weekStart[i] = mondayIndex >= 0 ? dayStart[mondayIndex]
+                    : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(zone).toInstant().toEpochMilli();
+            int firstOfMonthIndex = i - (date.getDayOfMonth() - 1);
+            monthStart[i] = firstOfMonthIndex >= 0 ? dayStart[firstOfMonthIndex]
+                    : date.withDayOfMonth(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            int firstOfYearIndex = i - (date.getDayOfYear() - 1);
+            yearStart[i] = firstOfYearIndex >= 0 ? dayStart[firstOfYearIndex]
+                    : date.withDayOfYear(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        this.minMillis = dayStart[PADDING_DAYS];
+        this.maxMillis = dayStart[days];
+        this.guessOffsetMillis = zone.getRules().getOffset(Instant.ofEpochMilli(minMillis)).getTotalSeconds() * 1000L;
+    }
+
+    /**
+     * 默认预计算 1970-2100 年，每个时区只创建一次
+     */
+    public static TimeBuckets of(ZoneId zone) {
+        TimeBuckets buckets = DEFAULTS.get(zone);
+        return buckets != null ? buckets
+                : DEFAULTS.computeIfAbsent(zone, z -> new TimeBuckets(z, DEFAULT_FROM_YEAR, DEFAULT_TO_YEAR));
+    }
+
+    /**
+     * 指定预计算的年份范围（包含两端），每天占用约32字节
+     */
+    public static TimeBuckets of(ZoneId zone, int fromYear, int toYear) {
+        return new TimeBuckets(zone, fromYear, toYear);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 单个时间戳所在桶的起点
+     */
+    public long bucket(long epochMilli, BucketUnit unit) {
+        if (epochMilli < minMillis || epochMilli >= maxMillis) {
+            return slowBucket(epochMilli, unit);
+        }
+        return table(unit)[index(epochMilli)];
+    }
+
+    /**
+     * 批量归桶，out 可以就是 in
+     */
+    public void bucket(long[] in, long[] out, BucketUnit unit) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("out.length < in.length: " + out.length + " < " + in.length);
+        }
+        bucket(in, 0, out, 0, in.length, unit);
+    }
+
+    /**
+     * 批量归桶，处理 in[inOffset, inOffset + length) 写入 out[outOffset, outOffset + length)
+     */
+    public void bucket(long[] in, int inOffset, long[] out, int outOffset, int length, BucketUnit unit) {
+        long[] table = table(unit);
+        long min = minMillis;
+        long max = maxMillis;
+        for (int i = 0; i < length; i++) {
+            long epochMilli = in[inOffset + i];
+            out[outOffset + i] = epochMilli >= min && epochMilli < max ? table[index(epochMilli)]
+                    : slowBucket(epochMilli, unit);
+        }
+    }
+
+    /**
+     * 大数组使用 ForkJoin 公共池并行归桶
+     */
+    public void parallelBucket(long[] in, long[] out, BucketUnit unit) {
+        parallelBucket(in, out, unit, ForkJoinPool.commonPool());
+    }
+
+    public void parallelBucket(long[] in, long[] out, BucketUnit unit, ForkJoinPool pool) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("out.length < in.length: " + out.length + " < " + in.length);
+        }
+        if (in.length <= PARALLEL_THRESHOLD) {
+            bucket(in, 0, out, 0, in.length, unit);
+            return;
+        }
+        pool.invoke(new BucketTask(in, out, 0, in.length, unit));
+    }
+
+    /**
+     * [from, to) 之间所有桶的起点，按时间升序，第一个元素是 from 所在的桶
+     * 用来代替 Stream.iterate(YearMonth.now(), ...) 这类装箱的区间生成
+     */
+    public long[] bucketStarts(long from, long to, BucketUnit unit) {
+        if (from >= to) {
+            return new long[0];
+        }
+        long[] starts = new long[16];
+        int size = 0;
+        long current = bucket(from, unit);
+        while (current < to) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+            starts[size++] = current;
+            current = nextBucket(current, unit);
+        }
+        return Arrays.copyOf(starts, size);
+    }
+
+    /**
+     * 预计算范围 [from, to) 的毫秒时间戳
+     */
+    public long getMinMillis() {
+        return minMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    private long nextBucket(long bucketStart, BucketUnit unit) {
+        if (bucketStart >= minMillis && bucketStart < maxMillis) {
+            int i = index(bucketStart);
+            switch (unit) {
+                case DAY:
+                    return dayStart[i + 1];
+                case WEEK:
+                    return i + 7 < dayStart.length ? dayStart[i + 7] : slowNext(bucketStart, unit);
+                default:
+                    break;
+            }
+        }
+        return slowNext(bucketStart, unit);
+    }
+
+    private long slowNext(long bucketStart, BucketUnit unit) {
+        LocalDate date = Instant.ofEpochMilli(bucketStart).atZone(zone).toLocalDate();
+        switch (unit) {
+            case DAY:
+                date = date.plusDays(1);
+                break;
+            case WEEK:
+                date = date.plusWeeks(1);
+                break;
+            case MONTH:
+                date = date.plusMonths(1);
+                break;
+            default:
+                date = date.plusYears(1);
+                break;
+        }
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 调用方保证 minMillis <= epochMilli < maxMillis
+     */
+    private int index(long epochMilli) {
+        int i = (int) (Math.floorDiv(epochMilli + guessOffsetMillis, MILLIS_PER_DAY) - baseEpochDay);
+        // 估算的偏移量与实际最多差一两天，向前向后修正
+        int last = dayStart.length - 2;
+        if (i > last) {
+            i = last;
+        } else if (i < 0) {
+            i = 0;
+        }
+        while (dayStart[i] > epochMilli) {
+            i--;
+        }
+        while (dayStart[i + 1] <= epochMilli) {
+            i++;
+        }
+        return i;
+    }
+
+    private long[] table(BucketUnit unit) {
+        switch (unit) {
+            case DAY:
+                return dayStart;
+            case WEEK:
+                return weekStart;
+            case MONTH:
+                return monthStart;
+            case YEAR:
+                return yearStart;
+            default:
+                throw new IllegalArgumentException("unsupported unit: " + unit);
+        }
+    }
+
+    private long slowBucket(long epochMilli, BucketUnit unit) {
+        LocalDate date = Instant.ofEpochMilli(epochMilli).atZone(zone).toLocalDate();
+        switch (unit) {
+            case WEEK:
+                date = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                break;
+            case MONTH:
+                date = date.withDayOfMonth(1);
+                break;
+            case YEAR:
+                date = date.withDayOfYear(1);
+                break;
+            default:
+                break;
+        }
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private final class BucketTask extends RecursiveAction {
+        private final long[] in;
+        private final long[] out;
+        private final int from;
+        private final int to;
+        private final BucketUnit unit;
+
+        BucketTask(long[] in, long[] out, int from, int to, BucketUnit unit) {
+            this.in = in;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.unit = unit;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                bucket(in, from, out, from, to - from, unit);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BucketTask(in, out, from, mid, unit), new BucketTask(in, out, mid, to, unit));
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.zyz.usualcode.dateTime.calendar;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjuster;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 工作日日历，用于结算中的 "T+3个工作日"、"当月最后一个工作日" 等计算
+ * <p>
+ * 构建时把年份范围内的每一天展开成位图（1为工作日），每64天一个 long，并记录每个 long 之前的工作日数，
+ * 再按顺序记录每个工作日的位置：
+ * <ul>
+ *     <li>某天之前有几个工作日：前缀计数 + 一次 Long.bitCount</li>
+ *     <li>第 k 个工作日是哪天：直接取下标</li>
+ * </ul>
+ * 所以加减 N 个工作日、两个日期之间的工作日数都是常数时间，与 N 的大小无关。
+ * 200年的日历约9KB位图和200KB工作日下标。
+ * <p>
+ * 用法与 CommonUse 中的 TemporalAdjusters 相同，如 {@code date.with(calendar.plusBusinessDays(3))}，
+ * 调整 LocalDateTime、ZonedDateTime 时保留时间部分。
+ * 结果超出年份范围时抛出 DateTimeException。
+ * <p>
+ * 构建后不可变，线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/18 14:30
+ */
+public final class BusinessCalendar {
+
+    private final int fromYear;
+    private final int toYear;
+    /**
+     * fromYear 年1月1日的 epochDay，位图的第0位
+     */
+    private final long firstDay;
+    private final int dayCount;
+    /**
+     * 多一个 long，计算范围末尾之后一天的前缀计数时不越界
+     */
+    private final long[] bits;
+    /**
+     * bits[w] 之前的工作日数
+     */
+    private final int[] wordRanks;
+    /**
+     * 第 k 个工作日在位图中的位置
+     */
+    private final int[] businessDays;
+
+    private final TemporalAdjuster nextBusinessDay = plusBusinessDays(1);
+    private final TemporalAdjuster previousBusinessDay = plusBusinessDays(-1);
+    private final TemporalAdjuster nextOrSameBusinessDay = plusBusinessDays(0);
+    private final TemporalAdjuster previousOrSameBusinessDay = temporal -> {
+        long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+        return isBusinessDay(epochDay) ? temporal : with(temporal, addBusinessDays(epochDay, -1));
+    };
+    private final TemporalAdjuster firstBusinessDayInMonth = temporal -> {
+        long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+        long monthStart = epochDay - temporal.get(ChronoField.DAY_OF_MONTH) + 1;
+        return with(temporal, select(rank(bound(monthStart))));
+    };
+    private final TemporalAdjuster lastBusinessDayInMonth = temporal -> {
+        long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+        long nextMonthStart = epochDay - temporal.get(ChronoField.DAY_OF_MONTH) + 1
+                + temporal.range(ChronoField.DAY_OF_MONTH).getMaximum();
+        return with(temporal, select(rank(bound(nextMonthStart)) - 1));
+    };
+
+    private BusinessCalendar(Builder builder) {
+        this.fromYear = builder.fromYear;
+        this.toYear = builder.toYear;
+        this.firstDay = LocalDate.of(fromYear, 1, 1).toEpochDay();
+        this.dayCount = (int) (LocalDate.of(toYear + 1, 1, 1).toEpochDay() - firstDay);
+        this.bits = new long[(dayCount >>> 6) + 1];
+        for (int i = 0; i < dayCount; i++) {
+            // 1970-01-01 是星期四
+            DayOfWeek dayOfWeek = DayOfWeek.of((int) Math.floorMod(firstDay + i + 3, 7L) + 1);
+            if (!builder.weekend.contains(dayOfWeek)) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        for (Map.Entry<LocalDate, Boolean> entry : builder.overrides.entrySet()) {
+            long index = entry.getKey().toEpochDay() - firstDay;
+            if (index < 0 || index >= dayCount) {
+                continue;
+            }
+            if (entry.getValue()) {
+                bits[(int) index >>> 6] |= 1L << index;
+            } else {
+                bits[(int) index >>> 6] &= ~(1L << index);
+            }
+        }
+        this.wordRanks = new int[bits.length + 1];
+        for (int w = 0; w < bits.length; w++) {
+            wordRanks[w + 1] = wordRanks[w] + Long.bitCount(bits[w]);
+        }
+        this.businessDays = new int[wordRanks[bits.length]];
+        int k = 0;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                businessDays[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+    }
+
+    /**
+     * @param fromYear 第一个年份
+     * @param toYear   最后一个年份（包含）
+     */
+    public static Builder builder(int fromYear, int toYear) {
+        return new Builder(fromYear, toYear);
+    }
+
+    /**
+     * 周六周日休息，加上文件中的节假日和调休，文件格式见 {@link Builder#load(Path)}
+     */
+    public static BusinessCalendar load(Path file, int fromYear, int toYear) throws IOException {
+        return builder(fromYear, toYear).load(file).build();
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * 年份范围内的工作日总数
+     */
+    public int getBusinessDayCount() {
+        return businessDays.length;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    public boolean isBusinessDay(long epochDay) {
+        int index = index(epochDay);
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * [start, end) 之间的工作日数，end 在前时为负数，与 ChronoUnit.DAYS.between 的方向一致
+     */
+    public int businessDaysBetween(LocalDate start, LocalDate end) {
+        return businessDaysBetween(start.toEpochDay(), end.toEpochDay());
+    }
+
+    public int businessDaysBetween(long startEpochDay, long endEpochDay) {
+        return rank(bound(endEpochDay)) - rank(bound(startEpochDay));
+    }
+
+    /**
+     * 加减 n 个工作日，返回 epochDay：
+     * <ul>
+     *     <li>n &gt; 0：之后的第 n 个工作日，不计当天，周六加1个工作日是周一</li>
+     *     <li>n &lt; 0：之前的第 -n 个工作日，不计当天</li>
+     *     <li>n = 0：当天是工作日时为当天，否则为之后第一个工作日</li>
+     * </ul>
+     */
+    public long addBusinessDays(long epochDay, int n) {
+        int index = index(epochDay);
+        int rank = rank(index);
+        if (n > 0) {
+            boolean businessDay = (bits[index >>> 6] & 1L << index) != 0;
+            return select((long) rank + (businessDay ? 1 : 0) + n - 1);
+        }
+        return select((long) rank + n);
+    }
+
+    public LocalDate addBusinessDays(LocalDate date, int n) {
+        return LocalDate.ofEpochDay(addBusinessDays(date.toEpochDay(), n));
+    }
+
+    /**
+     * 加减 n 个工作日，规则见 {@link #addBusinessDays(long, int)}
+     */
+    public TemporalAdjuster plusBusinessDays(int n) {
+        return temporal -> with(temporal, addBusinessDays(temporal.getLong(ChronoField.EPOCH_DAY), n));
+    }
+
+    /**
+     * 下一个工作日，不含当天
+     */
+    public TemporalAdjuster nextBusinessDay() {
+        return nextBusinessDay;
+    }
+
+    /**
+     * 下一个工作日，可以是当天
+     */
+    public TemporalAdjuster nextOrSameBusinessDay() {
+        return nextOrSameBusinessDay;
+    }
+
+    /**
+     * 上一个工作日，不含当天
+     */
+    public TemporalAdjuster previousBusinessDay() {
+        return previousBusinessDay;
+    }
+
+    /**
+     * 上一个工作日，可以是当天
+     */
+    public TemporalAdjuster previousOrSameBusinessDay() {
+        return previousOrSameBusinessDay;
+    }
+
+    /**
+     * 当月第一个工作日，当月没有工作日时为之后第一个工作日
+     */
+    public TemporalAdjuster firstBusinessDayInMonth() {
+        return firstBusinessDayInMonth;
+    }
+
+    /**
+     * 当月最后一个工作日，当月没有工作日时为之前最后一个工作日
+     */
+    public TemporalAdjuster lastBusinessDayInMonth() {
+        return lastBusinessDayInMonth;
+    }
+
+    private static Temporal with(Temporal temporal, long epochDay) {
+        return temporal.with(ChronoField.EPOCH_DAY, epochDay);
+    }
+
+    /**
+     * 位图中 [0, index) 的工作日数
+     */
+    private int rank(int index) {
+        return wordRanks[index >>> 6] + Long.bitCount(bits[index >>> 6] & ((1L << index) - 1));
+    }
+
+    private long select(long k) {
+        if (k < 0 || k >= businessDays.length) {
+            throw new DateTimeException("result outside business calendar " + fromYear + ".." + toYear);
+        }
+        return firstDay + businessDays[(int) k];
+    }
+
+    private int index(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= dayCount) {
+            throw outside(epochDay);
+        }
+        return (int) index;
+    }
+
+    /**
+     * 与 index 相同，但允许范围末尾之后的一天，作为左闭右开区间的右端
+     */
+    private int bound(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index > dayCount) {
+            throw outside(epochDay);
+        }
+        return (int) index;
+    }
+
+    private DateTimeException outside(long epochDay) {
+        return new DateTimeException(LocalDate.ofEpochDay(epochDay) + " outside business calendar "
+                + fromYear + ".." + toYear);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessCalendar[" + fromYear + ".." + toYear + ", " + businessDays.length + " business days]";
+    }
+
+    public static final class Builder {
+        private final int fromYear;
+        private final int toYear;
+        private final Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        /**
+         * true 为调休上班，false 为节假日，同一天以最后一次设置为准
+         */
+        private final Map<LocalDate, Boolean> overrides = new HashMap<>();
+
+        private Builder(int fromYear, int toYear) {
+            if (fromYear < 1 || toYear > 9999 || fromYear > toYear) {
+                throw new IllegalArgumentException("illegal year range: " + fromYear + ".." + toYear);
+            }
+            this.fromYear = fromYear;
+            this.toYear = toYear;
+        }
+
+        /**
+         * 每周休息的日子，默认周六、周日
+         */
+        public Builder weekend(DayOfWeek... days) {
+            weekend.clear();
+            for (DayOfWeek day : days) {
+                weekend.add(day);
+            }
+            return this;
+        }
+
+        /**
+         * 节假日，年份范围外的忽略
+         */
+        public Builder holiday(LocalDate date) {
+            overrides.put(date, Boolean.FALSE);
+            return this;
+        }
+
+        /**
+         * [from, to] 都是节假日
+         */
+        public Builder holidays(LocalDate from, LocalDate to) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                holiday(date);
+            }
+            return this;
+        }
+
+        /**
+         * 调休上班的周末
+         */
+        public Builder workday(LocalDate date) {
+            overrides.put(date, Boolean.TRUE);
+            return this;
+        }
+
+        /**
+         * 从文件读取节假日，UTF-8，每行一项：
+         * <pre>
+         * # 国庆节，'#' 之后是注释
+         * 2020-10-01..2020-10-08
+         * # 调休上班，以 '+' 开头
+         * +2020-10-10
+         * 2021-01-01
+         * </pre>
+         *
+         * @throws IllegalArgumentException 格式不正确，消息中带行号
+         */
+        public Builder load(Path file) throws IOException {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                int comment = line.indexOf('#');
+                line = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (line.charAt(0) == '+') {
+                        workday(LocalDate.parse(line.substring(1).trim()));
+                    } else {
+                        int range = line.indexOf("..");
+                        if (range < 0) {
+                            holiday(LocalDate.parse(line));
+                        } else {
+                            holidays(LocalDate.parse(line.substring(0, range).trim()),
+                                    LocalDate.parse(line.substring(range + 2).trim()));
+                        }
+                    }
+                } catch (DateTimeParseException ex) {
+                    throw new IllegalArgumentException(file + " line " + (i + 1) + ": " + lines.get(i), ex);
+                }
+            }
+            return this;
+        }
+
+        public BusinessCalendar build() {
+            return new BusinessCalendar(this);
+        }
+    }
+}
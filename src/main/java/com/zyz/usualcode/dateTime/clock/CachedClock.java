@@ -0,0 +1,284 @@
+package com.zyz.usualcode.dateTime.clock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 粗粒度的缓存时钟
+ * <p>
+ * 由后台线程按固定精度（如1毫秒、1秒）刷新当前时间，读取时只是一次 volatile 读，不再每次访问系统时钟、解析默认时区。
+ * 同时缓存 今天、本月第一天、本月最后一天 等常用值，只有跨过零点时才重新计算。
+ * 手动模式（{@link #manual(Instant, ZoneId)}）没有后台线程，时间完全由调用方控制，适合测试
+ *
+ * @author 张远卓
+ * @date 2026/10/17 14:10
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final Clock source;
+    private final ZoneId zone;
+    private final ScheduledExecutorService ticker;
+    private final ScheduledFuture<?> tickFuture;
+
+    private volatile long millis;
+    private volatile Day day;
+
+    private CachedClock(Clock source, ZoneId zone, long initialMillis, Duration resolution) {
+        this.source = source;
+        this.zone = Objects.requireNonNull(zone, "zone");
+        this.day = Day.of(initialMillis, zone);
+        this.millis = initialMillis;
+        if (resolution == null) {
+            this.ticker = null;
+            this.tickFuture = null;
+        } else {
+            if (resolution.isNegative() || resolution.isZero()) {
+                throw new IllegalArgumentException("resolution must be positive: " + resolution);
+            }
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "cached-clock-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long nanos = resolution.toNanos();
+            this.tickFuture = ticker.scheduleAtFixedRate(this::tick, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 系统默认时区，按 resolution 刷新
+     */
+    public static CachedClock systemDefaultZone(Duration resolution) {
+        return of(Clock.systemDefaultZone(), resolution);
+    }
+
+    /**
+     * 以 source 为时间源，按 resolution 刷新
+     */
+    public static CachedClock of(Clock source, Duration resolution) {
+        return new CachedClock(source, source.getZone(), source.millis(), Objects.requireNonNull(resolution));
+    }
+
+    /**
+     * 手动模式，只能通过 {@link #set(Instant)}、{@link #advance(Duration)} 改变时间
+     */
+    public static CachedClock manual(Instant start, ZoneId zone) {
+        return new CachedClock(null, zone, start.toEpochMilli(), null);
+    }
+
+    /**
+     * 从时间源读取一次当前时间，后台线程按精度调用，也可以手动调用
+     */
+    public void tick() {
+        if (source != null) {
+            update(source.millis());
+        }
+    }
+
+    /**
+     * 手动模式下设置当前时间
+     */
+    public void set(Instant instant) {
+        checkManual();
+        update(instant.toEpochMilli());
+    }
+
+    /**
+     * 手动模式下推进时间
+     */
+    public void advance(Duration duration) {
+        checkManual();
+        update(millis + duration.toMillis());
+    }
+
+    private void checkManual() {
+        if (source != null) {
+            throw new IllegalStateException("clock is driven by " + source);
+        }
+    }
+
+    private void update(long now) {
+        Day current = day;
+        if (now < current.startMillis || now >= current.endMillis) {
+            day = Day.of(now, zone);
+        }
+        millis = now;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 返回共享同一个时间的其他时区视图，视图上的 today 等值不做缓存
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (this.zone.equals(zone)) {
+            return this;
+        }
+        return new ZoneView(this, zone);
+    }
+
+    /**
+     * 今天
+     */
+    public LocalDate today() {
+        return currentDay().today;
+    }
+
+    /**
+     * 本月第一天
+     */
+    public LocalDate firstDayOfMonth() {
+        return currentDay().firstDayOfMonth;
+    }
+
+    /**
+     * 本月最后一天
+     */
+    public LocalDate lastDayOfMonth() {
+        return currentDay().lastDayOfMonth;
+    }
+
+    /**
+     * 本月第一天的开始时间
+     */
+    public LocalDateTime startOfMonth() {
+        return currentDay().startOfMonth;
+    }
+
+    /**
+     * 本月最后一天的结束时间
+     */
+    public LocalDateTime endOfMonth() {
+        return currentDay().endOfMonth;
+    }
+
+    /**
+     * 今天零点的时间戳
+     */
+    public long startOfDayMillis() {
+        return currentDay().startMillis;
+    }
+
+    /**
+     * millis 与 day 分别写入，读的时候以 millis 为准校验一次，避免读到刚跨天时旧的缓存
+     */
+    private Day currentDay() {
+        Day current = day;
+        long now = millis;
+        if (now < current.startMillis || now >= current.endMillis) {
+            current = Day.of(now, zone);
+        }
+        return current;
+    }
+
+    /**
+     * 停止后台刷新线程
+     */
+    @Override
+    public void close() {
+        if (ticker != null) {
+            tickFuture.cancel(false);
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock[" + zone + (source == null ? ",manual" : "," + source) + "]";
+    }
+
+    /**
+     * 某一天的缓存值，不可变
+     */
+    private static final class Day {
+        final long startMillis;
+        final long endMillis;
+        final LocalDate today;
+        final LocalDate firstDayOfMonth;
+        final LocalDate lastDayOfMonth;
+        final LocalDateTime startOfMonth;
+        final LocalDateTime endOfMonth;
+
+        private Day(LocalDate today, ZoneId zone) {
+            this.today = today;
+            this.startMillis = today.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.endMillis = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            this.firstDayOfMonth = today.with(TemporalAdjusters.firstDayOfMonth());
+            this.lastDayOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
+            this.startOfMonth = LocalDateTime.of(firstDayOfMonth, LocalTime.MIN);
+            this.endOfMonth = LocalDateTime.of(lastDayOfMonth, LocalTime.MAX);
+        }
+
+        static Day of(long epochMilli, ZoneId zone) {
+            return new Day(Instant.ofEpochMilli(epochMilli).atZone(zone).toLocalDate(), zone);
+        }
+    }
+
+    private static final class ZoneView extends Clock {
+        private final CachedClock clock;
+        private final ZoneId zone;
+
+        ZoneView(CachedClock clock, ZoneId zone) {
+            this.clock = clock;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return clock.withZone(zone);
+        }
+
+        @Override
+        public long millis() {
+            return clock.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.zyz.usualcode.dateTime.format;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+
+/**
+ * 批量转换日期字符串，逐个解析后输出为 ISO 字符串或毫秒时间戳
+ * <p>
+ * 先交给 {@link MixedDateParser} 按形状解析（ISO 日期和日期时间、yyyyMMdd、毫秒时间戳、MM dd yyyy、
+ * 12小时制、中文年月日等），不抛异常也不试探其他格式；形状不认识的再依次尝试 {@code CommonUse} 中演示过的
+ * 其余格式：带时区 ID 的 ISO 日期时间、RFC 1123、ISO 序数日期和周日期。
+ * 上一次匹配成功的格式下次最先尝试；试探使用 parseUnresolved，不匹配时不抛异常。
+ * <p>
+ * yyyy-MM、yyyy年MM月 与改用 MixedDateParser 之前一样取当月1日。MixedDateParser 比原来逐个试探的
+ * DateTimeFormatter 多接受这些写法（/localDate/batch 同样接受）：中文年月日中1位的月、日、时、分、秒
+ * （2020年3月5日），中文日期后接 HH:mm[:ss] 或省略秒的 HH时mm分，小写的 am/pm 和 z，
+ * 不带冒号的偏移量 +0800、+08。
+ * <p>
+ * 结果分为日期和日期时间两类：没有时区信息的日期时间按构造时的时区换算，带偏移量的换算到同一时刻。
+ * 日期输出 yyyy-MM-dd，日期时间输出该时区的 yyyy-MM-ddTHH:mm:ss，毫秒不为0时带 .SSS；
+ * 年份按公历推算（proleptic），不在 1~9999 的写法与 java.time 相同，如 0000、-0001、+10000。
+ * 转为时间戳时日期取当天零点。
+ * <p>
+ * 保存了上一次的解析结果，不是线程安全的，每个请求（或线程）使用一个实例
+ *
+ * @author 张远卓
+ * @date 2026/10/18 03:20
+ */
+public final class BatchDateConverter {
+
+    public static final int FAILED = 0;
+    public static final int DATE = 1;
+    public static final int DATE_TIME = 2;
+
+    /**
+     * {@link #formatIso} 写入的最大长度
+     */
+    public static final int MAX_ISO_LENGTH = 40;
+
+    private static final DateTimeFormatter[] FORMATTERS = {
+            DateTimeFormatter.ISO_DATE_TIME,
+            DateTimeFormatter.ISO_DATE,
+            DateTimeFormatter.RFC_1123_DATE_TIME,
+            DateTimeFormatter.ISO_ORDINAL_DATE,
+            DateTimeFormatter.ISO_WEEK_DATE,
+    };
+
+    private static final TemporalQuery<?>[] QUERIES = {ZonedDateTime::from, LocalDateTime::from, LocalDate::from};
+
+    /**
+     * 在任何时区都落在 1~9999 年的时间戳范围，范围内交给 {@link EpochMillisCodec}，
+     * 范围外的用 {@link #PROLEPTIC}：EpochMillisCodec 写的是纪元年（yyyy），公元前的年份会写错
+     */
+    private static final long CODEC_MIN = LocalDate.of(1, 1, 2).toEpochDay() * 86_400_000L;
+    private static final long CODEC_MAX = LocalDate.of(9999, 12, 31).toEpochDay() * 86_400_000L;
+    private static final DateTimeFormatter PROLEPTIC = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    private final ZoneId zone;
+    private final EpochMillisCodec codec;
+    private final MixedDateParser parser;
+    private final ParsePosition position = new ParsePosition(0);
+    /**
+     * 上一次匹配的 {@link #FORMATTERS} 下标
+     */
+    private int last;
+
+    private int kind;
+    private int year;
+    private int month;
+    private int day;
+    private long epochMilli;
+
+    public BatchDateConverter(ZoneId zone) {
+        this.zone = zone;
+        this.codec = EpochMillisCodec.of(zone);
+        this.parser = new MixedDateParser(zone);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 解析一个值，忽略首尾空白
+     *
+     * @return {@link #FAILED}、{@link #DATE} 或 {@link #DATE_TIME}
+     */
+    public int parse(CharSequence text) {
+        switch (parser.parse(text)) {
+            case MixedDateParser.DATE:
+                setDate(parser.getYear(), parser.getMonth(), parser.getDay());
+                return kind;
+            case MixedDateParser.DATE_TIME:
+                return parse(parser.toEpochMilli());
+            case MixedDateParser.UNKNOWN_FORMAT:
+                break;
+            default:
+                // 空白，或者格式匹配但是字段越界，如2月30日
+                return kind = FAILED;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        kind = FAILED;
+        try {
+            parseFallback(text.subSequence(start, end));
+        } catch (DateTimeException ex) {
+            kind = FAILED;
+        }
+        return kind;
+    }
+
+    /**
+     * 毫秒时间戳（如 JSON 数组中的数字）
+     */
+    public int parse(long epochMilli) {
+        this.epochMilli = epochMilli;
+        return kind = DATE_TIME;
+    }
+
+    /**
+     * 上一次解析的结果转为毫秒时间戳，日期取当天零点
+     */
+    public long toEpochMilli() {
+        checkParsed();
+        return kind == DATE_TIME ? epochMilli
+                : LocalDate.of(year, month, day).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 上一次解析的结果写成 ISO 字符串，dst 从 offset 开始至少要有 {@link #MAX_ISO_LENGTH} 个位置
+     *
+     * @return 写入的字符数
+     */
+    public int formatIso(char[] dst, int offset) {
+        checkParsed();
+        if (kind == DATE_TIME) {
+            int n;
+            if (epochMilli >= CODEC_MIN && epochMilli < CODEC_MAX) {
+                n = codec.format(epochMilli, dst, offset);
+                // "yyyy-MM-dd HH:mm:ss"
+                dst[offset + n - 9] = 'T';
+            } else {
+                String s = PROLEPTIC.format(Instant.ofEpochMilli(epochMilli).atZone(zone));
+                s.getChars(0, s.length(), dst, offset);
+                n = s.length();
+            }
+            int millis = (int) Math.floorMod(epochMilli, 1000L);
+            if (millis != 0) {
+                dst[offset + n] = '.';
+                dst[offset + n + 1] = (char) ('0' + millis / 100);
+                dst[offset + n + 2] = (char) ('0' + millis / 10 % 10);
+                dst[offset + n + 3] = (char) ('0' + millis % 10);
+                n += 4;
+            }
+            return n;
+        }
+        if (year < 0 || year > 9999) {
+            String s = LocalDate.of(year, month, day).toString();
+            s.getChars(0, s.length(), dst, offset);
+            return s.length();
+        }
+        int p = offset;
+        dst[p++] = (char) ('0' + year / 1000);
+        dst[p++] = (char) ('0' + year / 100 % 10);
+        dst[p++] = (char) ('0' + year / 10 % 10);
+        dst[p++] = (char) ('0' + year % 10);
+        dst[p++] = '-';
+        dst[p++] = (char) ('0' + month / 10);
+        dst[p++] = (char) ('0' + month % 10);
+        dst[p++] = '-';
+        dst[p++] = (char) ('0' + day / 10);
+        dst[p++] = (char) ('0' + day % 10);
+        return p - offset;
+    }
+
+    private void checkParsed() {
+        if (kind == FAILED) {
+            throw new IllegalStateException("nothing parsed");
+        }
+    }
+
+    private void parseFallback(CharSequence text) {
+        int count = FORMATTERS.length;
+        for (int n = 0; n < count; n++) {
+            int i = (last + n) % count;
+            DateTimeFormatter formatter = FORMATTERS[i];
+            position.setIndex(0);
+            position.setErrorIndex(-1);
+            TemporalAccessor unresolved = formatter.parseUnresolved(text, position);
+            if (unresolved == null || position.getErrorIndex() >= 0 || position.getIndex() != text.length()) {
+                continue;
+            }
+            last = i;
+            TemporalAccessor result = formatter.parseBest(text, QUERIES);
+            if (result instanceof ZonedDateTime) {
+                parse(((ZonedDateTime) result).toInstant().toEpochMilli());
+            } else if (result instanceof LocalDateTime) {
+                parse(((LocalDateTime) result).atZone(zone).toInstant().toEpochMilli());
+            } else {
+                setDate((LocalDate) result);
+            }
+            return;
+        }
+    }
+
+    private void setDate(LocalDate date) {
+        setDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    private void setDate(int year, int month, int day) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.kind = DATE;
+    }
+}
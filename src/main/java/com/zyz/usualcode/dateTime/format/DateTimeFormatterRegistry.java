@@ -0,0 +1,185 @@
+package com.zyz.usualcode.dateTime.format;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * DateTimeFormatter 的全局缓存
+ * <p>
+ * DateTimeFormatter.ofPattern 每次都要重新解析模式串，而 DateTimeFormatter 本身不可变且线程安全，
+ * 所以按 模式串 + Locale + 时区 + 解析风格 缓存起来，同一个 key 只编译一次（被淘汰后再次使用才会重新编译）。
+ * 容量由系统属性 usualcode.formatter.cache.max-size 控制，默认256，超出后按 LRU 淘汰，
+ * 命中、未命中、淘汰次数见 {@link #stats()}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 11:05
+ */
+public final class DateTimeFormatterRegistry {
+
+    public static final long DEFAULT_MAX_SIZE = 256;
+
+    private static final LoadingCache<Key, DateTimeFormatter> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong("usualcode.formatter.cache.max-size", DEFAULT_MAX_SIZE))
+            .recordStats()
+            .build(new CacheLoader<Key, DateTimeFormatter>() {
+                @Override
+                public DateTimeFormatter load(Key key) {
+                    return key.compile();
+                }
+            });
+
+    private DateTimeFormatterRegistry() {
+    }
+
+    /**
+     * 等同于 DateTimeFormatter.ofPattern(pattern)，使用默认的 FORMAT Locale
+     */
+    public static DateTimeFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, Locale.getDefault(Locale.Category.FORMAT), null, ResolverStyle.SMART);
+    }
+
+    /**
+     * 等同于 DateTimeFormatter.ofPattern(pattern, locale)
+     */
+    public static DateTimeFormatter ofPattern(String pattern, Locale locale) {
+        return ofPattern(pattern, locale, null, ResolverStyle.SMART);
+    }
+
+    /**
+     * 等同于 DateTimeFormatter.ofPattern(pattern, locale).withZone(zone)
+     */
+    public static DateTimeFormatter ofPattern(String pattern, Locale locale, ZoneId zone) {
+        return ofPattern(pattern, locale, zone, ResolverStyle.SMART);
+    }
+
+    /**
+     * @param zone          可以为 null，表示不覆盖时区
+     * @param resolverStyle 解析风格，spring 的 @DateTimeFormat 使用 STRICT
+     * @throws IllegalArgumentException 模式串不合法
+     */
+    public static DateTimeFormatter ofPattern(String pattern, Locale locale, ZoneId zone, ResolverStyle resolverStyle) {
+        Key key = new Key(pattern, locale, zone, resolverStyle);
+        try {
+            return CACHE.getUnchecked(key);
+        } catch (RuntimeException ex) {
+            // getUnchecked 会把加载时的异常包装起来，这里还原成 ofPattern 原本的异常
+            if (ex.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 命中、未命中、淘汰次数
+     */
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+
+    /**
+     * 当前缓存的 formatter 数量
+     */
+    public static long size() {
+        return CACHE.size();
+    }
+
+    /**
+     * 当前缓存的所有 key，用于写快照
+     */
+    public static List<Key> keys() {
+        return new ArrayList<>(CACHE.asMap().keySet());
+    }
+
+    /**
+     * 预先编译 key 对应的 formatter，已经缓存的跳过
+     *
+     * @throws IllegalArgumentException 模式串不合法
+     */
+    public static DateTimeFormatter preload(Key key) {
+        return ofPattern(key.pattern, key.locale, key.zone, key.resolverStyle);
+    }
+
+    /**
+     * 清空缓存，统计数据不会清零
+     */
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * 缓存的 key
+     */
+    public static final class Key {
+        private final String pattern;
+        private final Locale locale;
+        private final ZoneId zone;
+        private final ResolverStyle resolverStyle;
+        private final int hash;
+
+        public Key(String pattern, Locale locale, ZoneId zone, ResolverStyle resolverStyle) {
+            this.pattern = Objects.requireNonNull(pattern, "pattern");
+            this.locale = Objects.requireNonNull(locale, "locale");
+            this.zone = zone;
+            this.resolverStyle = Objects.requireNonNull(resolverStyle, "resolverStyle");
+            this.hash = Objects.hash(pattern, locale, zone, resolverStyle);
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public Locale getLocale() {
+            return locale;
+        }
+
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        public ResolverStyle getResolverStyle() {
+            return resolverStyle;
+        }
+
+        DateTimeFormatter compile() {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, locale);
+            if (zone != null) {
+                formatter = formatter.withZone(zone);
+            }
+            return formatter.withResolverStyle(resolverStyle);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && pattern.equals(other.pattern) && locale.equals(other.locale)
+                    && Objects.equals(zone, other.zone) && resolverStyle == other.resolverStyle;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return pattern + "|" + locale + "|" + zone + "|" + resolverStyle;
+        }
+    }
+}
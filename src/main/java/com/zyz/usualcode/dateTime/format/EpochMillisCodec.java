@@ -0,0 +1,441 @@
+package com.zyz.usualcode.dateTime.format;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 毫秒时间戳与 "yyyy-MM-dd HH:mm:ss" 字符串之间的互转
+ * <p>
+ * 输出与 DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss") 逐字节一致，但不创建 LocalDateTime、ZonedDateTime 等中间对象。
+ * 缓存最近一段偏移量不变的时间窗口（通常就是当天），窗口内只重新计算时分秒；
+ * 跨天、夏令时切换、公元1年之前或9999年之后等情况走 jdk 的实现，保证结果一致
+ * <p>
+ * 线程安全，同一时区建议通过 {@link #of(ZoneId)} 复用
+ *
+ * @author 张远卓
+ * @date 2026/10/17 10:12
+ */
+public final class EpochMillisCodec {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * 快速路径下输出的固定长度
+     */
+    public static final int LENGTH = 19;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final ConcurrentMap<ZoneId, EpochMillisCodec> CODECS = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final DateTimeFormatter formatter;
+
+    /**
+     * 最近一次使用的时间窗口，不可变对象整体替换
+     */
+    private volatile Window window;
+
+    private EpochMillisCodec(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.formatter = DateTimeFormatterRegistry.ofPattern(PATTERN);
+    }
+
+    /**
+     * 取指定时区的编解码器，每个时区只创建一次
+     */
+    public static EpochMillisCodec of(ZoneId zone) {
+        EpochMillisCodec codec = CODECS.get(zone);
+        return codec != null ? codec : CODECS.computeIfAbsent(zone, EpochMillisCodec::new);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // ------------------------------------------------------------------ 格式化
+
+    /**
+     * 格式化为新字符串
+     */
+    public String format(long epochMilli) {
+        Window w = window(epochMilli);
+        if (w == null) {
+            return fallbackFormat(epochMilli);
+        }
+        char[] chars = new char[LENGTH];
+        w.write(epochMilli, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 格式化写入调用方提供的 char[]
+     *
+     * @return 写入的字符数，快速路径下恒为 {@link #LENGTH}
+     */
+    public int format(long epochMilli, char[] dst, int offset) {
+        Window w = window(epochMilli);
+        if (w == null) {
+            String s = fallbackFormat(epochMilli);
+            s.getChars(0, s.length(), dst, offset);
+            return s.length();
+        }
+        w.write(epochMilli, dst, offset);
+        return LENGTH;
+    }
+
+    /**
+     * 格式化追加到 StringBuilder
+     */
+    public StringBuilder format(long epochMilli, StringBuilder dst) {
+        Window w = window(epochMilli);
+        if (w == null) {
+            return dst.append(fallbackFormat(epochMilli));
+        }
+        dst.append(w.datePrefix);
+        int msOfDay = (int) (epochMilli - w.fromUtcDayStart);
+        int secondOfDay = msOfDay / 1000;
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        return dst.append((char) ('0' + hour / 10)).append((char) ('0' + hour % 10)).append(':')
+                .append((char) ('0' + minute / 10)).append((char) ('0' + minute % 10)).append(':')
+                .append((char) ('0' + second / 10)).append((char) ('0' + second % 10));
+    }
+
+    /**
+     * 以 ASCII 字节写入 ByteBuffer 当前位置，并推进 position
+     *
+     * @return 写入的字节数
+     */
+    public int format(long epochMilli, ByteBuffer dst) {
+        Window w = window(epochMilli);
+        if (w == null) {
+            String s = fallbackFormat(epochMilli);
+            for (int i = 0; i < s.length(); i++) {
+                // 回退路径只会出现数字、'-'、'+'、':'和空格
+                dst.put((byte) s.charAt(i));
+            }
+            return s.length();
+        }
+        char[] date = w.datePrefix;
+        for (int i = 0; i < date.length; i++) {
+            dst.put((byte) date[i]);
+        }
+        int secondOfDay = (int) (epochMilli - w.fromUtcDayStart) / 1000;
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        dst.put((byte) ('0' + hour / 10)).put((byte) ('0' + hour % 10)).put((byte) ':')
+                .put((byte) ('0' + minute / 10)).put((byte) ('0' + minute % 10)).put((byte) ':')
+                .put((byte) ('0' + second / 10)).put((byte) ('0' + second % 10));
+        return LENGTH;
+    }
+
+    // ------------------------------------------------------------------ 解析
+
+    /**
+     * 解析 "yyyy-MM-dd HH:mm:ss"，规则与 LocalDateTime.parse(text, ofPattern(PATTERN)).atZone(zone) 一致
+     *
+     * @throws DateTimeParseException 格式不正确
+     */
+    public long parse(CharSequence text) {
+        if (text.length() != LENGTH) {
+            return fallbackParse(text);
+        }
+        return parse(text, 0);
+    }
+
+    /**
+     * 从 text 的 start 位置开始解析固定19个字符
+     */
+    public long parse(CharSequence text, int start) {
+        if (text.length() - start < LENGTH
+                || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-' || text.charAt(start + 10) != ' '
+                || text.charAt(start + 13) != ':' || text.charAt(start + 16) != ':') {
+            return fallbackParse(text.subSequence(start, Math.min(text.length(), start + LENGTH)));
+        }
+        long local = localMillis(digits(text, start, 4), digits(text, start + 5, 2), digits(text, start + 8, 2),
+                digits(text, start + 11, 2), digits(text, start + 14, 2), digits(text, start + 17, 2));
+        if (local == Long.MIN_VALUE) {
+            return fallbackParse(text.subSequence(start, start + LENGTH));
+        }
+        return toEpochMilli(local);
+    }
+
+    /**
+     * 从 char[] 的 offset 位置开始解析固定19个字符
+     */
+    public long parse(char[] src, int offset) {
+        if (src.length - offset < LENGTH
+                || src[offset + 4] != '-' || src[offset + 7] != '-' || src[offset + 10] != ' '
+                || src[offset + 13] != ':' || src[offset + 16] != ':') {
+            return fallbackParse(new String(src, offset, Math.min(src.length - offset, LENGTH)));
+        }
+        long local = localMillis(digits(src, offset, 4), digits(src, offset + 5, 2), digits(src, offset + 8, 2),
+                digits(src, offset + 11, 2), digits(src, offset + 14, 2), digits(src, offset + 17, 2));
+        if (local == Long.MIN_VALUE) {
+            return fallbackParse(new String(src, offset, LENGTH));
+        }
+        return toEpochMilli(local);
+    }
+
+    /**
+     * 从 ByteBuffer 的绝对位置 index 开始解析固定19个 ASCII 字节，不改变 position
+     */
+    public long parse(ByteBuffer src, int index) {
+        if (src.limit() - index < LENGTH
+                || src.get(index + 4) != '-' || src.get(index + 7) != '-' || src.get(index + 10) != ' '
+                || src.get(index + 13) != ':' || src.get(index + 16) != ':') {
+            return fallbackParse(ascii(src, index, Math.min(src.limit() - index, LENGTH)));
+        }
+        long local = localMillis(digits(src, index, 4), digits(src, index + 5, 2), digits(src, index + 8, 2),
+                digits(src, index + 11, 2), digits(src, index + 14, 2), digits(src, index + 17, 2));
+        if (local == Long.MIN_VALUE) {
+            return fallbackParse(ascii(src, index, LENGTH));
+        }
+        return toEpochMilli(local);
+    }
+
+    // ------------------------------------------------------------------ 内部实现
+
+    /**
+     * 本地时间（以毫秒计的本地时间线）转时间戳
+     */
+    private long toEpochMilli(long localMillis) {
+        Window w = window;
+        if (w != null && localMillis >= w.localFrom && localMillis < w.localTo) {
+            return localMillis - w.offsetMillis;
+        }
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000L), 0,
+                ZoneOffset.UTC);
+        long epochMilli = dateTime.atZone(zone).toInstant().toEpochMilli();
+        // 顺便把窗口切到这一天，同一天的后续解析可以直接命中
+        window(epochMilli);
+        return epochMilli;
+    }
+
+    private Window window(long epochMilli) {
+        Window w = window;
+        if (w != null && epochMilli >= w.from && epochMilli < w.to) {
+            return w;
+        }
+        w = Window.compute(rules, epochMilli);
+        if (w != null) {
+            window = w;
+        }
+        return w;
+    }
+
+    private String fallbackFormat(long epochMilli) {
+        return formatter.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone));
+    }
+
+    private long fallbackParse(CharSequence text) {
+        return LocalDateTime.parse(text, formatter).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 各字段在快速路径的合法范围内时返回本地毫秒数，否则返回 Long.MIN_VALUE 交给 jdk 处理
+     */
+    private static long localMillis(int year, int month, int day, int hour, int minute, int second) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        return epochDay(year, month, day) * MILLIS_PER_DAY + (hour * 3600 + minute * 60 + second) * 1000L;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    static boolean isLeap(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * 与 LocalDate.toEpochDay 相同的算法
+     */
+    static long epochDay(long year, int month, int day) {
+        long total = 365 * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - 719_528L;
+    }
+
+    private static int digits(CharSequence s, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int digits(char[] s, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            int d = s[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int digits(ByteBuffer s, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            int d = s.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static String ascii(ByteBuffer src, int index, int length) {
+        char[] chars = new char[Math.max(length, 0)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (src.get(index + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 一段本地日期相同、偏移量不变的时间区间 [from, to)
+     */
+    private static final class Window {
+        /**
+         * 区间的起止时间戳
+         */
+        final long from;
+        final long to;
+        /**
+         * 当天本地零点对应的时间戳，用来计算时分秒
+         */
+        final long fromUtcDayStart;
+        final int offsetMillis;
+        /**
+         * 解析时可以直接减去偏移量的本地时间范围，排除了切换前后有歧义的时段
+         */
+        final long localFrom;
+        final long localTo;
+        /**
+         * "yyyy-MM-dd "
+         */
+        final char[] datePrefix;
+
+        private Window(long from, long to, long fromUtcDayStart, int offsetMillis, long localFrom, long localTo,
+                       char[] datePrefix) {
+            this.from = from;
+            this.to = to;
+            this.fromUtcDayStart = fromUtcDayStart;
+            this.offsetMillis = offsetMillis;
+            this.localFrom = localFrom;
+            this.localTo = localTo;
+            this.datePrefix = datePrefix;
+        }
+
+        /**
+         * 超出1-9999年时返回 null
+         */
+        static Window compute(ZoneRules rules, long epochMilli) {
+            int offsetMillis = rules.getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds() * 1000;
+            long epochDay = Math.floorDiv(epochMilli + offsetMillis, MILLIS_PER_DAY);
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            if (date.getYear() < 1 || date.getYear() > 9999) {
+                return null;
+            }
+            long localDayStart = epochDay * MILLIS_PER_DAY;
+            long from = localDayStart - offsetMillis;
+            long to = localDayStart + MILLIS_PER_DAY - offsetMillis;
+            long localFrom = from + offsetMillis;
+
+            // previousTransition 取严格早于参数的切换点，+1ms 使得恰好在切换点上时也能取到
+            ZoneOffsetTransition previous = rules.previousTransition(Instant.ofEpochMilli(epochMilli + 1));
+            if (previous != null) {
+                long at = previous.toEpochSecond() * 1000;
+                from = Math.max(from, at);
+                localFrom = from + offsetMillis;
+                if (previous.isOverlap()) {
+                    // 回拨后重复出现的本地时间，jdk 取切换前的偏移量
+                    localFrom = Math.max(localFrom, at + previous.getOffsetBefore().getTotalSeconds() * 1000L);
+                }
+            }
+            ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochMilli(epochMilli));
+            if (next != null) {
+                to = Math.min(to, next.toEpochSecond() * 1000);
+            }
+
+            char[] prefix = new char[11];
+            write4(prefix, 0, date.getYear());
+            prefix[4] = '-';
+            write2(prefix, 5, date.getMonthValue());
+            prefix[7] = '-';
+            write2(prefix, 8, date.getDayOfMonth());
+            prefix[10] = ' ';
+            return new Window(from, to, localDayStart - offsetMillis, offsetMillis, localFrom, to + offsetMillis,
+                    prefix);
+        }
+
+        void write(long epochMilli, char[] dst, int offset) {
+            System.arraycopy(datePrefix, 0, dst, offset, datePrefix.length);
+            int secondOfDay = (int) (epochMilli - fromUtcDayStart) / 1000;
+            write2(dst, offset + 11, secondOfDay / 3600);
+            dst[offset + 13] = ':';
+            write2(dst, offset + 14, secondOfDay / 60 % 60);
+            dst[offset + 16] = ':';
+            write2(dst, offset + 17, secondOfDay % 60);
+        }
+
+        private static void write2(char[] dst, int offset, int value) {
+            dst[offset] = (char) ('0' + value / 10);
+            dst[offset + 1] = (char) ('0' + value % 10);
+        }
+
+        private static void write4(char[] dst, int offset, int value) {
+            write2(dst, offset, value / 100);
+            write2(dst, offset + 2, value % 100);
+        }
+    }
+}
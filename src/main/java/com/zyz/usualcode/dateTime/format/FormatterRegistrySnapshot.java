@@ -0,0 +1,107 @@
+package com.zyz.usualcode.dateTime.format;
+
+import com.zyz.usualcode.snapshot.SnapshotFile;
+import com.zyz.usualcode.snapshot.Snapshotable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 把 {@link DateTimeFormatterRegistry} 中缓存的 key 作为快照中的一段
+ * <p>
+ * formatter 本身不能序列化，快照只保存 模式串、Locale、时区、解析风格，恢复时重新编译一遍。
+ * 缓存最多几百个 key，全部编译也只要几毫秒，重启后第一个请求就能命中缓存。
+ * 每个 key 的格式：模式串、Locale 语言标签、时区 ID（没有时为空串），都是2字节长度加 UTF-8 字节，最后1字节解析风格
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public class FormatterRegistrySnapshot implements Snapshotable {
+
+    public static final String NAME = "dateTime.formatters";
+    static final int VERSION = 1;
+
+    private static final ResolverStyle[] RESOLVER_STYLES = ResolverStyle.values();
+
+    @Override
+    public String snapshotName() {
+        return NAME;
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void writeSnapshot(WritableByteChannel out) throws IOException {
+        List<DateTimeFormatterRegistry.Key> keys = DateTimeFormatterRegistry.keys();
+        byte[][][] fields = new byte[keys.size()][][];
+        int length = Integer.BYTES;
+        for (int i = 0; i < keys.size(); i++) {
+            DateTimeFormatterRegistry.Key key = keys.get(i);
+            fields[i] = new byte[][]{utf8(key.getPattern()), utf8(key.getLocale().toLanguageTag()),
+                    utf8(key.getZone() == null ? "" : key.getZone().getId())};
+            for (byte[] field : fields[i]) {
+                length += Short.BYTES + field.length;
+            }
+            length++;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            for (byte[] field : fields[i]) {
+                buffer.putShort((short) field.length).put(field);
+            }
+            buffer.put((byte) keys.get(i).getResolverStyle().ordinal());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * 模式串不合法、时区已经不存在的 key 跳过
+     */
+    @Override
+    public void restoreSnapshot(SnapshotFile.Section section) throws IOException {
+        ByteBuffer buffer = section.map();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String pattern = string(buffer);
+            Locale locale = Locale.forLanguageTag(string(buffer));
+            String zone = string(buffer);
+            int style = buffer.get();
+            if (style < 0 || style >= RESOLVER_STYLES.length) {
+                throw new IOException("illegal resolver style: " + style);
+            }
+            try {
+                DateTimeFormatterRegistry.preload(new DateTimeFormatterRegistry.Key(pattern, locale,
+                        zone.isEmpty() ? null : ZoneId.of(zone), RESOLVER_STYLES[style]));
+            } catch (RuntimeException ignored) {
+                // 跳过这个 key，用到时再按原来的方式报错
+            }
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("pattern too long: " + value.length());
+        }
+        return bytes;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.zyz.usualcode.dateTime.format;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 手写的 ISO 日期、日期时间解析，用于请求参数和请求体的绑定
+ * <p>
+ * 支持的输入：
+ * <ul>
+ *     <li>yyyy-MM-dd</li>
+ *     <li>yyyyMMdd</li>
+ *     <li>yyyy-MM-dd HH:mm[:ss[.SSSSSSSSS]]，日期和时间之间也可以是 'T'</li>
+ *     <li>毫秒时间戳，即8位以外的纯数字（可以带负号），按指定时区换算</li>
+ * </ul>
+ * 字段越界（如2月30日）直接报错，与 spring 的 @DateTimeFormat 严格解析一致。
+ * 除了结果对象本身不再创建其他对象，失败时抛出 DateTimeParseException
+ *
+ * @author 张远卓
+ * @date 2026/10/17 15:02
+ */
+public final class IsoDateTimeParser {
+
+    private IsoDateTimeParser() {
+    }
+
+    /**
+     * 解析为 LocalDate，日期时间和时间戳取其日期部分
+     */
+    public static LocalDate parseDate(CharSequence text, ZoneId zone) {
+        int length = text.length();
+        if (length == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            return date(text, digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2));
+        }
+        if (length == 8 && isDigits(text)) {
+            return date(text, digits(text, 0, 4), digits(text, 4, 2), digits(text, 6, 2));
+        }
+        if (isEpoch(text)) {
+            return epochDateTime(text, zone).toLocalDate();
+        }
+        if (length > 10 && (text.charAt(10) == 'T' || text.charAt(10) == ' ')) {
+            return parseDateTime(text, zone).toLocalDate();
+        }
+        throw error(text);
+    }
+
+    /**
+     * 解析为 LocalDateTime，只有日期时取当天零点
+     */
+    public static LocalDateTime parseDateTime(CharSequence text, ZoneId zone) {
+        int length = text.length();
+        if (length >= 16 && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && (text.charAt(10) == 'T' || text.charAt(10) == ' ') && text.charAt(13) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = 0;
+            int nano = 0;
+            if (length > 16) {
+                if (length < 19 || text.charAt(16) != ':') {
+                    throw error(text);
+                }
+                second = digits(text, 17, 2);
+                if (length > 19) {
+                    nano = fraction(text, 19);
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || nano < 0) {
+                throw error(text);
+            }
+            LocalDate date = date(text, year, month, day);
+            return LocalDateTime.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), hour, minute,
+                    second, nano);
+        }
+        if (isEpoch(text)) {
+            return epochDateTime(text, zone);
+        }
+        return parseDate(text, zone).atStartOfDay();
+    }
+
+    private static LocalDate date(CharSequence text, int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > EpochMillisCodec.lengthOfMonth(year, month)) {
+            throw error(text);
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * '.' 后面1到9位小数，返回纳秒，格式不对返回 -1
+     */
+    private static int fraction(CharSequence text, int dot) {
+        int digits = text.length() - dot - 1;
+        if (text.charAt(dot) != '.' || digits < 1 || digits > 9) {
+            return -1;
+        }
+        int value = digits(text, dot + 1, digits);
+        if (value < 0) {
+            return -1;
+        }
+        for (int i = digits; i < 9; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static boolean isEpoch(CharSequence text) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        // 8位纯数字按 yyyyMMdd 处理，long 最多19位
+        return length - start > 0 && length - start <= 19 && length != 8 && isDigits(text, start);
+    }
+
+    /**
+     * 超出 LocalDateTime 范围时同样抛出 DateTimeParseException
+     */
+    private static LocalDateTime epochDateTime(CharSequence text, ZoneId zone) {
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli(text)), zone);
+        } catch (DateTimeParseException ex) {
+            throw ex;
+        } catch (DateTimeException ex) {
+            throw error(text);
+        }
+    }
+
+    private static long epochMilli(CharSequence text) {
+        boolean negative = text.charAt(0) == '-';
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < text.length(); i++) {
+            long next = value * 10 + (text.charAt(i) - '0');
+            if (next < value) {
+                throw error(text);
+            }
+            value = next;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigits(CharSequence text) {
+        return isDigits(text, 0);
+    }
+
+    private static boolean isDigits(CharSequence text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 非数字返回 -1
+     */
+    private static int digits(CharSequence text, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static DateTimeParseException error(CharSequence text) {
+        return new DateTimeParseException("Text '" + text + "' could not be parsed", text, 0);
+    }
+}
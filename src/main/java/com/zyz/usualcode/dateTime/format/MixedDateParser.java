@@ -0,0 +1,511 @@
+package com.zyz.usualcode.dateTime.format;
+
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionCache;
+import com.zyz.usualcode.dateTime.zone.ZoneTransitionTable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 同一列中混有多种格式的日期解析，先按形状分类再用手写的数字解析，失败时返回状态码而不是抛异常
+ * <p>
+ * CommonUse 中每种格式各用一个 DateTimeFormatter，混在一起时只能逐个 try/catch，
+ * 每次失败都要创建异常和堆栈。这里只扫描一遍：先看开头有几位数字、后面是什么分隔符，
+ * 直接确定格式，然后按位读取数字。支持的形状：
+ * <ul>
+ *     <li>yyyyMMdd（BASIC_ISO_DATE）；其他长度的纯数字（可以带负号）是毫秒时间戳，与 {@link IsoDateTimeParser} 一致，
+ *     绝对值超过 {@link #MAX_EPOCH_MILLI} 的换算本地时间会溢出，返回 {@link #INVALID_VALUE}</li>
+ *     <li>yyyy-MM-dd；yyyy-MM 取当月1日</li>
+ *     <li>上面的日期后接 'T' 或空格和 HH:mm[:ss[.SSSSSSSSS]]，之后可以是 " AM"/" PM"（12小时制）、
+ *     'Z' 或 +08:00、+0800、+08 这样的偏移量，偏移量不超过 ±18:00</li>
+ *     <li>yyyy年MM月dd日、yyyy年MM月，月、日、时、分、秒可以是1位，后面可以接 HH时mm分[ss秒] 或 HH:mm[:ss]</li>
+ *     <li>MM dd yyyy</li>
+ * </ul>
+ * 不带偏移量的日期时间按构造时的时区换算时间戳，带偏移量的换算到同一时刻，时区换算用 {@link ZoneTransitionTable}。
+ * <p>
+ * 保存了上一次的解析结果，不是线程安全的，每个线程使用一个实例
+ *
+ * @author 张远卓
+ * @date 2026/10/18 15:20
+ */
+public final class MixedDateParser {
+
+    /**
+     * 解析为日期，大于0的状态都是成功
+     */
+    public static final int DATE = 1;
+    /**
+     * 解析为日期时间
+     */
+    public static final int DATE_TIME = 2;
+    /**
+     * 空字符串或只有空白
+     */
+    public static final int EMPTY = 0;
+    /**
+     * 不是支持的形状
+     */
+    public static final int UNKNOWN_FORMAT = -1;
+    /**
+     * 形状正确但字段越界，如2月30日、25时
+     */
+    public static final int INVALID_VALUE = -2;
+
+    /**
+     * 时间戳的最大绝对值，加上任何时区的偏移量（最多18小时）都不会溢出
+     */
+    public static final long MAX_EPOCH_MILLI = Long.MAX_VALUE - 18 * 3_600_000L;
+
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private final ZoneId zone;
+    private final ZoneTransitionTable table;
+
+    private CharSequence text;
+    private int pos;
+    private int end;
+
+    private int status;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int nano;
+    /**
+     * 时间戳或带偏移量的输入：epochMilli 有效，本地字段在用到时才换算
+     */
+    private boolean instant;
+    private boolean resolved;
+    private long epochMilli;
+
+    public MixedDateParser(ZoneId zone) {
+        this.zone = zone;
+        this.table = ZoneTransitionCache.getDefault().table(zone);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 解析一个值，忽略首尾空白
+     *
+     * @return {@link #DATE}、{@link #DATE_TIME}，或者 {@link #EMPTY}、{@link #UNKNOWN_FORMAT}、{@link #INVALID_VALUE}
+     */
+    public int parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * 解析 text 的 [from, to)，不创建子串
+     */
+    public int parse(CharSequence text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        this.text = text;
+        this.pos = from;
+        this.end = to;
+        hour = 0;
+        minute = 0;
+        second = 0;
+        nano = 0;
+        instant = false;
+        resolved = true;
+        status = from == to ? EMPTY : classify(from, to);
+        this.text = null;
+        return status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getYear() {
+        resolve();
+        return year;
+    }
+
+    public int getMonth() {
+        resolve();
+        return month;
+    }
+
+    public int getDay() {
+        resolve();
+        return day;
+    }
+
+    public int getHour() {
+        resolve();
+        return hour;
+    }
+
+    public int getMinute() {
+        resolve();
+        return minute;
+    }
+
+    public int getSecond() {
+        resolve();
+        return second;
+    }
+
+    public int getNano() {
+        resolve();
+        return nano;
+    }
+
+    public LocalDate toLocalDate() {
+        resolve();
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * 日期取当天零点
+     */
+    public LocalDateTime toLocalDateTime() {
+        resolve();
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /**
+     * 毫秒时间戳，日期取当天零点，毫秒以下截断
+     */
+    public long toEpochMilli() {
+        checkParsed();
+        if (instant) {
+            return epochMilli;
+        }
+        return table.toEpochMilli(localMillis());
+    }
+
+    private int classify(int from, int to) {
+        int length = to - from;
+        int run = digitRun(from, to);
+        if (run == length) {
+            return length == 8 ? basicDate(from) : epoch(from, to, false);
+        }
+        if (run == 0 && text.charAt(from) == '-' && length > 1 && digitRun(from + 1, to) == length - 1) {
+            return epoch(from + 1, to, true);
+        }
+        if (run == 4 && length > 5) {
+            year = digits(from, 4);
+            char separator = text.charAt(from + 4);
+            pos = from + 5;
+            if (separator == '-') {
+                return iso();
+            }
+            if (separator == '年') {
+                return chinese();
+            }
+            return UNKNOWN_FORMAT;
+        }
+        if (run == 2 && length == 10 && text.charAt(from + 2) == ' ' && text.charAt(from + 5) == ' '
+                && digitRun(from + 3, to) == 2 && digitRun(from + 6, to) == 4) {
+            // MM dd yyyy
+            month = digits(from, 2);
+            day = digits(from + 3, 2);
+            year = digits(from + 6, 4);
+            return date();
+        }
+        return UNKNOWN_FORMAT;
+    }
+
+    /**
+     * yyyyMMdd
+     */
+    private int basicDate(int from) {
+        year = digits(from, 4);
+        month = digits(from + 4, 2);
+        day = digits(from + 6, 2);
+        return date();
+    }
+
+    /**
+     * 毫秒时间戳，最多19位
+     */
+    private int epoch(int from, int to, boolean negative) {
+        if (to - from > 19) {
+            return INVALID_VALUE;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+            if (value < 0) {
+                return INVALID_VALUE;
+            }
+        }
+        if (value > MAX_EPOCH_MILLI) {
+            return INVALID_VALUE;
+        }
+        epochMilli = negative ? -value : value;
+        nano = (int) Math.floorMod(epochMilli, 1000L) * NANOS_PER_MILLI;
+        instant = true;
+        resolved = false;
+        return DATE_TIME;
+    }
+
+    /**
+     * yyyy- 之后的部分
+     */
+    private int iso() {
+        if ((month = fixed(2)) < 0) {
+            return UNKNOWN_FORMAT;
+        }
+        if (pos == end) {
+            // yyyy-MM
+            day = 1;
+            return date();
+        }
+        if (!accept('-') || (day = fixed(2)) < 0) {
+            return UNKNOWN_FORMAT;
+        }
+        if (pos == end) {
+            return date();
+        }
+        char c = text.charAt(pos++);
+        if (c != 'T' && c != ' ') {
+            return UNKNOWN_FORMAT;
+        }
+        if ((hour = fixed(2)) < 0 || !accept(':') || (minute = fixed(2)) < 0) {
+            return UNKNOWN_FORMAT;
+        }
+        if (accept(':')) {
+            if ((second = fixed(2)) < 0) {
+                return UNKNOWN_FORMAT;
+            }
+            if (accept('.') && (nano = fraction()) < 0) {
+                return UNKNOWN_FORMAT;
+            }
+        }
+        if (pos == end) {
+            return dateTime();
+        }
+        c = text.charAt(pos);
+        if (c == ' ' && end - pos == 3) {
+            return halfDay();
+        }
+        if ((c == 'Z' || c == 'z') && pos + 1 == end) {
+            return offsetDateTime(0);
+        }
+        if (c == '+' || c == '-') {
+            pos++;
+            int offsetHour = fixed(2);
+            int offsetMinute = 0;
+            if (offsetHour < 0) {
+                return UNKNOWN_FORMAT;
+            }
+            if (pos < end) {
+                accept(':');
+                if ((offsetMinute = fixed(2)) < 0 || pos != end) {
+                    return UNKNOWN_FORMAT;
+                }
+            }
+            int offsetSeconds = offsetHour * 3600 + offsetMinute * 60;
+            if (offsetMinute > 59 || offsetSeconds > MAX_OFFSET_SECONDS) {
+                return INVALID_VALUE;
+            }
+            return offsetDateTime(c == '-' ? -offsetSeconds : offsetSeconds);
+        }
+        return UNKNOWN_FORMAT;
+    }
+
+    /**
+     * 12小时制，hh 为1到12，12 AM 是0点
+     */
+    private int halfDay() {
+        char a = text.charAt(pos + 1);
+        char m = text.charAt(pos + 2);
+        if (m != 'M' && m != 'm') {
+            return UNKNOWN_FORMAT;
+        }
+        boolean pm;
+        if (a == 'A' || a == 'a') {
+            pm = false;
+        } else if (a == 'P' || a == 'p') {
+            pm = true;
+        } else {
+            return UNKNOWN_FORMAT;
+        }
+        if (hour < 1 || hour > 12) {
+            return INVALID_VALUE;
+        }
+        hour = hour % 12 + (pm ? 12 : 0);
+        return dateTime();
+    }
+
+    /**
+     * yyyy年 之后的部分
+     */
+    private int chinese() {
+        if ((month = number(2)) < 0 || !accept('月')) {
+            return UNKNOWN_FORMAT;
+        }
+        if (pos == end) {
+            day = 1;
+            return date();
+        }
+        if ((day = number(2)) < 0 || !accept('日')) {
+            return UNKNOWN_FORMAT;
+        }
+        if (pos == end) {
+            return date();
+        }
+        while (pos < end && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        if ((hour = number(2)) < 0) {
+            return UNKNOWN_FORMAT;
+        }
+        if (accept('时')) {
+            if ((minute = number(2)) < 0 || !accept('分')) {
+                return UNKNOWN_FORMAT;
+            }
+            if (pos < end && ((second = number(2)) < 0 || !accept('秒'))) {
+                return UNKNOWN_FORMAT;
+            }
+        } else if (accept(':')) {
+            if ((minute = fixed(2)) < 0 || (accept(':') && (second = fixed(2)) < 0)) {
+                return UNKNOWN_FORMAT;
+            }
+        } else {
+            return UNKNOWN_FORMAT;
+        }
+        return pos == end ? dateTime() : UNKNOWN_FORMAT;
+    }
+
+    private int date() {
+        return isValidDate() ? DATE : INVALID_VALUE;
+    }
+
+    private int dateTime() {
+        return isValidDate() && isValidTime() ? DATE_TIME : INVALID_VALUE;
+    }
+
+    private int offsetDateTime(int offsetSeconds) {
+        if (!isValidDate() || !isValidTime()) {
+            return INVALID_VALUE;
+        }
+        epochMilli = localMillis() - offsetSeconds * 1000L;
+        instant = true;
+        resolved = false;
+        return DATE_TIME;
+    }
+
+    private boolean isValidDate() {
+        return month >= 1 && month <= 12 && day >= 1 && day <= EpochMillisCodec.lengthOfMonth(year, month);
+    }
+
+    private boolean isValidTime() {
+        return hour <= 23 && minute <= 59 && second <= 59;
+    }
+
+    private long localMillis() {
+        return EpochMillisCodec.epochDay(year, month, day) * MILLIS_PER_DAY
+                + (hour * 3600 + minute * 60 + second) * 1000L + nano / NANOS_PER_MILLI;
+    }
+
+    /**
+     * 时间戳或带偏移量的输入换算为本地字段
+     */
+    private void resolve() {
+        checkParsed();
+        if (resolved) {
+            return;
+        }
+        long localMillis = table.toLocalMillis(epochMilli);
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY));
+        int secondOfDay = (int) (Math.floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+        year = date.getYear();
+        month = date.getMonthValue();
+        day = date.getDayOfMonth();
+        hour = secondOfDay / 3600;
+        minute = secondOfDay / 60 % 60;
+        second = secondOfDay % 60;
+        resolved = true;
+    }
+
+    private void checkParsed() {
+        if (status <= 0) {
+            throw new IllegalStateException("nothing parsed, status " + status);
+        }
+    }
+
+    /**
+     * 读取1到 maxDigits 位数字，没有数字时返回 -1
+     */
+    private int number(int maxDigits) {
+        int value = 0;
+        int start = pos;
+        while (pos < end && pos - start < maxDigits) {
+            int digit = text.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            value = value * 10 + digit;
+            pos++;
+        }
+        return pos == start ? -1 : value;
+    }
+
+    /**
+     * 读取正好 count 位数字，不足时返回 -1
+     */
+    private int fixed(int count) {
+        int start = pos;
+        int value = number(count);
+        return pos - start == count ? value : -1;
+    }
+
+    /**
+     * '.' 之后1到9位小数，返回纳秒
+     */
+    private int fraction() {
+        int start = pos;
+        int value = number(9);
+        if (value < 0) {
+            return -1;
+        }
+        for (int i = pos - start; i < 9; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private boolean accept(char c) {
+        if (pos < end && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private int digitRun(int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            i++;
+        }
+        return i - from;
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,115 @@
+package com.zyz.usualcode.dateTime.mybatis;
+
+import com.zyz.usualcode.dateTime.bridge.DateBridge;
+import com.zyz.usualcode.dateTime.format.IsoDateTimeParser;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * DATETIME 列（没有时区）与 java 类型之间的映射，按指定时区换算
+ * <p>
+ * mybatis 自带的 DateTypeHandler、InstantTypeHandler 都经过 getTimestamp，驱动先按 jvm 默认时区
+ * 创建 Timestamp（内部还有 Calendar），再转一次才得到需要的类型。
+ * JDBC 4.2 的 getObject(column, LocalDateTime.class) 也不可靠：mysql-connector-java 5.1 的实现就是
+ * getTimestamp(column).toLocalDateTime()，仍然经过 jvm 默认时区，夏令时跳过的时间会被挪动。
+ * 这里用 getString 取 DATETIME 的文本 yyyy-MM-dd HH:mm:ss[.SSSSSSSSS]，用 {@link IsoDateTimeParser} 解析后
+ * 再用 {@link DateBridge} 换算；写入时也以同样格式的文本传给驱动，由数据库转换为 DATETIME。
+ * 读写都不经过 Timestamp，时区与数据库写入时的约定一致即可，不依赖 jvm 默认时区
+ * <p>
+ * 按 java 类型和 JdbcType.TIMESTAMP 注册实例可以指定时区，
+ * {@code typeHandlerRegistry.register(Long.class, JdbcType.TIMESTAMP, new EpochMillisTypeHandler(zone))}，
+ * 之后 @Result、#{} 中通过 typeHandler 引用类名时用的就是这个实例；没有注册时 mybatis 用无参构造方法创建，时区为 jvm 默认时区。
+ * 不要用 register(typeHandler)，mybatis 会从泛型参数推断出 java 类型，接管所有该类型的属性
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+public abstract class DateTimeColumnTypeHandler<T> extends BaseTypeHandler<T> {
+
+    protected final DateBridge bridge;
+
+    protected DateTimeColumnTypeHandler(ZoneId zone) {
+        this.bridge = DateBridge.of(zone);
+    }
+
+    public ZoneId getZone() {
+        return bridge.getZone();
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, T parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, format(toLocalDateTime(parameter)));
+    }
+
+    @Override
+    public T getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return fromNullable(rs.getString(columnName));
+    }
+
+    @Override
+    public T getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return fromNullable(rs.getString(columnIndex));
+    }
+
+    @Override
+    public T getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return fromNullable(cs.getString(columnIndex));
+    }
+
+    protected abstract LocalDateTime toLocalDateTime(T value);
+
+    protected abstract T fromLocalDateTime(LocalDateTime dateTime);
+
+    private T fromNullable(String text) throws SQLDataException {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return fromLocalDateTime(IsoDateTimeParser.parseDateTime(text, getZone()));
+        } catch (DateTimeParseException ex) {
+            // 如 mysql 的 0000-00-00 00:00:00
+            throw new SQLDataException("not a DATETIME value: " + text, ex);
+        }
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm:ss，有纳秒时加上去掉末尾0的小数部分
+     */
+    static String format(LocalDateTime dateTime) {
+        StringBuilder sb = new StringBuilder(29);
+        pad(sb, dateTime.getYear(), 4).append('-');
+        pad(sb, dateTime.getMonthValue(), 2).append('-');
+        pad(sb, dateTime.getDayOfMonth(), 2).append(' ');
+        pad(sb, dateTime.getHour(), 2).append(':');
+        pad(sb, dateTime.getMinute(), 2).append(':');
+        pad(sb, dateTime.getSecond(), 2);
+        int nano = dateTime.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            pad(sb.append('.'), nano, digits);
+        }
+        return sb.toString();
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int value, int width) {
+        for (int limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                sb.append('0');
+            }
+        }
+        return sb.append(value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.zyz.usualcode.dateTime.mybatis;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * DATETIME 列映射为毫秒时间戳
+ * <p>
+ * 需要在映射中通过 typeHandler 指定，不要按 Long 类型全局注册
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+public class EpochMillisTypeHandler extends DateTimeColumnTypeHandler<Long> {
+
+    public EpochMillisTypeHandler() {
+        this(ZoneId.systemDefault());
+    }
+
+    public EpochMillisTypeHandler(ZoneId zone) {
+        super(zone);
+    }
+
+    @Override
+    protected LocalDateTime toLocalDateTime(Long value) {
+        return bridge.toLocalDateTime(value);
+    }
+
+    @Override
+    protected Long fromLocalDateTime(LocalDateTime dateTime) {
+        return bridge.toEpochMilli(dateTime);
+    }
+}
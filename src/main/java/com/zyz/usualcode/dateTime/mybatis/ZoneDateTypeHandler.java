@@ -0,0 +1,34 @@
+package com.zyz.usualcode.dateTime.mybatis;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * DATETIME 列映射为 java.util.Date，代替 mybatis 自带的 DateTypeHandler
+ * <p>
+ * 读取时只创建结果 Date 一个对象，毫秒以下截断，与 DateTypeHandler 一致
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+public class ZoneDateTypeHandler extends DateTimeColumnTypeHandler<Date> {
+
+    public ZoneDateTypeHandler() {
+        this(ZoneId.systemDefault());
+    }
+
+    public ZoneDateTypeHandler(ZoneId zone) {
+        super(zone);
+    }
+
+    @Override
+    protected LocalDateTime toLocalDateTime(Date value) {
+        return bridge.toLocalDateTime(value);
+    }
+
+    @Override
+    protected Date fromLocalDateTime(LocalDateTime dateTime) {
+        return bridge.toDate(dateTime);
+    }
+}
@@ -0,0 +1,32 @@
+package com.zyz.usualcode.dateTime.mybatis;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * DATETIME 列映射为 Instant，代替 mybatis 自带的 InstantTypeHandler，保留纳秒
+ *
+ * @author 张远卓
+ * @date 2026/10/18 09:40
+ */
+public class ZoneInstantTypeHandler extends DateTimeColumnTypeHandler<Instant> {
+
+    public ZoneInstantTypeHandler() {
+        this(ZoneId.systemDefault());
+    }
+
+    public ZoneInstantTypeHandler(ZoneId zone) {
+        super(zone);
+    }
+
+    @Override
+    protected LocalDateTime toLocalDateTime(Instant value) {
+        return bridge.toLocalDateTime(value);
+    }
+
+    @Override
+    protected Instant fromLocalDateTime(LocalDateTime dateTime) {
+        return bridge.toInstant(dateTime);
+    }
+}
@@ -0,0 +1,9 @@
+-- DATETIME 列与 java 类型映射的示例表，MySQL 与 H2（MODE=MySQL）通用
+-- created_at 映射为毫秒时间戳（EpochMillisTypeHandler），updated_at 映射为 java.util.Date（ZoneDateTypeHandler）
+CREATE TABLE IF NOT EXISTS t_date_time
+(
+    id         BIGINT      NOT NULL,
+    created_at DATETIME(3) NOT NULL,
+    updated_at DATETIME(3) NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,273 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyz.usualcode.dateTime.format.BatchDateConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+/**
+ * 批量转换日期，代替逐个调用 GET /localDate
+ * <p>
+ * POST /localDate/batch?output=iso|epoch&zone=Asia/Shanghai，请求体两种格式，响应与请求格式相同：
+ * <ul>
+ *     <li>text/plain、application/x-ndjson：每行一个值，输出每行一个结果，无法解析的输出空行；
+ *     超过 {@value #MAX_LINE_CHARS} 个字符的行同样输出空行，超出的部分边读边丢弃，不缓存</li>
+ *     <li>application/json：字符串或数字（毫秒时间戳）的数组，输出数组，无法解析的输出 null</li>
+ * </ul>
+ * 边读边写，不在内存中保存整个请求体或响应体，输出按 servlet 的缓冲区分块发送。
+ * 一个请求使用一个 {@link BatchDateConverter}，格式一致的数据每个值只解析一次。
+ * 开始输出之后请求体格式错误（如 JSON 被截断）时只能中断连接，无法再返回400
+ *
+ * @author 张远卓
+ * @date 2026/10/18 03:20
+ */
+@RestController
+public class DateBatchController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * 每转换这么多个值把 JSON 输出推给客户端
+     */
+    private static final int FLUSH_INTERVAL = 1024;
+    private static final int BUFFER_CHARS = 8192;
+    /**
+     * 一行的最大长度，要小于 BUFFER_CHARS，缓冲区不用扩容
+     */
+    static final int MAX_LINE_CHARS = 1024;
+
+    private final JsonFactory jsonFactory;
+
+    public DateBatchController(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @PostMapping(value = "/localDate/batch",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public void convert(@RequestParam(defaultValue = "iso") String output,
+                        @RequestParam(required = false) String zone,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean epoch;
+        ZoneId zoneId;
+        try {
+            epoch = parseOutput(output);
+            zoneId = zone == null ? ZoneId.systemDefault() : ZoneId.of(zone);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return;
+        }
+        BatchDateConverter converter = new BatchDateConverter(zoneId);
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            convertJson(converter, epoch, request, response);
+        } else {
+            response.setContentType(new MediaType(NDJSON.isCompatibleWith(contentType) ? NDJSON : MediaType.TEXT_PLAIN,
+                    StandardCharsets.UTF_8).toString());
+            convertLines(converter, epoch, request, response);
+        }
+    }
+
+    private static boolean parseOutput(String output) {
+        switch (output) {
+            case "iso":
+                return false;
+            case "epoch":
+                return true;
+            default:
+                throw new IllegalArgumentException("output must be iso or epoch: " + output);
+        }
+    }
+
+    private void convertJson(BatchDateConverter converter, boolean epoch, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "body must be a JSON array");
+                return;
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            CharSlice slice = new CharSlice();
+            char[] out = new char[BatchDateConverter.MAX_ISO_LENGTH];
+            try (JsonGenerator generator = jsonFactory.createGenerator(response.getOutputStream())) {
+                generator.writeStartArray();
+                int count = 0;
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    int kind;
+                    if (token == JsonToken.VALUE_STRING) {
+                        kind = converter.parse(slice.wrap(parser.getTextCharacters(), parser.getTextOffset(),
+                                parser.getTextLength()));
+                    } else if (token == JsonToken.VALUE_NUMBER_INT) {
+                        // 超出 long 的整数 getLongValue 会抛异常，只当作这一个值无法解析
+                        kind = parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? BatchDateConverter.FAILED
+                                : converter.parse(parser.getLongValue());
+                    } else if (token == null) {
+                        throw new IOException("unexpected end of JSON array");
+                    } else {
+                        parser.skipChildren();
+                        kind = BatchDateConverter.FAILED;
+                    }
+                    if (kind == BatchDateConverter.FAILED) {
+                        generator.writeNull();
+                    } else if (epoch) {
+                        generator.writeNumber(converter.toEpochMilli());
+                    } else {
+                        generator.writeString(out, 0, converter.formatIso(out, 0));
+                    }
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static void convertLines(BatchDateConverter converter, boolean epoch, HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        String encoding = request.getCharacterEncoding();
+        Reader in = new InputStreamReader(request.getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8.name() : encoding);
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        char[] buffer = new char[BUFFER_CHARS];
+        char[] out = new char[BUFFER_CHARS];
+        CharSlice slice = new CharSlice();
+        int start = 0;
+        int end = 0;
+        // [start, scanned) 中没有换行符
+        int scanned = 0;
+        // 当前行已经超长，读到换行符之前的内容都丢弃
+        boolean skipping = false;
+        int written = 0;
+        boolean eof = false;
+        while (true) {
+            int newline = indexOf(buffer, '\n', scanned, end);
+            if (newline < 0) {
+                if (skipping || end - start > MAX_LINE_CHARS) {
+                    skipping = true;
+                    start = end;
+                }
+                if (eof) {
+                    if (skipping) {
+                        out[written++] = '\n';
+                    } else if (start < end) {
+                        written = convertLine(converter, epoch, slice.wrap(buffer, start, end - start), out, written);
+                    }
+                    break;
+                }
+                // 把不完整的一行移到开头，它不超过 MAX_LINE_CHARS，缓冲区总有空间继续读
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+                scanned = end;
+                int n = in.read(buffer, end, buffer.length - end);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    end += n;
+                }
+                continue;
+            }
+            if (skipping) {
+                skipping = false;
+                out[written++] = '\n';
+            } else {
+                int lineEnd = newline > start && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+                written = convertLine(converter, epoch, slice.wrap(buffer, start, lineEnd - start), out, written);
+            }
+            start = newline + 1;
+            scanned = start;
+            if (written > out.length - BatchDateConverter.MAX_ISO_LENGTH - 1) {
+                writer.write(out, 0, written);
+                written = 0;
+            }
+        }
+        writer.write(out, 0, written);
+        writer.flush();
+    }
+
+    /**
+     * 转换一行，结果和换行符追加到 out[written] 之后
+     *
+     * @return 追加后的长度
+     */
+    private static int convertLine(BatchDateConverter converter, boolean epoch, CharSequence line, char[] out,
+                                   int written) {
+        if (converter.parse(line) != BatchDateConverter.FAILED) {
+            if (epoch) {
+                String millis = Long.toString(converter.toEpochMilli());
+                millis.getChars(0, millis.length(), out, written);
+                written += millis.length();
+            } else {
+                written += converter.formatIso(out, written);
+            }
+        }
+        out[written++] = '\n';
+        return written;
+    }
+
+    private static int indexOf(char[] buffer, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * char[] 的一段，重复使用，避免每个值创建一个 String
+     */
+    static final class CharSlice implements CharSequence {
+        private char[] chars;
+        private int offset;
+        private int length;
+
+        CharSlice wrap(char[] chars, int offset, int length) {
+            this.chars = chars;
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return chars[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offset, length);
+        }
+    }
+}
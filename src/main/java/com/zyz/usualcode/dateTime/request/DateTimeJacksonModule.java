@@ -0,0 +1,99 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.zyz.usualcode.dateTime.format.IsoDateTimeParser;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 请求体中 LocalDate、LocalDateTime 的反序列化
+ * 接受 ISO 字符串（格式同 {@link IsoDateTimeParser}）或者数字形式的毫秒时间戳。
+ * 空字符串、无法换算的时间戳和格式错误一样抛出 InvalidFormatException，mvc 返回400；JSON null 仍然是 null。
+ * 注册为 bean 后 spring boot 会把它加到默认的 ObjectMapper 上，并且优先于 jackson 自带的 JavaTimeModule
+ *
+ * @author 张远卓
+ * @date 2026/10/17 15:40
+ */
+public class DateTimeJacksonModule extends SimpleModule {
+
+    public DateTimeJacksonModule(ZoneId zone) {
+        super("usual-code-date-time");
+        addDeserializer(LocalDate.class, new LocalDateDeserializer(zone));
+        addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(zone));
+    }
+
+    static class LocalDateDeserializer extends StdScalarDeserializer<LocalDate> {
+        private final ZoneId zone;
+
+        LocalDateDeserializer(ZoneId zone) {
+            super(LocalDate.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                try {
+                    return Instant.ofEpochMilli(p.getLongValue()).atZone(zone).toLocalDate();
+                } catch (DateTimeException ex) {
+                    return (LocalDate) ctxt.handleWeirdNumberValue(LocalDate.class, p.getNumberValue(), ex.getMessage());
+                }
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                String text = p.getText().trim();
+                if (text.isEmpty()) {
+                    return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, text, "empty date");
+                }
+                try {
+                    return IsoDateTimeParser.parseDate(text, zone);
+                } catch (DateTimeException ex) {
+                    return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, text, ex.getMessage());
+                }
+            }
+            return (LocalDate) ctxt.handleUnexpectedToken(LocalDate.class, p);
+        }
+    }
+
+    static class LocalDateTimeDeserializer extends StdScalarDeserializer<LocalDateTime> {
+        private final ZoneId zone;
+
+        LocalDateTimeDeserializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                try {
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), zone);
+                } catch (DateTimeException ex) {
+                    return (LocalDateTime) ctxt.handleWeirdNumberValue(LocalDateTime.class, p.getNumberValue(), ex.getMessage());
+                }
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                String text = p.getText().trim();
+                if (text.isEmpty()) {
+                    return (LocalDateTime) ctxt.handleWeirdStringValue(LocalDateTime.class, text, "empty date");
+                }
+                try {
+                    return IsoDateTimeParser.parseDateTime(text, zone);
+                } catch (DateTimeException ex) {
+                    return (LocalDateTime) ctxt.handleWeirdStringValue(LocalDateTime.class, text, ex.getMessage());
+                }
+            }
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+
+/**
+ * 日期时间参数绑定的 mvc 统一配置
+ * <p>
+ * 请求参数：没有 @DateTimeFormat 的 LocalDate、LocalDateTime 参数使用手写的 ISO/时间戳解析，不再经过通用的 formatter；
+ * 带 @DateTimeFormat(pattern = ...) 的参数从 formatter 注册表中取 formatter。
+ * 请求体：注册 {@link DateTimeJacksonModule}，@RequestBody LocalDate 可以直接接收
+ *
+ * @author 张远卓
+ * @date 2026/10/17 11:42
+ */
+@Configuration
+public class DateTimeWebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * 时间戳换算使用的时区
+     */
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // 后注册的优先，覆盖 spring boot 默认的处理
+        registry.addFormatterForFieldAnnotation(new RegistryDateTimeFormatAnnotationFormatterFactory());
+        registry.addConverter(new StringToLocalDateConverter(zone));
+        registry.addConverter(new StringToLocalDateTimeConverter(zone));
+    }
+
+    @Bean
+    public Module dateTimeJacksonModule() {
+        return new DateTimeJacksonModule(zone);
+    }
+}
@@ -0,0 +1,31 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.datetime.standard.Jsr310DateTimeFormatAnnotationFormatterFactory;
+import org.springframework.util.StringUtils;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Locale;
+
+/**
+ * 处理 @DateTimeFormat(pattern = ...)，与 spring 自带实现的区别只在于 formatter 从
+ * {@link DateTimeFormatterRegistry} 中获取，相同的模式串在整个 jvm 中只编译一次
+ *
+ * @author 张远卓
+ * @date 2026/10/17 11:40
+ */
+public class RegistryDateTimeFormatAnnotationFormatterFactory extends Jsr310DateTimeFormatAnnotationFormatterFactory {
+
+    @Override
+    protected DateTimeFormatter getFormatter(DateTimeFormat annotation, Class<?> fieldType) {
+        String pattern = resolveEmbeddedValue(annotation.pattern());
+        if (!StringUtils.hasLength(pattern)) {
+            return super.getFormatter(annotation, fieldType);
+        }
+        // 与 spring 的 DateTimeFormatterFactory 保持一致：yy 替换为 uu，并使用严格解析
+        return DateTimeFormatterRegistry.ofPattern(StringUtils.replace(pattern, "yy", "uu"),
+                Locale.getDefault(Locale.Category.FORMAT), null, ResolverStyle.STRICT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.zyz.usualcode.dateTime.format.IsoDateTimeParser;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalConverter;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 请求参数 String 转 LocalDateTime，支持 ISO 日期时间、"yyyy-MM-dd HH:mm:ss" 和毫秒时间戳
+ * 带 @DateTimeFormat 的参数仍然按注解的格式解析
+ *
+ * @author 张远卓
+ * @date 2026/10/17 15:31
+ */
+public class StringToLocalDateTimeConverter implements Converter<String, LocalDateTime>, ConditionalConverter {
+
+    private final ZoneId zone;
+
+    public StringToLocalDateTimeConverter(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    @Override
+    public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        return !targetType.hasAnnotation(DateTimeFormat.class);
+    }
+
+    @Override
+    public LocalDateTime convert(String source) {
+        String text = source.trim();
+        return text.isEmpty() ? null : IsoDateTimeParser.parseDateTime(text, zone);
+    }
+}
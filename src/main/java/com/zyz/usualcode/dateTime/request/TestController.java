@@ -1,7 +1,8 @@
 package com.zyz.usualcode.dateTime.request;
 
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 
@@ -14,17 +15,22 @@ public class TestController {
     /**
      * 测试LocalDate能不能接收yyyy-MM-dd日期
      *
-     * @param date 需要注解@DateTimeFormat(pattern = "yyyy-MM-dd")才能接收到
+     * @param date 原本需要注解@DateTimeFormat(pattern = "yyyy-MM-dd")才能接收到，
+     *             现在由 {@link DateTimeWebMvcConfig} 统一处理，也可以传毫秒时间戳；
+     *             空白的参数转换为 null，返回400
      */
     @GetMapping("/localDate")
-    public String m1(@RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+    public String m1(@RequestParam("date") LocalDate date) {
+        if (date == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date is empty");
+        }
         return date.toString();
     }
 
     /**
      * 需要进行mvc的统一配置解析规则，无法像上面的方法一样通过简单注解
      *
-     * @param date !无法传入
+     * @param date 请求体为 "2020-10-13" 或毫秒时间戳，由 {@link DateTimeJacksonModule} 解析
      */
     @PostMapping("/localDate")
     public String m2(@RequestBody LocalDate date) {
@@ -0,0 +1,88 @@
+package com.zyz.usualcode.dateTime.zone;
+
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按时区缓存 {@link ZoneTransitionTable}，代替每个值都 ZoneId.of、atZone 一次
+ * <p>
+ * 每个时区第一次使用时展开年份范围内的切换点，之后只读；
+ * 固定偏移量没有切换点；东八区只在1919到1991年之间有几十个，纽约这样有夏令时的时区一年两个，
+ * 有切换点的时区另有一张按天查找的表，200年约146KB。
+ * ZoneId.of("+8") 与 ZoneOffset.of("+08:00") 规范化后是同一个 key。
+ * <p>
+ * 线程安全，应用内共用一个实例，默认范围见 {@link #getDefault()}
+ *
+ * @author 张远卓
+ * @date 2026/10/18 10:30
+ */
+public final class ZoneTransitionCache {
+
+    public static final int DEFAULT_FROM_YEAR = 1900;
+    public static final int DEFAULT_TO_YEAR = 2100;
+
+    private static final ZoneTransitionCache DEFAULT = new ZoneTransitionCache(DEFAULT_FROM_YEAR, DEFAULT_TO_YEAR);
+
+    private final int fromYear;
+    private final int toYear;
+    private final ConcurrentMap<ZoneId, ZoneTransitionTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * @param fromYear 第一个展开的年份
+     * @param toYear   最后一个展开的年份（包含）
+     */
+    public ZoneTransitionCache(int fromYear, int toYear) {
+        if (fromYear < -999_999 || toYear > 999_999 || fromYear > toYear) {
+            throw new IllegalArgumentException("illegal year range: " + fromYear + ".." + toYear);
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+    }
+
+    /**
+     * 覆盖 {@value #DEFAULT_FROM_YEAR} 到 {@value #DEFAULT_TO_YEAR} 年的共享实例
+     */
+    public static ZoneTransitionCache getDefault() {
+        return DEFAULT;
+    }
+
+    public ZoneTransitionTable table(ZoneId zone) {
+        ZoneId key = zone.normalized();
+        ZoneTransitionTable table = tables.get(key);
+        return table != null ? table : tables.computeIfAbsent(key, id -> new ZoneTransitionTable(id, fromYear, toYear));
+    }
+
+    public ZoneTransitionTable table(String zoneId) {
+        return table(ZoneId.of(zoneId));
+    }
+
+    /**
+     * 把一组时间戳转为另一个时区的本地毫秒之前，先把表全部建好，避免第一批请求各自展开
+     */
+    public void preload(Iterable<ZoneId> zones) {
+        for (ZoneId zone : zones) {
+            table(zone);
+        }
+    }
+
+    /**
+     * 批量把 fromZone 的本地毫秒换算为 toZone 的本地毫秒，src 与 dst 可以是同一个数组
+     */
+    public void convertLocalMillis(long[] src, ZoneId fromZone, long[] dst, ZoneId toZone) {
+        table(fromZone).toEpochMillis(src, dst);
+        table(toZone).toLocalMillis(dst, 0, dst, 0, src.length);
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    public int size() {
+        return tables.size();
+    }
+}
@@ -0,0 +1,300 @@
+package com.zyz.usualcode.dateTime.zone;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * 一个时区在指定年份范围内的偏移量切换点，展开为有序的 long[]，按天查表定位后换算
+ * <p>
+ * 时间戳与本地时间都以毫秒表示，本地毫秒即 {@code localDateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + 毫秒}。
+ * 本地时间转时间戳的规则与 {@code LocalDateTime.atZone(zone)} 一致：
+ * 夏令时开始时跳过的本地时间顺延跳过的长度，结束时重复的本地时间取较早的时刻（切换前的偏移量）。
+ * <p>
+ * 有切换点的时区另建一张每天2字节的表，记录每天零点所在的区间，查表后最多再比较一两次，
+ * 200年约146KB；范围超过400年时不建表，改为二分查找。
+ * 超出年份范围的值交给 ZoneRules，结果仍然正确，只是变慢。
+ * 批量方法记住上一个值所在的区间，输入按时间排序（或大部分落在同一区间）时基本不需要查表。
+ * 不可变，线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/18 10:30
+ */
+public final class ZoneTransitionTable {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 按天查表的最大范围，400年约14.6万天，每天2字节
+     */
+    static final long MAX_DAY_TABLE_DAYS = 146_097;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final int fromYear;
+    private final int toYear;
+
+    /**
+     * 表覆盖的时间戳范围 [from, to)
+     */
+    private final long from;
+    private final long to;
+
+    /**
+     * 范围内的切换时刻，升序
+     */
+    private final long[] transitions;
+    /**
+     * 第 i 个切换点之后不再有歧义的第一个本地时间，即切换时刻加上前后两个偏移量中较大的一个
+     */
+    private final long[] localBoundaries;
+    /**
+     * offsets[i] 是第 i 个切换点之前的偏移量（毫秒），长度比 transitions 多1
+     */
+    private final int[] offsets;
+    /**
+     * 按天直接查区间下标：daySegments[d] 是第 d 天（从 from 开始按 UTC 计）零点所在的区间，
+     * 没有切换点、范围太大或切换点太多时为 null，改用二分查找
+     */
+    private final char[] daySegments;
+
+    ZoneTransitionTable(ZoneId zone, int fromYear, int toYear) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.from = LocalDateTime.of(fromYear, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+        this.to = LocalDateTime.of(toYear + 1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+
+        long[] times = new long[16];
+        long[] boundaries = new long[16];
+        int[] offs = new int[17];
+        offs[0] = rules.getOffset(Instant.ofEpochMilli(from)).getTotalSeconds() * 1000;
+        int count = 0;
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(from));
+        while (transition != null && transition.toEpochSecond() * 1000 < to) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+                boundaries = Arrays.copyOf(boundaries, count * 2);
+                offs = Arrays.copyOf(offs, count * 2 + 1);
+            }
+            long at = transition.toEpochSecond() * 1000;
+            int before = transition.getOffsetBefore().getTotalSeconds() * 1000;
+            int after = transition.getOffsetAfter().getTotalSeconds() * 1000;
+            times[count] = at;
+            boundaries[count] = at + Math.max(before, after);
+            offs[++count] = after;
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        this.transitions = Arrays.copyOf(times, count);
+        this.localBoundaries = Arrays.copyOf(boundaries, count);
+        this.offsets = Arrays.copyOf(offs, count + 1);
+        this.daySegments = buildDaySegments();
+    }
+
+    private char[] buildDaySegments() {
+        long days = (to - from) / MILLIS_PER_DAY;
+        if (transitions.length == 0 || transitions.length > Character.MAX_VALUE || days > MAX_DAY_TABLE_DAYS) {
+            return null;
+        }
+        char[] segments = new char[(int) days];
+        int segment = 0;
+        for (int day = 0; day < segments.length; day++) {
+            long dayStart = from + day * MILLIS_PER_DAY;
+            while (segment < transitions.length && transitions[segment] <= dayStart) {
+                segment++;
+            }
+            segments[day] = (char) segment;
+        }
+        return segments;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * 范围内的切换次数，固定偏移量的时区为0
+     */
+    public int getTransitionCount() {
+        return transitions.length;
+    }
+
+    /**
+     * 时间戳对应的偏移量（毫秒）
+     */
+    public int getOffsetMillis(long epochMilli) {
+        if (epochMilli < from || epochMilli >= to) {
+            return rules.getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds() * 1000;
+        }
+        return offsets[segment(epochMilli)];
+    }
+
+    /**
+     * 时间戳转本地毫秒
+     */
+    public long toLocalMillis(long epochMilli) {
+        return epochMilli + getOffsetMillis(epochMilli);
+    }
+
+    /**
+     * 本地毫秒转时间戳，规则与 atZone 一致
+     */
+    public long toEpochMilli(long localMillis) {
+        if (!inLocalRange(localMillis)) {
+            return fallbackToEpochMilli(localMillis);
+        }
+        return localMillis - offsets[localSegment(localMillis)];
+    }
+
+    /**
+     * 批量把时间戳转为本地毫秒，src 与 dst 可以是同一个数组
+     */
+    public void toLocalMillis(long[] src, long[] dst) {
+        if (dst.length < src.length) {
+            throw new IllegalArgumentException("dst.length < src.length: " + dst.length + " < " + src.length);
+        }
+        toLocalMillis(src, 0, dst, 0, src.length);
+    }
+
+    public void toLocalMillis(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+        checkRange(src, srcPos, dst, dstPos, length);
+        long[] transitions = this.transitions;
+        int[] offsets = this.offsets;
+        // 当前区间 [low, high) 及其偏移量
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long epochMilli = src[srcPos + i];
+            if (epochMilli < low || epochMilli >= high) {
+                if (epochMilli < from || epochMilli >= to) {
+                    dst[dstPos + i] = epochMilli
+                            + rules.getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds() * 1000;
+                    continue;
+                }
+                int segment = segment(epochMilli);
+                low = segment == 0 ? from : transitions[segment - 1];
+                high = segment == transitions.length ? to : transitions[segment];
+                offset = offsets[segment];
+            }
+            dst[dstPos + i] = epochMilli + offset;
+        }
+    }
+
+    /**
+     * 批量把本地毫秒转为时间戳，src 与 dst 可以是同一个数组
+     */
+    public void toEpochMillis(long[] src, long[] dst) {
+        if (dst.length < src.length) {
+            throw new IllegalArgumentException("dst.length < src.length: " + dst.length + " < " + src.length);
+        }
+        toEpochMillis(src, 0, dst, 0, src.length);
+    }
+
+    public void toEpochMillis(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+        checkRange(src, srcPos, dst, dstPos, length);
+        long[] boundaries = this.localBoundaries;
+        int[] offsets = this.offsets;
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long localMillis = src[srcPos + i];
+            if (localMillis < low || localMillis >= high) {
+                if (!inLocalRange(localMillis)) {
+                    dst[dstPos + i] = fallbackToEpochMilli(localMillis);
+                    continue;
+                }
+                int segment = localSegment(localMillis);
+                low = segment == 0 ? from + MILLIS_PER_DAY : boundaries[segment - 1];
+                high = segment == boundaries.length ? to - MILLIS_PER_DAY : boundaries[segment];
+                offset = offsets[segment];
+            }
+            dst[dstPos + i] = localMillis - offset;
+        }
+    }
+
+    /**
+     * 偏移量不超过 ±18 小时，本地时间离范围边界一天以上时对应的时间戳一定在范围内
+     */
+    private boolean inLocalRange(long localMillis) {
+        return localMillis >= from + MILLIS_PER_DAY && localMillis < to - MILLIS_PER_DAY;
+    }
+
+    private long fallbackToEpochMilli(long localMillis) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000L),
+                (int) Math.floorMod(localMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 时间戳所在区间的下标，即不晚于它的切换点个数
+     */
+    private int segment(long epochMilli) {
+        if (daySegments == null) {
+            return binarySearch(transitions, epochMilli);
+        }
+        int segment = daySegments[(int) ((epochMilli - from) / MILLIS_PER_DAY)];
+        // 一天之内最多切换一两次
+        while (segment < transitions.length && transitions[segment] <= epochMilli) {
+            segment++;
+        }
+        return segment;
+    }
+
+    /**
+     * 本地时间所在区间的下标，即不晚于它的 localBoundaries 个数
+     */
+    private int localSegment(long localMillis) {
+        if (daySegments == null) {
+            return binarySearch(localBoundaries, localMillis);
+        }
+        // 边界与切换时刻相差不到一天，前一天零点之前的切换点，其边界一定不晚于 localMillis
+        int segment = daySegments[(int) ((localMillis - from) / MILLIS_PER_DAY) - 1];
+        while (segment < localBoundaries.length && localBoundaries[segment] <= localMillis) {
+            segment++;
+        }
+        return segment;
+    }
+
+    /**
+     * 不大于 value 的元素个数
+     */
+    private static int binarySearch(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void checkRange(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+        if (srcPos < 0 || dstPos < 0 || length < 0 || srcPos > src.length - length || dstPos > dst.length - length) {
+            throw new IndexOutOfBoundsException("srcPos=" + srcPos + ", dstPos=" + dstPos + ", length=" + length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return zone + "[" + fromYear + ".." + toYear + ", " + transitions.length + " transitions]";
+    }
+}
@@ -1,6 +1,10 @@
 package com.zyz.usualcode.guava;
 
 import com.google.common.collect.Sets;
+import com.zyz.usualcode.guava.primitive.IntBitmap;
+import com.zyz.usualcode.guava.primitive.IntSet;
+import com.zyz.usualcode.guava.primitive.IntSets;
+import com.zyz.usualcode.guava.primitive.SortedIntSet;
 
 import java.util.HashSet;
 import java.util.Optional;
@@ -23,5 +27,13 @@ public class BasicUse {
         System.out.println("union: " + union);
         Sets.SetView<Integer> difference = Sets.difference(setA, setB);
         System.out.println("difference: " + difference);
+
+        // 上面的视图每个元素都装箱，每次遍历都要到两个 HashSet 里重新查找
+        // 大量 int ID 用 primitive 包下的集合，按表示选择算法（有序数组归并、位图逐字位运算）
+        SortedIntSet idsA = SortedIntSet.of(1, 2, 3, 4, 5);
+        IntBitmap idsB = IntBitmap.of(4, 5, 6, 7, 8);
+        System.out.println("intersection size: " + IntSets.intersectionSize(idsA, idsB));
+        IntSet unionIds = IntSets.union(idsA, idsB).materialize();
+        System.out.println("union: " + unionIds);
     }
 }
@@ -0,0 +1,191 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 分块压缩的 int 位图
+ * <p>
+ * 按高16位分块，只为出现过的块分配一个 65536 位（1024 个 long）的容器，块按高16位升序排列。
+ * 稠密的 ID 集合每个元素约占 1 bit，交并差按 long 逐字做位运算，基数用 Long.bitCount 统计。
+ * 稀疏的集合（每块只有零星几个元素）用 {@link SortedIntSet} 更省内存。非线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:40
+ */
+public final class IntBitmap implements IntSet {
+
+    static final int WORDS = 1 << 10;
+
+    /**
+     * 高16位（有符号），升序
+     */
+    int[] keys;
+    long[][] containers;
+    int[] cardinalities;
+    /**
+     * 容器个数
+     */
+    int count;
+
+    public IntBitmap() {
+        this(new int[4], new long[4][], new int[4], 0);
+    }
+
+    IntBitmap(int[] keys, long[][] containers, int[] cardinalities, int count) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinalities = cardinalities;
+        this.count = count;
+    }
+
+    public static IntBitmap of(int... values) {
+        IntBitmap bitmap = new IntBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public static IntBitmap copyOf(IntSet set) {
+        if (set instanceof IntBitmap) {
+            IntBitmap source = (IntBitmap) set;
+            long[][] containers = new long[source.count][];
+            for (int i = 0; i < source.count; i++) {
+                containers[i] = source.containers[i].clone();
+            }
+            return new IntBitmap(Arrays.copyOf(source.keys, source.count), containers,
+                    Arrays.copyOf(source.cardinalities, source.count), source.count);
+        }
+        IntBitmap bitmap = new IntBitmap();
+        set.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    public boolean add(int value) {
+        int key = value >> 16;
+        int i = indexOf(key);
+        if (i < 0) {
+            i = insert(-i - 1, key);
+        }
+        long[] words = containers[i];
+        int low = value & 0xFFFF;
+        long bit = 1L << low;
+        int w = low >>> 6;
+        if ((words[w] & bit) != 0) {
+            return false;
+        }
+        words[w] |= bit;
+        cardinalities[i]++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int i = indexOf(value >> 16);
+        if (i < 0) {
+            return false;
+        }
+        long[] words = containers[i];
+        int low = value & 0xFFFF;
+        long bit = 1L << low;
+        int w = low >>> 6;
+        if ((words[w] & bit) == 0) {
+            return false;
+        }
+        words[w] &= ~bit;
+        if (--cardinalities[i] == 0) {
+            int moved = count - i - 1;
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(containers, i + 1, containers, i, moved);
+            System.arraycopy(cardinalities, i + 1, cardinalities, i, moved);
+            containers[--count] = null;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            size += cardinalities[i];
+        }
+        return size;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        int i = indexOf(value >> 16);
+        if (i < 0) {
+            return false;
+        }
+        int low = value & 0xFFFF;
+        return (containers[i][low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < count; i++) {
+            int high = keys[i] << 16;
+            long[] words = containers[i];
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int[] toSortedArray() {
+        int[] result = new int[size()];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            n = decode(keys[i], containers[i], result, n);
+        }
+        return result;
+    }
+
+    /**
+     * 把一个容器解码到 out[pos...]，返回写入后的位置
+     */
+    static int decode(int key, long[] words, int[] out, int pos) {
+        int high = key << 16;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                out[pos++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return pos;
+    }
+
+    int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, count, key);
+    }
+
+    private int insert(int index, int key) {
+        if (count == keys.length) {
+            int capacity = Math.max(count * 2, 4);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        int moved = count - index;
+        System.arraycopy(keys, index, keys, index + 1, moved);
+        System.arraycopy(containers, index, containers, index + 1, moved);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, moved);
+        keys[index] = key;
+        containers[index] = new long[WORDS];
+        cardinalities[index] = 0;
+        count++;
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "IntBitmap{size=" + size() + ", containers=" + count + "}";
+    }
+}
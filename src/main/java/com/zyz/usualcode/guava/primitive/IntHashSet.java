@@ -0,0 +1,193 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 开放寻址（线性探测）的 int 哈希集合
+ * 0 作为空槽标记，元素 0 单独用一个标志位记录。非线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:10
+ */
+public final class IntHashSet implements IntSet {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private int mask;
+    /**
+     * 不含 0 的元素个数
+     */
+    private int assigned;
+    private boolean hasZero;
+    private int resizeAt;
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计元素个数，装载因子不超过 0.5
+     */
+    public IntHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public static IntHashSet of(int... values) {
+        IntHashSet set = new IntHashSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int[] keys = this.keys;
+        int i = slot(value);
+        for (int key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                return false;
+            }
+        }
+        keys[i] = value;
+        if (++assigned >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int[] keys = this.keys;
+        int i = slot(value);
+        for (int key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                shiftBack(i);
+                assigned--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        int[] keys = this.keys;
+        int i = slot(value);
+        for (int key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return assigned + (hasZero ? 1 : 0);
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (int key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 全部元素，无序
+     */
+    public int[] toArray() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (int key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] toSortedArray() {
+        int[] result = toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slot(int value) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * 删除后把后面同一探测链上的元素往前挪，保证查找不会提前遇到空槽
+     */
+    private void shiftBack(int gap) {
+        int[] keys = this.keys;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            int key = keys[i];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key);
+            // home 不在 (gap, i] 之间时才能挪到 gap
+            if (gap <= i ? gap >= home || home > i : gap >= home && home > i) {
+                keys[gap] = key;
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = keys;
+        allocate(capacity);
+        for (int key : old) {
+            if (key != EMPTY) {
+                int i = slot(key);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity >>> 1;
+    }
+
+    static int capacityFor(int expectedSize) {
+        long capacity = Math.max(8, Long.highestOneBit(Math.max(1, (long) expectedSize) * 2 - 1) << 1);
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("too many elements: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,31 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.function.IntConsumer;
+
+/**
+ * int 集合，元素不装箱
+ * 交并差见 {@link IntSets}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:05
+ */
+public interface IntSet {
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    boolean contains(int value);
+
+    /**
+     * 遍历所有元素，顺序由具体实现决定
+     */
+    void forEach(IntConsumer action);
+
+    /**
+     * 升序排列的全部元素
+     */
+    int[] toSortedArray();
+}
@@ -0,0 +1,125 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * 两个 int 集合交并差的惰性视图，与 guava 的 Sets.SetView 一样不复制元素，底层集合的修改对视图可见
+ * <p>
+ * {@link #size()} 只计数不生成结果，每次调用都会重新计算；需要反复遍历时先 {@link #materialize()}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:55
+ */
+public final class IntSetView implements IntSet {
+
+    public enum Op {
+        INTERSECTION,
+        UNION,
+        DIFFERENCE
+    }
+
+    private final Op op;
+    private final IntSet left;
+    private final IntSet right;
+
+    IntSetView(Op op, IntSet left, IntSet right) {
+        this.op = op;
+        this.left = left;
+        this.right = right;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    @Override
+    public int size() {
+        int intersection = IntSets.intersectionSize(left, right);
+        switch (op) {
+            case INTERSECTION:
+                return intersection;
+            case UNION:
+                return left.size() + right.size() - intersection;
+            default:
+                return left.size() - intersection;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        switch (op) {
+            case UNION:
+                return left.isEmpty() && right.isEmpty();
+            default:
+                return size() == 0;
+        }
+    }
+
+    @Override
+    public boolean contains(int value) {
+        switch (op) {
+            case INTERSECTION:
+                return left.contains(value) && right.contains(value);
+            case UNION:
+                return left.contains(value) || right.contains(value);
+            default:
+                return left.contains(value) && !right.contains(value);
+        }
+    }
+
+    /**
+     * 不生成中间结果：交集遍历小的一边并在另一边查找，并集先遍历左边再遍历右边独有的元素
+     */
+    @Override
+    public void forEach(IntConsumer action) {
+        switch (op) {
+            case INTERSECTION: {
+                IntSet small = left.size() <= right.size() ? left : right;
+                IntSet large = small == left ? right : left;
+                small.forEach(value -> {
+                    if (large.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+            }
+            case UNION:
+                left.forEach(action);
+                right.forEach(value -> {
+                    if (!left.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+            default:
+                left.forEach(value -> {
+                    if (!right.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+        }
+    }
+
+    @Override
+    public int[] toSortedArray() {
+        return materialize().toSortedArray();
+    }
+
+    /**
+     * 按两边的实现选择算法生成结果：都是有序数组时归并（大小悬殊时跳跃查找），都是位图时逐字位运算，
+     * 其他情况在另一侧查找。结果是 {@link SortedIntSet}、{@link IntBitmap}，
+     * 或者（遍历的一侧是哈希集合时）{@link IntHashSet}
+     */
+    public IntSet materialize() {
+        return IntSets.materialize(op, left, right, null);
+    }
+
+    /**
+     * 同 {@link #materialize()}，两边元素总数超过 {@link IntSets#PARALLEL_THRESHOLD} 时在 pool 中分段并行计算
+     */
+    public IntSet materialize(ForkJoinPool pool) {
+        return IntSets.materialize(op, left, right, pool);
+    }
+}
@@ -0,0 +1,414 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * int 集合的交并差，对应 guava 的 Sets.intersection / union / difference，但元素不装箱
+ * <p>
+ * 返回惰性的 {@link IntSetView}，需要结果时再 materialize。按两边的实现选择算法：
+ * <ul>
+ *     <li>{@link SortedIntSet} 之间：线性归并，大小相差超过32倍时改为跳跃查找</li>
+ *     <li>{@link IntBitmap} 之间：按容器逐个 long 做 与、或、与非，Long.bitCount 计数</li>
+ *     <li>其他组合：遍历小的一边，在另一边 contains；并集先转成有序数组再归并</li>
+ * </ul>
+ *
+ * @author 张远卓
+ * @date 2026/10/17 18:05
+ */
+public final class IntSets {
+
+    /**
+     * 两边元素总数超过这个值才并行
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * 并行时每段至少的元素个数、容器个数
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+    private static final int MIN_CONTAINERS = 4;
+
+    private IntSets() {
+    }
+
+    public static IntSetView intersection(IntSet a, IntSet b) {
+        return new IntSetView(IntSetView.Op.INTERSECTION, a, b);
+    }
+
+    public static IntSetView union(IntSet a, IntSet b) {
+        return new IntSetView(IntSetView.Op.UNION, a, b);
+    }
+
+    /**
+     * a - b
+     */
+    public static IntSetView difference(IntSet a, IntSet b) {
+        return new IntSetView(IntSetView.Op.DIFFERENCE, a, b);
+    }
+
+    /**
+     * 交集的元素个数，不生成交集。并集、差集的个数由它和两边的 size 算出
+     */
+    public static int intersectionSize(IntSet a, IntSet b) {
+        if (a instanceof SortedIntSet && b instanceof SortedIntSet) {
+            SortedIntSet x = (SortedIntSet) a;
+            SortedIntSet y = (SortedIntSet) b;
+            return SortedIntOps.intersect(x.values, 0, x.size, y.values, 0, y.size, null, 0);
+        }
+        if (a instanceof IntBitmap && b instanceof IntBitmap) {
+            return bitmapIntersectionSize((IntBitmap) a, (IntBitmap) b);
+        }
+        IntSet small = a.size() <= b.size() ? a : b;
+        IntSet large = small == a ? b : a;
+        int[] n = new int[1];
+        small.forEach(value -> {
+            if (large.contains(value)) {
+                n[0]++;
+            }
+        });
+        return n[0];
+    }
+
+    /**
+     * @param pool 为 null 时不并行
+     */
+    static IntSet materialize(IntSetView.Op op, IntSet a, IntSet b, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) a.size() + b.size() > PARALLEL_THRESHOLD;
+        if (a instanceof SortedIntSet && b instanceof SortedIntSet) {
+            return parallel ? sortedParallel(op, (SortedIntSet) a, (SortedIntSet) b, pool)
+                    : sorted(op, (SortedIntSet) a, (SortedIntSet) b);
+        }
+        if (a instanceof IntBitmap && b instanceof IntBitmap) {
+            return bitmap(op, (IntBitmap) a, (IntBitmap) b, parallel ? pool : null);
+        }
+        switch (op) {
+            case INTERSECTION: {
+                IntSet small = a.size() <= b.size() ? a : b;
+                IntSet large = small == a ? b : a;
+                Collector collector = new Collector(small.size(), large, true);
+                small.forEach(collector);
+                return collector.toSet(isOrdered(small));
+            }
+            case DIFFERENCE: {
+                Collector collector = new Collector(a.size(), b, false);
+                a.forEach(collector);
+                return collector.toSet(isOrdered(a));
+            }
+            default:
+                return sorted(op, SortedIntSet.copyOf(a), SortedIntSet.copyOf(b));
+        }
+    }
+
+    /**
+     * forEach 是否按升序遍历
+     */
+    private static boolean isOrdered(IntSet set) {
+        return set instanceof SortedIntSet || set instanceof IntBitmap;
+    }
+
+    private static SortedIntSet sorted(IntSetView.Op op, SortedIntSet a, SortedIntSet b) {
+        int[] out = new int[bound(op, a.size, b.size)];
+        int n = apply(op, a.values, 0, a.size, b.values, 0, b.size, out, 0);
+        return n == 0 ? SortedIntSet.EMPTY : new SortedIntSet(out, n);
+    }
+
+    private static int bound(IntSetView.Op op, int aSize, int bSize) {
+        switch (op) {
+            case INTERSECTION:
+                return Math.min(aSize, bSize);
+            case UNION:
+                return aSize + bSize;
+            default:
+                return aSize;
+        }
+    }
+
+    static int apply(IntSetView.Op op, int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int outPos) {
+        switch (op) {
+            case INTERSECTION:
+                return SortedIntOps.intersect(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+            case UNION:
+                return SortedIntOps.union(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+            default:
+                return SortedIntOps.difference(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+        }
+    }
+
+    /**
+     * 按值域分段：从较大的一边（差集取左边）等距取分割值，两边用二分找到各段的起点，
+     * 先并行计数，再按前缀和并行写入同一个结果数组
+     */
+    private static SortedIntSet sortedParallel(IntSetView.Op op, SortedIntSet a, SortedIntSet b, ForkJoinPool pool) {
+        SortedIntSet pivot = op == IntSetView.Op.DIFFERENCE || a.size >= b.size ? a : b;
+        int chunks = Math.min(pool.getParallelism() * 4, pivot.size / MIN_CHUNK);
+        if (chunks < 2) {
+            return sorted(op, a, b);
+        }
+        int[] aBounds = new int[chunks + 1];
+        int[] bBounds = new int[chunks + 1];
+        for (int k = 1; k < chunks; k++) {
+            int splitter = pivot.values[(int) ((long) pivot.size * k / chunks)];
+            aBounds[k] = lowerBound(a, splitter);
+            bBounds[k] = lowerBound(b, splitter);
+        }
+        aBounds[chunks] = a.size;
+        bBounds[chunks] = b.size;
+
+        int[] counts = new int[chunks];
+        pool.invoke(new SortedTask(op, a.values, b.values, aBounds, bBounds, counts, null, 0, chunks));
+        int total = 0;
+        for (int k = 0; k < chunks; k++) {
+            int c = counts[k];
+            counts[k] = total;
+            total += c;
+        }
+        if (total == 0) {
+            return SortedIntSet.EMPTY;
+        }
+        int[] out = new int[total];
+        pool.invoke(new SortedTask(op, a.values, b.values, aBounds, bBounds, counts, out, 0, chunks));
+        return new SortedIntSet(out, total);
+    }
+
+    private static int lowerBound(SortedIntSet set, int key) {
+        int i = Arrays.binarySearch(set.values, 0, set.size, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static int bitmapIntersectionSize(IntBitmap a, IntBitmap b) {
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.count && j < b.count) {
+            int ka = a.keys[i];
+            int kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                long[] x = a.containers[i++];
+                long[] y = b.containers[j++];
+                for (int w = 0; w < IntBitmap.WORDS; w++) {
+                    n += Long.bitCount(x[w] & y[w]);
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 先按高16位合并出结果的容器列表，再逐个容器计算（可并行），最后去掉空容器
+     */
+    private static IntBitmap bitmap(IntSetView.Op op, IntBitmap a, IntBitmap b, ForkJoinPool pool) {
+        int max = op == IntSetView.Op.UNION ? a.count + b.count : a.count;
+        int[] keys = new int[max];
+        int[] aIndex = new int[max];
+        int[] bIndex = new int[max];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.count || j < b.count) {
+            // 高16位在 short 范围内，MAX_VALUE 表示这一边已经没有容器
+            int ka = i < a.count ? a.keys[i] : Integer.MAX_VALUE;
+            int kb = j < b.count ? b.keys[j] : Integer.MAX_VALUE;
+            if (ka < kb) {
+                if (op != IntSetView.Op.INTERSECTION) {
+                    keys[n] = ka;
+                    aIndex[n] = i;
+                    bIndex[n++] = -1;
+                }
+                i++;
+            } else if (ka > kb) {
+                if (op == IntSetView.Op.UNION) {
+                    keys[n] = kb;
+                    aIndex[n] = -1;
+                    bIndex[n++] = j;
+                }
+                j++;
+            } else {
+                keys[n] = ka;
+                aIndex[n] = i++;
+                bIndex[n++] = j++;
+            }
+        }
+        long[][] containers = new long[n][];
+        int[] cardinalities = new int[n];
+        BitmapTask task = new BitmapTask(op, a, b, aIndex, bIndex, containers, cardinalities, 0, n);
+        if (pool != null && n > MIN_CONTAINERS) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        int size = 0;
+        for (int k = 0; k < n; k++) {
+            if (cardinalities[k] != 0) {
+                keys[size] = keys[k];
+                containers[size] = containers[k];
+                cardinalities[size++] = cardinalities[k];
+            }
+        }
+        // keys 按两边的块数分配，三个数组截成同样的长度，之后 add 才能按同一个容量扩容
+        int capacity = Math.max(size, 1);
+        return new IntBitmap(Arrays.copyOf(keys, capacity), Arrays.copyOf(containers, capacity),
+                Arrays.copyOf(cardinalities, capacity), size);
+    }
+
+    private static int combine(IntSetView.Op op, long[] x, long[] y, long[] out) {
+        int cardinality = 0;
+        switch (op) {
+            case INTERSECTION:
+                for (int w = 0; w < IntBitmap.WORDS; w++) {
+                    cardinality += Long.bitCount(out[w] = x[w] & y[w]);
+                }
+                break;
+            case UNION:
+                for (int w = 0; w < IntBitmap.WORDS; w++) {
+                    cardinality += Long.bitCount(out[w] = x[w] | y[w]);
+                }
+                break;
+            default:
+                for (int w = 0; w < IntBitmap.WORDS; w++) {
+                    cardinality += Long.bitCount(out[w] = x[w] & ~y[w]);
+                }
+                break;
+        }
+        return cardinality;
+    }
+
+    private static final class SortedTask extends RecursiveAction {
+        private final IntSetView.Op op;
+        private final int[] a;
+        private final int[] b;
+        private final int[] aBounds;
+        private final int[] bBounds;
+        /**
+         * out 为 null 时写入每段的个数，否则是每段在 out 中的起点
+         */
+        private final int[] counts;
+        private final int[] out;
+        private final int from;
+        private final int to;
+
+        SortedTask(IntSetView.Op op, int[] a, int[] b, int[] aBounds, int[] bBounds, int[] counts, int[] out,
+                   int from, int to) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.aBounds = aBounds;
+            this.bBounds = bBounds;
+            this.counts = counts;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int n = apply(op, a, aBounds[from], aBounds[to], b, bBounds[from], bBounds[to], out,
+                        out == null ? 0 : counts[from]);
+                if (out == null) {
+                    counts[from] = n;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortedTask(op, a, b, aBounds, bBounds, counts, out, from, mid),
+                    new SortedTask(op, a, b, aBounds, bBounds, counts, out, mid, to));
+        }
+    }
+
+    private static final class BitmapTask extends RecursiveAction {
+        private final IntSetView.Op op;
+        private final IntBitmap a;
+        private final IntBitmap b;
+        private final int[] aIndex;
+        private final int[] bIndex;
+        private final long[][] containers;
+        private final int[] cardinalities;
+        private final int from;
+        private final int to;
+
+        BitmapTask(IntSetView.Op op, IntBitmap a, IntBitmap b, int[] aIndex, int[] bIndex, long[][] containers,
+                   int[] cardinalities, int from, int to) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.aIndex = aIndex;
+            this.bIndex = bIndex;
+            this.containers = containers;
+            this.cardinalities = cardinalities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_CONTAINERS || getPool() == null) {
+                for (int k = from; k < to; k++) {
+                    int i = aIndex[k];
+                    int j = bIndex[k];
+                    if (i < 0) {
+                        containers[k] = b.containers[j].clone();
+                        cardinalities[k] = b.cardinalities[j];
+                    } else if (j < 0) {
+                        containers[k] = a.containers[i].clone();
+                        cardinalities[k] = a.cardinalities[i];
+                    } else {
+                        long[] words = new long[IntBitmap.WORDS];
+                        cardinalities[k] = combine(op, a.containers[i], b.containers[j], words);
+                        containers[k] = words;
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BitmapTask(op, a, b, aIndex, bIndex, containers, cardinalities, from, mid),
+                    new BitmapTask(op, a, b, aIndex, bIndex, containers, cardinalities, mid, to));
+        }
+    }
+
+    /**
+     * 遍历一边时按另一边是否包含筛选
+     */
+    private static final class Collector implements IntConsumer {
+        private final int[] values;
+        private final IntSet other;
+        private final boolean keepIfContained;
+        private int size;
+
+        Collector(int capacity, IntSet other, boolean keepIfContained) {
+            this.values = new int[capacity];
+            this.other = other;
+            this.keepIfContained = keepIfContained;
+        }
+
+        @Override
+        public void accept(int value) {
+            if (other.contains(value) == keepIfContained) {
+                values[size++] = value;
+            }
+        }
+
+        /**
+         * 按升序收集的直接作为有序数组，否则放进哈希集合，省去排序
+         */
+        IntSet toSet(boolean ordered) {
+            if (size == 0) {
+                return SortedIntSet.EMPTY;
+            }
+            if (ordered) {
+                return new SortedIntSet(values, size);
+            }
+            IntHashSet set = new IntHashSet(size);
+            for (int i = 0; i < size; i++) {
+                set.add(values[i]);
+            }
+            return set;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * 开放寻址（线性探测）的 long 哈希集合
+ * 0 作为空槽标记，元素 0 单独用一个标志位记录。非线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:10
+ */
+public final class LongHashSet implements LongSet {
+
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int mask;
+    /**
+     * 不含 0 的元素个数
+     */
+    private int assigned;
+    private boolean hasZero;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计元素个数，装载因子不超过 0.5
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(IntHashSet.capacityFor(expectedSize));
+    }
+
+    public static LongHashSet of(long... values) {
+        LongHashSet set = new LongHashSet(values.length);
+        for (long value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        long[] keys = this.keys;
+        int i = slot(value);
+        for (long key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                return false;
+            }
+        }
+        keys[i] = value;
+        if (++assigned >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        long[] keys = this.keys;
+        int i = slot(value);
+        for (long key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                shiftBack(i);
+                assigned--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        long[] keys = this.keys;
+        int i = slot(value);
+        for (long key; (key = keys[i]) != EMPTY; i = (i + 1) & mask) {
+            if (key == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return assigned + (hasZero ? 1 : 0);
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 全部元素，无序
+     */
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long[] toSortedArray() {
+        long[] result = toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slot(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * 删除后把后面同一探测链上的元素往前挪，保证查找不会提前遇到空槽
+     */
+    private void shiftBack(int gap) {
+        long[] keys = this.keys;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            long key = keys[i];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key);
+            // home 不在 (gap, i] 之间时才能挪到 gap
+            if (gap <= i ? gap >= home || home > i : gap >= home && home > i) {
+                keys[gap] = key;
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != EMPTY) {
+                int i = slot(key);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity >>> 1;
+    }
+
+}
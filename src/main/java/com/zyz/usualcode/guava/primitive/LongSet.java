@@ -0,0 +1,31 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.function.LongConsumer;
+
+/**
+ * long 集合，元素不装箱
+ * 交并差见 {@link LongSets}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:05
+ */
+public interface LongSet {
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    boolean contains(long value);
+
+    /**
+     * 遍历所有元素，顺序由具体实现决定
+     */
+    void forEach(LongConsumer action);
+
+    /**
+     * 升序排列的全部元素
+     */
+    long[] toSortedArray();
+}
@@ -0,0 +1,124 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+
+/**
+ * 两个 long 集合交并差的惰性视图，与 guava 的 Sets.SetView 一样不复制元素，底层集合的修改对视图可见
+ * <p>
+ * {@link #size()} 只计数不生成结果，每次调用都会重新计算；需要反复遍历时先 {@link #materialize()}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 18:30
+ */
+public final class LongSetView implements LongSet {
+
+    public enum Op {
+        INTERSECTION,
+        UNION,
+        DIFFERENCE
+    }
+
+    private final Op op;
+    private final LongSet left;
+    private final LongSet right;
+
+    LongSetView(Op op, LongSet left, LongSet right) {
+        this.op = op;
+        this.left = left;
+        this.right = right;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    @Override
+    public int size() {
+        int intersection = LongSets.intersectionSize(left, right);
+        switch (op) {
+            case INTERSECTION:
+                return intersection;
+            case UNION:
+                return left.size() + right.size() - intersection;
+            default:
+                return left.size() - intersection;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        switch (op) {
+            case UNION:
+                return left.isEmpty() && right.isEmpty();
+            default:
+                return size() == 0;
+        }
+    }
+
+    @Override
+    public boolean contains(long value) {
+        switch (op) {
+            case INTERSECTION:
+                return left.contains(value) && right.contains(value);
+            case UNION:
+                return left.contains(value) || right.contains(value);
+            default:
+                return left.contains(value) && !right.contains(value);
+        }
+    }
+
+    /**
+     * 不生成中间结果：交集遍历小的一边并在另一边查找，并集先遍历左边再遍历右边独有的元素
+     */
+    @Override
+    public void forEach(LongConsumer action) {
+        switch (op) {
+            case INTERSECTION: {
+                LongSet small = left.size() <= right.size() ? left : right;
+                LongSet large = small == left ? right : left;
+                small.forEach(value -> {
+                    if (large.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+            }
+            case UNION:
+                left.forEach(action);
+                right.forEach(value -> {
+                    if (!left.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+            default:
+                left.forEach(value -> {
+                    if (!right.contains(value)) {
+                        action.accept(value);
+                    }
+                });
+                break;
+        }
+    }
+
+    @Override
+    public long[] toSortedArray() {
+        return materialize().toSortedArray();
+    }
+
+    /**
+     * 按两边的实现选择算法生成结果：都是有序数组时归并（大小悬殊时跳跃查找），其他情况在另一侧查找。
+     * 结果是 {@link SortedLongSet}，或者（遍历的一侧是哈希集合时）{@link LongHashSet}
+     */
+    public LongSet materialize() {
+        return LongSets.materialize(op, left, right, null);
+    }
+
+    /**
+     * 同 {@link #materialize()}，两边元素总数超过 {@link LongSets#PARALLEL_THRESHOLD} 时在 pool 中分段并行计算
+     */
+    public LongSet materialize(ForkJoinPool pool) {
+        return LongSets.materialize(op, left, right, pool);
+    }
+}
@@ -0,0 +1,255 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+
+/**
+ * long 集合的交并差，与 {@link IntSets} 相同：返回惰性的 {@link LongSetView}，需要结果时再 materialize，
+ * 两边元素总数超过 PARALLEL_THRESHOLD 时可以在 ForkJoinPool 中分段并行。按两边的实现选择算法：
+ * <ul>
+ *     <li>{@link SortedLongSet} 之间：线性归并，大小相差超过32倍时改为跳跃查找</li>
+ *     <li>其他组合：遍历小的一边，在另一边 contains；并集先转成有序数组再归并</li>
+ * </ul>
+ * long 的值域太大，没有对应的位图实现，稠密的 ID 请用 {@link IntBitmap}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 18:30
+ */
+public final class LongSets {
+
+    /**
+     * 两边元素总数超过这个值才并行
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * 并行时每段至少的元素个数
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private LongSets() {
+    }
+
+    public static LongSetView intersection(LongSet a, LongSet b) {
+        return new LongSetView(LongSetView.Op.INTERSECTION, a, b);
+    }
+
+    public static LongSetView union(LongSet a, LongSet b) {
+        return new LongSetView(LongSetView.Op.UNION, a, b);
+    }
+
+    /**
+     * a - b
+     */
+    public static LongSetView difference(LongSet a, LongSet b) {
+        return new LongSetView(LongSetView.Op.DIFFERENCE, a, b);
+    }
+
+    /**
+     * 交集的元素个数，不生成交集。并集、差集的个数由它和两边的 size 算出
+     */
+    public static int intersectionSize(LongSet a, LongSet b) {
+        if (a instanceof SortedLongSet && b instanceof SortedLongSet) {
+            SortedLongSet x = (SortedLongSet) a;
+            SortedLongSet y = (SortedLongSet) b;
+            return SortedLongOps.intersect(x.values, 0, x.size, y.values, 0, y.size, null, 0);
+        }
+        LongSet small = a.size() <= b.size() ? a : b;
+        LongSet large = small == a ? b : a;
+        int[] n = new int[1];
+        small.forEach(value -> {
+            if (large.contains(value)) {
+                n[0]++;
+            }
+        });
+        return n[0];
+    }
+
+    /**
+     * @param pool 为 null 时不并行
+     */
+    static LongSet materialize(LongSetView.Op op, LongSet a, LongSet b, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) a.size() + b.size() > PARALLEL_THRESHOLD;
+        if (a instanceof SortedLongSet && b instanceof SortedLongSet) {
+            return parallel ? sortedParallel(op, (SortedLongSet) a, (SortedLongSet) b, pool)
+                    : sorted(op, (SortedLongSet) a, (SortedLongSet) b);
+        }
+        switch (op) {
+            case INTERSECTION: {
+                LongSet small = a.size() <= b.size() ? a : b;
+                LongSet large = small == a ? b : a;
+                Collector collector = new Collector(small.size(), large, true);
+                small.forEach(collector);
+                return collector.toSet(isOrdered(small));
+            }
+            case DIFFERENCE: {
+                Collector collector = new Collector(a.size(), b, false);
+                a.forEach(collector);
+                return collector.toSet(isOrdered(a));
+            }
+            default:
+                return sorted(op, SortedLongSet.copyOf(a), SortedLongSet.copyOf(b));
+        }
+    }
+
+    /**
+     * forEach 是否按升序遍历
+     */
+    private static boolean isOrdered(LongSet set) {
+        return set instanceof SortedLongSet;
+    }
+
+    private static SortedLongSet sorted(LongSetView.Op op, SortedLongSet a, SortedLongSet b) {
+        long[] out = new long[bound(op, a.size, b.size)];
+        int n = apply(op, a.values, 0, a.size, b.values, 0, b.size, out, 0);
+        return n == 0 ? SortedLongSet.EMPTY : new SortedLongSet(out, n);
+    }
+
+    private static int bound(LongSetView.Op op, int aSize, int bSize) {
+        switch (op) {
+            case INTERSECTION:
+                return Math.min(aSize, bSize);
+            case UNION:
+                return aSize + bSize;
+            default:
+                return aSize;
+        }
+    }
+
+    static int apply(LongSetView.Op op, long[] a, int aFrom, int aTo, long[] b, int bFrom, int bTo, long[] out, int outPos) {
+        switch (op) {
+            case INTERSECTION:
+                return SortedLongOps.intersect(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+            case UNION:
+                return SortedLongOps.union(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+            default:
+                return SortedLongOps.difference(a, aFrom, aTo, b, bFrom, bTo, out, outPos);
+        }
+    }
+
+    /**
+     * 按值域分段：从较大的一边（差集取左边）等距取分割值，两边用二分找到各段的起点，
+     * 先并行计数，再按前缀和并行写入同一个结果数组
+     */
+    private static SortedLongSet sortedParallel(LongSetView.Op op, SortedLongSet a, SortedLongSet b, ForkJoinPool pool) {
+        SortedLongSet pivot = op == LongSetView.Op.DIFFERENCE || a.size >= b.size ? a : b;
+        int chunks = Math.min(pool.getParallelism() * 4, pivot.size / MIN_CHUNK);
+        if (chunks < 2) {
+            return sorted(op, a, b);
+        }
+        int[] aBounds = new int[chunks + 1];
+        int[] bBounds = new int[chunks + 1];
+        for (int k = 1; k < chunks; k++) {
+            long splitter = pivot.values[(int) ((long) pivot.size * k / chunks)];
+            aBounds[k] = lowerBound(a, splitter);
+            bBounds[k] = lowerBound(b, splitter);
+        }
+        aBounds[chunks] = a.size;
+        bBounds[chunks] = b.size;
+
+        int[] counts = new int[chunks];
+        pool.invoke(new SortedTask(op, a.values, b.values, aBounds, bBounds, counts, null, 0, chunks));
+        int total = 0;
+        for (int k = 0; k < chunks; k++) {
+            int c = counts[k];
+            counts[k] = total;
+            total += c;
+        }
+        if (total == 0) {
+            return SortedLongSet.EMPTY;
+        }
+        long[] out = new long[total];
+        pool.invoke(new SortedTask(op, a.values, b.values, aBounds, bBounds, counts, out, 0, chunks));
+        return new SortedLongSet(out, total);
+    }
+
+    private static int lowerBound(SortedLongSet set, long key) {
+        int i = Arrays.binarySearch(set.values, 0, set.size, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static final class SortedTask extends RecursiveAction {
+        private final LongSetView.Op op;
+        private final long[] a;
+        private final long[] b;
+        private final int[] aBounds;
+        private final int[] bBounds;
+        /**
+         * out 为 null 时写入每段的个数，否则是每段在 out 中的起点
+         */
+        private final int[] counts;
+        private final long[] out;
+        private final int from;
+        private final int to;
+
+        SortedTask(LongSetView.Op op, long[] a, long[] b, int[] aBounds, int[] bBounds, int[] counts, long[] out,
+                   int from, int to) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.aBounds = aBounds;
+            this.bBounds = bBounds;
+            this.counts = counts;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int n = apply(op, a, aBounds[from], aBounds[to], b, bBounds[from], bBounds[to], out,
+                        out == null ? 0 : counts[from]);
+                if (out == null) {
+                    counts[from] = n;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortedTask(op, a, b, aBounds, bBounds, counts, out, from, mid),
+                    new SortedTask(op, a, b, aBounds, bBounds, counts, out, mid, to));
+        }
+    }
+
+    /**
+     * 遍历一边时按另一边是否包含筛选
+     */
+    private static final class Collector implements LongConsumer {
+        private final long[] values;
+        private final LongSet other;
+        private final boolean keepIfContained;
+        private int size;
+
+        Collector(int capacity, LongSet other, boolean keepIfContained) {
+            this.values = new long[capacity];
+            this.other = other;
+            this.keepIfContained = keepIfContained;
+        }
+
+        @Override
+        public void accept(long value) {
+            if (other.contains(value) == keepIfContained) {
+                values[size++] = value;
+            }
+        }
+
+        /**
+         * 按升序收集的直接作为有序数组，否则放进哈希集合，省去排序
+         */
+        LongSet toSet(boolean ordered) {
+            if (size == 0) {
+                return SortedLongSet.EMPTY;
+            }
+            if (ordered) {
+                return new SortedLongSet(values, size);
+            }
+            LongHashSet set = new LongHashSet(size);
+            for (int i = 0; i < size; i++) {
+                set.add(values[i]);
+            }
+            return set;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.zyz.usualcode.guava.primitive;
+
+/**
+ * 有序 int[] 区间上的交并差
+ * 两边大小相近时线性归并；相差超过 {@link #GALLOP_RATIO} 倍时，小的一边逐个在大的一边跳跃查找，
+ * 大的一边中间不需要比较的部分整段复制。
+ * out 为 null 时只计数
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:30
+ */
+final class SortedIntOps {
+
+    static final int GALLOP_RATIO = 32;
+
+    private SortedIntOps() {
+    }
+
+    static int intersect(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int outPos) {
+        int aLen = aTo - aFrom;
+        int bLen = bTo - bFrom;
+        if (aLen > bLen) {
+            return intersect(b, bFrom, bTo, a, aFrom, aTo, out, outPos);
+        }
+        int n = 0;
+        if ((long) aLen * GALLOP_RATIO < bLen) {
+            int j = bFrom;
+            for (int i = aFrom; i < aTo && j < bTo; i++) {
+                int x = a[i];
+                j = gallop(b, j, bTo, x);
+                if (j < bTo && b[j] == x) {
+                    if (out != null) {
+                        out[outPos + n] = x;
+                    }
+                    n++;
+                    j++;
+                }
+            }
+            return n;
+        }
+        int i = aFrom;
+        int j = bFrom;
+        while (i < aTo && j < bTo) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[outPos + n] = x;
+                }
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    static int union(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int outPos) {
+        int aLen = aTo - aFrom;
+        int bLen = bTo - bFrom;
+        if (aLen < bLen) {
+            return union(b, bFrom, bTo, a, aFrom, aTo, out, outPos);
+        }
+        int n = 0;
+        int i = aFrom;
+        if ((long) bLen * GALLOP_RATIO < aLen) {
+            // b 很小：b 的每个元素在 a 中定位，中间整段复制
+            for (int j = bFrom; j < bTo; j++) {
+                int y = b[j];
+                int k = gallop(a, i, aTo, y);
+                n += copy(a, i, k, out, outPos + n);
+                i = k;
+                if (i >= aTo || a[i] != y) {
+                    if (out != null) {
+                        out[outPos + n] = y;
+                    }
+                    n++;
+                }
+            }
+            return n + copy(a, i, aTo, out, outPos + n);
+        }
+        int j = bFrom;
+        while (i < aTo && j < bTo) {
+            int x = a[i];
+            int y = b[j];
+            int v;
+            if (x < y) {
+                v = x;
+                i++;
+            } else if (x > y) {
+                v = y;
+                j++;
+            } else {
+                v = x;
+                i++;
+                j++;
+            }
+            if (out != null) {
+                out[outPos + n] = v;
+            }
+            n++;
+        }
+        n += copy(a, i, aTo, out, outPos + n);
+        return n + copy(b, j, bTo, out, outPos + n);
+    }
+
+    /**
+     * a - b
+     */
+    static int difference(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int outPos) {
+        int aLen = aTo - aFrom;
+        int bLen = bTo - bFrom;
+        int n = 0;
+        if ((long) aLen * GALLOP_RATIO < bLen) {
+            // a 很小：a 的每个元素在 b 中跳跃查找
+            int j = bFrom;
+            for (int i = aFrom; i < aTo; i++) {
+                int x = a[i];
+                j = gallop(b, j, bTo, x);
+                if (j >= bTo || b[j] != x) {
+                    if (out != null) {
+                        out[outPos + n] = x;
+                    }
+                    n++;
+                }
+            }
+            return n;
+        }
+        int i = aFrom;
+        if ((long) bLen * GALLOP_RATIO < aLen) {
+            // b 很小：b 的每个元素在 a 中定位，中间整段复制
+            for (int j = bFrom; j < bTo; j++) {
+                int y = b[j];
+                int k = gallop(a, i, aTo, y);
+                n += copy(a, i, k, out, outPos + n);
+                i = k < aTo && a[k] == y ? k + 1 : k;
+            }
+            return n + copy(a, i, aTo, out, outPos + n);
+        }
+        int j = bFrom;
+        while (i < aTo && j < bTo) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y) {
+                if (out != null) {
+                    out[outPos + n] = x;
+                }
+                n++;
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return n + copy(a, i, aTo, out, outPos + n);
+    }
+
+    /**
+     * [from, to) 中第一个 >= key 的下标，先按 1、2、4... 的步长跳跃再二分
+     */
+    static int gallop(int[] array, int from, int to, int key) {
+        if (from >= to || array[from] >= key) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < to && array[high] < key) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        if (high > to) {
+            high = to;
+        }
+        // array[low] < key，且 high == to 或 array[high] >= key
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    private static int copy(int[] src, int from, int to, int[] out, int outPos) {
+        if (out != null && to > from) {
+            System.arraycopy(src, from, out, outPos, to - from);
+        }
+        return to - from;
+    }
+}
@@ -0,0 +1,119 @@
+package com.zyz.usualcode.guava.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 基于升序 int[] 的不可变集合，内存最紧凑，适合归并、跳跃查找
+ *
+ * @author 张远卓
+ * @date 2026/10/17 17:20
+ */
+public final class SortedIntSet implements IntSet {
+
+    static final SortedIntSet EMPTY = new SortedIntSet(new int[0], 0);
+
+    final int[] values;
+    final int size;
+
+    SortedIntSet(int[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * 复制、排序并去重
+     */
+    public static SortedIntSet of(int... values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        int n = 0;
+        for (int i = 0; i < copy.length; i++) {
+            if (i == 0 || copy[i] != copy[n - 1]) {
+                copy[n++] = copy[i];
+            }
+        }
+        return new SortedIntSet(copy, n);
+    }
+
+    public static SortedIntSet copyOf(IntSet set) {
+        if (set instanceof SortedIntSet) {
+            return (SortedIntSet) set;
+        }
+        int[] values = set.toSortedArray();
+        return new SortedIntSet(values, values.length);
+    }
+
+    /**
+     * 直接使用调用方的数组，调用方保证严格升序且之后不再修改
+     */
+    public static SortedIntSet wrapSorted(int[] sortedUnique) {
+        return new SortedIntSet(sortedUnique, sortedUnique.length);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * 第 index 小的元素
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    @Override
+    public int[] toSortedArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SortedIntSet)) {
+            return false;
+        }
+        SortedIntSet other = (SortedIntSet) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (values[i] != other.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + values[i];
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toSortedArray());
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * 不装箱的 int、long 集合及其交并差
+ * 开放寻址哈希集合、有序数组、分块位图三种表示，交并差按两边的表示选择归并、跳跃查找或逐字位运算，可惰性也可生成结果，大集合可并行
+ */
+package com.zyz.usualcode.guava.primitive;
@@ -0,0 +1,118 @@
+package com.zyz.usualcode.jFinal;
+
+import com.zyz.usualcode.dateTime.format.IsoDateTimeParser;
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.User;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用 {@link LiteHttpServer} 提供与 spring 版本相同的几个接口，用于只需要这几个接口的边缘节点：
+ * <ul>
+ *     <li>GET /localDate?date=2020-10-13，同 TestController，也可以传毫秒时间戳</li>
+ *     <li>POST /localDate，请求体为 "2020-10-13" 或毫秒时间戳，同 TestController</li>
+ *     <li>GET /users/{loginName}，同 UserController，返回 id、loginName，没有时返回404</li>
+ * </ul>
+ * 参数错误返回400，spring 版本由 DateTimeWebMvcConfig、DateTimeJacksonModule 解析，规则相同
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+public final class EdgeServer {
+
+    private EdgeServer() {
+    }
+
+    /**
+     * @param blockingExecutor 执行用户查询
+     */
+    public static LiteHttpServer create(int port, MockUserDao userDao, ZoneId zone, Executor blockingExecutor) {
+        return LiteHttpServer.builder()
+                .port(port)
+                .blockingExecutor(blockingExecutor)
+                .get("/localDate", (request, response) -> {
+                    String date = request.getParameter("date");
+                    if (date == null) {
+                        throw new LiteRequest.BadRequestException("missing parameter: date");
+                    }
+                    response.write(parseDate(date.trim(), zone).toString());
+                })
+                .post("/localDate", (request, response) ->
+                        response.write(parseBody(request.getBodyAsString().trim(), zone).toString()))
+                .blocking("GET", "/users/", (request, response) -> {
+                    User user = userDao.findUserByLoginName(request.getPathRemainder());
+                    if (user == null) {
+                        response.text(404, "not found");
+                        return;
+                    }
+                    response.contentType(LiteResponse.APPLICATION_JSON)
+                            .write("{\"id\":").writeJsonString(user.getId())
+                            .write(",\"loginName\":").writeJsonString(user.getLoginName())
+                            .write("}");
+                })
+                .build();
+    }
+
+    /**
+     * 请求体是 JSON 字符串或整数
+     */
+    private static LocalDate parseBody(String body, ZoneId zone) {
+        if (body.length() >= 2 && body.charAt(0) == '"' && body.charAt(body.length() - 1) == '"') {
+            String text = body.substring(1, body.length() - 1).trim();
+            if (text.isEmpty() || text.indexOf('\\') >= 0) {
+                throw new LiteRequest.BadRequestException("illegal date: " + body);
+            }
+            return parseDate(text, zone);
+        }
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if ((c < '0' || c > '9') && (c != '-' || i > 0 || body.length() == 1)) {
+                throw new LiteRequest.BadRequestException("illegal date: " + body);
+            }
+        }
+        if (body.isEmpty()) {
+            throw new LiteRequest.BadRequestException("missing request body");
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(body)).atZone(zone).toLocalDate();
+        } catch (RuntimeException ex) {
+            throw new LiteRequest.BadRequestException("illegal date: " + body);
+        }
+    }
+
+    private static LocalDate parseDate(String text, ZoneId zone) {
+        try {
+            return IsoDateTimeParser.parseDate(text, zone);
+        } catch (DateTimeParseException ex) {
+            throw new LiteRequest.BadRequestException("illegal date: " + text);
+        }
+    }
+
+    /**
+     * 独立运行，参数为端口，默认8080；没有数据库，用户查询总是返回404
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(8, 8, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1024));
+        LiteHttpServer server = create(port, new MockUserDao(), ZoneId.systemDefault(), executor).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // 退出中
+            }
+            executor.shutdown();
+        }));
+        System.out.println("edge server started on port " + server.getPort());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,18 @@
+package com.zyz.usualcode.jFinal;
+
+/**
+ * {@link LiteHttpServer} 的请求处理器
+ * <p>
+ * request、response 属于连接，处理完一个请求后复用于下一个，不要在 handle 返回后继续持有
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+@FunctionalInterface
+public interface LiteHandler {
+
+    /**
+     * 抛出的 {@link LiteRequest.BadRequestException} 返回400，其他运行时异常返回500
+     */
+    void handle(LiteRequest request, LiteResponse response);
+}
@@ -0,0 +1,801 @@
+package com.zyz.usualcode.jFinal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 基于 jdk NIO 的最小 HTTP/1.1 服务器，不依赖 servlet 容器，适合只有几个接口的边缘节点
+ * <p>
+ * 若干个 I/O 线程各自一个 Selector，第一个线程同时负责 accept，新连接轮流分给各个线程。
+ * 每个连接一个读缓冲区、一个写缓冲区和一对复用的 {@link LiteRequest}、{@link LiteResponse}，
+ * 按初始大小预先分配，请求或响应超过时才扩容；路由是构建时确定的 HashMap 和前缀列表，处理时没有反射。
+ * <p>
+ * 支持 keep-alive 和管线化（按顺序逐个处理），HTTP/1.0 请求带 Connection: keep-alive 时响应中也带上这个头。
+ * 请求体只支持 Content-Length，多个 Content-Length 的值不一致时返回400（RFC 7230 3.3.3，防止请求走私），
+ * 不支持 chunked 请求体、Expect: 100-continue、HTTPS。
+ * 处理器默认在 I/O 线程上执行，不能阻塞；会阻塞的路由（查数据库等）用 {@link Builder#blocking} 注册，
+ * 在 blockingExecutor 上执行，期间连接不读新请求，执行器拒绝时返回503
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+public final class LiteHttpServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LiteHttpServer.class);
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] HTTP_1_1 = "HTTP/1.1 ".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] CONTENT_TYPE = "Content-Type: ".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] CONTENT_LENGTH = "Content-Length: ".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] CONNECTION_CLOSE = "Connection: close\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] CONNECTION_KEEP_ALIVE =
+            "Connection: keep-alive\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final InetSocketAddress address;
+    private final Map<String, Map<String, Route>> exactRoutes;
+    private final List<Route> prefixRoutes;
+    private final Executor blockingExecutor;
+    private final int ioThreads;
+    private final int bufferSize;
+    private final int maxRequestSize;
+    private final long idleTimeoutMillis;
+
+    private ServerSocketChannel serverChannel;
+    private Loop[] loops;
+    private int nextLoop;
+    private volatile boolean running;
+
+    private LiteHttpServer(Builder builder) {
+        this.address = builder.address;
+        this.exactRoutes = builder.exactRoutes;
+        this.prefixRoutes = builder.prefixRoutes;
+        this.blockingExecutor = builder.blockingExecutor;
+        this.ioThreads = builder.ioThreads;
+        this.bufferSize = builder.bufferSize;
+        this.maxRequestSize = builder.maxRequestSize;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public synchronized LiteHttpServer start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("already started");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        loops = new Loop[ioThreads];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new Loop(i);
+        }
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        for (Loop loop : loops) {
+            loop.thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * 实际监听的端口，port 为0时由系统分配
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Loop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (Loop loop : loops) {
+            try {
+                loop.thread.join(5000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        serverChannel.close();
+    }
+
+    private Route route(LiteRequest request) {
+        Map<String, Route> routes = exactRoutes.get(request.getMethod());
+        Route route = routes == null ? null : routes.get(request.getPath());
+        if (route != null) {
+            return route;
+        }
+        for (Route prefix : prefixRoutes) {
+            if (prefix.method.equals(request.getMethod()) && request.getPath().startsWith(prefix.path)
+                    && request.getPath().length() > prefix.path.length()) {
+                request.setPathRemainder(request.getPath().substring(prefix.path.length()));
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private static final class Route {
+        final String method;
+        final String path;
+        final LiteHandler handler;
+        final boolean blocking;
+
+        Route(String method, String path, LiteHandler handler, boolean blocking) {
+            this.method = method;
+            this.path = path;
+            this.handler = handler;
+            this.blocking = blocking;
+        }
+    }
+
+    /**
+     * 一个 I/O 线程
+     */
+    private final class Loop implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        Loop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "lite-http-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long lastIdleCheck = System.currentTimeMillis();
+            try {
+                while (running) {
+                    selector.select(1000);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        try {
+                            task.run();
+                        } catch (RuntimeException ex) {
+                            log.error("lite http loop {} task failed", thread.getName(), ex);
+                        }
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            connection.handle(key);
+                        } catch (RuntimeException ex) {
+                            // 只关闭出错的连接，I/O 线程继续服务其他连接
+                            log.error("lite http connection failed", ex);
+                            connection.close();
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                    long now = System.currentTimeMillis();
+                    if (now - lastIdleCheck >= 1000) {
+                        closeIdle(now);
+                        lastIdleCheck = now;
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.error("lite http loop {} stopped", thread.getName(), ex);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        ((Connection) key.attachment()).close();
+                    }
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // 已经在停止
+                }
+            }
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Loop target = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                SocketChannel accepted = channel;
+                if (target == this) {
+                    register(accepted);
+                } else {
+                    target.execute(() -> target.register(accepted));
+                }
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                Connection connection = new Connection(this, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (ClosedChannelException ex) {
+                // 客户端已经断开
+            }
+        }
+
+        private void closeIdle(long now) {
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof Connection) {
+                    Connection connection = (Connection) attachment;
+                    if (!connection.dispatched && now - connection.lastActive > idleTimeoutMillis) {
+                        connection.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 一个连接，只在所属的 I/O 线程上访问；阻塞路由执行期间交给执行器，执行完再回到 I/O 线程
+     */
+    private final class Connection {
+        final Loop loop;
+        final SocketChannel channel;
+        final LiteRequest request = new LiteRequest();
+        final LiteResponse response;
+        SelectionKey key;
+
+        byte[] in;
+        /**
+         * in 中 [start, end) 是还没处理的数据，scan 之前已经确认没有请求头结束标记
+         */
+        int start;
+        int end;
+        int scan;
+
+        byte[] out;
+        ByteBuffer outBuffer;
+
+        boolean http10;
+        boolean keepAlive;
+        boolean closeAfterWrite;
+        boolean dispatched;
+        long lastActive = System.currentTimeMillis();
+
+        Connection(Loop loop, SocketChannel channel) {
+            this.loop = loop;
+            this.channel = channel;
+            this.in = new byte[bufferSize];
+            this.out = new byte[bufferSize];
+            this.outBuffer = ByteBuffer.wrap(out, 0, 0);
+            this.response = new LiteResponse(bufferSize);
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isWritable()) {
+                    flush();
+                } else if (key.isReadable()) {
+                    read();
+                }
+            } catch (IOException ex) {
+                close();
+            }
+        }
+
+        private void read() throws IOException {
+            if (end == in.length) {
+                compact();
+            }
+            int n = channel.read(ByteBuffer.wrap(in, end, in.length - end));
+            if (n < 0) {
+                close();
+                return;
+            }
+            end += n;
+            lastActive = System.currentTimeMillis();
+            process();
+        }
+
+        /**
+         * 处理缓冲区中所有完整的请求
+         */
+        private void process() throws IOException {
+            while (!dispatched && outBuffer.remaining() == 0 && channel.isOpen()) {
+                int consumed = parse();
+                if (consumed == 0) {
+                    if (end - start >= maxRequestSize) {
+                        error(431, "request too large");
+                    }
+                    return;
+                }
+                if (consumed < 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 解析并处理一个请求
+         *
+         * @return 0 表示数据还不完整，-1 表示已经交给执行器或已出错关闭，正数表示已处理
+         */
+        private int parse() throws IOException {
+            int headerEnd = findHeaderEnd();
+            if (headerEnd < 0) {
+                return 0;
+            }
+            // 请求行
+            int lineEnd = LiteRequest.indexOf(in, (byte) '\r', start, headerEnd);
+            int sp1 = LiteRequest.indexOf(in, (byte) ' ', start, lineEnd);
+            int sp2 = LiteRequest.indexOf(in, (byte) ' ', sp1 + 1, lineEnd);
+            if (sp1 >= lineEnd || sp2 >= lineEnd || sp2 == sp1 + 1 || in[sp1 + 1] != '/') {
+                error(400, "bad request line");
+                return -1;
+            }
+            http10 = lineEnd - sp2 - 1 == 8 && in[lineEnd - 1] == '0' && in[lineEnd - 3] == '1';
+            String method = method(start, sp1);
+            int queryMark = LiteRequest.indexOf(in, (byte) '?', sp1 + 1, sp2);
+            String path;
+            try {
+                path = LiteRequest.decode(in, sp1 + 1, queryMark, false);
+            } catch (LiteRequest.BadRequestException ex) {
+                error(400, ex.getMessage());
+                return -1;
+            }
+            int queryFrom = Math.min(queryMark + 1, sp2);
+
+            // 请求头，只关心长度和连接方式
+            int headersFrom = lineEnd + 2;
+            long contentLength = -1;
+            keepAlive = !http10;
+            for (int from = headersFrom; from < headerEnd; ) {
+                int to = LiteRequest.indexOf(in, (byte) '\r', from, headerEnd);
+                int colon = LiteRequest.indexOf(in, (byte) ':', from, to);
+                int name = colon - from;
+                if (name == 14 && LiteRequest.regionEqualsIgnoreCase(in, from, "content-length")) {
+                    long length = parseLength(colon + 1, to);
+                    if (length < 0 || contentLength >= 0 && length != contentLength) {
+                        error(400, "bad content-length");
+                        return -1;
+                    }
+                    contentLength = length;
+                } else if (name == 17 && LiteRequest.regionEqualsIgnoreCase(in, from, "transfer-encoding")) {
+                    error(411, "chunked request body not supported");
+                    return -1;
+                } else if (name == 10 && LiteRequest.regionEqualsIgnoreCase(in, from, "connection")) {
+                    String value = new String(in, colon + 1, to - colon - 1, StandardCharsets.ISO_8859_1).trim();
+                    if ("close".equalsIgnoreCase(value)) {
+                        keepAlive = false;
+                    } else if ("keep-alive".equalsIgnoreCase(value)) {
+                        keepAlive = true;
+                    }
+                }
+                from = to + 2;
+            }
+            contentLength = Math.max(contentLength, 0);
+            int bodyFrom = headerEnd + 4;
+            if (bodyFrom - start + contentLength > maxRequestSize) {
+                error(413, "request too large");
+                return -1;
+            }
+            if (end - bodyFrom < contentLength) {
+                // 请求体还没收全，确保缓冲区放得下
+                int required = (int) (bodyFrom - start + contentLength);
+                if (required > in.length - start) {
+                    compact();
+                    if (required > in.length) {
+                        in = Arrays.copyOf(in, Math.max(required, in.length * 2));
+                    }
+                }
+                return 0;
+            }
+            int bodyTo = (int) (bodyFrom + contentLength);
+            request.reset(in, method, path, queryFrom, sp2, headersFrom, headerEnd, bodyFrom, bodyTo);
+            response.reset();
+            int consumed = bodyTo - start;
+            start = bodyTo;
+            scan = bodyTo;
+            dispatch();
+            return dispatched || !channel.isOpen() ? -1 : consumed;
+        }
+
+        private void dispatch() throws IOException {
+            Route route = route(request);
+            if (route == null) {
+                response.text(404, "not found");
+                respond();
+                return;
+            }
+            if (!route.blocking) {
+                invoke(route.handler);
+                respond();
+                return;
+            }
+            dispatched = true;
+            key.interestOps(0);
+            try {
+                blockingExecutor.execute(() -> {
+                    invoke(route.handler);
+                    loop.execute(this::resume);
+                });
+            } catch (RejectedExecutionException ex) {
+                dispatched = false;
+                key.interestOps(SelectionKey.OP_READ);
+                response.text(503, "busy");
+                respond();
+            }
+        }
+
+        /**
+         * 阻塞路由执行完，回到 I/O 线程发送响应并继续处理缓冲区中的请求
+         */
+        private void resume() {
+            dispatched = false;
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                key.interestOps(SelectionKey.OP_READ);
+                respond();
+                process();
+            } catch (IOException ex) {
+                close();
+            } catch (RuntimeException ex) {
+                log.error("lite http connection failed", ex);
+                close();
+            }
+        }
+
+        private void invoke(LiteHandler handler) {
+            try {
+                handler.handle(request, response);
+            } catch (LiteRequest.BadRequestException ex) {
+                response.text(400, ex.getMessage() == null ? "bad request" : ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.warn("{} {} failed", request.getMethod(), request.getPath(), ex);
+                response.text(500, "internal server error");
+            }
+        }
+
+        private void error(int status, String message) throws IOException {
+            response.reset();
+            response.text(status, message);
+            keepAlive = false;
+            respond();
+        }
+
+        /**
+         * 响应头和响应体写入 out 并发送
+         */
+        private void respond() throws IOException {
+            closeAfterWrite = !keepAlive;
+            // HTTP/1.0 默认关闭连接，保持连接时要明确告诉客户端
+            boolean keepAliveHeader = keepAlive && http10;
+            int bodyLength = response.length();
+            String reason = reason(response.getStatus());
+            // 响应头的准确长度，与下面的写入一一对应
+            int headerLength = HTTP_1_1.length + digits(response.getStatus()) + 1 + reason.length() + CRLF.length
+                    + CONTENT_TYPE.length + response.getContentType().length() + CRLF.length
+                    + CONTENT_LENGTH.length + digits(bodyLength) + CRLF.length
+                    + (closeAfterWrite ? CONNECTION_CLOSE.length : 0)
+                    + (keepAliveHeader ? CONNECTION_KEEP_ALIVE.length : 0) + CRLF.length;
+            ensureOut(headerLength + bodyLength);
+            int p = 0;
+            p = put(p, HTTP_1_1);
+            p = putInt(p, response.getStatus());
+            out[p++] = ' ';
+            p = put(p, reason);
+            p = put(p, CRLF);
+            p = put(p, CONTENT_TYPE);
+            p = put(p, response.getContentType());
+            p = put(p, CRLF);
+            p = put(p, CONTENT_LENGTH);
+            p = putInt(p, bodyLength);
+            p = put(p, CRLF);
+            if (closeAfterWrite) {
+                p = put(p, CONNECTION_CLOSE);
+            } else if (keepAliveHeader) {
+                p = put(p, CONNECTION_KEEP_ALIVE);
+            }
+            p = put(p, CRLF);
+            System.arraycopy(response.body(), 0, out, p, bodyLength);
+            p += bodyLength;
+            outBuffer.clear();
+            outBuffer.limit(p);
+            flush();
+        }
+
+        private void flush() throws IOException {
+            channel.write(outBuffer);
+            if (outBuffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            if (closeAfterWrite) {
+                close();
+                return;
+            }
+            if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                // 写完之后继续处理已经收到的管线化请求
+                key.interestOps(SelectionKey.OP_READ);
+                process();
+            }
+        }
+
+        private int findHeaderEnd() {
+            for (int i = Math.max(start, scan - 3); i + 3 < end; i++) {
+                if (in[i] == '\r' && in[i + 1] == '\n' && in[i + 2] == '\r' && in[i + 3] == '\n') {
+                    return i;
+                }
+            }
+            scan = end;
+            if (end == in.length && start == 0 && in.length < maxRequestSize) {
+                in = Arrays.copyOf(in, Math.min(in.length * 2, maxRequestSize));
+            }
+            return -1;
+        }
+
+        private long parseLength(int from, int to) {
+            long value = 0;
+            boolean digits = false;
+            for (int i = from; i < to; i++) {
+                byte b = in[i];
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    digits = true;
+                    if (value > Integer.MAX_VALUE) {
+                        return Integer.MAX_VALUE;
+                    }
+                } else if (b != ' ' && b != '\t') {
+                    return -1;
+                }
+            }
+            return digits ? value : -1;
+        }
+
+        private String method(int from, int to) {
+            int length = to - from;
+            if (length == 3 && in[from] == 'G' && in[from + 1] == 'E' && in[from + 2] == 'T') {
+                return "GET";
+            }
+            if (length == 4 && in[from] == 'P' && in[from + 1] == 'O' && in[from + 2] == 'S' && in[from + 3] == 'T') {
+                return "POST";
+            }
+            return new String(in, from, length, StandardCharsets.ISO_8859_1);
+        }
+
+        private void compact() {
+            if (start > 0) {
+                System.arraycopy(in, start, in, 0, end - start);
+                end -= start;
+                scan -= start;
+                start = 0;
+            }
+        }
+
+        private void ensureOut(int capacity) {
+            if (capacity > out.length) {
+                out = new byte[Math.max(capacity, out.length * 2)];
+                outBuffer = ByteBuffer.wrap(out);
+            }
+        }
+
+        private int put(int p, String ascii) {
+            for (int i = 0; i < ascii.length(); i++) {
+                out[p++] = (byte) ascii.charAt(i);
+            }
+            return p;
+        }
+
+        private int put(int p, byte[] bytes) {
+            System.arraycopy(bytes, 0, out, p, bytes.length);
+            return p + bytes.length;
+        }
+
+        private int putInt(int p, int value) {
+            int digits = digits(value);
+            for (int i = p + digits - 1; i >= p; i--) {
+                out[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return p + digits;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 关闭失败也无法再做什么
+            }
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    /**
+     * 非负整数的十进制位数
+     */
+    private static int digits(int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200:
+                return "OK";
+            case 201:
+                return "Created";
+            case 204:
+                return "No Content";
+            case 400:
+                return "Bad Request";
+            case 404:
+                return "Not Found";
+            case 405:
+                return "Method Not Allowed";
+            case 411:
+                return "Length Required";
+            case 413:
+                return "Payload Too Large";
+            case 431:
+                return "Request Header Fields Too Large";
+            case 500:
+                return "Internal Server Error";
+            case 503:
+                return "Service Unavailable";
+            default:
+                return "Unknown";
+        }
+    }
+
+    public static final class Builder {
+        private InetSocketAddress address = new InetSocketAddress(8080);
+        private final Map<String, Map<String, Route>> exactRoutes = new HashMap<>();
+        private final List<Route> prefixRoutes = new ArrayList<>();
+        private Executor blockingExecutor;
+        private int ioThreads = 1;
+        private int bufferSize = 4096;
+        private int maxRequestSize = 64 * 1024;
+        private long idleTimeoutMillis = 60_000;
+
+        private Builder() {
+        }
+
+        /**
+         * 0 表示由系统分配
+         */
+        public Builder port(int port) {
+            this.address = new InetSocketAddress(port);
+            return this;
+        }
+
+        public Builder address(InetSocketAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        public Builder get(String path, LiteHandler handler) {
+            return route("GET", path, handler, false);
+        }
+
+        public Builder post(String path, LiteHandler handler) {
+            return route("POST", path, handler, false);
+        }
+
+        /**
+         * 注册在 I/O 线程上执行的路由，path 以 '/' 结尾时按前缀匹配，如 "/users/" 匹配 "/users/zyz"
+         */
+        public Builder route(String method, String path, LiteHandler handler) {
+            return route(method, path, handler, false);
+        }
+
+        /**
+         * 注册在 blockingExecutor 上执行的路由
+         */
+        public Builder blocking(String method, String path, LiteHandler handler) {
+            return route(method, path, handler, true);
+        }
+
+        public Builder blockingExecutor(Executor blockingExecutor) {
+            this.blockingExecutor = blockingExecutor;
+            return this;
+        }
+
+        /**
+         * I/O 线程数，默认1，一般不超过 CPU 核数
+         */
+        public Builder ioThreads(int ioThreads) {
+            if (ioThreads < 1) {
+                throw new IllegalArgumentException("ioThreads < 1: " + ioThreads);
+            }
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * 每个连接读写缓冲区的初始大小，默认4KB
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize < 256) {
+                throw new IllegalArgumentException("bufferSize < 256: " + bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 请求行、请求头加请求体的最大长度，默认64KB
+         */
+        public Builder maxRequestSize(int maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+            return this;
+        }
+
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        public LiteHttpServer build() {
+            if (maxRequestSize < bufferSize) {
+                throw new IllegalArgumentException("maxRequestSize < bufferSize");
+            }
+            boolean hasBlocking = prefixRoutes.stream().anyMatch(route -> route.blocking)
+                    || exactRoutes.values().stream().flatMap(routes -> routes.values().stream())
+                    .anyMatch(route -> route.blocking);
+            if (hasBlocking && blockingExecutor == null) {
+                throw new IllegalStateException("blocking routes require blockingExecutor");
+            }
+            return new LiteHttpServer(this);
+        }
+
+        private Builder route(String method, String path, LiteHandler handler, boolean blocking) {
+            if (!path.startsWith("/")) {
+                throw new IllegalArgumentException("path must start with '/': " + path);
+            }
+            Route route = new Route(method, path, handler, blocking);
+            if (path.length() > 1 && path.endsWith("/")) {
+                prefixRoutes.add(route);
+            } else {
+                exactRoutes.computeIfAbsent(method, m -> new HashMap<>()).put(path, route);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.zyz.usualcode.jFinal;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 一个 HTTP 请求，直接引用连接的读缓冲区，只记录各部分的位置
+ * <p>
+ * 请求头、查询参数在调用 {@link #getHeader(String)}、{@link #getParameter(String)} 时才扫描，
+ * 不建 Map，大部分请求只用到其中一两个
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+public final class LiteRequest {
+
+    private byte[] buffer;
+    private String method;
+    private String path;
+    private String pathRemainder;
+    private int queryFrom;
+    private int queryTo;
+    private int headersFrom;
+    private int headersTo;
+    private int bodyFrom;
+    private int bodyTo;
+
+    void reset(byte[] buffer, String method, String path, int queryFrom, int queryTo, int headersFrom, int headersTo,
+               int bodyFrom, int bodyTo) {
+        this.buffer = buffer;
+        this.method = method;
+        this.path = path;
+        this.pathRemainder = null;
+        this.queryFrom = queryFrom;
+        this.queryTo = queryTo;
+        this.headersFrom = headersFrom;
+        this.headersTo = headersTo;
+        this.bodyFrom = bodyFrom;
+        this.bodyTo = bodyTo;
+    }
+
+    void setPathRemainder(String pathRemainder) {
+        this.pathRemainder = pathRemainder;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 已经解码的路径，不含查询串
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 前缀路由中前缀之后的部分，如 /users/ 路由下 /users/zyz 的 "zyz"；精确路由为 null
+     */
+    public String getPathRemainder() {
+        return pathRemainder;
+    }
+
+    /**
+     * 查询参数，没有时返回 null，同名参数取第一个
+     *
+     * @throws BadRequestException 百分号编码不正确
+     */
+    public String getParameter(String name) {
+        int from = queryFrom;
+        while (from < queryTo) {
+            int to = indexOf(buffer, (byte) '&', from, queryTo);
+            int eq = indexOf(buffer, (byte) '=', from, to);
+            if (keyEquals(from, eq, name)) {
+                return eq == to ? "" : decode(buffer, eq + 1, to, true);
+            }
+            from = to + 1;
+        }
+        return null;
+    }
+
+    /**
+     * 请求头，名称不区分大小写，没有时返回 null
+     */
+    public String getHeader(String name) {
+        int from = headersFrom;
+        while (from < headersTo) {
+            int to = indexOf(buffer, (byte) '\r', from, headersTo);
+            int colon = indexOf(buffer, (byte) ':', from, to);
+            if (colon - from == name.length() && regionEqualsIgnoreCase(buffer, from, name)) {
+                return new String(buffer, colon + 1, to - colon - 1, StandardCharsets.ISO_8859_1).trim();
+            }
+            from = to + 2;
+        }
+        return null;
+    }
+
+    public int getContentLength() {
+        return bodyTo - bodyFrom;
+    }
+
+    /**
+     * 请求体按 UTF-8 解码
+     */
+    public String getBodyAsString() {
+        return new String(buffer, bodyFrom, bodyTo - bodyFrom, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把请求体复制到 dst，返回长度
+     */
+    public int getBody(byte[] dst, int offset) {
+        System.arraycopy(buffer, bodyFrom, dst, offset, bodyTo - bodyFrom);
+        return bodyTo - bodyFrom;
+    }
+
+    private boolean keyEquals(int from, int to, String name) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '%' || buffer[i] == '+') {
+                return decode(buffer, from, to, true).equals(name);
+            }
+        }
+        if (to - from != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (buffer[from + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(byte[] bytes, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * 从 from 开始的 name.length() 个字节与 name 比较，ASCII 字母不区分大小写
+     */
+    static boolean regionEqualsIgnoreCase(byte[] bytes, int from, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            int b = bytes[from + i];
+            int c = name.charAt(i);
+            if (b != c && toLower(b) != toLower(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLower(int c) {
+        return c >= 'A' && c <= 'Z' ? c + 32 : c;
+    }
+
+    /**
+     * 百分号解码，没有转义时直接按 UTF-8 创建字符串
+     *
+     * @param plusAsSpace 查询串中 '+' 表示空格，路径中不是
+     */
+    static String decode(byte[] bytes, int from, int to, boolean plusAsSpace) {
+        int i = from;
+        while (i < to && bytes[i] != '%' && (bytes[i] != '+' || !plusAsSpace)) {
+            i++;
+        }
+        if (i == to) {
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] decoded = new byte[to - from];
+        int length = i - from;
+        System.arraycopy(bytes, from, decoded, 0, length);
+        while (i < to) {
+            byte b = bytes[i];
+            if (b == '+' && plusAsSpace) {
+                decoded[length++] = ' ';
+                i++;
+            } else if (b == '%') {
+                if (i + 2 >= to) {
+                    throw new BadRequestException("illegal escape");
+                }
+                int high = Character.digit(bytes[i + 1], 16);
+                int low = Character.digit(bytes[i + 2], 16);
+                if (high < 0 || low < 0) {
+                    throw new BadRequestException("illegal escape");
+                }
+                decoded[length++] = (byte) (high << 4 | low);
+                i += 3;
+            } else {
+                decoded[length++] = b;
+                i++;
+            }
+        }
+        return new String(decoded, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 请求格式不正确，返回400
+     */
+    public static class BadRequestException extends RuntimeException {
+        public BadRequestException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
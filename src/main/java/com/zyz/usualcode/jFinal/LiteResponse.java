@@ -0,0 +1,129 @@
+package com.zyz.usualcode.jFinal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 一个 HTTP 响应，响应体写入连接复用的 byte[]，处理器返回后由服务器加上响应头一起发送
+ * <p>
+ * 默认状态码200、Content-Type 为 text/plain;charset=UTF-8
+ *
+ * @author 张远卓
+ * @date 2026/10/18 12:30
+ */
+public final class LiteResponse {
+
+    public static final String TEXT_PLAIN = "text/plain;charset=UTF-8";
+    public static final String APPLICATION_JSON = "application/json";
+
+    private int status;
+    private String contentType;
+    private byte[] body;
+    private int length;
+
+    LiteResponse(int initialCapacity) {
+        this.body = new byte[initialCapacity];
+        reset();
+    }
+
+    void reset() {
+        status = 200;
+        contentType = TEXT_PLAIN;
+        length = 0;
+    }
+
+    public LiteResponse status(int status) {
+        if (status < 100 || status > 999) {
+            throw new IllegalArgumentException("illegal status: " + status);
+        }
+        this.status = status;
+        return this;
+    }
+
+    public LiteResponse contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 按 UTF-8 追加到响应体，ASCII 字符直接写入
+     */
+    public LiteResponse write(CharSequence text) {
+        int n = text.length();
+        ensureCapacity(length + n);
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return write(text.subSequence(i, n).toString().getBytes(StandardCharsets.UTF_8));
+            }
+            body[length++] = (byte) c;
+        }
+        return this;
+    }
+
+    public LiteResponse write(byte[] bytes) {
+        return write(bytes, 0, bytes.length);
+    }
+
+    public LiteResponse write(byte[] bytes, int offset, int count) {
+        ensureCapacity(length + count);
+        System.arraycopy(bytes, offset, body, length, count);
+        length += count;
+        return this;
+    }
+
+    /**
+     * 追加 JSON 字符串字面量（带引号），转义引号、反斜杠和控制字符
+     */
+    public LiteResponse writeJsonString(CharSequence text) {
+        ensureCapacity(length + text.length() + 2);
+        body[length++] = '"';
+        int from = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                write(text.subSequence(from, i));
+                if (c == '"' || c == '\\') {
+                    write(c == '"' ? "\\\"" : "\\\\");
+                } else {
+                    write(String.format("\\u%04x", (int) c));
+                }
+                from = i + 1;
+            }
+        }
+        write(text.subSequence(from, text.length()));
+        ensureCapacity(length + 1);
+        body[length++] = '"';
+        return this;
+    }
+
+    /**
+     * 设置状态码并以纯文本输出，用于错误响应
+     */
+    public LiteResponse text(int status, CharSequence text) {
+        length = 0;
+        return status(status).contentType(TEXT_PLAIN).write(text);
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    int length() {
+        return length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > body.length) {
+            body = Arrays.copyOf(body, Math.max(capacity, body.length * 2));
+        }
+    }
+}
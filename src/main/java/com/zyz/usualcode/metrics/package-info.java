@@ -0,0 +1,4 @@
+/**
+ * 轻量的计数、直方图等运行指标，不依赖第三方库
+ */
+package com.zyz.usualcode.metrics;
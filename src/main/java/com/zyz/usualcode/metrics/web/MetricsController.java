@@ -0,0 +1,49 @@
+package com.zyz.usualcode.metrics.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Prometheus 拉取指标的接口，只接受本机的请求
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:00
+ */
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final RequestMetrics metrics;
+
+    public MetricsController(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> metrics(HttpServletRequest request) throws IOException {
+        if (!isLoopback(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StringBuilder body = new StringBuilder(4096);
+        metrics.writePrometheus(body);
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body.toString());
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            // 远程地址总是 IP 字面量，不会触发 DNS 查询
+            return address != null && InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.zyz.usualcode.metrics.web;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * 请求耗时统计的配置，过滤器排在最前面，耗时包括其他过滤器
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:00
+ */
+@Configuration
+public class MetricsWebConfig {
+
+    @Bean
+    public RequestMetrics requestMetrics() {
+        return new RequestMetrics();
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(RequestMetrics requestMetrics) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(requestMetrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
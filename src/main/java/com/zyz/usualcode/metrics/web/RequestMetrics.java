@@ -0,0 +1,188 @@
+package com.zyz.usualcode.metrics.web;
+
+import com.zyz.usualcode.metrics.LogHistogram;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口（请求方法 + 匹配到的路径模板）统计的请求耗时直方图、请求数、错误数，以及全局的处理中请求数
+ * <p>
+ * 记录路径上没有锁，也不创建对象：接口按 方法 -> 路径模板 两层 map 查找，只有第一次出现时才创建统计对象；
+ * 路径模板来自 spring mvc 的映射（如 /users/{id}），不是原始 URL，接口数量有上限，
+ * 超过 {@link #MAX_ENDPOINTS} 后新的接口都计入 {@link #OTHER}。请求方法由客户端决定，
+ * 不是 RFC 7231/5789 定义的方法一律记为 {@link #OTHER}，统计对象总数不超过 MAX_ENDPOINTS 加上方法个数。
+ * {@link #writePrometheus} 输出 Prometheus 文本格式
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:00
+ */
+public class RequestMetrics {
+
+    public static final int MAX_ENDPOINTS = 1000;
+    /**
+     * 没有匹配到任何映射的请求（404、静态资源等）
+     */
+    public static final String UNMATCHED = "UNMATCHED";
+    public static final String OTHER = "OTHER";
+
+    private static final Set<String> METHODS = new HashSet<>(Arrays.asList(
+            "GET", "HEAD", "POST", "PUT", "DELETE", "CONNECT", "OPTIONS", "TRACE", "PATCH"));
+
+    /**
+     * 输出直方图使用的上界（秒），LogHistogram 的桶按2的幂划分，这里的上界落在桶中间时整个桶都算进去，
+     * 所以各个 bucket 的计数最多偏大一个桶（12.5%）的范围
+     */
+    static final double[] BUCKET_SECONDS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5,
+            1, 2.5, 5, 10};
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Endpoint>> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger endpointCount = new AtomicInteger();
+    private final LongAdder inFlight = new LongAdder();
+
+    /**
+     * 请求开始，处理中的请求数加一
+     */
+    public void begin() {
+        inFlight.increment();
+    }
+
+    /**
+     * 请求结束，与 {@link #begin()} 成对调用
+     *
+     * @param pattern 匹配到的路径模板，没有时为 null
+     * @param error   抛出了异常或者状态码 >= 500
+     */
+    public void end(String method, String pattern, long nanos, boolean error) {
+        inFlight.decrement();
+        record(method, pattern, nanos, error);
+    }
+
+    /**
+     * 只记录耗时，不影响处理中的请求数
+     */
+    public void record(String method, String pattern, long nanos, boolean error) {
+        Endpoint endpoint = endpoint(METHODS.contains(method) ? method : OTHER, pattern == null ? UNMATCHED : pattern);
+        endpoint.latency.record(nanos);
+        if (error) {
+            endpoint.errors.increment();
+        }
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * 所有接口，按方法、路径排序
+     */
+    public List<Endpoint> getEndpoints() {
+        List<Endpoint> list = new ArrayList<>();
+        endpoints.values().forEach(map -> list.addAll(map.values()));
+        list.sort(Comparator.comparing(Endpoint::getPattern).thenComparing(Endpoint::getMethod));
+        return list;
+    }
+
+    /**
+     * 输出 Prometheus 文本格式（0.0.4）：
+     * http_server_requests_seconds 直方图、http_server_requests_errors_total 计数器、http_server_requests_in_flight 仪表
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        List<Endpoint> list = getEndpoints();
+        out.append("# HELP http_server_requests_seconds Request latency by endpoint.\n");
+        out.append("# TYPE http_server_requests_seconds histogram\n");
+        for (Endpoint endpoint : list) {
+            LogHistogram.Snapshot snapshot = endpoint.latency.snapshot();
+            String labels = labels(endpoint);
+            for (double le : BUCKET_SECONDS) {
+                out.append("http_server_requests_seconds_bucket{").append(labels).append(",le=\"")
+                        .append(Double.toString(le)).append("\"} ")
+                        .append(Long.toString(snapshot.countAtOrBelow((long) (le * 1e9)))).append('\n');
+            }
+            out.append("http_server_requests_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ")
+                    .append(Long.toString(snapshot.getCount())).append('\n');
+            out.append("http_server_requests_seconds_sum{").append(labels).append("} ")
+                    .append(Double.toString(snapshot.getSum() / 1e9)).append('\n');
+            out.append("http_server_requests_seconds_count{").append(labels).append("} ")
+                    .append(Long.toString(snapshot.getCount())).append('\n');
+        }
+        out.append("# HELP http_server_requests_errors_total Requests that threw or returned 5xx.\n");
+        out.append("# TYPE http_server_requests_errors_total counter\n");
+        for (Endpoint endpoint : list) {
+            out.append("http_server_requests_errors_total{").append(labels(endpoint)).append("} ")
+                    .append(Long.toString(endpoint.getErrors())).append('\n');
+        }
+        out.append("# HELP http_server_requests_in_flight Requests currently being processed.\n");
+        out.append("# TYPE http_server_requests_in_flight gauge\n");
+        out.append("http_server_requests_in_flight ").append(Long.toString(getInFlight())).append('\n');
+    }
+
+    private Endpoint endpoint(String method, String pattern) {
+        ConcurrentMap<String, Endpoint> byPattern = endpoints.get(method);
+        if (byPattern == null) {
+            byPattern = endpoints.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        Endpoint endpoint = byPattern.get(pattern);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpointCount.get() >= MAX_ENDPOINTS && !OTHER.equals(pattern)) {
+            return endpoint(method, OTHER);
+        }
+        return byPattern.computeIfAbsent(pattern, p -> {
+            endpointCount.incrementAndGet();
+            return new Endpoint(method, p);
+        });
+    }
+
+    private static String labels(Endpoint endpoint) {
+        return "method=\"" + escape(endpoint.method) + "\",uri=\"" + escape(endpoint.pattern) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 一个接口的统计
+     */
+    public static final class Endpoint {
+        private final String method;
+        private final String pattern;
+        private final LogHistogram latency = new LogHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        Endpoint(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * 耗时（纳秒）的快照，其中的 count 就是请求数
+         */
+        public LogHistogram.Snapshot getLatency() {
+            return latency.snapshot();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.zyz.usualcode.metrics.web;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 记录每个请求的耗时，放在过滤器链的最前面
+ * <p>
+ * 接口用 DispatcherServlet 放进 request 的路径模板区分，所以要在 chain 返回之后才能确定。
+ * 异步请求（返回 Callable、DeferredResult 等）在异步处理完成时才记录，耗时包括异步部分
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:00
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final RequestMetrics metrics;
+
+    public RequestMetricsFilter(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        metrics.begin();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                metrics.end(request.getMethod(), pattern(request), System.nanoTime() - start,
+                        failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String ? (String) pattern : null;
+    }
+
+    /**
+     * 异步请求完成、超时或出错时记录，三者只记一次
+     */
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private boolean failed;
+        private boolean recorded;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (!recorded) {
+                recorded = true;
+                metrics.end(request.getMethod(), pattern(request), System.nanoTime() - start,
+                        failed || response.getStatus() >= 500);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次 startAsync 时需要重新注册
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * web 层的请求耗时统计，以及 Prometheus 格式的 /metrics 接口
+ */
+package com.zyz.usualcode.metrics.web;
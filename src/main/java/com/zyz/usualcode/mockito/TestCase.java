@@ -143,7 +143,7 @@ public class TestCase {
     private MockUserService userService = mock(MockUserService.class);
 
     @Test
-    public void save() {
+    public void save() throws ServiceException {
         User user = new User();
         user.setLoginName("admin");
         // 第一次调用findUserByLoginName返回user 第二次调用返回null
@@ -172,7 +172,7 @@ public class TestCase {
     }
 
     @Test
-    public void save2() {
+    public void save2() throws ServiceException {
         User user = new User();
         user.setLoginName("admin");
         user.setPassword("123456");
@@ -0,0 +1,105 @@
+package com.zyz.usualcode.mockito.user;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link MockUserService#saveAll} 的参数
+ *
+ * @author 张远卓
+ * @date 2026/10/17 21:00
+ */
+public final class BulkSaveOptions {
+
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+    private final Executor hashExecutor;
+    private final int hashParallelism;
+
+    private BulkSaveOptions(Builder builder) {
+        this.chunkSize = builder.chunkSize;
+        this.maxInFlightChunks = builder.maxInFlightChunks;
+        this.hashExecutor = builder.hashExecutor;
+        this.hashParallelism = builder.hashParallelism;
+    }
+
+    public static BulkSaveOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getMaxInFlightChunks() {
+        return maxInFlightChunks;
+    }
+
+    public Executor getHashExecutor() {
+        return hashExecutor;
+    }
+
+    public int getHashParallelism() {
+        return hashParallelism;
+    }
+
+    public static final class Builder {
+        private int chunkSize = 1000;
+        private int maxInFlightChunks = 2;
+        private Executor hashExecutor = ForkJoinPool.commonPool();
+        private int hashParallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder() {
+        }
+
+        /**
+         * 每块的用户数，查重和插入都按块进行，默认1000
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("chunkSize < 1: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * 已经读入、正在哈希但还没写入的块数上限，达到上限后不再读取输入，默认2。
+         * 内存中最多有 (maxInFlightChunks + 1) * chunkSize 个用户
+         */
+        public Builder maxInFlightChunks(int maxInFlightChunks) {
+            if (maxInFlightChunks < 1) {
+                throw new IllegalArgumentException("maxInFlightChunks < 1: " + maxInFlightChunks);
+            }
+            this.maxInFlightChunks = maxInFlightChunks;
+            return this;
+        }
+
+        /**
+         * 执行密码哈希的线程池，默认 ForkJoin 公共池
+         */
+        public Builder hashExecutor(Executor hashExecutor) {
+            this.hashExecutor = hashExecutor;
+            return this;
+        }
+
+        /**
+         * 每块拆成几个哈希任务，默认 CPU 核数
+         */
+        public Builder hashParallelism(int hashParallelism) {
+            if (hashParallelism < 1) {
+                throw new IllegalArgumentException("hashParallelism < 1: " + hashParallelism);
+            }
+            this.hashParallelism = hashParallelism;
+            return this;
+        }
+
+        public BulkSaveOptions build() {
+            return new BulkSaveOptions(this);
+        }
+    }
+}
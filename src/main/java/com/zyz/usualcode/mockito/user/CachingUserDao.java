@@ -0,0 +1,379 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 在 {@link MockUserDao} 前面加一层按登录名的读穿透缓存
+ * <p>
+ * 注册时查询的登录名大多还没人用，普通缓存全部未命中，所以：
+ * <ul>
+ *     <li>查到的用户和查不到的结果（空）都放进 guava Cache，按容量和写入时间淘汰</li>
+ *     <li>{@link #seed()} 之后，布隆过滤器判断不存在的登录名直接返回 null，不查数据库；
+ *     判断可能存在但数据库里没有的记为一次误判</li>
+ *     <li>save 前先把登录名放进布隆过滤器，保存后（无论成功失败）增加登录名的版本号并清掉缓存中的这一项</li>
+ *     <li>查询数据库前记下版本号，结果放进缓存后再检查一次，期间有 save 就清掉刚放进去的结果，
+ *     避免查询时还不存在、保存后才写入的空结果一直留到过期</li>
+ * </ul>
+ * 布隆过滤器只增不减，只有所有写入都经过这个实例时才可靠；别处写入的用户要等缓存项过期后才能被查到，
+ * 如果 seed 之后还有其他写入来源，就不要调用 seed。
+ * 返回的 User 是缓存对象的副本。线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 20:10
+ */
+public class CachingUserDao extends MockUserDao {
+
+    /**
+     * 版本号按登录名的 hash 分段，同一段的 save 也会让查询结果作废，只是多查一次数据库
+     */
+    private static final int VERSION_STRIPES = 64;
+
+    private final MockUserDao delegate;
+    private final Cache<String, Optional<User>> cache;
+    private final BloomFilter<CharSequence> bloomFilter;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private volatile boolean seeded;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private CachingUserDao(Builder builder) {
+        this.delegate = builder.delegate;
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumSize)
+                .expireAfterWrite(builder.expireAfterWrite.toNanos(), TimeUnit.NANOSECONDS);
+        if (builder.ticker != null) {
+            cacheBuilder.ticker(builder.ticker);
+        }
+        this.cache = cacheBuilder.build();
+        this.bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                builder.expectedLoginNames, builder.falsePositiveProbability);
+    }
+
+    public static Builder builder(MockUserDao delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * 用 delegate 的 {@link MockUserDao#forEachLoginName} 填充布隆过滤器，之后才启用布隆过滤器判断不存在
+     *
+     * @return 填充的登录名个数
+     */
+    public long seed() {
+        long[] count = new long[1];
+        delegate.forEachLoginName(loginName -> {
+            bloomFilter.put(loginName);
+            count[0]++;
+        });
+        seeded = true;
+        return count[0];
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Override
+    public User findUserByLoginName(String loginName) {
+        Optional<User> cached = cache.getIfPresent(loginName);
+        if (cached != null) {
+            if (cached.isPresent()) {
+                hits.increment();
+                return copy(cached.get());
+            }
+            negativeHits.increment();
+            return null;
+        }
+        boolean mightExist = !seeded || bloomFilter.mightContain(loginName);
+        if (!mightExist) {
+            bloomRejections.increment();
+            return null;
+        }
+        loads.increment();
+        long version = version(loginName);
+        User user = delegate.findUserByLoginName(loginName);
+        if (user == null && seeded) {
+            falsePositives.increment();
+        }
+        cache.put(loginName, Optional.ofNullable(copy(user)));
+        if (version(loginName) != version) {
+            cache.invalidate(loginName);
+        }
+        return copy(user);
+    }
+
+    @Override
+    public void save(User user) {
+        // 先放进布隆过滤器：并发查询最多多查一次数据库，不会在保存成功后仍然判断为不存在
+        bloomFilter.put(user.getLoginName());
+        try {
+            delegate.save(user);
+        } finally {
+            written(user.getLoginName());
+            cache.invalidate(user.getLoginName());
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<? extends User> users) {
+        List<String> loginNames = new ArrayList<>(users.size());
+        for (User user : users) {
+            bloomFilter.put(user.getLoginName());
+            loginNames.add(user.getLoginName());
+        }
+        try {
+            delegate.saveAll(users);
+        } finally {
+            for (String loginName : loginNames) {
+                written(loginName);
+            }
+            cache.invalidateAll(loginNames);
+        }
+    }
+
+    /**
+     * 缓存和布隆过滤器能确定的不再查询，其余的一次交给 delegate，查不到的登录名作为空结果缓存
+     */
+    @Override
+    public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+        Set<String> existing = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String loginName : loginNames) {
+            Optional<User> cached = cache.getIfPresent(loginName);
+            if (cached != null) {
+                if (cached.isPresent()) {
+                    hits.increment();
+                    existing.add(loginName);
+                } else {
+                    negativeHits.increment();
+                }
+            } else if (seeded && !bloomFilter.mightContain(loginName)) {
+                bloomRejections.increment();
+            } else {
+                unknown.add(loginName);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return existing;
+        }
+        loads.add(unknown.size());
+        long[] unknownVersions = new long[unknown.size()];
+        for (int i = 0; i < unknownVersions.length; i++) {
+            unknownVersions[i] = version(unknown.get(i));
+        }
+        Set<String> found = delegate.findExistingLoginNames(unknown);
+        for (int i = 0; i < unknownVersions.length; i++) {
+            String loginName = unknown.get(i);
+            if (found.contains(loginName)) {
+                existing.add(loginName);
+            } else {
+                if (seeded) {
+                    falsePositives.increment();
+                }
+                cache.put(loginName, Optional.empty());
+                if (version(loginName) != unknownVersions[i]) {
+                    cache.invalidate(loginName);
+                }
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public void forEachLoginName(Consumer<String> action) {
+        delegate.forEachLoginName(action);
+    }
+
+    /**
+     * 清空缓存，布隆过滤器和统计数据不变
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), negativeHits.sum(), bloomRejections.sum(), loads.sum(), falsePositives.sum(),
+                cache.size(), bloomFilter.expectedFpp());
+    }
+
+    private long version(String loginName) {
+        return versions.get(stripe(loginName));
+    }
+
+    /**
+     * 在清除缓存之前调用：查询线程放进缓存之后如果看到的还是旧版本号，这里之后的清除会把它的结果清掉
+     */
+    private void written(String loginName) {
+        versions.incrementAndGet(stripe(loginName));
+    }
+
+    private static int stripe(String loginName) {
+        int h = loginName.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static User copy(User user) {
+        return user == null ? null
+                : new User().setId(user.getId()).setLoginName(user.getLoginName()).setPassword(user.getPassword());
+    }
+
+    /**
+     * 统计数据的快照
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long negativeHits;
+        private final long bloomRejections;
+        private final long loads;
+        private final long falsePositives;
+        private final long cacheSize;
+        private final double expectedFpp;
+
+        Stats(long hits, long negativeHits, long bloomRejections, long loads, long falsePositives, long cacheSize,
+              double expectedFpp) {
+            this.hits = hits;
+            this.negativeHits = negativeHits;
+            this.bloomRejections = bloomRejections;
+            this.loads = loads;
+            this.falsePositives = falsePositives;
+            this.cacheSize = cacheSize;
+            this.expectedFpp = expectedFpp;
+        }
+
+        /**
+         * 命中缓存中的用户
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * 命中缓存中的空结果
+         */
+        public long getNegativeHits() {
+            return negativeHits;
+        }
+
+        /**
+         * 布隆过滤器判断不存在，没有查询数据库
+         */
+        public long getBloomRejections() {
+            return bloomRejections;
+        }
+
+        /**
+         * 查询数据库的登录名个数，即未命中
+         */
+        public long getLoads() {
+            return loads;
+        }
+
+        /**
+         * 布隆过滤器判断可能存在，但数据库中没有
+         */
+        public long getFalsePositives() {
+            return falsePositives;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        /**
+         * 按当前已放入的元素个数估算的误判率
+         */
+        public double getExpectedFpp() {
+            return expectedFpp;
+        }
+
+        public long requestCount() {
+            return hits + negativeHits + bloomRejections + loads;
+        }
+
+        /**
+         * 没有查询数据库的比例
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1.0 : (double) (requests - loads) / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits + ", negativeHits=" + negativeHits + ", bloomRejections=" + bloomRejections
+                    + ", loads=" + loads + ", falsePositives=" + falsePositives + ", cacheSize=" + cacheSize
+                    + ", expectedFpp=" + expectedFpp + "}";
+        }
+    }
+
+    public static final class Builder {
+        private final MockUserDao delegate;
+        private long maximumSize = 100_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        private long expectedLoginNames = 1_000_000;
+        private double falsePositiveProbability = 0.01;
+        private Ticker ticker;
+
+        private Builder(MockUserDao delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * 缓存的登录名个数上限，默认10万
+         */
+        public Builder maximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 缓存项写入后多久过期，默认10分钟
+         */
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * 布隆过滤器预计容纳的登录名个数和误判率，默认100万、1%，约占1.2MB
+         */
+        public Builder bloomFilter(long expectedLoginNames, double falsePositiveProbability) {
+            this.expectedLoginNames = expectedLoginNames;
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        /**
+         * 过期判断使用的时间源，测试用
+         */
+        public Builder ticker(Ticker ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public CachingUserDao build() {
+            return new CachingUserDao(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.zyz.usualcode.mockito.user;
+
+/**
+ * 登录名已被占用，注册流程中最常见的失败
+ *
+ * @author 张远卓
+ * @date 2026/10/18 11:20
+ */
+public class DuplicateLoginNameException extends ServiceException {
+
+    public DuplicateLoginNameException(String loginName) {
+        super(ErrorCode.DUPLICATE_LOGIN_NAME, loginName);
+    }
+
+    public DuplicateLoginNameException(String loginName, Throwable cause) {
+        super(ErrorCode.DUPLICATE_LOGIN_NAME, loginName, cause);
+    }
+
+    public String getLoginName() {
+        return getDetail();
+    }
+}
@@ -0,0 +1,36 @@
+package com.zyz.usualcode.mockito.user;
+
+/**
+ * 用户相关业务失败的原因，调用方按 code 判断，message 只用于展示
+ *
+ * @author 张远卓
+ * @date 2026/10/18 11:20
+ */
+public enum ErrorCode {
+
+    EMPTY_LOGIN_NAME(1001, "登录名不能为空"),
+    EMPTY_PASSWORD(1002, "密码不能为空"),
+    DUPLICATE_LOGIN_NAME(1003, "登录名已存在"),
+    REPEATED_LOGIN_NAME(1004, "登录名在本次导入中重复"),
+    SAVE_FAILED(1005, "保存失败"),
+    /**
+     * 没有指定错误码的 {@link ServiceException#ServiceException(String)}
+     */
+    UNKNOWN(9999, "未知错误");
+
+    private final int code;
+    private final String message;
+
+    ErrorCode(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
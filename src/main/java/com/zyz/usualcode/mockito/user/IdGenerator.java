@@ -0,0 +1,137 @@
+package com.zyz.usualcode.mockito.user;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 32位十六进制（小写）的用户 ID，按时间递增，对 MySQL 的索引友好
+ * <p>
+ * 128位依次是：48位毫秒时间戳、16位节点号、64位序号。
+ * 序号由全局计数器分块租给各个线程，每个线程在自己的块里递增，只有换块时才有一次 CAS，
+ * 所以同一个实例生成的序号不会重复，不同节点之间靠节点号区分，唯一性不依赖时钟。
+ * 时间戳只用于排序：同一毫秒内不同线程的 ID 之间不保证顺序。
+ * 直接编码到 char[]，不经过 UUID、SecureRandom 和字符串替换
+ *
+ * @author 张远卓
+ * @date 2026/10/17 22:30
+ */
+public final class IdGenerator {
+
+    public static final int LENGTH = 32;
+
+    /**
+     * 每次租给线程的序号个数
+     */
+    static final int BLOCK_SIZE = 4096;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final IdGenerator DEFAULT = new IdGenerator(defaultNode());
+
+    private final int node;
+    private final LongSupplier clock;
+    private final AtomicLong nextBlock;
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    /**
+     * @param node 节点号，0 到 65535，同时运行的实例必须各不相同
+     */
+    public IdGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    IdGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node > 0xFFFF) {
+            throw new IllegalArgumentException("node out of range [0, 65535]: " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+        // 随机的起点，同一节点重启后即使时间戳相同，序号也几乎不会重叠
+        this.nextBlock = new AtomicLong(new SecureRandom().nextLong() & Long.MAX_VALUE);
+    }
+
+    /**
+     * 节点号取系统属性 usualcode.id.node，没有配置时随机
+     */
+    public static IdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    public int getNode() {
+        return node;
+    }
+
+    public String nextId() {
+        char[] chars = new char[LENGTH];
+        nextId(chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 写入 dst[offset, offset + 32)
+     */
+    public void nextId(char[] dst, int offset) {
+        long sequence = nextSequence();
+        long high = (clock.getAsLong() & 0xFFFF_FFFF_FFFFL) << 16 | node;
+        encode(high, dst, offset);
+        encode(sequence, dst, offset + 16);
+    }
+
+    /**
+     * ID 中的毫秒时间戳
+     */
+    public static long timestampOf(CharSequence id) {
+        return decode(id, 0) >>> 16;
+    }
+
+    public static int nodeOf(CharSequence id) {
+        return (int) (decode(id, 0) & 0xFFFF);
+    }
+
+    static long sequenceOf(CharSequence id) {
+        return decode(id, 16);
+    }
+
+    private long nextSequence() {
+        Block block = blocks.get();
+        if (block.next == block.limit) {
+            long start = nextBlock.getAndAdd(BLOCK_SIZE);
+            block.next = start;
+            block.limit = start + BLOCK_SIZE;
+        }
+        return block.next++;
+    }
+
+    private static void encode(long value, char[] dst, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            dst[offset + i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    private static long decode(CharSequence id, int offset) {
+        if (id.length() != LENGTH) {
+            throw new IllegalArgumentException("not a " + LENGTH + " character id: " + id);
+        }
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            int digit = Character.digit(id.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("not a hex id: " + id);
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int defaultNode() {
+        Integer node = Integer.getInteger("usualcode.id.node");
+        return node != null ? node : new SecureRandom().nextInt(0x10000);
+    }
+
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,130 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.google.common.collect.Iterables;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 基于 JdbcTemplate 的用户表 t_user（建表语句见 db/t_user.sql）
+ * <p>
+ * 按登录名查询走唯一索引 uk_user_login_name，重复的登录名抛出 DuplicateKeyException。
+ * 批量保存在一个事务里按 batchSize 分批执行 JDBC batch 插入，
+ * MySQL 需要在连接串上加 rewriteBatchedStatements=true 才会把一批合并成一条多值 INSERT
+ *
+ * @author 张远卓
+ * @date 2026/10/17 19:10
+ */
+public class JdbcUserDao extends MockUserDao {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    static final String SCHEMA = "db/t_user.sql";
+
+    private static final String INSERT = "INSERT INTO t_user (id, login_name, password) VALUES (?, ?, ?)";
+    private static final String SELECT_BY_LOGIN_NAME =
+            "SELECT id, login_name, password FROM t_user WHERE login_name = ?";
+    private static final String SELECT_LOGIN_NAMES = "SELECT login_name FROM t_user WHERE login_name IN (:names)";
+
+    private static final RowMapper<User> USER_MAPPER = (rs, rowNum) -> new User()
+            .setId(rs.getString("id"))
+            .setLoginName(rs.getString("login_name"))
+            .setPassword(rs.getString("password"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public JdbcUserDao(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcUserDao(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize < 1: " + batchSize);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 执行 db/t_user.sql，表已存在时什么也不做
+     */
+    public static void createTable(DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+    }
+
+    @Override
+    public User findUserByLoginName(String loginName) {
+        List<User> users = jdbcTemplate.query(SELECT_BY_LOGIN_NAME, USER_MAPPER, loginName);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public void save(User user) {
+        jdbcTemplate.update(INSERT, user.getId(), user.getLoginName(), user.getPassword());
+    }
+
+    /**
+     * 全部成功或全部回滚
+     */
+    @Override
+    public void saveAll(Collection<? extends User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT, users, batchSize, (ps, user) -> {
+                    ps.setString(1, user.getId());
+                    ps.setString(2, user.getLoginName());
+                    ps.setString(3, user.getPassword());
+                }));
+    }
+
+    /**
+     * 按 batchSize 分批 IN 查询
+     */
+    @Override
+    public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+        if (loginNames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> existing = new HashSet<>();
+        for (List<String> names : Iterables.partition(loginNames, batchSize)) {
+            existing.addAll(namedJdbcTemplate.queryForList(SELECT_LOGIN_NAMES,
+                    Collections.singletonMap("names", new ArrayList<>(names)), String.class));
+        }
+        return existing;
+    }
+
+    /**
+     * 逐行回调，不在内存中保存全部登录名
+     */
+    @Override
+    public void forEachLoginName(Consumer<String> action) {
+        RowCallbackHandler handler = rs -> action.accept(rs.getString(1));
+        jdbcTemplate.query("SELECT login_name FROM t_user", handler);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_user", Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -1,6 +1,13 @@
 package com.zyz.usualcode.mockito.user;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
 /**
+ * 数据库实现见 {@link JdbcUserDao}、{@link MybatisUserDao}
+ *
  * @author 张远卓
  * @date 2020/10/13 17:56
  */
@@ -12,4 +19,33 @@ public class MockUserDao {
     public void save(User user) {
 
     }
+
+    /**
+     * 批量保存，这里逐个调用 save，数据库实现使用批量插入
+     */
+    public void saveAll(Collection<? extends User> users) {
+        for (User user : users) {
+            save(user);
+        }
+    }
+
+    /**
+     * loginNames 中已经存在的登录名，这里逐个调用 findUserByLoginName，数据库实现使用 IN 查询
+     */
+    public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+        Set<String> existing = new HashSet<>();
+        for (String loginName : loginNames) {
+            if (findUserByLoginName(loginName) != null) {
+                existing.add(loginName);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * 遍历所有登录名，用于预热 {@link CachingUserDao} 的布隆过滤器。
+     * 这里不保存用户，findUserByLoginName 总是返回 null，所以没有登录名可遍历
+     */
+    public void forEachLoginName(Consumer<String> action) {
+    }
 }
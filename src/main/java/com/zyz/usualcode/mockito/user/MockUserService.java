@@ -1,11 +1,320 @@
 package com.zyz.usualcode.mockito.user;
 
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * @author 张远卓
  * @date 2020/10/13 17:58
  */
 public class MockUserService {
-    public String save(User user) {
+
+    static final String EMPTY_LOGIN_NAME = ErrorCode.EMPTY_LOGIN_NAME.getMessage();
+    static final String EMPTY_PASSWORD = ErrorCode.EMPTY_PASSWORD.getMessage();
+    static final String DUPLICATE_LOGIN_NAME = ErrorCode.DUPLICATE_LOGIN_NAME.getMessage() + ": ";
+    static final String REPEATED_LOGIN_NAME = ErrorCode.REPEATED_LOGIN_NAME.getMessage() + ": ";
+
+    private final MockUserDao userDao;
+    private final PasswordHasher passwordHasher;
+    private final IdGenerator idGenerator;
+
+    public MockUserService() {
+        this(new MockUserDao(), new Pbkdf2PasswordHasher());
+    }
+
+    public MockUserService(MockUserDao userDao, PasswordHasher passwordHasher) {
+        this(userDao, passwordHasher, IdGenerator.getDefault());
+    }
+
+    public MockUserService(MockUserDao userDao, PasswordHasher passwordHasher, IdGenerator idGenerator) {
+        this.userDao = userDao;
+        this.passwordHasher = passwordHasher;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * 保存一个用户，不修改传入的对象
+     *
+     * @return 32位 ID
+     * @throws ServiceException 登录名为空、已存在，或者密码为空，错误码见 {@link ServiceException#getErrorCode()}
+     */
+    public String save(User user) throws ServiceException {
+        SaveResult result = trySave(user);
+        if (!result.isSuccess()) {
+            throw result.getError();
+        }
+        return result.getId();
+    }
+
+    /**
+     * 同 {@link #save(User)}，业务失败时不抛异常，而是返回失败的结果，适合重名很常见的注册流程。
+     * 查重之后、插入之前被别人抢先注册时（唯一索引冲突）同样返回 {@link ErrorCode#DUPLICATE_LOGIN_NAME}
+     */
+    public SaveResult trySave(User user) {
+        SaveResult invalid = check(user);
+        if (invalid != null) {
+            return invalid;
+        }
+        return insert(user, passwordHasher.hash(user.getPassword()));
+    }
+
+    /**
+     * 同 {@link #trySave(User)}，校验和查重在调用线程上执行，密码哈希交给 {@link PasswordHasher#hashAsync}，
+     * 插入在哈希完成的线程上执行。哈希线程池已满时返回的 future 以 RejectedExecutionException 失败
+     */
+    public CompletableFuture<SaveResult> trySaveAsync(User user) {
+        SaveResult invalid = check(user);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(invalid);
+        }
+        return passwordHasher.hashAsync(user.getPassword()).thenApply(hashed -> insert(user, hashed));
+    }
+
+    /**
+     * 登录名为空、已存在或者密码为空时返回失败的结果，否则返回 null
+     */
+    private SaveResult check(User user) {
+        String loginName = user.getLoginName();
+        if (loginName == null || loginName.isEmpty()) {
+            return SaveResult.failure(user, ServiceException.of(ErrorCode.EMPTY_LOGIN_NAME));
+        }
+        if (userDao.findUserByLoginName(loginName) != null) {
+            return SaveResult.failure(user, new DuplicateLoginNameException(loginName));
+        }
+        if (user.getPassword() == null) {
+            return SaveResult.failure(user, ServiceException.of(ErrorCode.EMPTY_PASSWORD));
+        }
         return null;
     }
+
+    private SaveResult insert(User user, String hashedPassword) {
+        String id = idGenerator.nextId();
+        try {
+            userDao.save(new User().setId(id).setLoginName(user.getLoginName()).setPassword(hashedPassword));
+        } catch (DuplicateKeyException ex) {
+            return SaveResult.failure(user, new DuplicateLoginNameException(user.getLoginName(), ex));
+        }
+        return SaveResult.success(user, id);
+    }
+
+    public Iterator<SaveResult> saveAll(Iterator<? extends User> users) {
+        return saveAll(users, BulkSaveOptions.defaults());
+    }
+
+    /**
+     * 批量保存，按块处理：
+     * <ol>
+     *     <li>读入一块，块内和未写完的块之间查重，再用一次 {@link MockUserDao#findExistingLoginNames} 和数据库查重</li>
+     *     <li>密码哈希拆成多个任务交给 hashExecutor 并行执行</li>
+     *     <li>最早读入的块哈希完成后用 {@link MockUserDao#saveAll} 批量插入；
+     *     批量插入失败时（整批已回滚）逐条重试，找出失败的记录</li>
+     * </ol>
+     * 返回的迭代器是惰性的，只有被遍历时才读取输入和写入，遍历完才全部保存。
+     * 同时在途的块数不超过 maxInFlightChunks，输入可以是任意长的流。
+     * 结果与输入一一对应、顺序相同。hashExecutor 拒绝任务时 RejectedExecutionException 从 hasNext 抛出，
+     * 这一块没有结果也不会保存，它的登录名不算在途，之后的同名记录照常保存。迭代器本身不是线程安全的
+     */
+    public Iterator<SaveResult> saveAll(Iterator<? extends User> users, BulkSaveOptions options) {
+        return new BulkSaveIterator(users, options);
+    }
+
+    public Stream<SaveResult> saveAll(Stream<? extends User> users) {
+        return saveAll(users, BulkSaveOptions.defaults());
+    }
+
+    /**
+     * 同 {@link #saveAll(Iterator, BulkSaveOptions)}，关闭返回的流时关闭输入流
+     */
+    public Stream<SaveResult> saveAll(Stream<? extends User> users, BulkSaveOptions options) {
+        Iterator<SaveResult> results = saveAll(users.iterator(), options);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(users::close);
+    }
+
+    /**
+     * 一块用户，results 和 entities 与输入一一对应，entities 为 null 的已经失败
+     */
+    private static final class Chunk {
+        private final List<User> users;
+        private final SaveResult[] results;
+        private final User[] entities;
+        private final List<String> loginNames = new ArrayList<>();
+        private CompletableFuture<Void> hashed;
+
+        Chunk(List<User> users) {
+            this.users = users;
+            this.results = new SaveResult[users.size()];
+            this.entities = new User[users.size()];
+        }
+
+        void fail(int i, ServiceException error) {
+            results[i] = SaveResult.failure(users.get(i), error);
+            entities[i] = null;
+        }
+    }
+
+    private final class BulkSaveIterator implements Iterator<SaveResult> {
+        private final Iterator<? extends User> source;
+        private final BulkSaveOptions options;
+        private final ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+        /**
+         * 已经读入但还没写入数据库的登录名，数据库查重查不到它们
+         */
+        private final Set<String> inFlightLoginNames = new HashSet<>();
+        private Iterator<SaveResult> current = Collections.emptyIterator();
+
+        BulkSaveIterator(Iterator<? extends User> source, BulkSaveOptions options) {
+            this.source = source;
+            this.options = options;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                while (inFlight.size() < options.getMaxInFlightChunks() && source.hasNext()) {
+                    inFlight.add(prepare(read()));
+                }
+                if (inFlight.isEmpty()) {
+                    return false;
+                }
+                current = write(inFlight.poll()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public SaveResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<User> read() {
+            List<User> users = new ArrayList<>(options.getChunkSize());
+            while (users.size() < options.getChunkSize() && source.hasNext()) {
+                users.add(source.next());
+            }
+            return users;
+        }
+
+        private Chunk prepare(List<User> users) {
+            Chunk chunk = new Chunk(users);
+            Set<String> chunkLoginNames = new HashSet<>();
+            List<String> candidates = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                String loginName = user.getLoginName();
+                if (loginName == null || loginName.isEmpty()) {
+                    chunk.fail(i, ServiceException.of(ErrorCode.EMPTY_LOGIN_NAME));
+                } else if (user.getPassword() == null) {
+                    // 先于查重：不会保存的记录不占用登录名
+                    chunk.fail(i, ServiceException.of(ErrorCode.EMPTY_PASSWORD));
+                } else if (!chunkLoginNames.add(loginName) || inFlightLoginNames.contains(loginName)) {
+                    chunk.fail(i, new ServiceException(ErrorCode.REPEATED_LOGIN_NAME, loginName));
+                } else {
+                    candidates.add(loginName);
+                }
+            }
+            Set<String> existing = candidates.isEmpty() ? Collections.emptySet()
+                    : userDao.findExistingLoginNames(candidates);
+            List<Integer> toHash = new ArrayList<>(candidates.size());
+            for (int i = 0; i < users.size(); i++) {
+                if (chunk.results[i] != null) {
+                    continue;
+                }
+                String loginName = users.get(i).getLoginName();
+                if (existing.contains(loginName)) {
+                    chunk.fail(i, new DuplicateLoginNameException(loginName));
+                } else {
+                    chunk.entities[i] = new User().setId(idGenerator.nextId()).setLoginName(loginName);
+                    chunk.loginNames.add(loginName);
+                    toHash.add(i);
+                }
+            }
+            // 提交成功之后才占用登录名：hashExecutor 拒绝时异常直接抛出，这一块不会再写入
+            chunk.hashed = hash(chunk, toHash);
+            inFlightLoginNames.addAll(chunk.loginNames);
+            return chunk;
+        }
+
+        private CompletableFuture<Void> hash(Chunk chunk, List<Integer> toHash) {
+            if (toHash.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            int tasks = Math.min(options.getHashParallelism(), toHash.size());
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+            for (int t = 0; t < tasks; t++) {
+                List<Integer> slice = toHash.subList(toHash.size() * t / tasks, toHash.size() * (t + 1) / tasks);
+                futures[t] = CompletableFuture.runAsync(() -> {
+                    for (int i : slice) {
+                        try {
+                            chunk.entities[i].setPassword(passwordHasher.hash(chunk.users.get(i).getPassword()));
+                        } catch (RuntimeException ex) {
+                            chunk.fail(i, new ServiceException(ErrorCode.SAVE_FAILED, ex.getMessage(), ex));
+                        }
+                    }
+                }, options.getHashExecutor());
+            }
+            return CompletableFuture.allOf(futures);
+        }
+
+        private List<SaveResult> write(Chunk chunk) {
+            try {
+                chunk.hashed.join();
+                List<User> batch = new ArrayList<>(chunk.loginNames.size());
+                for (User entity : chunk.entities) {
+                    if (entity != null) {
+                        batch.add(entity);
+                    }
+                }
+                try {
+                    if (!batch.isEmpty()) {
+                        userDao.saveAll(batch);
+                    }
+                    for (int i = 0; i < chunk.entities.length; i++) {
+                        if (chunk.entities[i] != null) {
+                            chunk.results[i] = SaveResult.success(chunk.users.get(i), chunk.entities[i].getId());
+                        }
+                    }
+                } catch (RuntimeException ex) {
+                    retryOneByOne(chunk);
+                }
+                return Arrays.asList(chunk.results);
+            } finally {
+                inFlightLoginNames.removeAll(chunk.loginNames);
+            }
+        }
+
+        private void retryOneByOne(Chunk chunk) {
+            for (int i = 0; i < chunk.entities.length; i++) {
+                User entity = chunk.entities[i];
+                if (entity == null) {
+                    continue;
+                }
+                try {
+                    userDao.save(entity);
+                    chunk.results[i] = SaveResult.success(chunk.users.get(i), entity.getId());
+                } catch (DuplicateKeyException ex) {
+                    chunk.fail(i, new DuplicateLoginNameException(entity.getLoginName(), ex));
+                } catch (RuntimeException ex) {
+                    chunk.fail(i, new ServiceException(ErrorCode.SAVE_FAILED, ex.getMessage(), ex));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.google.common.collect.Iterables;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.mybatis.spring.MyBatisExceptionTranslator;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.DataAccessException;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 基于 {@link UserMapper} 的用户表实现，行为与 {@link JdbcUserDao} 一致
+ * <p>
+ * 单条操作使用 SqlSessionTemplate（有 spring 事务时加入事务，没有时每次调用自动提交），
+ * 批量保存单独打开一个 BATCH 执行器的 SqlSession，每 batchSize 条 flush 一次，最后统一提交。
+ * 异常都转换为 spring 的 DataAccessException，重复的登录名抛出 DuplicateKeyException
+ *
+ * @author 张远卓
+ * @date 2026/10/17 19:25
+ */
+public class MybatisUserDao extends MockUserDao {
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final SqlSessionTemplate sqlSessionTemplate;
+    private final UserMapper mapper;
+    private final MyBatisExceptionTranslator exceptionTranslator;
+    private final int batchSize;
+
+    public MybatisUserDao(SqlSessionFactory sqlSessionFactory) {
+        this(sqlSessionFactory, JdbcUserDao.DEFAULT_BATCH_SIZE);
+    }
+
+    public MybatisUserDao(SqlSessionFactory sqlSessionFactory, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize < 1: " + batchSize);
+        }
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory);
+        this.mapper = sqlSessionTemplate.getMapper(UserMapper.class);
+        this.exceptionTranslator = new MyBatisExceptionTranslator(
+                sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(), true);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 不经过 mybatis-spring-boot 自动配置，直接用 dataSource 创建
+     */
+    public static MybatisUserDao create(DataSource dataSource) {
+        Configuration configuration = new Configuration(
+                new Environment(MybatisUserDao.class.getSimpleName(), new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(UserMapper.class);
+        return new MybatisUserDao(new SqlSessionFactoryBuilder().build(configuration));
+    }
+
+    @Override
+    public User findUserByLoginName(String loginName) {
+        return mapper.findByLoginName(loginName);
+    }
+
+    @Override
+    public void save(User user) {
+        mapper.insert(user);
+    }
+
+    /**
+     * 全部成功或全部回滚
+     */
+    @Override
+    public void saveAll(Collection<? extends User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            try {
+                UserMapper batchMapper = session.getMapper(UserMapper.class);
+                int pending = 0;
+                for (User user : users) {
+                    batchMapper.insert(user);
+                    if (++pending == batchSize) {
+                        session.flushStatements();
+                        pending = 0;
+                    }
+                }
+                session.commit();
+            } catch (PersistenceException ex) {
+                session.rollback();
+                DataAccessException translated = exceptionTranslator.translateExceptionIfPossible(ex);
+                throw translated != null ? translated : ex;
+            }
+        }
+    }
+
+    /**
+     * 按 batchSize 分批 IN 查询
+     */
+    @Override
+    public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+        if (loginNames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> existing = new HashSet<>();
+        for (List<String> names : Iterables.partition(loginNames, batchSize)) {
+            existing.addAll(mapper.findExistingLoginNames(names));
+        }
+        return existing;
+    }
+
+    /**
+     * 逐行回调，不在内存中保存全部登录名
+     */
+    @Override
+    public void forEachLoginName(Consumer<String> action) {
+        mapper.forEachLoginName(context -> action.accept(context.getResultObject()));
+    }
+
+    public long count() {
+        return mapper.count();
+    }
+}
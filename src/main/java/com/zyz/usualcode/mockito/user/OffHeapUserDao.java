@@ -0,0 +1,116 @@
+package com.zyz.usualcode.mockito.user;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 在 {@link MockUserDao} 前面加一层 {@link OffHeapUserTable}，按登录名查询时先查表，没有再查 delegate
+ * <p>
+ * delegate 查到的用户和保存成功的用户追加到表中，查不到的不记录（表只能追加）。
+ * 表来自 {@link UserTableSnapshot}，每次使用时重新获取：启动时从快照恢复的表可以直接命中，不用查数据库；
+ * 快照段损坏被丢弃后换成空表，再随查询重新填充。
+ * <p>
+ * 表在没有写入时才能并发查询，所以查询持读锁，追加持写锁。追加还要按 UserTableSnapshot 的约定同步在表对象上，
+ * 并且先进入表对象的同步块、再取写锁：写快照期间追加的线程等在同步块外，不持有写锁，查询不受影响。
+ * ID 不是32个字符的用户（不是 {@link IdGenerator} 生成的）不进表。线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public class OffHeapUserDao extends MockUserDao {
+
+    private final MockUserDao delegate;
+    private final UserTableSnapshot snapshot;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapUserDao(MockUserDao delegate, UserTableSnapshot snapshot) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public User findUserByLoginName(String loginName) {
+        lock.readLock().lock();
+        try {
+            UserView view = snapshot.getTable().get(loginName);
+            if (view != null) {
+                return view.toUser();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        User user = delegate.findUserByLoginName(loginName);
+        if (user != null) {
+            add(user);
+        }
+        return user;
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+        add(user);
+    }
+
+    @Override
+    public void saveAll(Collection<? extends User> users) {
+        delegate.saveAll(users);
+        for (User user : users) {
+            add(user);
+        }
+    }
+
+    /**
+     * 表中已有的不再查询，其余的一次交给 delegate
+     */
+    @Override
+    public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+        Set<String> existing = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            OffHeapUserTable table = snapshot.getTable();
+            for (String loginName : loginNames) {
+                if (table.contains(loginName)) {
+                    existing.add(loginName);
+                } else {
+                    unknown.add(loginName);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!unknown.isEmpty()) {
+            existing.addAll(delegate.findExistingLoginNames(unknown));
+        }
+        return existing;
+    }
+
+    @Override
+    public void forEachLoginName(Consumer<String> action) {
+        delegate.forEachLoginName(action);
+    }
+
+    private void add(User user) {
+        if (user.getId() == null || user.getId().length() != IdGenerator.LENGTH) {
+            return;
+        }
+        OffHeapUserTable table = snapshot.getTable();
+        synchronized (table) {
+            lock.writeLock().lock();
+            try {
+                table.add(user);
+            } catch (IllegalArgumentException ex) {
+                // 登录名或密码超过表的字段长度，只是不进表
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.zyz.usualcode.snapshot.SnapshotFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * 堆外的用户表，用于在内存中保存千万级的用户副本
+ * <p>
+ * 记录依次追加在若干个直接内存段中，格式为 ID（32字节 ASCII）、登录名、密码，
+ * 后两者都是2字节长度加 UTF-8 字节，密码为 null 时长度为 0xFFFF。
+ * 每条记录约 36 字节加上登录名和密码本身，索引每个用户再占 16 字节（装载因子 0.5），而一个 User 对象在堆上要 200 多字节。
+ * <p>
+ * 登录名索引是开放寻址（线性探测）的 long 数组，也在堆外，每个槽是 24 位哈希标记加 40 位记录地址。
+ * 查询返回的 {@link UserView} 直接读取堆外内存，不复制记录。
+ * <p>
+ * 只能追加，不支持修改和删除。写入不是线程安全的；没有写入时可以多线程并发查询。
+ * {@link #snapshot(Path)} 把表写到文件，{@link #restore(Path)} 把文件映射回内存，重启后不用从数据库重新加载；
+ * 也可以通过 {@link UserTableSnapshot} 作为应用快照中的一段
+ *
+ * @author 张远卓
+ * @date 2026/10/17 23:10
+ */
+public final class OffHeapUserTable {
+
+    static final int DEFAULT_SEGMENT_BITS = 26;
+
+    private static final int MAGIC = 0x55535254;
+    private static final int ID_BYTES = IdGenerator.LENGTH;
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int MAX_FIELD_BYTES = NULL_LENGTH - 1;
+
+    private static final int ADDRESS_BITS = 40;
+    private static final long ADDRESS_MASK = (1L << ADDRESS_BITS) - 1;
+    /**
+     * 索引最大 1GB，约6700万用户
+     */
+    private static final int MAX_INDEX_CAPACITY = 1 << 27;
+
+    /**
+     * 登录名的 UTF-8 字节用 FNV-1a 哈希，再用 murmur3 的 fmix64 打散
+     */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int segmentBits;
+    private final int segmentSize;
+    private ByteBuffer[] segments;
+    /**
+     * 每个段已使用的字节数，最后一段是当前的写入位置
+     */
+    private int[] lengths;
+    private int segmentCount;
+
+    private ByteBuffer index;
+    private int indexCapacity;
+    private int size;
+
+    public OffHeapUserTable() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedUsers 预计用户数，索引按装载因子 0.5 预先分配
+     */
+    public OffHeapUserTable(int expectedUsers) {
+        this(expectedUsers, DEFAULT_SEGMENT_BITS);
+    }
+
+    OffHeapUserTable(int expectedUsers, int segmentBits) {
+        if (segmentBits < 10 || segmentBits > 30) {
+            throw new IllegalArgumentException("segmentBits out of range [10, 30]: " + segmentBits);
+        }
+        this.segmentBits = segmentBits;
+        this.segmentSize = 1 << segmentBits;
+        this.segments = new ByteBuffer[4];
+        this.lengths = new int[4];
+        addSegment();
+        long capacity = Math.max(16, Long.highestOneBit(Math.max(1, (long) expectedUsers) * 2 - 1) << 1);
+        if (capacity > MAX_INDEX_CAPACITY) {
+            throw new IllegalArgumentException("too many users: " + expectedUsers);
+        }
+        this.indexCapacity = (int) capacity;
+        this.index = allocate((long) indexCapacity * Long.BYTES);
+    }
+
+    private OffHeapUserTable(int segmentBits, ByteBuffer[] segments, int[] lengths, int segmentCount,
+                             ByteBuffer index, int indexCapacity, int size) {
+        this.segmentBits = segmentBits;
+        this.segmentSize = 1 << segmentBits;
+        this.segments = segments;
+        this.lengths = lengths;
+        this.segmentCount = segmentCount;
+        this.index = index;
+        this.indexCapacity = indexCapacity;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 追加一个用户，ID 必须是32个 ASCII 字符
+     *
+     * @return 登录名已存在时返回 false，不写入
+     */
+    public boolean add(User user) {
+        String id = user.getId();
+        if (id == null || id.length() != ID_BYTES) {
+            throw new IllegalArgumentException("id must be " + ID_BYTES + " characters: " + id);
+        }
+        byte[] loginName = user.getLoginName().getBytes(StandardCharsets.UTF_8);
+        byte[] password = user.getPassword() == null ? null : user.getPassword().getBytes(StandardCharsets.UTF_8);
+        if (loginName.length > MAX_FIELD_BYTES || password != null && password.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("login name or password longer than " + MAX_FIELD_BYTES + " bytes");
+        }
+        long hash = hash(loginName);
+        int slot = find(loginName, hash);
+        if (slot < 0) {
+            return false;
+        }
+        long address = append(id, loginName, password);
+        index.putLong(slot << 3, tag(hash) | (address + 1));
+        if (++size > indexCapacity >>> 1) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(String loginName) {
+        byte[] key = loginName.getBytes(StandardCharsets.UTF_8);
+        return find(key, hash(key)) < 0;
+    }
+
+    /**
+     * 按登录名查询，新建一个视图
+     */
+    public UserView get(String loginName) {
+        return get(loginName, new UserView());
+    }
+
+    /**
+     * 按登录名查询，结果放进可以重复使用的 view
+     *
+     * @return 找到时返回 view，否则返回 null
+     */
+    public UserView get(String loginName, UserView view) {
+        byte[] key = loginName.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(key);
+        long tag = tag(hash);
+        int mask = indexCapacity - 1;
+        for (int slot = slot(hash, mask); ; slot = (slot + 1) & mask) {
+            long value = index.getLong(slot << 3);
+            if (value == 0) {
+                return null;
+            }
+            if ((value & ~ADDRESS_MASK) == tag) {
+                long address = (value & ADDRESS_MASK) - 1;
+                if (loginNameEquals(address, key)) {
+                    return view.wrap(segments[segment(address)], offset(address));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按写入顺序遍历，回调中的 view 是同一个对象
+     */
+    public void forEach(Consumer<UserView> action) {
+        UserView view = new UserView();
+        for (int s = 0; s < segmentCount; s++) {
+            ByteBuffer segment = segments[s];
+            for (int offset = 0; offset < lengths[s]; offset += recordLength(segment, offset)) {
+                action.accept(view.wrap(segment, offset));
+            }
+        }
+    }
+
+    /**
+     * 写入文件，文件中只有 {@link UserTableSnapshot#NAME} 一段
+     */
+    public void snapshot(Path file) throws IOException {
+        SnapshotFile.write(file, Collections.singletonList(new UserTableSnapshot(this)));
+    }
+
+    /**
+     * 把 {@link #snapshot} 写出的文件映射回内存，见 {@link #restore(SnapshotFile.Section)}。
+     * 不检查数据的校验和，需要时调用 {@link SnapshotFile.Section#verify()}
+     */
+    public static OffHeapUserTable restore(Path file) throws IOException {
+        try (SnapshotFile snapshot = SnapshotFile.open(file)) {
+            SnapshotFile.Section section = snapshot.section(UserTableSnapshot.NAME);
+            if (section == null || section.getVersion() != UserTableSnapshot.VERSION) {
+                throw new IOException("no user table in snapshot: " + file);
+            }
+            return restore(section);
+        }
+    }
+
+    /**
+     * 写入快照段：段头、各段已使用的部分、索引
+     */
+    void writeTo(WritableByteChannel out) throws IOException {
+        writeFully(out, header());
+        for (int s = 0; s < segmentCount; s++) {
+            ByteBuffer data = segments[s].duplicate();
+            data.clear().limit(lengths[s]);
+            writeFully(out, data);
+        }
+        writeFully(out, (ByteBuffer) index.duplicate().clear());
+    }
+
+    /**
+     * 把 {@link #writeTo} 写出的段以写时复制（PRIVATE）方式映射进内存，按需从磁盘读入，之后的写入不影响文件。
+     * 每个数据段单独映射，最后一段复制到新的直接内存中，以便继续追加
+     */
+    static OffHeapUserTable restore(SnapshotFile.Section section) throws IOException {
+        int fixedBytes = 5 * Integer.BYTES;
+        if (section.getLength() < fixedBytes) {
+            throw new IOException("truncated user table: " + section);
+        }
+        ByteBuffer fixed = section.map(0, fixedBytes);
+        if (fixed.getInt() != MAGIC) {
+            throw new IOException("not a user table: " + section);
+        }
+        int segmentBits = fixed.getInt();
+        int size = fixed.getInt();
+        int indexCapacity = fixed.getInt();
+        int segmentCount = fixed.getInt();
+        if (segmentBits < 10 || segmentBits > 30 || segmentCount < 1 || indexCapacity > MAX_INDEX_CAPACITY
+                || Integer.bitCount(indexCapacity) != 1 || fixedBytes + (long) segmentCount * Integer.BYTES > section.getLength()) {
+            throw new IOException("corrupted user table: " + section);
+        }
+        ByteBuffer lengthBuffer = section.map(fixedBytes, segmentCount * Integer.BYTES);
+        int[] lengths = new int[Math.max(4, segmentCount)];
+        long dataBytes = 0;
+        for (int s = 0; s < segmentCount; s++) {
+            lengths[s] = lengthBuffer.getInt();
+            dataBytes += lengths[s];
+        }
+        long position = fixedBytes + lengthBuffer.capacity();
+        long indexBytes = (long) indexCapacity * Long.BYTES;
+        if (section.getLength() != position + dataBytes + indexBytes) {
+            throw new IOException("truncated user table: " + section);
+        }
+        ByteBuffer[] segments = new ByteBuffer[lengths.length];
+        for (int s = 0; s < segmentCount; s++) {
+            ByteBuffer mapped = section.map(position, lengths[s]);
+            if (s < segmentCount - 1) {
+                segments[s] = mapped;
+            } else {
+                segments[s] = allocate(1 << segmentBits);
+                segments[s].duplicate().put(mapped);
+            }
+            position += lengths[s];
+        }
+        ByteBuffer index = section.map(position, (int) indexBytes);
+        return new OffHeapUserTable(segmentBits, segments, lengths, segmentCount, index, indexCapacity, size);
+    }
+
+    /**
+     * 堆外内存占用，包括未使用的段空间和索引
+     */
+    public long offHeapBytes() {
+        return (long) segmentCount * segmentSize + (long) indexCapacity * Long.BYTES;
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate((5 + segmentCount) * Integer.BYTES);
+        header.putInt(MAGIC).putInt(segmentBits).putInt(size).putInt(indexCapacity)
+                .putInt(segmentCount);
+        for (int s = 0; s < segmentCount; s++) {
+            header.putInt(lengths[s]);
+        }
+        header.flip();
+        return header;
+    }
+
+    /**
+     * @return 可以写入的空槽；登录名已存在时返回 -1
+     */
+    private int find(byte[] key, long hash) {
+        long tag = tag(hash);
+        int mask = indexCapacity - 1;
+        for (int slot = slot(hash, mask); ; slot = (slot + 1) & mask) {
+            long value = index.getLong(slot << 3);
+            if (value == 0) {
+                return slot;
+            }
+            if ((value & ~ADDRESS_MASK) == tag && loginNameEquals((value & ADDRESS_MASK) - 1, key)) {
+                return -1;
+            }
+        }
+    }
+
+    private long append(String id, byte[] loginName, byte[] password) {
+        int length = ID_BYTES + 2 + loginName.length + 2 + (password == null ? 0 : password.length);
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("record larger than segment: " + length);
+        }
+        int s = segmentCount - 1;
+        if (lengths[s] + length > segmentSize) {
+            addSegment();
+            s++;
+        }
+        ByteBuffer segment = segments[s];
+        int offset = lengths[s];
+        int p = offset;
+        for (int i = 0; i < ID_BYTES; i++) {
+            segment.put(p++, (byte) id.charAt(i));
+        }
+        segment.putShort(p, (short) loginName.length);
+        p += 2;
+        for (byte b : loginName) {
+            segment.put(p++, b);
+        }
+        segment.putShort(p, (short) (password == null ? NULL_LENGTH : password.length));
+        p += 2;
+        if (password != null) {
+            for (byte b : password) {
+                segment.put(p++, b);
+            }
+        }
+        lengths[s] = p;
+        return (long) s << segmentBits | offset;
+    }
+
+    private void addSegment() {
+        if ((long) (segmentCount + 1) << segmentBits > ADDRESS_MASK) {
+            throw new IllegalStateException("user table is full");
+        }
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+            lengths = Arrays.copyOf(lengths, segmentCount * 2);
+        }
+        segments[segmentCount++] = allocate(segmentSize);
+    }
+
+    private void rehash() {
+        if (indexCapacity == MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("user table index is full: " + size);
+        }
+        ByteBuffer old = index;
+        int oldCapacity = indexCapacity;
+        indexCapacity = oldCapacity << 1;
+        index = allocate((long) indexCapacity * Long.BYTES);
+        int mask = indexCapacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long value = old.getLong(i << 3);
+            if (value != 0) {
+                long address = (value & ADDRESS_MASK) - 1;
+                int slot = slot(hashAt(address), mask);
+                while (index.getLong(slot << 3) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index.putLong(slot << 3, value);
+            }
+        }
+    }
+
+    private boolean loginNameEquals(long address, byte[] key) {
+        ByteBuffer segment = segments[segment(address)];
+        int p = offset(address) + ID_BYTES;
+        if ((segment.getShort(p) & 0xFFFF) != key.length) {
+            return false;
+        }
+        p += 2;
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(p + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hashAt(long address) {
+        ByteBuffer segment = segments[segment(address)];
+        int p = offset(address) + ID_BYTES;
+        int length = segment.getShort(p) & 0xFFFF;
+        long h = FNV_OFFSET;
+        for (int i = p + 2; i < p + 2 + length; i++) {
+            h = (h ^ (segment.get(i) & 0xFF)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private int segment(long address) {
+        return (int) (address >>> segmentBits);
+    }
+
+    private int offset(long address) {
+        return (int) (address & (segmentSize - 1));
+    }
+
+    static long hash(byte[] key) {
+        long h = FNV_OFFSET;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) hash & mask;
+    }
+
+    /**
+     * 高24位，和槽位使用的低位不重叠
+     */
+    private static long tag(long hash) {
+        return hash & ~ADDRESS_MASK;
+    }
+
+    static int recordLength(ByteBuffer segment, int offset) {
+        int p = offset + ID_BYTES;
+        int loginLength = segment.getShort(p) & 0xFFFF;
+        p += 2 + loginLength;
+        int passwordLength = segment.getShort(p) & 0xFFFF;
+        return ID_BYTES + 2 + loginLength + 2 + (passwordLength == NULL_LENGTH ? 0 : passwordLength);
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect((int) bytes);
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
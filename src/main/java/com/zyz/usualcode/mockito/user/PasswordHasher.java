@@ -0,0 +1,26 @@
+package com.zyz.usualcode.mockito.user;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 密码哈希，实现必须线程安全
+ *
+ * @author 张远卓
+ * @date 2026/10/17 20:40
+ */
+public interface PasswordHasher {
+
+    /**
+     * 加盐哈希，结果中带有校验所需的全部参数
+     */
+    String hash(String rawPassword);
+
+    /**
+     * 默认在调用线程上执行，异常放进返回的 future；{@link PasswordHashingService} 交给自己的线程池执行
+     */
+    default CompletableFuture<String> hashAsync(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> hash(rawPassword), Runnable::run);
+    }
+
+    boolean matches(String rawPassword, String hashedPassword);
+}
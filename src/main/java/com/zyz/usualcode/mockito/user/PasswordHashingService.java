@@ -0,0 +1,279 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.zyz.usualcode.metrics.LogHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 在独立的有界线程池里做 PBKDF2 密码哈希，不占用 tomcat 的请求线程
+ * <p>
+ * <ul>
+ *     <li>{@link #hashAsync}、{@link #matchesAsync} 立即返回 CompletableFuture；
+ *     队列满时 future 以 RejectedExecutionException 失败，调用方可以直接返回 503，而不是让请求线程排队等待</li>
+ *     <li>迭代次数按每次哈希的实际耗时调整，使单次哈希接近 targetLatency，但不低于 minIterations。
+ *     CPU 繁忙时单次耗时变长也会降低迭代次数，minIterations 就是安全下限。
+ *     迭代次数记录在哈希结果中，调整后旧的哈希仍然能校验</li>
+ *     <li>排队时间、哈希耗时两个直方图（纳秒），以及队列深度、拒绝次数</li>
+ * </ul>
+ * 同步的 {@link #hash}、{@link #matches} 在调用线程上执行（也计入耗时统计），
+ * 批量导入通过 {@link #bulkExecutor()} 把这些调用放进同一个线程池
+ *
+ * @author 张远卓
+ * @date 2026/10/17 21:55
+ */
+public class PasswordHashingService implements PasswordHasher, AutoCloseable {
+
+    /**
+     * 迭代次数按这个粒度取整，避免每次都变
+     */
+    private static final int ITERATION_STEP = 1000;
+    /**
+     * 每次耗时在平均值中的权重
+     */
+    private static final double ALPHA = 0.1;
+
+    private final ThreadPoolExecutor executor;
+    private final long targetNanos;
+    private final int minIterations;
+    private final int maxIterations;
+    private volatile int iterations;
+    /**
+     * 每次迭代耗时的指数移动平均（纳秒），只由 {@link #adjust} 在 synchronized 中修改
+     */
+    private double nanosPerIteration;
+
+    private final LogHistogram queueWait = new LogHistogram();
+    private final LogHistogram hashTime = new LogHistogram();
+    private final LongAdder rejected = new LongAdder();
+
+    private PasswordHashingService(Builder builder) {
+        if (builder.minIterations > builder.maxIterations) {
+            throw new IllegalArgumentException("minIterations > maxIterations");
+        }
+        this.targetNanos = builder.targetLatency.toNanos();
+        this.minIterations = builder.minIterations;
+        this.maxIterations = builder.maxIterations;
+        // 先试算再创建线程池：试算失败时没有需要关闭的线程池
+        this.iterations = calibrate();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(builder.threads, builder.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public CompletableFuture<String> hashAsync(String rawPassword) {
+        return submit(() -> hash(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String hashedPassword) {
+        return submit(() -> matches(rawPassword, hashedPassword));
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        int current = iterations;
+        long start = System.nanoTime();
+        String hashed = Pbkdf2PasswordHasher.hash(rawPassword, current);
+        long elapsed = System.nanoTime() - start;
+        hashTime.record(elapsed);
+        adjust(current, elapsed);
+        return hashed;
+    }
+
+    /**
+     * 校验使用哈希结果中的迭代次数，耗时计入直方图但不参与调整
+     */
+    @Override
+    public boolean matches(String rawPassword, String hashedPassword) {
+        long start = System.nanoTime();
+        boolean matches = Pbkdf2PasswordHasher.verify(rawPassword, hashedPassword);
+        hashTime.record(System.nanoTime() - start);
+        return matches;
+    }
+
+    /**
+     * 供 {@link BulkSaveOptions.Builder#hashExecutor} 使用：任务在哈希线程池中执行，计入排队时间；
+     * 队列满时在提交任务的线程上执行而不是拒绝，批量导入因此自然放慢，不会中途失败
+     */
+    public Executor bulkExecutor() {
+        return task -> {
+            try {
+                execute(task);
+            } catch (RejectedExecutionException ex) {
+                if (executor.isShutdown()) {
+                    throw ex;
+                }
+                task.run();
+            }
+        };
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * 从提交到开始执行的时间
+     */
+    public LogHistogram.Snapshot queueWait() {
+        return queueWait.snapshot();
+    }
+
+    /**
+     * 单次哈希或校验的耗时
+     */
+    public LogHistogram.Snapshot hashTime() {
+        return hashTime.snapshot();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 队列满被拒绝的次数，包括 {@link #bulkExecutor()} 改为在调用线程上执行的
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 不再接受新任务，已提交的继续执行
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            execute(() -> {
+                try {
+                    future.complete(task.get());
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    private void execute(Runnable task) {
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - submitted);
+                task.run();
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * 启动时试算一次，得到初始的每次迭代耗时
+     */
+    private int calibrate() {
+        int probe = Math.max(minIterations, ITERATION_STEP);
+        // 第一次包含类加载和 JIT，取第二次
+        Pbkdf2PasswordHasher.hash("calibrate", probe);
+        long start = System.nanoTime();
+        Pbkdf2PasswordHasher.hash("calibrate", probe);
+        nanosPerIteration = Math.max(1.0, (double) (System.nanoTime() - start) / probe);
+        return target();
+    }
+
+    private synchronized void adjust(int usedIterations, long elapsedNanos) {
+        nanosPerIteration += ALPHA * ((double) elapsedNanos / usedIterations - nanosPerIteration);
+        iterations = target();
+    }
+
+    private int target() {
+        long target = Math.round(targetNanos / nanosPerIteration / ITERATION_STEP) * ITERATION_STEP;
+        return (int) Math.max(minIterations, Math.min(maxIterations, target));
+    }
+
+    public static final class Builder {
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private int queueCapacity = 1000;
+        private Duration targetLatency = Duration.ofMillis(50);
+        private int minIterations = Pbkdf2PasswordHasher.DEFAULT_ITERATIONS;
+        private int maxIterations = 1_000_000;
+
+        private Builder() {
+        }
+
+        /**
+         * 哈希线程数，默认 CPU 核数减一，给请求线程留出余量
+         */
+        public Builder threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads < 1: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * 等待队列长度，默认1000，超出后直接拒绝
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity < 1: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 单次哈希的目标耗时，默认50毫秒
+         */
+        public Builder targetLatency(Duration targetLatency) {
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
+        /**
+         * 迭代次数的范围，默认 [10000, 1000000]
+         */
+        public Builder iterations(int minIterations, int maxIterations) {
+            if (minIterations < 1) {
+                throw new IllegalArgumentException("minIterations < 1: " + minIterations);
+            }
+            this.minIterations = minIterations;
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        public PasswordHashingService build() {
+            return new PasswordHashingService(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.zyz.usualcode.mockito.user;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2WithHmacSHA256，结果格式 pbkdf2$迭代次数$盐$哈希（盐和哈希是不带填充的 Base64）
+ * <p>
+ * 每次哈希都是几万次 HMAC，单核每秒只有几十到几百次，批量时放到线程池里并行。
+ * SecretKeyFactory 不保证线程安全，每个线程一个
+ *
+ * @author 张远卓
+ * @date 2026/10/17 20:45
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    public static final int DEFAULT_ITERATIONS = 10_000;
+
+    static final String PREFIX = "pbkdf2";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ALGORITHM + " is not available", ex);
+        }
+    });
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations < 1: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return hash(rawPassword, iterations);
+    }
+
+    /**
+     * 指定迭代次数，用于按耗时调整迭代次数的 {@link PasswordHashingService}
+     */
+    static String hash(String rawPassword, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return encode(iterations, salt, derive(rawPassword, salt, iterations));
+    }
+
+    /**
+     * 使用哈希结果中记录的迭代次数校验，迭代次数调整后旧的哈希仍然可用
+     */
+    @Override
+    public boolean matches(String rawPassword, String hashedPassword) {
+        return verify(rawPassword, hashedPassword);
+    }
+
+    static boolean verify(String rawPassword, String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        int storedIterations;
+        byte[] salt;
+        byte[] expected;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        if (storedIterations < 1) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, derive(rawPassword, salt, storedIterations));
+    }
+
+    static String encode(int iterations, byte[] salt, byte[] hash) {
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    static byte[] derive(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
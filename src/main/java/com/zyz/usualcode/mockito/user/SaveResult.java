@@ -0,0 +1,66 @@
+package com.zyz.usualcode.mockito.user;
+
+/**
+ * 保存一条记录的结果：成功时是生成的32位 ID，失败时是原因
+ *
+ * @author 张远卓
+ * @date 2026/10/17 20:55
+ */
+public final class SaveResult {
+
+    private final User user;
+    private final String id;
+    private final ServiceException error;
+
+    private SaveResult(User user, String id, ServiceException error) {
+        this.user = user;
+        this.id = id;
+        this.error = error;
+    }
+
+    static SaveResult success(User user, String id) {
+        return new SaveResult(user, id, null);
+    }
+
+    static SaveResult failure(User user, ServiceException error) {
+        return new SaveResult(user, null, error);
+    }
+
+    /**
+     * 调用方传入的原始对象，不会被修改
+     */
+    public User getUser() {
+        return user;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * 失败时为 null
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 成功时为 null
+     */
+    public ServiceException getError() {
+        return error;
+    }
+
+    /**
+     * 成功时为 null
+     */
+    public ErrorCode getErrorCode() {
+        return error == null ? null : error.getErrorCode();
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "SaveResult{" + user.getLoginName() + " -> " + id + "}"
+                : "SaveResult{" + user.getLoginName() + " failed: " + error.getMessage() + "}";
+    }
+}
@@ -1,11 +1,83 @@
 package com.zyz.usualcode.mockito.user;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
+ * 业务失败，带有 {@link ErrorCode}
+ * <p>
+ * "登录名已存在" 这样的失败在注册流程中很常见，不是程序错误，调用栈没有用处。
+ * 默认不填充调用栈（填充的开销远大于创建对象本身），也不记录 suppressed 异常；
+ * 排查问题时可以用 -Dusualcode.service-exception.stack-trace=true 打开。
+ * <p>
+ * 不带详情的失败可以用 {@link #of(ErrorCode)} 取共享的实例，不创建新对象；
+ * 没有调用栈、cause 固定为 null，共享实例被多个线程同时抛出也没有问题
+ *
  * @author 张远卓
  * @date 2020/10/13 18:03
  */
-public class ServiceException extends Throwable {
+public class ServiceException extends Exception {
+
+    static final boolean STACK_TRACE = Boolean.getBoolean("usualcode.service-exception.stack-trace");
+
+    private static final Map<ErrorCode, ServiceException> SHARED = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode code : ErrorCode.values()) {
+            SHARED.put(code, new ServiceException(code, null, null, false));
+        }
+    }
+
+    private final ErrorCode errorCode;
+    private final String detail;
+
     public ServiceException(String s) {
+        this(ErrorCode.UNKNOWN, s);
+    }
+
+    public ServiceException(ErrorCode errorCode) {
+        this(errorCode, null);
+    }
+
+    /**
+     * @param detail 附加在 message 后面的详情，如重复的登录名
+     */
+    public ServiceException(ErrorCode errorCode, String detail) {
+        this(errorCode, detail, null, STACK_TRACE);
+    }
+
+    public ServiceException(ErrorCode errorCode, String detail, Throwable cause) {
+        this(errorCode, detail, cause, STACK_TRACE);
+    }
+
+    protected ServiceException(ErrorCode errorCode, String detail, Throwable cause, boolean writableStackTrace) {
+        super(message(errorCode, detail), cause, false, writableStackTrace);
+        this.errorCode = errorCode;
+        this.detail = detail;
+    }
+
+    /**
+     * 不带详情的共享实例
+     */
+    public static ServiceException of(ErrorCode errorCode) {
+        return SHARED.get(errorCode);
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * 没有详情时为 null
+     */
+    public String getDetail() {
+        return detail;
+    }
 
+    private static String message(ErrorCode errorCode, String detail) {
+        if (errorCode == ErrorCode.UNKNOWN && detail != null) {
+            return detail;
+        }
+        return detail == null ? errorCode.getMessage() : errorCode.getMessage() + ": " + detail;
     }
 }
@@ -10,6 +10,10 @@ import lombok.experimental.Accessors;
 @Data
 @Accessors(chain = true)
 public class User {
+    /**
+     * 32位字符
+     */
+    private String id;
     private String loginName;
     private String password;
 }
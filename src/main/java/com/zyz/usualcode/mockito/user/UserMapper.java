@@ -0,0 +1,52 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * t_user 的 MyBatis 注解映射，建表语句见 db/t_user.sql
+ *
+ * @author 张远卓
+ * @date 2026/10/17 19:20
+ */
+@Mapper
+public interface UserMapper {
+
+    /**
+     * 走唯一索引 uk_user_login_name
+     */
+    @Select("SELECT id, login_name, password FROM t_user WHERE login_name = #{loginName}")
+    @Results(id = "user", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "login_name", property = "loginName"),
+            @Result(column = "password", property = "password")
+    })
+    User findByLoginName(@Param("loginName") String loginName);
+
+    @Insert("INSERT INTO t_user (id, login_name, password) VALUES (#{id}, #{loginName}, #{password})")
+    int insert(User user);
+
+    @Select("<script>SELECT login_name FROM t_user WHERE login_name IN "
+            + "<foreach collection='loginNames' item='name' open='(' separator=',' close=')'>#{name}</foreach>"
+            + "</script>")
+    List<String> findExistingLoginNames(@Param("loginNames") Collection<String> loginNames);
+
+    /**
+     * 逐行回调所有登录名
+     */
+    @Select("SELECT login_name FROM t_user")
+    @ResultType(String.class)
+    void forEachLoginName(ResultHandler<String> handler);
+
+    @Select("SELECT COUNT(*) FROM t_user")
+    long count();
+}
@@ -0,0 +1,61 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.zyz.usualcode.snapshot.SnapshotFile;
+import com.zyz.usualcode.snapshot.Snapshotable;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 把 {@link OffHeapUserTable} 作为快照中的一段
+ * <p>
+ * 恢复时只映射各个数据段和索引，不读取数据，千万级用户的表也能在毫秒级恢复。
+ * 写快照时对表加锁，向表中追加用户的线程也要在同一个表对象上同步。
+ * 段损坏被丢弃后 {@link #getTable()} 换成一张空表，由调用方重新从数据库加载
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public class UserTableSnapshot implements Snapshotable {
+
+    public static final String NAME = "users";
+    static final int VERSION = 1;
+
+    private volatile OffHeapUserTable table;
+
+    public UserTableSnapshot(OffHeapUserTable table) {
+        this.table = table;
+    }
+
+    public OffHeapUserTable getTable() {
+        return table;
+    }
+
+    @Override
+    public String snapshotName() {
+        return NAME;
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void writeSnapshot(WritableByteChannel out) throws IOException {
+        OffHeapUserTable current = table;
+        synchronized (current) {
+            current.writeTo(out);
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(SnapshotFile.Section section) throws IOException {
+        table = OffHeapUserTable.restore(section);
+    }
+
+    @Override
+    public void discardSnapshot() {
+        table = new OffHeapUserTable();
+    }
+}
@@ -0,0 +1,76 @@
+package com.zyz.usualcode.mockito.user;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link OffHeapUserTable} 中一条记录的视图，不复制记录，每次调用 getter 时才解码。
+ * 同一个视图会被重复使用（查询时传入、forEach 回调），需要保留时调用 {@link #toUser()}
+ *
+ * @author 张远卓
+ * @date 2026/10/17 23:15
+ */
+public final class UserView {
+
+    private static final int ID_BYTES = IdGenerator.LENGTH;
+
+    private ByteBuffer segment;
+    private int offset;
+
+    UserView wrap(ByteBuffer segment, int offset) {
+        this.segment = segment;
+        this.offset = offset;
+        return this;
+    }
+
+    public String getId() {
+        char[] chars = new char[ID_BYTES];
+        for (int i = 0; i < ID_BYTES; i++) {
+            chars[i] = (char) segment.get(offset + i);
+        }
+        return new String(chars);
+    }
+
+    public String getLoginName() {
+        return string(offset + ID_BYTES);
+    }
+
+    public String getPassword() {
+        int p = offset + ID_BYTES;
+        return string(p + 2 + (segment.getShort(p) & 0xFFFF));
+    }
+
+    /**
+     * 登录名的 UTF-8 字节数
+     */
+    public int loginNameLength() {
+        return segment.getShort(offset + ID_BYTES) & 0xFFFF;
+    }
+
+    /**
+     * 复制成普通的 User 对象
+     */
+    public User toUser() {
+        return new User().setId(getId()).setLoginName(getLoginName()).setPassword(getPassword());
+    }
+
+    /**
+     * 长度为 0xFFFF 表示 null
+     */
+    private String string(int p) {
+        int length = segment.getShort(p) & 0xFFFF;
+        if (length == 0xFFFF) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = segment.get(p + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "UserView{id=" + getId() + ", loginName=" + getLoginName() + "}";
+    }
+}
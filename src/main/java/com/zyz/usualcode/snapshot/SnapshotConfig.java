@@ -0,0 +1,58 @@
+package com.zyz.usualcode.snapshot;
+
+import com.zyz.usualcode.dateTime.format.FormatterRegistrySnapshot;
+import com.zyz.usualcode.mockito.user.OffHeapUserDao;
+import com.zyz.usualcode.mockito.user.OffHeapUserTable;
+import com.zyz.usualcode.mockito.user.UserTableSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置了 usualcode.snapshot.file 时启用快照
+ * <p>
+ * 容器中所有 {@link Snapshotable} 类型的 bean 都写进同一个快照文件，包括 DateTimeFormatterRegistry 和用户查询的堆外表，
+ * 预计用户数 usualcode.snapshot.expected-users（默认1024）。
+ * SnapshotManager 创建时就从快照恢复，早于 web 服务器开始接受请求；
+ * 之后每隔 usualcode.snapshot.interval-seconds（默认300）秒写一次，容器关闭时再写一次
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "usualcode.snapshot", name = "file")
+public class SnapshotConfig {
+
+    @Bean
+    public FormatterRegistrySnapshot formatterRegistrySnapshot() {
+        return new FormatterRegistrySnapshot();
+    }
+
+    /**
+     * 用户查询使用的堆外表，由 WebExecutionConfig 默认的 userDao 通过 {@link OffHeapUserDao} 读写
+     */
+    @Bean
+    public UserTableSnapshot userTableSnapshot(@Value("${usualcode.snapshot.expected-users:1024}") int expectedUsers) {
+        return new UserTableSnapshot(new OffHeapUserTable(expectedUsers));
+    }
+
+    /**
+     * 必须在启动时恢复，不受 lean profile 的懒加载影响
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public SnapshotManager snapshotManager(@Value("${usualcode.snapshot.file}") String file,
+                                           @Value("${usualcode.snapshot.interval-seconds:300}") long intervalSeconds,
+                                           List<Snapshotable> parts) {
+        SnapshotManager manager = new SnapshotManager(Paths.get(file), parts);
+        manager.restore();
+        manager.start(intervalSeconds, TimeUnit.SECONDS);
+        return manager;
+    }
+}
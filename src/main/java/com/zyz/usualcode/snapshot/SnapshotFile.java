@@ -0,0 +1,331 @@
+package com.zyz.usualcode.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 分段的快照文件
+ * <p>
+ * 文件格式：
+ * <pre>
+ * 文件头  magic(4) 格式版本(4) 文件头长度(4) 段数(4) 写入时间(8)
+ *         每段：段名长度(2) 段名(UTF-8) 段版本(4) 偏移(8) 长度(8) CRC32(4)
+ *         文件头的 CRC32(4)
+ * 各段数据，起点按 4KB 对齐
+ * </pre>
+ * 写入时先写临时文件再原子地改名，进程在写入过程中退出不会留下半个快照；
+ * 已经映射旧文件的进程继续读旧的 inode，不受新快照影响。
+ * <p>
+ * {@link #open} 只读取并校验文件头，段数据通过 {@link Section#map} 以写时复制方式映射，
+ * 访问到哪一页才从磁盘读入哪一页，所以打开快照的耗时与数据量无关。
+ * 段数据的校验和由 {@link Section#verify} 单独检查
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public final class SnapshotFile implements Closeable {
+
+    static final int MAGIC = 0x5543534E;
+    static final int FORMAT_VERSION = 1;
+    static final int ALIGNMENT = 4096;
+
+    private static final int FIXED_HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+    private static final int MAX_SECTIONS = 1024;
+    private static final int MAX_HEADER_BYTES = 1 << 20;
+    private static final int VERIFY_CHUNK_BYTES = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long createdMillis;
+    private final Map<String, Section> sections;
+
+    private SnapshotFile(Path path, FileChannel channel, long createdMillis, Map<String, Section> sections) {
+        this.path = path;
+        this.channel = channel;
+        this.createdMillis = createdMillis;
+        this.sections = sections;
+    }
+
+    /**
+     * 依次调用各个 parts 的 {@link Snapshotable#writeSnapshot}，写成一个新的快照文件替换 file
+     *
+     * @throws IllegalArgumentException 段名重复
+     */
+    public static void write(Path file, Collection<? extends Snapshotable> parts) throws IOException {
+        List<byte[]> names = new ArrayList<>(parts.size());
+        int headerLength = FIXED_HEADER_BYTES + Integer.BYTES;
+        for (Snapshotable part : parts) {
+            byte[] name = part.snapshotName().getBytes(StandardCharsets.UTF_8);
+            if (name.length == 0 || name.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("illegal section name: " + part.snapshotName());
+            }
+            for (byte[] other : names) {
+                if (Arrays.equals(other, name)) {
+                    throw new IllegalArgumentException("duplicate section name: " + part.snapshotName());
+                }
+            }
+            names.add(name);
+            headerLength += Short.BYTES + name.length + Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+        }
+        if (names.size() > MAX_SECTIONS || headerLength > MAX_HEADER_BYTES) {
+            throw new IllegalArgumentException("too many sections: " + names.size());
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerLength);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(headerLength).putInt(names.size())
+                .putLong(System.currentTimeMillis());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = align(headerLength);
+            int i = 0;
+            for (Snapshotable part : parts) {
+                channel.position(position);
+                CheckedChannel out = new CheckedChannel(channel);
+                part.writeSnapshot(out);
+                byte[] name = names.get(i++);
+                header.putShort((short) name.length).put(name).putInt(part.snapshotVersion())
+                        .putLong(position).putLong(out.length).putInt((int) out.crc.getValue());
+                position = align(position + out.length);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, header.position());
+            header.putInt((int) crc.getValue());
+            header.flip();
+            long at = 0;
+            while (header.hasRemaining()) {
+                at += channel.write(header, at);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 打开快照文件，只读取文件头
+     *
+     * @throws IOException 文件不存在、不是快照文件、版本不支持、文件头校验失败或者文件被截断
+     */
+    public static SnapshotFile open(Path file) throws IOException {
+        // 段以 PRIVATE 方式映射，要求通道可读可写，文件本身不会被修改
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_BYTES);
+            readFully(channel, fixed, 0);
+            fixed.flip();
+            if (fixed.getInt() != MAGIC) {
+                throw new IOException("not a snapshot file: " + file);
+            }
+            int version = fixed.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("unsupported snapshot format " + version + ": " + file);
+            }
+            int headerLength = fixed.getInt();
+            int sectionCount = fixed.getInt();
+            long createdMillis = fixed.getLong();
+            if (headerLength < FIXED_HEADER_BYTES + Integer.BYTES || headerLength > MAX_HEADER_BYTES
+                    || sectionCount < 0 || sectionCount > MAX_SECTIONS) {
+                throw new IOException("corrupted snapshot header: " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerLength);
+            readFully(channel, header, 0);
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, headerLength - Integer.BYTES);
+            header.position(headerLength - Integer.BYTES);
+            if (header.getInt() != (int) crc.getValue()) {
+                throw new IOException("snapshot header checksum mismatch: " + file);
+            }
+
+            SnapshotFile snapshot = new SnapshotFile(file, channel, createdMillis, new LinkedHashMap<>());
+            long fileSize = channel.size();
+            header.position(FIXED_HEADER_BYTES);
+            for (int i = 0; i < sectionCount; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                Section section = snapshot.new Section(new String(name, StandardCharsets.UTF_8), header.getInt(),
+                        header.getLong(), header.getLong(), header.getInt());
+                if (section.offset < headerLength || section.length < 0
+                        || section.length > 0 && section.offset + section.length > fileSize) {
+                    throw new IOException("truncated snapshot: " + file);
+                }
+                snapshot.sections.put(section.name, section);
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            // 文件头字段越界时 ByteBuffer 抛出的运行时异常也按损坏处理
+            throw ex instanceof IOException ? (IOException) ex : new IOException("corrupted snapshot: " + file, ex);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * @return 没有这个段时返回 null
+     */
+    public Section section(String name) {
+        return sections.get(name);
+    }
+
+    public Collection<Section> sections() {
+        return Collections.unmodifiableCollection(sections.values());
+    }
+
+    /**
+     * 关闭文件，已经映射的 buffer 仍然有效，但不能再映射新的区域
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("unexpected end of snapshot");
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * 快照中的一段
+     */
+    public final class Section {
+        private final String name;
+        private final int version;
+        private final long offset;
+        private final long length;
+        private final int crc;
+
+        private Section(String name, int version, long offset, long length, int crc) {
+            this.name = name;
+            this.version = version;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * 映射整个段
+         *
+         * @throws IOException 段超过 2GB，这时需要用 {@link #map(long, int)} 分块映射
+         */
+        public ByteBuffer map() throws IOException {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("section too large to map at once: " + name + " " + length);
+            }
+            return map(0, (int) length);
+        }
+
+        /**
+         * 以写时复制（PRIVATE）方式映射段内 [position, position + size) 的区域，
+         * 对 buffer 的修改只在本进程可见，不会写回文件
+         */
+        public ByteBuffer map(long position, int size) throws IOException {
+            if (position < 0 || size < 0 || position + size > length) {
+                throw new IndexOutOfBoundsException("[" + position + ", " + (position + size) + ") out of section "
+                        + name + " of length " + length);
+            }
+            return channel.map(FileChannel.MapMode.PRIVATE, offset + position, size);
+        }
+
+        /**
+         * 读取整个段检查 CRC32。用普通读取而不是映射，不会把页留在进程的映射中
+         */
+        public boolean verify() throws IOException {
+            CRC32 checksum = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(VERIFY_CHUNK_BYTES, Math.max(1, length)));
+            long position = 0;
+            while (position < length) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), length - position));
+                readFully(channel, buffer, offset + position);
+                checksum.update(buffer.array(), 0, buffer.limit());
+                position += buffer.limit();
+            }
+            return (int) checksum.getValue() == crc;
+        }
+
+        @Override
+        public String toString() {
+            return name + " v" + version + " [" + offset + ", +" + length + ")";
+        }
+    }
+
+    /**
+     * 交给各个段写入的通道，统计写入的字节数和 CRC32，不让实现拿到 FileChannel 改变位置
+     */
+    private static final class CheckedChannel implements WritableByteChannel {
+        private final FileChannel channel;
+        private final CRC32 crc = new CRC32();
+        private long length;
+
+        CheckedChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            ByteBuffer written = src.duplicate();
+            int n = channel.write(src);
+            written.limit(written.position() + n);
+            crc.update(written);
+            length += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // 由 SnapshotFile 关闭
+        }
+    }
+}
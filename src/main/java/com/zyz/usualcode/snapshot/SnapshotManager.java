@@ -0,0 +1,218 @@
+package com.zyz.usualcode.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 管理一组 {@link Snapshotable}：启动时从快照恢复，运行中定期写快照，关闭时再写一次
+ * <p>
+ * {@link #restore()} 只读文件头并映射各段，耗时与数据量无关，应用可以立即开始处理请求；
+ * 各段的校验和随后在快照线程上检查，损坏的段调用 {@link Snapshotable#discardSnapshot()} 丢弃，
+ * 结果见 {@link #getVerification()}。格式版本不一致、文件不存在或文件头损坏都按冷启动处理，不抛异常。
+ * 本次运行中丢弃过的段之后不再写进快照，下次启动时这一段按冷启动处理，不会用丢弃后的空状态覆盖原来的数据。
+ * <p>
+ * 定期快照与校验在同一个守护线程上串行执行，新快照写在临时文件中再改名替换，不影响已经映射的旧文件
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public class SnapshotManager implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotManager.class);
+
+    /**
+     * 关闭时等待后台校验完成的最长时间（秒）
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final Path file;
+    private final List<Snapshotable> parts;
+    private final Set<Snapshotable> discarded = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor;
+    private volatile CompletableFuture<Set<String>> verification =
+            CompletableFuture.completedFuture(Collections.emptySet());
+
+    private volatile long lastSnapshotMillis;
+    private volatile long lastSnapshotNanos;
+    private volatile long lastSnapshotBytes;
+    private volatile boolean closed;
+
+    public SnapshotManager(Path file, Collection<? extends Snapshotable> parts) {
+        this.file = file;
+        this.parts = new ArrayList<>(parts);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 从快照文件恢复各个 part，只应在启动时调用一次
+     *
+     * @return 已恢复的段名
+     */
+    public synchronized Set<String> restore() {
+        SnapshotFile snapshot;
+        try {
+            snapshot = SnapshotFile.open(file);
+        } catch (NoSuchFileException ex) {
+            return Collections.emptySet();
+        } catch (IOException ex) {
+            log.warn("ignore unreadable snapshot {}: {}", file, ex.toString());
+            return Collections.emptySet();
+        }
+        Map<Snapshotable, SnapshotFile.Section> restored = new LinkedHashMap<>();
+        for (Snapshotable part : parts) {
+            SnapshotFile.Section section = snapshot.section(part.snapshotName());
+            if (section == null || section.getVersion() != part.snapshotVersion()) {
+                continue;
+            }
+            try {
+                part.restoreSnapshot(section);
+                restored.put(part, section);
+            } catch (IOException | RuntimeException ex) {
+                log.warn("failed to restore snapshot section {}: {}", section, ex.toString());
+                discard(part);
+            }
+        }
+        verification = CompletableFuture.supplyAsync(() -> verify(snapshot, restored), executor);
+        Set<String> names = new LinkedHashSet<>();
+        restored.keySet().forEach(part -> names.add(part.snapshotName()));
+        return names;
+    }
+
+    /**
+     * 后台校验的结果，完成时给出校验失败、已经丢弃的段名
+     */
+    public CompletableFuture<Set<String>> getVerification() {
+        return verification;
+    }
+
+    /**
+     * 每隔 period 写一次快照（上一次写完之后开始计时）
+     */
+    public void start(long period, TimeUnit unit) {
+        executor.scheduleWithFixedDelay(this::snapshotQuietly, period, period, unit);
+    }
+
+    /**
+     * 立即写一次快照，不包括本次运行中丢弃过的段
+     */
+    public synchronized void snapshot() throws IOException {
+        long start = System.nanoTime();
+        List<Snapshotable> written = new ArrayList<>(parts);
+        written.removeAll(discarded);
+        SnapshotFile.write(file, written);
+        lastSnapshotNanos = System.nanoTime() - start;
+        lastSnapshotMillis = System.currentTimeMillis();
+        lastSnapshotBytes = Files.size(file);
+    }
+
+    /**
+     * 最近一次快照完成的时间，还没有写过时为0
+     */
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    /**
+     * 最近一次快照的耗时（纳秒）
+     */
+    public long getLastSnapshotNanos() {
+        return lastSnapshotNanos;
+    }
+
+    public long getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 停止定期快照，等待后台校验完成后写最后一次快照，滚动重启时下一个进程从这里恢复
+     * <p>
+     * 不能中断校验：中断的读取会把完好的段当作损坏丢弃。等待超时或者被中断时不写最后一次快照，保留现有的文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("snapshot verification still running after {}s, keep {}", CLOSE_TIMEOUT_SECONDS, file);
+                executor.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            return;
+        }
+        snapshot();
+    }
+
+    private Set<String> verify(SnapshotFile snapshot, Map<Snapshotable, SnapshotFile.Section> restored) {
+        Set<String> corrupted = new LinkedHashSet<>();
+        try {
+            for (Map.Entry<Snapshotable, SnapshotFile.Section> entry : restored.entrySet()) {
+                SnapshotFile.Section section = entry.getValue();
+                boolean valid;
+                try {
+                    valid = section.verify();
+                } catch (IOException ex) {
+                    valid = false;
+                }
+                if (!valid) {
+                    log.warn("snapshot section {} checksum mismatch, discarded", section);
+                    discard(entry.getKey());
+                    corrupted.add(section.getName());
+                }
+            }
+        } finally {
+            try {
+                snapshot.close();
+            } catch (IOException ignored) {
+                // 映射的 buffer 不受影响
+            }
+        }
+        return corrupted;
+    }
+
+    private void discard(Snapshotable part) {
+        discarded.add(part);
+        part.discardSnapshot();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException ex) {
+            // 保留上一个快照，下次再试
+            log.warn("failed to write snapshot {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.zyz.usualcode.snapshot;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 可以写进快照文件的内存状态，每个实现对应快照文件中的一个段
+ *
+ * @author 张远卓
+ * @date 2026/10/18 00:20
+ */
+public interface Snapshotable {
+
+    /**
+     * 段名，同一个快照文件中不能重复
+     */
+    String snapshotName();
+
+    /**
+     * 段的格式版本，格式变化时加一；文件中的版本不一致时不会调用 {@link #restoreSnapshot}，按冷启动处理
+     */
+    int snapshotVersion();
+
+    /**
+     * 把当前状态写入 out。在快照线程上调用，可能与业务线程并发，一致性由实现自己保证
+     */
+    void writeSnapshot(WritableByteChannel out) throws IOException;
+
+    /**
+     * 从快照恢复。应当只映射需要的区域（{@link SnapshotFile.Section#map}），不要在这里读完整个段，
+     * 数据在第一次访问时才从磁盘读入；校验和在恢复之后由后台线程检查
+     */
+    void restoreSnapshot(SnapshotFile.Section section) throws IOException;
+
+    /**
+     * 后台校验发现段已损坏时调用，丢弃恢复的数据，回到冷启动的状态
+     */
+    default void discardSnapshot() {
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 进程内状态的快照：定期写入带版本和校验和的分段文件，重启时按需映射回内存，不用从数据库重新预热
+ */
+package com.zyz.usualcode.snapshot;
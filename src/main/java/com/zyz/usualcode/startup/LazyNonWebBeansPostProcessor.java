@@ -0,0 +1,86 @@
+package com.zyz.usualcode.startup;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+/**
+ * 把处理请求用不到的单例 bean 改为懒加载，第一次被用到时才创建
+ * <p>
+ * 与 spring.main.lazy-initialization=true 不同，web 相关的 bean 仍然在启动时创建，
+ * 否则第一个请求要等 DispatcherServlet、消息转换器、controller 全部创建完。以下 bean 保持原样：
+ * <ul>
+ *     <li>已经显式声明了 @Lazy 的（包括 @Lazy(false)）</li>
+ *     <li>容器基础设施（ROLE_INFRASTRUCTURE）、SmartInitializingSingleton、SmartLifecycle，它们必须在启动时执行</li>
+ *     <li>@Controller、web 和 jackson 的类，见 {@link #isWebType}</li>
+ * </ul>
+ *
+ * @author 张远卓
+ * @date 2026/10/18 01:10
+ */
+public class LazyNonWebBeansPostProcessor implements BeanFactoryPostProcessor, Ordered {
+
+    private static final String[] WEB_PACKAGES = {"org.springframework.web.", "org.springframework.http.",
+            "org.springframework.boot.web.", "org.springframework.boot.autoconfigure.web.",
+            "org.springframework.boot.autoconfigure.http.", "org.springframework.boot.autoconfigure.jackson.",
+            "com.fasterxml.jackson.", "org.apache.catalina.", "org.apache.tomcat."};
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!(definition instanceof AbstractBeanDefinition) || !definition.isSingleton()
+                    || ((AbstractBeanDefinition) definition).getLazyInit() != null
+                    || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+            // 不触发 FactoryBean 的初始化，得不到类型的保持原样
+            Class<?> type = beanFactory.getType(name, false);
+            if (type != null && !isWebType(type) && !SmartInitializingSingleton.class.isAssignableFrom(type)
+                    && !SmartLifecycle.class.isAssignableFrom(type)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    /**
+     * 在 web 相关的包中，或者是 @Controller，或者实现了这些包中的接口（如 WebMvcConfigurer、jackson 的 Module）
+     */
+    static boolean isWebType(Class<?> type) {
+        if (AnnotatedElementUtils.hasAnnotation(type, Controller.class)) {
+            return true;
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (inWebPackage(c)) {
+                return true;
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                if (inWebPackage(i)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean inWebPackage(Class<?> type) {
+        String name = type.getName();
+        for (String prefix : WEB_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
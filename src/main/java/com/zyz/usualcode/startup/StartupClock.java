@@ -0,0 +1,42 @@
+package com.zyz.usualcode.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 记录 SpringApplication 开始运行的时刻，作为 {@link StartupTimeline} 的起点
+ * <p>
+ * StartupTimeline 是一个 bean，创建时组件扫描（或组件索引）、自动配置的导入都已经完成，
+ * 从它创建时开始计时看不到这两部分。这里通过 META-INF/spring.factories 注册为 SpringApplicationRunListener，
+ * 在 ApplicationStartingEvent 的同一时刻记下时间，容器准备好后以 {@link #BEAN_NAME} 注册进容器
+ *
+ * @author 张远卓
+ * @date 2026/10/18 17:30
+ */
+public class StartupClock implements SpringApplicationRunListener {
+
+    public static final String BEAN_NAME = "usualcode.startupClock";
+
+    private long startNanos = System.nanoTime();
+
+    public StartupClock(SpringApplication application, String[] args) {
+    }
+
+    @Override
+    public void starting() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void contextPrepared(ConfigurableApplicationContext context) {
+        context.getBeanFactory().registerSingleton(BEAN_NAME, this);
+    }
+
+    /**
+     * SpringApplication 开始运行时的 System.nanoTime()
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+}
@@ -0,0 +1,38 @@
+package com.zyz.usualcode.startup;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 启动相关的配置
+ * <p>
+ * usualcode.startup.timeline=true 时注册 {@link StartupTimeline}，lean profile 中默认打开，从 {@link StartupClock} 记录的时刻开始计时；
+ * lean profile 同时注册 {@link LazyNonWebBeansPostProcessor}，其余的精简见 application-lean.yml。
+ * 两个后置处理器都用 static 方法声明，不会让这个配置类提前实例化
+ *
+ * @author 张远卓
+ * @date 2026/10/18 01:10
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "usualcode.startup.timeline", havingValue = "true")
+    public static StartupTimeline startupTimeline(
+            @Value("${usualcode.startup.timeline-report:true}") boolean logReport,
+            ObjectProvider<StartupClock> clock) {
+        StartupClock startupClock = clock.getIfAvailable();
+        return startupClock == null ? new StartupTimeline(logReport)
+                : new StartupTimeline(logReport, startupClock.getStartNanos());
+    }
+
+    @Bean
+    @Profile("lean")
+    public static LazyNonWebBeansPostProcessor lazyNonWebBeansPostProcessor() {
+        return new LazyNonWebBeansPostProcessor();
+    }
+}
@@ -0,0 +1,177 @@
+package com.zyz.usualcode.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 启动时间线，记录每个 bean 从实例化到初始化完成的耗时
+ * <p>
+ * spring 5.3 的 ApplicationStartup 在这个版本中还没有，这里用 BeanPostProcessor 在实例化之前和初始化之后各记一次时间。
+ * 创建一个 bean 时先创建它依赖的 bean，所以 {@link Entry#getNanos()} 包含依赖的耗时，
+ * {@link Entry#getSelfNanos()} 扣除了期间创建的其他 bean。
+ * 只能记录在它之后注册的 bean，BeanPostProcessor 本身和容器的基础设施不在其中。
+ * <p>
+ * 时间从 {@link StartupClock} 记录的应用启动时刻算起，包括组件扫描和自动配置的导入，没有 StartupClock 时从时间线创建算起。
+ * 容器刷新完成时冻结，之后懒加载的 bean 不再记录；{@link #report(int)} 列出自身耗时最多的 bean
+ *
+ * @author 张远卓
+ * @date 2026/10/18 01:10
+ */
+public class StartupTimeline implements InstantiationAwareBeanPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private final long originNanos;
+    private final boolean logReport;
+    private final Map<String, long[]> pending = new ConcurrentHashMap<>();
+    private final List<Entry> entries = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * 当前线程正在创建的 bean 的嵌套耗时累加，用来计算自身耗时
+     */
+    private final ThreadLocal<long[]> nestedNanos = ThreadLocal.withInitial(() -> new long[1]);
+    private volatile long refreshedNanos;
+
+    /**
+     * @param logReport 容器刷新完成时是否以 INFO 级别输出报告
+     */
+    public StartupTimeline(boolean logReport) {
+        this(logReport, System.nanoTime());
+    }
+
+    /**
+     * @param originNanos 计时起点的 System.nanoTime()，一般是 {@link StartupClock#getStartNanos()}
+     */
+    public StartupTimeline(boolean logReport, long originNanos) {
+        this.logReport = logReport;
+        this.originNanos = originNanos;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        if (refreshedNanos == 0) {
+            long[] nested = nestedNanos.get();
+            // [开始时间, 开始时已经累计的嵌套耗时]
+            pending.put(beanName, new long[]{System.nanoTime(), nested[0]});
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        long[] start = pending.remove(beanName);
+        if (start != null) {
+            long nanos = System.nanoTime() - start[0];
+            long[] nested = nestedNanos.get();
+            long self = nanos - (nested[0] - start[1]);
+            nested[0] = start[1] + nanos;
+            entries.add(new Entry(beanName, bean.getClass().getName(), start[0] - originNanos, nanos, self));
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (refreshedNanos != 0) {
+            return;
+        }
+        refreshedNanos = System.nanoTime();
+        pending.clear();
+        if (logReport && log.isInfoEnabled()) {
+            log.info("startup timeline:\n{}", report(20));
+        }
+    }
+
+    /**
+     * 按开始时间排序的记录
+     */
+    public List<Entry> getEntries() {
+        synchronized (entries) {
+            List<Entry> copy = new ArrayList<>(entries);
+            copy.sort(Comparator.comparingLong(Entry::getStartNanos));
+            return copy;
+        }
+    }
+
+    /**
+     * 从计时起点（应用启动）到容器刷新完成的耗时，还没有刷新完成时返回-1
+     */
+    public long getRefreshNanos() {
+        return refreshedNanos == 0 ? -1 : refreshedNanos - originNanos;
+    }
+
+    public long getOriginNanos() {
+        return originNanos;
+    }
+
+    /**
+     * 总耗时和自身耗时最多的 limit 个 bean
+     */
+    public String report(int limit) {
+        List<Entry> sorted = getEntries();
+        sorted.sort(Comparator.comparingLong(Entry::getSelfNanos).reversed());
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("startup to refresh %.1f ms, %d beans%n", getRefreshNanos() / 1e6, sorted.size()));
+        for (Entry entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            sb.append(String.format("%8.1f ms self %8.1f ms total  +%7.1f ms  %s (%s)%n", entry.selfNanos / 1e6,
+                    entry.nanos / 1e6, entry.startNanos / 1e6, entry.beanName, entry.beanClass));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 一个 bean 的创建记录，时间都是纳秒
+     */
+    public static final class Entry {
+        private final String beanName;
+        private final String beanClass;
+        private final long startNanos;
+        private final long nanos;
+        private final long selfNanos;
+
+        Entry(String beanName, String beanClass, long startNanos, long nanos, long selfNanos) {
+            this.beanName = beanName;
+            this.beanClass = beanClass;
+            this.startNanos = startNanos;
+            this.nanos = nanos;
+            this.selfNanos = selfNanos;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public String getBeanClass() {
+            return beanClass;
+        }
+
+        /**
+         * 相对计时起点的开始时间
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+
+        @Override
+        public String toString() {
+            return beanName + " " + nanos / 1000 + "us";
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 启动耗时：精简启动配置（lean profile）和按 bean 统计的启动时间线
+ */
+package com.zyz.usualcode.startup;
@@ -0,0 +1,46 @@
+package com.zyz.usualcode.web;
+
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 按登录名查询用户，查询在 {@link BlockingTaskExecutor} 上执行，请求线程在返回 future 后立即释放
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:40
+ */
+@RestController
+@ConditionalOnProperty(name = WebExecutionConfig.MODE_PROPERTY, havingValue = "async")
+public class AsyncUserController {
+
+    private final MockUserDao userDao;
+    private final BlockingTaskExecutor executor;
+
+    public AsyncUserController(MockUserDao userDao, BlockingTaskExecutor executor) {
+        this.userDao = userDao;
+        this.executor = executor;
+    }
+
+    @GetMapping("/users/{loginName}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> find(@PathVariable String loginName) {
+        return executor.supplyAsync(() -> UserController.toResponse(userDao.findUserByLoginName(loginName)));
+    }
+
+    /**
+     * 执行器已满，让调用方稍后重试
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> rejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.zyz.usualcode.web;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 执行阻塞操作（数据库查询等）的执行器，异步接口把阻塞部分放到这里，tomcat 的请求线程立即释放
+ * <p>
+ * 运行在支持虚拟线程的 jdk（21 及以上）上时每个任务一个虚拟线程，阻塞不占用平台线程，并发只受下游（如连接池）限制；
+ * 否则使用有界的线程池，线程按需创建、空闲60秒后回收，线程和队列都满时任务以 RejectedExecutionException 失败，
+ * 接口可以直接返回503。项目按 java 8 编译，虚拟线程通过反射创建
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:40
+ */
+public final class BlockingTaskExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    private BlockingTaskExecutor(ExecutorService executor, boolean virtual) {
+        this.executor = executor;
+        this.virtual = virtual;
+    }
+
+    /**
+     * @param preferVirtual 有虚拟线程时是否使用，为 false 或者不支持时使用 maxThreads、queueCapacity 的线程池
+     */
+    public static BlockingTaskExecutor create(boolean preferVirtual, int maxThreads, int queueCapacity) {
+        if (preferVirtual) {
+            ExecutorService virtualExecutor = virtualThreadExecutor();
+            if (virtualExecutor != null) {
+                return new BlockingTaskExecutor(virtualExecutor, true);
+            }
+        }
+        return new BlockingTaskExecutor(threadPool(maxThreads, queueCapacity), false);
+    }
+
+    /**
+     * 在执行器上运行 supplier，被拒绝时返回以 RejectedExecutionException 失败的 future，不抛出
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException ex) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 不再接受新任务，最多等待10秒让已提交的任务执行完
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor()，jdk 19、20 没有打开预览特性时调用会失败，同样返回 null
+     */
+    static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    private static ExecutorService threadPool(int maxThreads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "blocking-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
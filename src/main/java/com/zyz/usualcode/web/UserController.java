@@ -0,0 +1,47 @@
+package com.zyz.usualcode.web;
+
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按登录名查询用户，同步执行
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:40
+ */
+@RestController
+@ConditionalOnProperty(name = WebExecutionConfig.MODE_PROPERTY, havingValue = "sync", matchIfMissing = true)
+public class UserController {
+
+    private final MockUserDao userDao;
+
+    public UserController(MockUserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    @GetMapping("/users/{loginName}")
+    public ResponseEntity<Map<String, String>> find(@PathVariable String loginName) {
+        return toResponse(userDao.findUserByLoginName(loginName));
+    }
+
+    /**
+     * 不返回密码，没有找到时返回404
+     */
+    static ResponseEntity<Map<String, String>> toResponse(User user) {
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("id", user.getId());
+        body.put("loginName", user.getLoginName());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,101 @@
+package com.zyz.usualcode.web;
+
+import com.zyz.usualcode.mockito.user.BulkSaveOptions;
+import com.zyz.usualcode.mockito.user.ErrorCode;
+import com.zyz.usualcode.mockito.user.MockUserService;
+import com.zyz.usualcode.mockito.user.PasswordHashingService;
+import com.zyz.usualcode.mockito.user.SaveResult;
+import com.zyz.usualcode.mockito.user.User;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 注册用户，密码哈希都在 {@link PasswordHashingService} 的线程池中执行，不占用请求线程：
+ * <ul>
+ *     <li>POST /users：校验和查重后立即返回 future，哈希完成后在哈希线程上插入</li>
+ *     <li>POST /users/batch：整个批量导入在 {@link BlockingTaskExecutor} 上执行，
+ *     哈希通过 {@link PasswordHashingService#bulkExecutor()} 提交，结果与输入一一对应</li>
+ * </ul>
+ * 两种执行方式（usualcode.web.execution-mode）下都可用
+ *
+ * @author 张远卓
+ * @date 2026/10/18 19:10
+ */
+@RestController
+public class UserSignupController {
+
+    private final MockUserService userService;
+    private final BlockingTaskExecutor executor;
+    private final BulkSaveOptions bulkSaveOptions;
+
+    public UserSignupController(MockUserService userService, PasswordHashingService passwordHashingService,
+                                BlockingTaskExecutor executor) {
+        this.userService = userService;
+        this.executor = executor;
+        this.bulkSaveOptions = BulkSaveOptions.builder().hashExecutor(passwordHashingService.bulkExecutor()).build();
+    }
+
+    /**
+     * 成功时同查询接口返回 id 和登录名；登录名已存在返回409，其他失败返回400，内容是错误码和原因
+     */
+    @PostMapping("/users")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> save(@RequestBody User user) {
+        return userService.trySaveAsync(user).thenApply(UserSignupController::toResponse);
+    }
+
+    @PostMapping("/users/batch")
+    public CompletableFuture<List<Map<String, Object>>> saveAll(@RequestBody List<User> users) {
+        return executor.supplyAsync(() -> {
+            List<Map<String, Object>> body = new ArrayList<>(users.size());
+            for (Iterator<SaveResult> it = userService.saveAll(users.iterator(), bulkSaveOptions); it.hasNext(); ) {
+                body.add(toBody(it.next()));
+            }
+            return body;
+        });
+    }
+
+    /**
+     * 哈希线程池或执行器已满，让调用方稍后重试
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> rejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    static ResponseEntity<Map<String, Object>> toResponse(SaveResult result) {
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(toBody(result));
+        }
+        HttpStatus status = result.getErrorCode() == ErrorCode.DUPLICATE_LOGIN_NAME ? HttpStatus.CONFLICT
+                : result.getErrorCode() == ErrorCode.SAVE_FAILED ? HttpStatus.INTERNAL_SERVER_ERROR
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(toBody(result));
+    }
+
+    /**
+     * 不返回密码
+     */
+    static Map<String, Object> toBody(SaveResult result) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("loginName", result.getUser().getLoginName());
+        if (result.isSuccess()) {
+            body.put("id", result.getId());
+        } else {
+            body.put("code", result.getErrorCode().getCode());
+            body.put("message", result.getError().getMessage());
+        }
+        return body;
+    }
+}
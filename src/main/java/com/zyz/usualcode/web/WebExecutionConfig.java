@@ -0,0 +1,74 @@
+package com.zyz.usualcode.web;
+
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.MockUserService;
+import com.zyz.usualcode.mockito.user.OffHeapUserDao;
+import com.zyz.usualcode.mockito.user.PasswordHashingService;
+import com.zyz.usualcode.mockito.user.UserTableSnapshot;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 接口的执行方式，由 usualcode.web.execution-mode 选择：
+ * <ul>
+ *     <li>sync（默认）：{@link UserController} 在 tomcat 请求线程上直接查询，查询阻塞期间请求线程被占用</li>
+ *     <li>async：{@link AsyncUserController} 返回 CompletableFuture，查询在 {@link BlockingTaskExecutor} 上执行</li>
+ * </ul>
+ * 执行器的配置：usualcode.web.blocking.virtual-threads（默认 true）、max-threads（默认200）、queue-capacity（默认1000）。
+ * 注册接口 {@link UserSignupController} 与执行方式无关，密码哈希总是在 {@link PasswordHashingService} 上执行
+ *
+ * @author 张远卓
+ * @date 2026/10/18 02:40
+ */
+@Configuration
+public class WebExecutionConfig {
+
+    public static final String MODE_PROPERTY = "usualcode.web.execution-mode";
+
+    @Bean(destroyMethod = "close")
+    public BlockingTaskExecutor blockingTaskExecutor(
+            @Value("${usualcode.web.blocking.virtual-threads:true}") boolean virtualThreads,
+            @Value("${usualcode.web.blocking.max-threads:200}") int maxThreads,
+            @Value("${usualcode.web.blocking.queue-capacity:1000}") int queueCapacity) {
+        return BlockingTaskExecutor.create(virtualThreads, maxThreads, queueCapacity);
+    }
+
+    /**
+     * 注册接口的密码哈希线程池，配置：usualcode.password.hash-threads（默认 CPU 核数减一）、
+     * queue-capacity（默认1000）、target-latency-ms（默认50）
+     */
+    @Bean(destroyMethod = "close")
+    public PasswordHashingService passwordHashingService(
+            @Value("${usualcode.password.hash-threads:0}") int threads,
+            @Value("${usualcode.password.queue-capacity:1000}") int queueCapacity,
+            @Value("${usualcode.password.target-latency-ms:50}") long targetLatencyMillis) {
+        PasswordHashingService.Builder builder = PasswordHashingService.builder().queueCapacity(queueCapacity)
+                .targetLatency(Duration.ofMillis(targetLatencyMillis));
+        if (threads > 0) {
+            builder.threads(threads);
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MockUserService userService(MockUserDao userDao, PasswordHashingService passwordHashingService) {
+        return new MockUserService(userDao, passwordHashingService);
+    }
+
+    /**
+     * 没有配置数据库实现时使用 MockUserDao，查询总是返回 null；
+     * 启用快照（SnapshotConfig）时前面加一层 {@link OffHeapUserDao}，查询先查随快照恢复的堆外表
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MockUserDao userDao(ObjectProvider<UserTableSnapshot> userTableSnapshot) {
+        UserTableSnapshot snapshot = userTableSnapshot.getIfAvailable();
+        return snapshot == null ? new MockUserDao() : new OffHeapUserDao(new MockUserDao(), snapshot);
+    }
+}
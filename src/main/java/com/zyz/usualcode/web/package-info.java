@@ -0,0 +1,4 @@
+/**
+ * web 层的执行方式：同步（tomcat 请求线程）或异步（阻塞操作放到独立的执行器）
+ */
+package com.zyz.usualcode.web;
@@ -0,0 +1,9 @@
+-- 用户表，MySQL 与 H2（MODE=MySQL）通用
+CREATE TABLE IF NOT EXISTS t_user
+(
+    id         CHAR(32)     NOT NULL,
+    login_name VARCHAR(64)  NOT NULL,
+    password   VARCHAR(255) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_login_name UNIQUE (login_name)
+);
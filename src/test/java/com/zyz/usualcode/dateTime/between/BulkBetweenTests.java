@@ -0,0 +1,95 @@
+package com.zyz.usualcode.dateTime.between;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkBetweenTests {
+
+    private static final long YEAR_1500 = -14_832_000_000_000L;
+    private static final long YEAR_2500 = 16_725_225_600_000L;
+
+    @Test
+    void untilSameAsZonedDateTime() {
+        for (String zoneId : new String[]{"Asia/Shanghai", "America/New_York", "Australia/Lord_Howe", "UTC"}) {
+            ZoneId zone = ZoneId.of(zoneId);
+            long[] start = new long[5000];
+            long[] end = new long[start.length];
+            fill(new Random(zoneId.hashCode()), start, end);
+            long[] out = new long[start.length];
+            BulkBetween between = BulkBetween.of(zone);
+            for (ChronoUnit unit : ChronoUnit.values()) {
+                if (unit == ChronoUnit.FOREVER) {
+                    continue;
+                }
+                between.until(start, end, unit, out);
+                for (int i = 0; i < start.length; i++) {
+                    ZonedDateTime s = Instant.ofEpochMilli(start[i]).atZone(zone);
+                    ZonedDateTime e = Instant.ofEpochMilli(end[i]).atZone(zone);
+                    assertEquals(s.until(e, unit), out[i], zoneId + " " + unit + " " + s + " -> " + e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void periodSameAsPeriodBetween() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        long[] start = new long[20000];
+        long[] end = new long[start.length];
+        fill(new Random(7), start, end);
+        // 月末、闰日附近
+        for (int i = 0; i < 2000; i++) {
+            LocalDate date = LocalDate.of(2019 + i % 3, 1 + i % 12, 1).plusDays(i % 62 - 3);
+            start[i] = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            end[i] = date.plusDays(i % 400 - 200).atStartOfDay(zone).toInstant().toEpochMilli() + i * 1000L;
+        }
+        int[] years = new int[start.length];
+        int[] months = new int[start.length];
+        int[] days = new int[start.length];
+        BulkBetween.of(zone).period(start, end, years, months, days);
+        for (int i = 0; i < start.length; i++) {
+            Period expected = Period.between(Instant.ofEpochMilli(start[i]).atZone(zone).toLocalDate(),
+                    Instant.ofEpochMilli(end[i]).atZone(zone).toLocalDate());
+            assertEquals(expected, Period.of(years[i], months[i], days[i]), "index " + i);
+        }
+    }
+
+    @Test
+    void parallelSameAsSequential() {
+        long[] start = new long[BulkBetween.PARALLEL_THRESHOLD * 3];
+        long[] end = new long[start.length];
+        fill(new Random(11), start, end);
+        BulkBetween between = BulkBetween.of(ZoneId.of("Europe/London"));
+        for (ChronoUnit unit : new ChronoUnit[]{ChronoUnit.MONTHS, ChronoUnit.HOURS}) {
+            long[] sequential = new long[start.length];
+            long[] parallel = new long[start.length];
+            between.until(start, end, unit, sequential);
+            between.until(start, end, unit, parallel, ForkJoinPool.commonPool());
+            for (int i = 0; i < start.length; i++) {
+                assertEquals(sequential[i], parallel[i]);
+            }
+        }
+    }
+
+    /**
+     * 大部分在缓存的年份范围内，少量在范围外；一部分相差不到一天，检验截断
+     */
+    private static void fill(Random random, long[] start, long[] end) {
+        for (int i = 0; i < start.length; i++) {
+            start[i] = i % 50 == 0 ? YEAR_1500 + (long) (random.nextDouble() * (YEAR_2500 - YEAR_1500))
+                    : -2_208_988_800_000L + (long) (random.nextDouble() * 6_311_347_200_000L);
+            long span = i % 3 == 0 ? 86_400_000L * 3 : 86_400_000L * 365 * 30;
+            end[i] = start[i] + (long) ((random.nextDouble() * 2 - 1) * span);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.zyz.usualcode.dateTime.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DateBridgeTests {
+
+    @Test
+    void sameAsJdk() {
+        Random random = new Random(42);
+        for (String id : new String[]{"Asia/Shanghai", "America/New_York", "Europe/London", "UTC"}) {
+            ZoneId zone = ZoneId.of(id);
+            DateBridge bridge = DateBridge.of(zone);
+            // 相邻的时间戳落在同一区间，穿插一些跨年代的跳跃
+            long epochMilli = 1602572427123L;
+            for (int i = 0; i < 20_000; i++) {
+                epochMilli += i % 100 == 0 ? random.nextLong() % 3_000_000_000_000L : random.nextInt(7_200_000);
+                LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone);
+                assertEquals(dateTime, bridge.toLocalDateTime(epochMilli), id);
+                assertEquals(dateTime.toLocalDate(), bridge.toLocalDate(epochMilli), id);
+                assertEquals(dateTime.atZone(zone).toInstant().toEpochMilli(), bridge.toEpochMilli(dateTime), id);
+            }
+        }
+    }
+
+    @Test
+    void daylightSaving() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        DateBridge bridge = DateBridge.of(zone);
+        // 2020-03-08 02:30 不存在，2020-11-01 01:30 出现两次
+        for (LocalDateTime dateTime : new LocalDateTime[]{LocalDateTime.of(2020, 3, 8, 2, 30),
+                LocalDateTime.of(2020, 3, 8, 3, 0), LocalDateTime.of(2020, 11, 1, 0, 59, 59),
+                LocalDateTime.of(2020, 11, 1, 1, 30), LocalDateTime.of(2020, 11, 1, 2, 0)}) {
+            // 先把缓存的区间切到切换点的另一侧
+            bridge.toLocalDateTime(dateTime.atZone(zone).toInstant().toEpochMilli() + 3_600_000L);
+            assertEquals(dateTime.atZone(zone).toInstant().toEpochMilli(), bridge.toEpochMilli(dateTime),
+                    dateTime.toString());
+            bridge.toLocalDateTime(dateTime.atZone(zone).toInstant().toEpochMilli() - 3_600_000L);
+            assertEquals(dateTime.atZone(zone).toInstant().toEpochMilli(), bridge.toEpochMilli(dateTime),
+                    dateTime.toString());
+        }
+        LocalDate date = LocalDate.of(2020, 11, 1);
+        assertEquals(date.atStartOfDay(zone).toInstant().toEpochMilli(), bridge.toEpochMilli(date));
+    }
+
+    @Test
+    void legacyTypes() {
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        DateBridge bridge = DateBridge.of(zone);
+        LocalDateTime dateTime = LocalDateTime.of(2020, 10, 13, 15, 0, 27, 123_456_789);
+
+        assertEquals(Date.from(dateTime.atZone(zone).toInstant()), bridge.toDate(dateTime));
+        assertEquals(Timestamp.from(dateTime.atZone(zone).toInstant()), bridge.toTimestamp(dateTime));
+        assertEquals(dateTime.atZone(zone).toInstant(), bridge.toInstant(dateTime));
+        assertEquals(dateTime, bridge.toLocalDateTime(bridge.toTimestamp(dateTime)));
+        assertEquals(dateTime, bridge.toLocalDateTime(dateTime.atZone(zone).toInstant()));
+        assertEquals(dateTime.withNano(123_000_000), bridge.toLocalDateTime(bridge.toDate(dateTime)));
+        // java.sql.Date.toInstant() 会抛异常，这里可以正常转换
+        java.sql.Date sqlDate = new java.sql.Date(bridge.toEpochMilli(dateTime.toLocalDate()));
+        assertEquals(dateTime.toLocalDate(), bridge.toLocalDate(sqlDate));
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000),
+                DateBridge.of(ZoneId.of("UTC")).toLocalDateTime(-1L));
+    }
+}
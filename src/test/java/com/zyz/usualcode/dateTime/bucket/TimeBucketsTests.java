@@ -0,0 +1,89 @@
+package com.zyz.usualcode.dateTime.bucket;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeBucketsTests {
+
+    private static final String[] ZONES = {"Asia/Shanghai", "America/New_York", "America/Sao_Paulo",
+            "Pacific/Apia", "Australia/Lord_Howe", "UTC"};
+
+    @Test
+    void bucketsMatchJavaTime() {
+        Random random = new Random(7);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            TimeBuckets buckets = TimeBuckets.of(zone, 1990, 2040);
+            // 覆盖预计算范围内外
+            long[] in = new long[50_000];
+            for (int i = 0; i < in.length; i++) {
+                in[i] = -1_000_000_000_000L + (long) (random.nextDouble() * 4_000_000_000_000L);
+            }
+            for (BucketUnit unit : BucketUnit.values()) {
+                long[] out = new long[in.length];
+                buckets.bucket(in, out, unit);
+                for (int i = 0; i < in.length; i++) {
+                    assertEquals(expected(in[i], zone, unit), out[i], id + " " + unit + " " + in[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        TimeBuckets buckets = TimeBuckets.of(ZoneId.of("America/New_York"));
+        Random random = new Random(11);
+        long[] in = new long[TimeBuckets.PARALLEL_THRESHOLD * 5 + 3];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (long) (random.nextDouble() * 4_000_000_000_000L);
+        }
+        long[] sequential = new long[in.length];
+        long[] parallel = new long[in.length];
+        buckets.bucket(in, sequential, BucketUnit.WEEK);
+        buckets.parallelBucket(in, parallel, BucketUnit.WEEK);
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    void bucketStartsEnumeratesRange() {
+        ZoneId china = ZoneId.of("Asia/Shanghai");
+        TimeBuckets buckets = TimeBuckets.of(china);
+        long from = YearMonth.of(2019, 11).atDay(15).atStartOfDay(china).toInstant().toEpochMilli();
+        long to = YearMonth.of(2020, 3).atDay(1).atStartOfDay(china).toInstant().toEpochMilli();
+        long[] starts = buckets.bucketStarts(from, to, BucketUnit.MONTH);
+        assertEquals(4, starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(YearMonth.of(2019, 11).plusMonths(i).atDay(1).atStartOfDay(china).toInstant().toEpochMilli(),
+                    starts[i]);
+        }
+        assertEquals(16, buckets.bucketStarts(from, to, BucketUnit.WEEK).length);
+    }
+
+    private static long expected(long epochMilli, ZoneId zone, BucketUnit unit) {
+        LocalDate date = Instant.ofEpochMilli(epochMilli).atZone(zone).toLocalDate();
+        switch (unit) {
+            case WEEK:
+                date = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                break;
+            case MONTH:
+                date = date.withDayOfMonth(1);
+                break;
+            case YEAR:
+                date = date.withDayOfYear(1);
+                break;
+            default:
+                break;
+        }
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
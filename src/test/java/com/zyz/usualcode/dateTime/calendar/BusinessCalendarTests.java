@@ -0,0 +1,104 @@
+package com.zyz.usualcode.dateTime.calendar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusinessCalendarTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadHolidaysAndAdjust() throws IOException {
+        Path file = dir.resolve("cn-2020.txt");
+        Files.write(file, Arrays.asList(
+                "# 国庆节、中秋节",
+                "2020-10-01..2020-10-08",
+                "+2020-09-27  # 周日上班",
+                "+2020-10-10",
+                "2021-01-01"), StandardCharsets.UTF_8);
+        BusinessCalendar calendar = BusinessCalendar.load(file, 2020, 2021);
+
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2020, 9, 27)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2020, 10, 5)));
+        // 9月30日 T+1 跳过长假到10月9日，T+2 是调休的周六
+        LocalDate lastBeforeHoliday = LocalDate.of(2020, 9, 30);
+        assertEquals(LocalDate.of(2020, 10, 9), lastBeforeHoliday.with(calendar.plusBusinessDays(1)));
+        assertEquals(LocalDate.of(2020, 10, 10), lastBeforeHoliday.with(calendar.plusBusinessDays(2)));
+        assertEquals(LocalDate.of(2020, 9, 30), LocalDate.of(2020, 10, 4).with(calendar.previousBusinessDay()));
+        assertEquals(LocalDate.of(2020, 10, 9), LocalDate.of(2020, 10, 4).with(calendar.nextOrSameBusinessDay()));
+        assertEquals(LocalDate.of(2020, 12, 31), LocalDate.of(2020, 12, 5).with(calendar.lastBusinessDayInMonth()));
+        assertEquals(LocalDate.of(2021, 1, 4), LocalDate.of(2021, 1, 20).with(calendar.firstBusinessDayInMonth()));
+        assertEquals(6, calendar.businessDaysBetween(LocalDate.of(2020, 9, 28), LocalDate.of(2020, 10, 13)));
+        assertEquals(-6, calendar.businessDaysBetween(LocalDate.of(2020, 10, 13), LocalDate.of(2020, 9, 28)));
+
+        // 保留时间部分
+        assertEquals(LocalDateTime.of(2020, 10, 9, 15, 30),
+                LocalDateTime.of(2020, 9, 30, 15, 30).with(calendar.nextBusinessDay()));
+        assertThrows(DateTimeException.class, () -> LocalDate.of(2021, 12, 31).with(calendar.plusBusinessDays(1)));
+        assertThrows(DateTimeException.class, () -> calendar.isBusinessDay(LocalDate.of(2019, 12, 31)));
+    }
+
+    @Test
+    void sameAsDayByDayIteration() {
+        Random random = new Random(3);
+        BusinessCalendar.Builder builder = BusinessCalendar.builder(2000, 2030).weekend(DayOfWeek.FRIDAY);
+        for (int i = 0; i < 1500; i++) {
+            LocalDate date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(11000));
+            if (random.nextBoolean()) {
+                builder.holiday(date);
+            } else {
+                builder.workday(date);
+            }
+        }
+        BusinessCalendar calendar = builder.build();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate date = LocalDate.of(2001, 1, 1).plusDays(random.nextInt(10000));
+            int n = random.nextInt(401) - 200;
+            assertEquals(iterate(calendar, date, n), calendar.addBusinessDays(date, n), date + " " + n);
+
+            LocalDate other = date.plusDays(random.nextInt(801) - 400);
+            int count = 0;
+            for (LocalDate d = date; d.isBefore(other); d = d.plusDays(1)) {
+                count += calendar.isBusinessDay(d) ? 1 : 0;
+            }
+            for (LocalDate d = other; d.isBefore(date); d = d.plusDays(1)) {
+                count -= calendar.isBusinessDay(d) ? 1 : 0;
+            }
+            assertEquals(count, calendar.businessDaysBetween(date, other));
+        }
+    }
+
+    private static LocalDate iterate(BusinessCalendar calendar, LocalDate date, int n) {
+        if (n == 0) {
+            while (!calendar.isBusinessDay(date)) {
+                date = date.plusDays(1);
+            }
+            return date;
+        }
+        int step = n > 0 ? 1 : -1;
+        for (int remaining = Math.abs(n); remaining > 0; ) {
+            date = date.plusDays(step);
+            if (calendar.isBusinessDay(date)) {
+                remaining--;
+            }
+        }
+        return date;
+    }
+}
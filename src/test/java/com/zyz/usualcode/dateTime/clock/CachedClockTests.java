@@ -0,0 +1,53 @@
+package com.zyz.usualcode.dateTime.clock;
+
+import com.zyz.usualcode.dateTime.CommonUse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedClockTests {
+
+    private static final ZoneId CHINA = ZoneId.of("Asia/Shanghai");
+
+    @Test
+    void manualClockRefreshesOnBoundaryCrossing() {
+        CachedClock clock = CachedClock.manual(Instant.parse("2020-01-31T15:59:59Z"), CHINA);
+        assertEquals(LocalDate.of(2020, 1, 31), clock.today());
+        assertEquals(LocalDate.of(2020, 1, 1), CommonUse.firstDayOfThisMonth(clock));
+        assertEquals(LocalDateTime.of(LocalDate.of(2020, 1, 31), LocalTime.MAX), CommonUse.endOfThisMonth(clock));
+
+        LocalDate cachedToday = clock.today();
+        clock.advance(Duration.ofMillis(500));
+        assertSame(cachedToday, clock.today());
+
+        // 北京时间 2020-02-01 00:00:00
+        clock.advance(Duration.ofMillis(500));
+        assertEquals(LocalDate.of(2020, 2, 1), clock.today());
+        assertEquals(LocalDate.of(2020, 2, 29), CommonUse.lastDayOfThisMonth(clock));
+        assertEquals(LocalDate.of(2020, 2, 10), CommonUse.dayOfThisMonth(10, clock));
+        assertEquals(LocalDateTime.of(2020, 2, 1, 0, 0), CommonUse.startOfThisMonth(clock));
+        assertEquals(LocalDate.now(Clock.fixed(clock.instant(), CHINA)), LocalDate.now(clock));
+
+        assertThrows(IllegalStateException.class, () -> CachedClock.of(Clock.systemUTC(), Duration.ofSeconds(1)).advance(Duration.ZERO));
+    }
+
+    @Test
+    void tickerFollowsSource() throws InterruptedException {
+        try (CachedClock clock = CachedClock.of(Clock.systemUTC(), Duration.ofMillis(1))) {
+            long start = clock.millis();
+            Thread.sleep(50);
+            assertTrue(clock.millis() > start);
+            assertTrue(Math.abs(System.currentTimeMillis() - clock.millis()) < 1000);
+            assertEquals(ZoneId.of("Z"), clock.getZone());
+            assertEquals(CHINA, clock.withZone(CHINA).getZone());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zyz.usualcode.dateTime.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchDateConverterTests {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+    private final BatchDateConverter converter = new BatchDateConverter(SHANGHAI);
+
+    @Test
+    void commonUsePatterns() {
+        assertIso("2020-10-13", "2020-10-13");
+        assertIso("2020-10-13", "20201013");
+        assertIso("2020-10-13T15:00:27", "2020-10-13 15:00:27");
+        assertIso("2020-10-13T15:00:27.123", "2020-10-13T15:00:27.123");
+        assertIso("2020-10-13T15:00:27", "2020-10-13T07:00:27Z");
+        assertIso("2020-10-13T15:00:27", "2020-10-13T15:00:27+08:00[Asia/Shanghai]");
+        assertIso("2020-10-13T15:00:27", "Tue, 13 Oct 2020 07:00:27 GMT");
+        assertIso("2020-10-13", "10 13 2020");
+        assertIso("2020-10-13T15:00:00", "2020-10-13 03:00 PM");
+        assertIso("2020-10-13T15:00:27", "2020年10月13日 15时00分27秒");
+        assertIso("2020-10-13", "2020年10月13日");
+        assertIso("2020-10-01", "2020-10");
+        assertIso("2020-10-01", "2020年10月");
+        assertIso("2020-10-13", "2020-287");
+        assertIso("2020-10-13T15:00:27", "  1602572427000 ");
+    }
+
+    @Test
+    void epochMillis() {
+        assertEquals(BatchDateConverter.DATE, converter.parse("2020-10-13"));
+        assertEquals(LocalDate.of(2020, 10, 13).atStartOfDay(SHANGHAI).toInstant().toEpochMilli(),
+                converter.toEpochMilli());
+        assertEquals(BatchDateConverter.DATE_TIME, converter.parse("2020-10-13 15:00:27"));
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2020, 10, 13, 15, 0, 27), SHANGHAI).toInstant().toEpochMilli(),
+                converter.toEpochMilli());
+    }
+
+    /**
+     * 年份按公历推算，与 java.time 一致
+     */
+    @Test
+    void yearsOutsideOneToNineThousand() {
+        assertIso("0000-06-01T00:00:00", "0000-06-01T00:00:00");
+        assertIso("-0001-06-01T12:30:00", "-0001-06-01T12:30:00");
+        assertIso("+10000-01-01T00:00:00.500", "+10000-01-01T00:00:00.500");
+        assertIso("0001-01-01T00:00:00", "0001-01-01T00:00:00");
+        assertIso("9999-12-31T23:59:59", "9999-12-31T23:59:59");
+        for (long millis : new long[]{Long.MIN_VALUE, Long.MAX_VALUE}) {
+            char[] out = new char[BatchDateConverter.MAX_ISO_LENGTH];
+            converter.parse(millis);
+            assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), SHANGHAI).toString(),
+                    new String(out, 0, converter.formatIso(out, 0)));
+        }
+    }
+
+    @Test
+    void failures() {
+        assertEquals(BatchDateConverter.FAILED, converter.parse(""));
+        assertEquals(BatchDateConverter.FAILED, converter.parse("2020/10/13"));
+        assertEquals(BatchDateConverter.FAILED, converter.parse("2020-02-30"));
+        assertEquals(BatchDateConverter.FAILED, converter.parse("99999999999999999999"));
+        // 失败之后仍然可以继续解析
+        assertIso("2020-10-13", "10 13 2020");
+    }
+
+    private void assertIso(String expected, String text) {
+        char[] out = new char[BatchDateConverter.MAX_ISO_LENGTH];
+        converter.parse(text);
+        assertEquals(expected, new String(out, 0, converter.formatIso(out, 0)), text);
+    }
+}
@@ -0,0 +1,40 @@
+package com.zyz.usualcode.dateTime.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateTimeFormatterRegistryTests {
+
+    @Test
+    void samePatternCompiledOnce() {
+        long misses = DateTimeFormatterRegistry.stats().missCount();
+        DateTimeFormatter first = DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日 HH时mm分ss秒", Locale.CHINA);
+        DateTimeFormatter second = DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日 HH时mm分ss秒", Locale.CHINA);
+        assertSame(first, second);
+        assertTrue(DateTimeFormatterRegistry.stats().missCount() - misses <= 1);
+        assertTrue(DateTimeFormatterRegistry.stats().hitCount() >= 1);
+    }
+
+    @Test
+    void keyIncludesLocaleZoneAndResolverStyle() {
+        DateTimeFormatter plain = DateTimeFormatterRegistry.ofPattern("yyyyMMdd", Locale.US);
+        DateTimeFormatter zoned = DateTimeFormatterRegistry.ofPattern("yyyyMMdd", Locale.US, ZoneId.of("Asia/Shanghai"));
+        DateTimeFormatter strict = DateTimeFormatterRegistry.ofPattern("uuuuMMdd", Locale.US, null, ResolverStyle.STRICT);
+        assertNotSame(plain, zoned);
+        assertEquals(ZoneId.of("Asia/Shanghai"), zoned.getZone());
+        assertEquals(ResolverStyle.STRICT, strict.getResolverStyle());
+        assertEquals(LocalDate.of(2020, 3, 25), LocalDate.parse("20200325", plain));
+    }
+
+    @Test
+    void invalidPatternKeepsOriginalException() {
+        assertThrows(IllegalArgumentException.class, () -> DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd {"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.zyz.usualcode.dateTime.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EpochMillisCodecTests {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] ZONES = {"Asia/Shanghai", "America/New_York", "Europe/London", "UTC",
+            "Australia/Lord_Howe", "America/Sao_Paulo", "Pacific/Apia", "Asia/Kolkata"};
+
+    @Test
+    void formatMatchesDateTimeFormatter() {
+        Random random = new Random(42);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            EpochMillisCodec codec = EpochMillisCodec.of(zone);
+            char[] chars = new char[32];
+            ByteBuffer bytes = ByteBuffer.allocate(32);
+            long millis = 1602572427000L;
+            for (int i = 0; i < 20_000; i++) {
+                // 大部分在相邻的时间上，命中缓存窗口；偶尔随机跳到 1900-2100 年之间
+                millis = i % 100 == 0 ? -2_208_988_800_000L + (long) (random.nextDouble() * 6_311_390_400_000L)
+                        : millis + random.nextInt(7_200_000);
+                String expected = FORMATTER.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+                assertEquals(expected, codec.format(millis), id);
+                assertEquals(expected, new String(chars, 0, codec.format(millis, chars, 0)), id);
+                assertEquals(expected, codec.format(millis, new StringBuilder()).toString(), id);
+                bytes.clear();
+                codec.format(millis, bytes);
+                assertEquals(expected, new String(bytes.array(), 0, bytes.position()), id);
+            }
+        }
+    }
+
+    @Test
+    void formatAndParseAroundTransitions() {
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            EpochMillisCodec codec = EpochMillisCodec.of(zone);
+            ZoneOffsetTransition transition = zone.getRules().nextTransition(Instant.parse("1990-01-01T00:00:00Z"));
+            for (int n = 0; transition != null && n < 40; n++) {
+                long at = transition.toEpochSecond() * 1000;
+                for (long millis = at - 3 * 3_600_000L; millis < at + 3 * 3_600_000L; millis += 60_000L - 1) {
+                    LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+                    assertEquals(FORMATTER.format(local), codec.format(millis), id);
+                    // 本地时间 -> 时间戳，覆盖跳过和重复的时段
+                    String text = FORMATTER.format(local.minusHours(1));
+                    long expected = LocalDateTime.parse(text, FORMATTER).atZone(zone).toInstant().toEpochMilli();
+                    assertEquals(expected, codec.parse(text), id + " " + text);
+                }
+                transition = zone.getRules().nextTransition(transition.getInstant());
+            }
+        }
+    }
+
+    @Test
+    void parseMatchesDateTimeFormatter() {
+        ZoneId china = ZoneId.of("Asia/Shanghai");
+        EpochMillisCodec codec = EpochMillisCodec.of(china);
+        assertEquals(1602572427000L, codec.parse("2020-10-13 15:00:27"));
+        assertEquals(1602572427000L, codec.parse("x2020-10-13 15:00:27".toCharArray(), 1));
+        assertEquals(1602572427000L, codec.parse(ByteBuffer.wrap("2020-10-13 15:00:27".getBytes()), 0));
+        assertEquals(1602572427000L, codec.parse("[2020-10-13 15:00:27]", 1));
+
+        // 2月30日在默认的 SMART 模式下会被调整为月末，与 jdk 保持一致
+        String smart = "2021-02-30 10:00:00";
+        assertEquals(LocalDateTime.parse(smart, FORMATTER).atZone(china).toInstant().toEpochMilli(),
+                codec.parse(smart));
+
+        assertThrows(DateTimeParseException.class, () -> codec.parse("2020-10-13T15:00:27"));
+        assertThrows(DateTimeParseException.class, () -> codec.parse("2020-13-13 15:00:27"));
+        assertThrows(DateTimeParseException.class, () -> codec.parse("2020-10-13 15:00:2"));
+        assertThrows(DateTimeParseException.class, () -> codec.parse("2020-1a-13 15:00:27"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.zyz.usualcode.dateTime.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MixedDateParserTests {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+    private final MixedDateParser parser = new MixedDateParser(SHANGHAI);
+
+    @Test
+    void commonUseFormats() {
+        assertDate("2014-01-16", "20140116");
+        assertDate("2014-08-18", "08 18 2014");
+        assertDate("2020-03-25", "2020年03月25日");
+        assertDate("2020-03-05", " 2020年3月5日 ");
+        assertDate("2020-03-01", "2020年03月");
+        assertDate("2020-10-01", "2020-10");
+        assertDateTime("2020-10-13T15:00:27", "2020-10-13 15:00:27");
+        assertDateTime("2020-10-13T15:00:27.123456", "2020-10-13T15:00:27.123456");
+        assertDateTime("2020-10-13T15:00", "2020-10-13 15:00");
+        assertDateTime("2020-03-25T22:29:33", "2020年03月25日 22时29分33秒");
+        assertDateTime("2020-03-25T22:29", "2020年03月25日 22:29");
+        assertDateTime("2020-10-13T21:05", "2020-10-13 09:05 PM");
+        assertDateTime("2020-10-13T00:05", "2020-10-13 12:05 am");
+        // 带偏移量的换算到上海时间
+        assertDateTime("2020-10-13T23:00:27", "2020-10-13T15:00:27Z");
+        assertDateTime("2020-10-13T16:00:27", "2020-10-13T15:00:27+07:00");
+        assertEquals(OffsetDateTime.parse("2020-10-13T15:00:27-05:30").toInstant().toEpochMilli(),
+                parseEpoch("2020-10-13 15:00:27-0530"));
+        // 8位以外的纯数字是时间戳
+        assertDateTime("2020-10-13T00:00", "1602518400000");
+        assertEquals(-1L, parseEpoch("-1"));
+    }
+
+    @Test
+    void statusInsteadOfException() {
+        assertEquals(MixedDateParser.EMPTY, parser.parse("  "));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("abc"));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("2020-10-13X"));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("2020-10-13 15"));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("2020年10月13"));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("2020/10/13"));
+        assertEquals(MixedDateParser.UNKNOWN_FORMAT, parser.parse("2020-1-5"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("2020-02-30"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("20201301"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("2020-10-13 24:00"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("2020-10-13 13:00 PM"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("99999999999999999999"));
+        assertThrows(IllegalStateException.class, parser::toEpochMilli);
+        // 偏移量不超过 ±18:00
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("2020-10-13T15:00:27+18:30"));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse("2020-10-13T15:00:27-1801"));
+        assertEquals(MixedDateParser.DATE_TIME, parser.parse("2020-10-13T15:00:27-18:00"));
+        // 换算本地时间会溢出的时间戳
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse(Long.toString(Long.MAX_VALUE)));
+        assertEquals(MixedDateParser.INVALID_VALUE, parser.parse(Long.toString(-Long.MAX_VALUE)));
+        for (long epoch : new long[]{MixedDateParser.MAX_EPOCH_MILLI, -MixedDateParser.MAX_EPOCH_MILLI}) {
+            assertEquals(MixedDateParser.DATE_TIME, parser.parse(Long.toString(epoch)));
+            assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(epoch), SHANGHAI).withNano(0),
+                    parser.toLocalDateTime().withNano(0));
+        }
+    }
+
+    @Test
+    void sameAsFormatters() {
+        DateTimeFormatter[] formatters = {
+                DateTimeFormatter.BASIC_ISO_DATE,
+                DateTimeFormatter.ISO_LOCAL_DATE,
+                DateTimeFormatterRegistry.ofPattern("MM dd yyyy"),
+                DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日"),
+                DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd HH:mm:ss"),
+                DateTimeFormatterRegistry.ofPattern("yyyy-MM-dd hh:mm a", Locale.ENGLISH),
+                DateTimeFormatterRegistry.ofPattern("yyyy年MM月dd日 HH时mm分ss秒"),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        };
+        Random random = new Random(5);
+        for (int i = 0; i < 20000; i++) {
+            LocalDateTime expected = LocalDateTime.of(1900 + random.nextInt(200), 1, 1, 0, 0)
+                    .plusMinutes(random.nextInt(365 * 24 * 60)).plusDays(random.nextInt(10000))
+                    .withSecond(random.nextInt(60));
+            DateTimeFormatter formatter = formatters[i % formatters.length];
+            String text = formatter.format(expected);
+            int status = parser.parse(text);
+            if (i % formatters.length < 4) {
+                assertEquals(MixedDateParser.DATE, status, text);
+                assertEquals(expected.toLocalDate(), parser.toLocalDate(), text);
+            } else {
+                if (i % formatters.length == 5) {
+                    expected = expected.withSecond(0);
+                }
+                assertEquals(MixedDateParser.DATE_TIME, status, text);
+                assertEquals(expected, parser.toLocalDateTime(), text);
+                assertEquals(expected.atZone(SHANGHAI).toInstant().toEpochMilli(), parser.toEpochMilli(), text);
+            }
+        }
+    }
+
+    private void assertDate(String expected, String text) {
+        assertEquals(MixedDateParser.DATE, parser.parse(text), text);
+        assertEquals(LocalDate.parse(expected), parser.toLocalDate());
+        assertEquals(LocalDate.parse(expected).atStartOfDay(SHANGHAI).toInstant().toEpochMilli(), parser.toEpochMilli());
+    }
+
+    private void assertDateTime(String expected, String text) {
+        assertEquals(MixedDateParser.DATE_TIME, parser.parse(text), text);
+        assertEquals(LocalDateTime.parse(expected), parser.toLocalDateTime(), text);
+    }
+
+    private long parseEpoch(String text) {
+        assertEquals(MixedDateParser.DATE_TIME, parser.parse(text), text);
+        return parser.toEpochMilli();
+    }
+}
@@ -0,0 +1,151 @@
+package com.zyz.usualcode.dateTime.mybatis;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DateTimeColumnTypeHandlerTests {
+
+    /**
+     * 故意与 jvm 默认时区不同
+     */
+    private static final ZoneId ZONE = ZoneId.of(ZoneId.systemDefault().getId().equals("Asia/Tokyo")
+            ? "Asia/Shanghai" : "Asia/Tokyo");
+
+    private JdbcTemplate jdbcTemplate;
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // 与 ddl.sql 相同
+        jdbcTemplate.execute("CREATE TABLE t_date_time (id BIGINT NOT NULL, created_at DATETIME(3) NOT NULL, "
+                + "updated_at DATETIME(3) NULL, PRIMARY KEY (id))");
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+        registry.register(Long.class, JdbcType.TIMESTAMP, new EpochMillisTypeHandler(ZONE));
+        registry.register(Date.class, JdbcType.TIMESTAMP, new ZoneDateTypeHandler(ZONE));
+        registry.register(Instant.class, JdbcType.TIMESTAMP, new ZoneInstantTypeHandler(ZONE));
+        configuration.addMapper(DateTimeMapper.class);
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @Test
+    void readAndWrite() {
+        LocalDateTime created = LocalDateTime.of(2020, 10, 13, 15, 0, 27, 123_000_000);
+        long createdMillis = created.atZone(ZONE).toInstant().toEpochMilli();
+        Date updated = Date.from(created.plusHours(1).atZone(ZONE).toInstant());
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+            DateTimeMapper mapper = session.getMapper(DateTimeMapper.class);
+            mapper.insert(1L, createdMillis, updated);
+            mapper.insert(2L, createdMillis, null);
+
+            // 列中保存的是 ZONE 的本地时间
+            assertEquals(created, jdbcTemplate.queryForObject(
+                    "SELECT created_at FROM t_date_time WHERE id = 1", LocalDateTime.class));
+
+            Row row = mapper.find(1L);
+            assertEquals(createdMillis, row.createdAt);
+            assertEquals(updated, row.updatedAt);
+            assertEquals(created.atZone(ZONE).toInstant(), mapper.findCreatedInstant(1L));
+            assertNull(mapper.find(2L).updatedAt);
+        }
+    }
+
+    @Test
+    void readsAndWritesTextWithoutTimestamp() throws SQLException {
+        // 文本按处理器的时区（上海）换算，不经过 Timestamp：jvm 默认时区是纽约时，2021-03-14 02:30 落在夏令时跳过的区间，会被挪到03:30
+        ZoneId shanghai = ZoneId.of("Asia/Shanghai");
+        EpochMillisTypeHandler handler = new EpochMillisTypeHandler(shanghai);
+        LocalDateTime gap = LocalDateTime.of(2021, 3, 14, 2, 30, 0, 500_000_000);
+        long millis = gap.atZone(shanghai).toInstant().toEpochMilli();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("created_at")).thenReturn("2021-03-14 02:30:00.5");
+        when(rs.getString(2)).thenReturn("2021-03-14 02:30:00");
+        when(rs.getString(3)).thenReturn("0000-00-00 00:00:00");
+        assertEquals(millis, handler.getNullableResult(rs, "created_at"));
+        assertEquals(millis - 500, handler.getNullableResult(rs, 2));
+        assertNull(handler.getNullableResult(rs, 1));
+        assertThrows(SQLDataException.class, () -> handler.getNullableResult(rs, 3));
+        verify(rs, never()).getTimestamp(anyString());
+        verify(rs, never()).getObject(anyString(), ArgumentMatchers.<Class<Object>>any());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        handler.setNonNullParameter(ps, 1, millis, JdbcType.TIMESTAMP);
+        handler.setNonNullParameter(ps, 2, millis - 500, JdbcType.TIMESTAMP);
+        verify(ps).setString(1, "2021-03-14 02:30:00.5");
+        verify(ps).setString(2, "2021-03-14 02:30:00");
+        assertEquals("0099-01-02 03:04:05.000000006",
+                DateTimeColumnTypeHandler.format(LocalDateTime.of(99, 1, 2, 3, 4, 5, 6)));
+    }
+
+    public static class Row {
+        private Long createdAt;
+        private Date updatedAt;
+
+        public void setCreatedAt(Long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public void setUpdatedAt(Date updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    public interface DateTimeMapper {
+
+        @Insert("INSERT INTO t_date_time (id, created_at, updated_at) VALUES (#{id}, "
+                + "#{createdAt, typeHandler=com.zyz.usualcode.dateTime.mybatis.EpochMillisTypeHandler}, "
+                + "#{updatedAt, jdbcType=TIMESTAMP, typeHandler=com.zyz.usualcode.dateTime.mybatis.ZoneDateTypeHandler})")
+        int insert(@Param("id") long id, @Param("createdAt") long createdAt, @Param("updatedAt") Date updatedAt);
+
+        @Select("SELECT created_at, updated_at FROM t_date_time WHERE id = #{id}")
+        @Results({
+                @Result(column = "created_at", property = "createdAt", typeHandler = EpochMillisTypeHandler.class),
+                @Result(column = "updated_at", property = "updatedAt", typeHandler = ZoneDateTypeHandler.class)
+        })
+        Row find(@Param("id") long id);
+
+        @Select("SELECT created_at FROM t_date_time WHERE id = #{id}")
+        @Result(column = "created_at", javaType = Instant.class, typeHandler = ZoneInstantTypeHandler.class)
+        Instant findCreatedInstant(@Param("id") long id);
+    }
+}
@@ -0,0 +1,102 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DateBatchControllerTests {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DateBatchController(new ObjectMapper()))
+            .build();
+
+    @Test
+    void lines() throws Exception {
+        mockMvc.perform(post("/localDate/batch").param("zone", "Asia/Shanghai").contentType(MediaType.TEXT_PLAIN)
+                .content("2020-10-13\r\n2020/10/13\n10 13 2020\n2020-10-13 15:00:27"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13\n\n2020-10-13\n2020-10-13T15:00:27\n"));
+    }
+
+    @Test
+    void manyLines() throws Exception {
+        StringBuilder body = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 5000; i++, date = date.plusDays(1)) {
+            body.append(date).append('\n');
+            expected.append(date.atStartOfDay(zone).toInstant().toEpochMilli()).append('\n');
+        }
+        String result = mockMvc.perform(post("/localDate/batch").param("output", "epoch")
+                .param("zone", "Asia/Shanghai").contentType("application/x-ndjson").content(body.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(expected.toString(), result);
+    }
+
+    /**
+     * 超长的行输出空行，不缓存整行
+     */
+    @Test
+    void longLines() throws Exception {
+        char[] chars = new char[100_000];
+        Arrays.fill(chars, 'x');
+        String longLine = new String(chars);
+        String atLimit = new String(chars, 0, DateBatchController.MAX_LINE_CHARS);
+        mockMvc.perform(post("/localDate/batch").contentType(MediaType.TEXT_PLAIN)
+                .content("2020-10-13\n" + longLine + "\n" + atLimit + "\n2020-10-13\n" + longLine))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13\n\n\n2020-10-13\n\n"));
+        mockMvc.perform(post("/localDate/batch").contentType(MediaType.TEXT_PLAIN).content(longLine))
+                .andExpect(status().isOk())
+                .andExpect(content().string("\n"));
+    }
+
+    /**
+     * 按月的写法取1日；中文日期1位的字段、不带冒号的偏移量等是 MixedDateParser 多接受的写法
+     */
+    @Test
+    void acceptedShapes() throws Exception {
+        mockMvc.perform(post("/localDate/batch").param("zone", "Asia/Shanghai").contentType(MediaType.TEXT_PLAIN)
+                .content("2020-10\n2020年10月\n2020年3月\n2020年3月5日\n2020年3月5日 8时5分\n2020年03月25日 22:29\n"
+                        + "2020-10-13 09:05 pm\n2020-10-13T07:00:27z\n2020-10-13T15:00:27+0800\n"
+                        + "2020-10-13T15:00:27+08\n2020/10/13\n2020-1-5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-01\n2020-10-01\n2020-03-01\n2020-03-05\n2020-03-05T08:05:00\n"
+                        + "2020-03-25T22:29:00\n2020-10-13T21:05:00\n2020-10-13T15:00:27\n2020-10-13T15:00:27\n"
+                        + "2020-10-13T15:00:27\n\n\n"));
+    }
+
+    @Test
+    void jsonArray() throws Exception {
+        mockMvc.perform(post("/localDate/batch").param("zone", "Asia/Shanghai").contentType(MediaType.APPLICATION_JSON)
+                .content("[\"2020-10-13\", 1602572427000, \"bad\", {\"a\": 1}, \"2020年10月\", "
+                        + "99999999999999999999, -99999999999999999999, 1602572427000]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"2020-10-13\",\"2020-10-13T15:00:27\",null,null,\"2020-10-01\","
+                        + "null,null,\"2020-10-13T15:00:27\"]"));
+    }
+
+    @Test
+    void badRequest() throws Exception {
+        mockMvc.perform(post("/localDate/batch").param("output", "xml").contentType(MediaType.TEXT_PLAIN)
+                .content("2020-10-13"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/localDate/batch").param("zone", "Mars/Olympus").contentType(MediaType.TEXT_PLAIN)
+                .content("2020-10-13"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/localDate/batch").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,67 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.ResolverStyle;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 全局转换器的绑定结果与 @DateTimeFormat 注解驱动的绑定一致，吞吐量对比见 benchmarks 模块的 LocalDateBindingBenchmark
+ */
+class LocalDateBindingTests {
+
+    @SuppressWarnings("unused")
+    void annotated(@DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+    }
+
+    @SuppressWarnings("unused")
+    void plain(LocalDate date) {
+    }
+
+    @Test
+    void sameResultAsDateTimeFormat() throws NoSuchMethodException {
+        TypeDescriptor source = TypeDescriptor.valueOf(String.class);
+        TypeDescriptor annotatedTarget = new TypeDescriptor(new MethodParameter(
+                getClass().getDeclaredMethod("annotated", LocalDate.class), 0));
+        TypeDescriptor plainTarget = new TypeDescriptor(new MethodParameter(
+                getClass().getDeclaredMethod("plain", LocalDate.class), 0));
+
+        // 原来的方式：spring 默认的 @DateTimeFormat 处理
+        DefaultFormattingConversionService annotationBased = new DefaultFormattingConversionService();
+        // 现在的方式：DateTimeWebMvcConfig 注册的内容
+        DefaultFormattingConversionService configured = new DefaultFormattingConversionService();
+        new DateTimeWebMvcConfig().addFormatters(configured);
+
+        for (int i = 0; i < 366; i++) {
+            String input = LocalDate.of(2020, 1, 1).plusDays(i).toString();
+            Object expected = annotationBased.convert(input, source, annotatedTarget);
+            assertEquals(expected, configured.convert(input, source, plainTarget));
+            assertEquals(expected, configured.convert(input, source, annotatedTarget));
+        }
+        for (String invalid : new String[]{"2020-02-30", "2020-13-01", "2020/10/13", "20x0-10-13"}) {
+            assertThrows(ConversionFailedException.class, () -> annotationBased.convert(invalid, source, annotatedTarget));
+            assertThrows(ConversionFailedException.class, () -> configured.convert(invalid, source, plainTarget));
+            assertThrows(ConversionFailedException.class, () -> configured.convert(invalid, source, annotatedTarget));
+        }
+
+        long hits = DateTimeFormatterRegistry.stats().hitCount();
+        DateTimeFormatterRegistry.ofPattern("uuuu-MM-dd", Locale.getDefault(Locale.Category.FORMAT), null,
+                ResolverStyle.STRICT);
+        // 带注解的参数使用的 formatter 已经由注册表编译过
+        assertTrue(DateTimeFormatterRegistry.stats().hitCount() > hits);
+        assertEquals(LocalDate.of(2020, 10, 13),
+                new StringToLocalDateConverter(ZoneId.systemDefault()).convert("2020-10-13"));
+    }
+}
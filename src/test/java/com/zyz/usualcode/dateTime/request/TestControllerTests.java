@@ -0,0 +1,74 @@
+package com.zyz.usualcode.dateTime.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.zyz.usualcode.UsualCodeApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = UsualCodeApplication.class)
+@AutoConfigureMockMvc
+class TestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getLocalDate() throws Exception {
+        mockMvc.perform(get("/localDate").param("date", "2020-10-13"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13"));
+        long epochMilli = LocalDate.of(2020, 10, 13).atTime(15, 0, 27).atZone(ZoneId.systemDefault())
+                .toInstant().toEpochMilli();
+        mockMvc.perform(get("/localDate").param("date", String.valueOf(epochMilli)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13"));
+        mockMvc.perform(get("/localDate").param("date", "2020-02-30"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/localDate").param("date", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void postLocalDate() throws Exception {
+        mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content("\"2020-10-13\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13"));
+        mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content("\"2020-10-13 15:00:27\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2020-10-13"));
+        mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content("\"2020/10/13\""))
+                .andExpect(status().isBadRequest());
+        for (String body : new String[]{"", "\"\"", "\"  \"", "null", "99999999999999999999"}) {
+            mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/localDate").contentType(MediaType.APPLICATION_JSON).content(String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void blankStringIsInvalidFormat() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new DateTimeJacksonModule(ZoneId.of("Asia/Shanghai")));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("\" \"", LocalDate.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("\"\"", LocalDateTime.class));
+        assertNull(mapper.readValue("null", LocalDate.class));
+        assertEquals(LocalDateTime.of(1970, 1, 1, 8, 0), mapper.readValue("0", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,100 @@
+package com.zyz.usualcode.dateTime.zone;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZoneTransitionCacheTests {
+
+    private static final String[] ZONES = {"Asia/Shanghai", "America/New_York", "Europe/London",
+            "Australia/Lord_Howe", "+05:30", "+8"};
+
+    private final ZoneTransitionCache cache = new ZoneTransitionCache(1950, 2050);
+    /**
+     * 超过400年，不建按天查找的表，走二分查找
+     */
+    private final ZoneTransitionCache wide = new ZoneTransitionCache(1600, 2200);
+
+    @Test
+    void sameAsJdk() {
+        Random random = new Random(42);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            check(cache.table(zone), random);
+            check(wide.table(zone), random);
+        }
+    }
+
+    @Test
+    void gapsAndOverlaps() {
+        for (String id : new String[]{"America/New_York", "Australia/Lord_Howe"}) {
+            ZoneId zone = ZoneId.of(id);
+            ZoneTransitionTable table = cache.table(zone);
+            // 每个切换点前后两小时内逐分钟的本地时间，包括不存在的和重复的
+            LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+            long[] locals = new long[366 * 24 * 60];
+            for (int i = 0; i < locals.length; i++) {
+                locals[i] = localMillis(start.plusMinutes(i));
+            }
+            long[] epochMillis = new long[locals.length];
+            table.toEpochMillis(locals, epochMillis);
+            for (int i = 0; i < locals.length; i++) {
+                LocalDateTime dateTime = start.plusMinutes(i);
+                assertEquals(dateTime.atZone(zone).toInstant().toEpochMilli(), epochMillis[i], dateTime.toString());
+            }
+        }
+    }
+
+    @Test
+    void sharedTablesAndConversion() {
+        assertSame(cache.table("+8"), cache.table(ZoneOffset.ofHours(8)));
+        assertEquals(0, cache.table("+05:30").getTransitionCount());
+        // 一年两次
+        assertTrue(cache.table("America/New_York").getTransitionCount() >= 200);
+
+        LocalDateTime shanghai = LocalDateTime.of(2020, 10, 13, 15, 0, 27);
+        long[] values = {localMillis(shanghai), localMillis(shanghai.plusMonths(1))};
+        cache.convertLocalMillis(values, ZoneId.of("Asia/Shanghai"), values, ZoneId.of("America/New_York"));
+        // 10月是夏令时，11月已经结束
+        assertArrayEquals(new long[]{localMillis(shanghai.minusHours(12)),
+                localMillis(shanghai.plusMonths(1).minusHours(13))}, values);
+        // 部分转换不影响其余元素
+        long[] partial = {1, 2, 3, 4};
+        cache.table("+8").toLocalMillis(partial, 1, partial, 1, 2);
+        assertEquals(Arrays.toString(new long[]{1, 2 + 28_800_000, 3 + 28_800_000, 4}), Arrays.toString(partial));
+    }
+
+    private static void check(ZoneTransitionTable table, Random random) {
+        ZoneId zone = table.getZone();
+        String id = table.toString();
+        // 包含范围外的值
+        long[] epochMillis = random.longs(50_000, -5_000_000_000_000L, 5_000_000_000_000L).toArray();
+        long[] locals = new long[epochMillis.length];
+        table.toLocalMillis(epochMillis, locals);
+        long[] back = new long[locals.length];
+        table.toEpochMillis(locals, back);
+        for (int i = 0; i < epochMillis.length; i++) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis[i]), zone);
+            long expected = localMillis(dateTime);
+            assertEquals(expected, locals[i], id);
+            assertEquals(expected, table.toLocalMillis(epochMillis[i]), id);
+            long expectedBack = dateTime.atZone(zone).toInstant().toEpochMilli();
+            assertEquals(expectedBack, back[i], id);
+            assertEquals(expectedBack, table.toEpochMilli(locals[i]), id);
+        }
+    }
+
+    private static long localMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+}
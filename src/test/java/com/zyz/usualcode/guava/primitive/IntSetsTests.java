@@ -0,0 +1,227 @@
+package com.zyz.usualcode.guava.primitive;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntSetsTests {
+
+    @Test
+    void hashSetAddRemove() {
+        Random random = new Random(1);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(5_000) - 2_500;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int value = -2_600; value < 2_600; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        assertArrayEquals(sorted(expected), set.toSortedArray());
+
+        LongHashSet longs = LongHashSet.of(0L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40, 0L);
+        assertEquals(4, longs.size());
+        assertTrue(longs.remove(1L << 40));
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 0L, Long.MAX_VALUE}, longs.toSortedArray());
+    }
+
+    @Test
+    void bitmapAddRemove() {
+        IntBitmap bitmap = IntBitmap.of(Integer.MIN_VALUE, -1, 0, 65_535, 65_536, Integer.MAX_VALUE);
+        assertEquals(6, bitmap.size());
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, 65_535, 65_536, Integer.MAX_VALUE},
+                bitmap.toSortedArray());
+        assertTrue(bitmap.remove(65_536));
+        assertFalse(bitmap.remove(65_536));
+        assertFalse(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(-1));
+        assertEquals(5, bitmap.size());
+    }
+
+    /**
+     * 位图运算的结果和 copyOf 得到的位图可以继续修改
+     */
+    @Test
+    void materializedBitmapIsMutable() {
+        IntBitmap union = (IntBitmap) IntSets.union(IntBitmap.of(1, 70_000), IntBitmap.of(2, 70_001)).materialize();
+        assertTrue(union.add(5));
+        assertTrue(union.add(200_000));
+        assertTrue(union.add(-1));
+        assertArrayEquals(new int[]{-1, 1, 2, 5, 70_000, 70_001, 200_000}, union.toSortedArray());
+
+        IntBitmap empty = (IntBitmap) IntSets.intersection(IntBitmap.of(1), IntBitmap.of(70_000)).materialize();
+        assertEquals(0, empty.size());
+        assertTrue(empty.add(5));
+        assertTrue(empty.add(70_000));
+        assertArrayEquals(new int[]{5, 70_000}, empty.toSortedArray());
+
+        IntBitmap copy = IntBitmap.copyOf(new IntBitmap());
+        assertTrue(copy.add(5));
+        assertArrayEquals(new int[]{5}, copy.toSortedArray());
+    }
+
+    /**
+     * 各种表示两两组合，结果与 guava 的 Sets 视图一致
+     */
+    @Test
+    void operationsMatchGuavaSets() {
+        Random random = new Random(7);
+        // 大小相近、相差悬殊（走跳跃查找）、一边为空、稠密与稀疏
+        int[][] shapes = {{2_000, 2_000, 6_000}, {50, 100_000, 400_000}, {100_000, 50, 400_000}, {0, 1_000, 5_000},
+                {20_000, 30_000, 1 << 20}, {3_000, 3_000, Integer.MAX_VALUE}};
+        List<Function<int[], IntSet>> factories = new ArrayList<>();
+        factories.add(IntHashSet::of);
+        factories.add(SortedIntSet::of);
+        factories.add(IntBitmap::of);
+        for (int[] shape : shapes) {
+            int[] a = random(random, shape[0], shape[2]);
+            int[] b = random(random, shape[1], shape[2]);
+            Set<Integer> x = boxed(a);
+            Set<Integer> y = boxed(b);
+            for (Function<int[], IntSet> fa : factories) {
+                for (Function<int[], IntSet> fb : factories) {
+                    IntSet left = fa.apply(a);
+                    IntSet right = fb.apply(b);
+                    check(Sets.intersection(x, y), IntSets.intersection(left, right));
+                    check(Sets.union(x, y), IntSets.union(left, right));
+                    check(Sets.difference(x, y), IntSets.difference(left, right));
+                    assertEquals(Sets.intersection(x, y).size(), IntSets.intersectionSize(left, right));
+                }
+            }
+        }
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] a = random(random, 400_000, 3_000_000);
+            int[] b = random(random, 300_000, 3_000_000);
+            List<IntSet[]> pairs = new ArrayList<>();
+            pairs.add(new IntSet[]{SortedIntSet.of(a), SortedIntSet.of(b)});
+            pairs.add(new IntSet[]{IntBitmap.of(a), IntBitmap.of(b)});
+            for (IntSet[] pair : pairs) {
+                for (IntSetView view : new IntSetView[]{IntSets.intersection(pair[0], pair[1]),
+                        IntSets.union(pair[0], pair[1]), IntSets.difference(pair[0], pair[1])}) {
+                    int[] expected = view.materialize().toSortedArray();
+                    assertArrayEquals(expected, view.materialize(pool).toSortedArray(), view.getOp().name());
+                    assertEquals(expected.length, view.size());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void longOperationsMatchGuavaSets() {
+        Random random = new Random(13);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        // 最后一组超过并行阈值
+        for (int[] shape : new int[][]{{3_000, 3_000}, {40, 80_000}, {80_000, 40}, {100_000, 100_000}}) {
+            long[] a = randomLongs(random, shape[0]);
+            long[] b = randomLongs(random, shape[1]);
+            Set<Long> x = new HashSet<>();
+            for (long value : a) {
+                x.add(value);
+            }
+            Set<Long> y = new HashSet<>();
+            for (long value : b) {
+                y.add(value);
+            }
+            LongSet[] lefts = {LongHashSet.of(a), SortedLongSet.of(a)};
+            LongSet[] rights = {LongHashSet.of(b), SortedLongSet.of(b)};
+            for (LongSet left : lefts) {
+                for (LongSet right : rights) {
+                    check(Sets.intersection(x, y), LongSets.intersection(left, right), pool);
+                    check(Sets.union(x, y), LongSets.union(left, right), pool);
+                    check(Sets.difference(x, y), LongSets.difference(left, right), pool);
+                    assertEquals(Sets.intersection(x, y).size(), LongSets.intersectionSize(left, right));
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    private static void check(Set<Integer> expected, IntSetView view) {
+        int[] sorted = sorted(expected);
+        assertEquals(sorted.length, view.size());
+        assertEquals(sorted.length == 0, view.isEmpty());
+        assertArrayEquals(sorted, view.materialize().toSortedArray());
+        assertArrayEquals(sorted, view.toSortedArray());
+        IntHashSet visited = new IntHashSet();
+        view.forEach(value -> assertTrue(visited.add(value)));
+        assertArrayEquals(sorted, visited.toSortedArray());
+        for (int value : sorted) {
+            assertTrue(view.contains(value));
+        }
+    }
+
+    private static void check(Set<Long> expected, LongSetView view, ForkJoinPool pool) {
+        long[] sorted = sortedLongs(expected);
+        assertEquals(sorted.length, view.size(), view.getOp().name());
+        assertArrayEquals(sorted, view.toSortedArray());
+        assertArrayEquals(sorted, view.materialize(pool).toSortedArray());
+        LongHashSet visited = new LongHashSet();
+        view.forEach(value -> assertTrue(visited.add(value)));
+        assertArrayEquals(sorted, visited.toSortedArray());
+        for (long value : sorted) {
+            assertTrue(view.contains(value));
+        }
+    }
+
+    /**
+     * 在 [-bound/2, bound/2) 中随机取值，可能重复
+     */
+    private static int[] random(Random random, int size, int bound) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = bound == Integer.MAX_VALUE ? random.nextInt() : random.nextInt(bound) - bound / 2;
+        }
+        return values;
+    }
+
+    private static long[] randomLongs(Random random, int size) {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (random.nextInt(200_000) - 100_000) * 1_000_003L;
+        }
+        return values;
+    }
+
+    private static Set<Integer> boxed(int[] values) {
+        Set<Integer> set = new HashSet<>();
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    private static int[] sorted(Set<Integer> set) {
+        return new TreeSet<>(set).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long[] sortedLongs(Set<Long> set) {
+        return new TreeSet<>(set).stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,188 @@
+package com.zyz.usualcode.jFinal;
+
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiteHttpServerTests {
+
+    private final MockUserDao userDao = mock(MockUserDao.class);
+    private ExecutorService executor;
+    private LiteHttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(userDao.findUserByLoginName("zyz"))
+                .thenReturn(new User().setId("0123456789abcdef0123456789abcdef").setLoginName("zyz").setPassword("secret"));
+        executor = Executors.newFixedThreadPool(2);
+        server = EdgeServer.create(0, userDao, ZoneId.of("Asia/Shanghai"), executor).start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        executor.shutdown();
+    }
+
+    @Test
+    void localDateSameAsTestController() throws IOException {
+        assertEquals("200 2020-10-13", call("GET", "/localDate?date=2020-10-13", null));
+        assertEquals("200 2020-10-13", call("GET", "/localDate?date=20201013", null));
+        // 东八区 2020-10-13 00:00
+        assertEquals("200 2020-10-13", call("GET", "/localDate?date=1602518400000", null));
+        assertEquals("200 2020-10-13", call("POST", "/localDate", "\"2020-10-13\""));
+        assertEquals("200 2020-10-13", call("POST", "/localDate", "1602518400000"));
+
+        assertEquals(400, status(call("GET", "/localDate", null)));
+        assertEquals(400, status(call("GET", "/localDate?date=2020-02-30", null)));
+        assertEquals(400, status(call("POST", "/localDate", "\"\"")));
+        assertEquals(400, status(call("POST", "/localDate", "{}")));
+        assertEquals(404, status(call("GET", "/nothing", null)));
+    }
+
+    @Test
+    void userLookupRunsOnBlockingExecutor() throws IOException {
+        assertEquals("200 {\"id\":\"0123456789abcdef0123456789abcdef\",\"loginName\":\"zyz\"}",
+                call("GET", "/users/zyz", null));
+        assertEquals(404, status(call("GET", "/users/nobody", null)));
+    }
+
+    @Test
+    void keepAliveAndPipelining() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            // 两个请求一次发出，第二个要求处理完关闭连接
+            out.write(("GET /localDate?date=2020-10-13 HTTP/1.1\r\nHost: x\r\n\r\n"
+                    + "GET /users/zyz HTTP/1.1\r\nHost: x\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            String responses = readAll(socket.getInputStream());
+            int first = responses.indexOf("HTTP/1.1 200 OK");
+            int second = responses.indexOf("HTTP/1.1 200 OK", first + 1);
+            assertTrue(first == 0 && second > 0, responses);
+            assertTrue(responses.contains("\r\n\r\n2020-10-13HTTP/1.1"), responses);
+            assertTrue(responses.endsWith("\"loginName\":\"zyz\"}"), responses);
+            assertTrue(responses.substring(second).contains("Connection: close"), responses);
+        }
+    }
+
+    @Test
+    void http10KeepAliveIsEchoed() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            // 第一个请求保持连接，第二个按 HTTP/1.0 默认处理完关闭
+            out.write(("GET /localDate?date=2020-10-13 HTTP/1.0\r\nConnection: keep-alive\r\n\r\n"
+                    + "GET /localDate?date=2020-10-14 HTTP/1.0\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            String responses = readAll(socket.getInputStream());
+            int second = responses.indexOf("HTTP/1.1", 1);
+            assertTrue(second > 0, responses);
+            assertTrue(responses.substring(0, second).contains("Connection: keep-alive\r\n"), responses);
+            assertTrue(responses.substring(second).contains("Connection: close\r\n"), responses);
+            assertTrue(responses.endsWith("2020-10-14"), responses);
+        }
+    }
+
+    /**
+     * 多个 Content-Length 不一致时返回400并关闭连接，一致时按一个处理
+     */
+    @Test
+    void conflictingContentLengthRejected() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(("POST /localDate HTTP/1.1\r\nHost: x\r\nContent-Length: 12\r\n"
+                    + "Content-Length: 0\r\n\r\n\"2020-10-13\"").getBytes(StandardCharsets.ISO_8859_1));
+            String response = readAll(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 400 "), response);
+            assertTrue(response.contains("Connection: close\r\n"), response);
+        }
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(("POST /localDate HTTP/1.1\r\nHost: x\r\nContent-Length: 12\r\n"
+                    + "Content-Length: 12\r\nConnection: close\r\n\r\n\"2020-10-13\"")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            String response = readAll(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 200 "), response);
+            assertTrue(response.endsWith("2020-10-13"), response);
+        }
+    }
+
+    @Test
+    void largeBodyThenNextRequest() throws IOException {
+        byte[] body = new byte[20000];
+        Arrays.fill(body, (byte) 'x');
+        try (LiteHttpServer large = LiteHttpServer.builder().port(0).bufferSize(256)
+                .get("/large", (request, response) -> response.write(body))
+                .get("/small", (request, response) -> response.write("ok"))
+                .build().start()) {
+            // 响应体超过缓冲区两倍，写缓冲区按响应头的准确长度扩容；HTTP/1.0 带 Connection: close 响应头
+            for (int i = 0; i < 2; i++) {
+                try (Socket socket = new Socket("127.0.0.1", large.getPort())) {
+                    socket.setSoTimeout(5000);
+                    socket.getOutputStream().write("GET /large HTTP/1.0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                    String response = readAll(socket.getInputStream());
+                    assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"), response);
+                    assertTrue(response.contains("Connection: close\r\n"), response);
+                    assertTrue(response.endsWith("\r\n\r\n" + new String(body, StandardCharsets.ISO_8859_1)));
+                }
+            }
+            try (Socket socket = new Socket("127.0.0.1", large.getPort())) {
+                socket.setSoTimeout(5000);
+                socket.getOutputStream().write("GET /small HTTP/1.0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                assertTrue(readAll(socket.getInputStream()).endsWith("\r\n\r\nok"));
+            }
+        }
+    }
+
+    private String call(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return status + " " + readAll(in);
+        }
+    }
+
+    private static int status(String response) {
+        return Integer.parseInt(response.substring(0, 3));
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
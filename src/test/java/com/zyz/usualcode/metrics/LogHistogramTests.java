@@ -0,0 +1,67 @@
+package com.zyz.usualcode.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogHistogramTests {
+
+    @Test
+    void bucketsCoverTheWholeRange() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, 1 << 20, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int index = LogHistogram.index(value);
+            assertTrue(LogHistogram.upperBound(index) >= value, "value " + value);
+            assertTrue(index == 0 || LogHistogram.upperBound(index - 1) < value, "value " + value);
+        }
+        assertEquals(Long.MAX_VALUE, LogHistogram.upperBound(LogHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesWithinBucketError() {
+        Random random = new Random(3);
+        LogHistogram histogram = new LogHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // 对数正态分布，类似请求耗时
+            values[i] = (long) Math.exp(12 + random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long estimate = snapshot.percentile(q);
+            assertTrue(estimate >= exact && estimate <= exact * 1.125 + 1, q + ": " + exact + " vs " + estimate);
+        }
+        assertEquals(0, new LogHistogram().snapshot().percentile(0.99));
+    }
+
+    @Test
+    void concurrentRecording() throws InterruptedException {
+        LogHistogram histogram = new LogHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(400_000, snapshot.getCount());
+        assertEquals(400_000, snapshot.countAtOrBelow(Long.MAX_VALUE));
+        assertEquals(99_999, snapshot.getMax());
+        assertEquals(4L * 99_999 * 100_000 / 2, snapshot.getSum());
+    }
+}
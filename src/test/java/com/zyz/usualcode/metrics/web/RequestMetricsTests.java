@@ -0,0 +1,135 @@
+package com.zyz.usualcode.metrics.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RequestMetricsTests {
+
+    private RequestMetrics metrics;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new RequestMetrics();
+        mockMvc = MockMvcBuilders.standaloneSetup(new SampleController(), new MetricsController(metrics))
+                .addFilters(new RequestMetricsFilter(metrics))
+                .build();
+    }
+
+    @Test
+    void recordsByPattern() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/users/" + i)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/fail")).andExpect(status().isServiceUnavailable());
+        assertThrows(Exception.class, () -> mockMvc.perform(get("/boom")));
+        mockMvc.perform(get("/nothing")).andExpect(status().isNotFound());
+
+        List<RequestMetrics.Endpoint> endpoints = metrics.getEndpoints();
+        assertEquals(4, endpoints.size());
+        RequestMetrics.Endpoint users = find(endpoints, "/users/{id}");
+        assertEquals(3, users.getLatency().getCount());
+        assertEquals(0, users.getErrors());
+        assertEquals(1, find(endpoints, "/fail").getErrors());
+        assertEquals(1, find(endpoints, "/boom").getErrors());
+        assertEquals(1, find(endpoints, RequestMetrics.UNMATCHED).getLatency().getCount());
+        assertEquals(0, metrics.getInFlight());
+    }
+
+    @Test
+    void asyncRequestRecordedOnCompletion() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/async")).andReturn()))
+                .andExpect(content().string("done"));
+        assertEquals(1, find(metrics.getEndpoints(), "/async").getLatency().getCount());
+        assertEquals(0, metrics.getInFlight());
+    }
+
+    @Test
+    void prometheusText() throws Exception {
+        metrics.record("GET", "/a\"b", 2_000_000, false);
+        metrics.record("GET", "/a\"b", 20_000_000, true);
+        String text = mockMvc.perform(get("/metrics")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(text.contains("# TYPE http_server_requests_seconds histogram\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_bucket{method=\"GET\",uri=\"/a\\\"b\",le=\"0.001\"} 0\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_bucket{method=\"GET\",uri=\"/a\\\"b\",le=\"0.0025\"} 1\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_bucket{method=\"GET\",uri=\"/a\\\"b\",le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_sum{method=\"GET\",uri=\"/a\\\"b\"} 0.022\n"), text);
+        assertTrue(text.contains("http_server_requests_errors_total{method=\"GET\",uri=\"/a\\\"b\"} 1\n"), text);
+        // 取指标的这个请求还在处理中
+        assertTrue(text.contains("http_server_requests_in_flight 1\n"), text);
+
+        mockMvc.perform(get("/metrics").with(request -> {
+            request.setRemoteAddr("10.1.2.3");
+            return request;
+        })).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void endpointCountIsBounded() {
+        for (int i = 0; i < RequestMetrics.MAX_ENDPOINTS + 10; i++) {
+            metrics.record("GET", "/p" + i, 1, false);
+        }
+        List<RequestMetrics.Endpoint> endpoints = metrics.getEndpoints();
+        assertEquals(RequestMetrics.MAX_ENDPOINTS + 1, endpoints.size());
+        assertEquals(10, find(endpoints, RequestMetrics.OTHER).getLatency().getCount());
+
+        // 客户端随意写的方法不增加统计对象
+        for (int i = 0; i < 100; i++) {
+            metrics.record("M" + i, "/p0", 1, false);
+            metrics.record("M" + i, "/new" + i, 1, false);
+        }
+        metrics.record(null, null, 1, false);
+        endpoints = metrics.getEndpoints();
+        assertEquals(RequestMetrics.MAX_ENDPOINTS + 2, endpoints.size());
+        RequestMetrics.Endpoint other = endpoints.stream()
+                .filter(e -> e.getMethod().equals(RequestMetrics.OTHER)).findFirst().get();
+        assertEquals(RequestMetrics.OTHER, other.getPattern());
+        assertEquals(201, other.getLatency().getCount());
+    }
+
+    private static RequestMetrics.Endpoint find(List<RequestMetrics.Endpoint> endpoints, String pattern) {
+        return endpoints.stream().filter(e -> e.getPattern().equals(pattern)).findFirst()
+                .orElseThrow(() -> new AssertionError(pattern + " not in " + endpoints));
+    }
+
+    @RestController
+    static class SampleController {
+        @GetMapping("/users/{id}")
+        public String user(@PathVariable int id) {
+            return "user" + id;
+        }
+
+        @GetMapping("/fail")
+        public ResponseEntity<String> fail() {
+            return ResponseEntity.status(503).body("busy");
+        }
+
+        @GetMapping("/boom")
+        public String boom() {
+            throw new IllegalStateException("boom");
+        }
+
+        @GetMapping("/async")
+        public Callable<String> async() {
+            return () -> "done";
+        }
+    }
+}
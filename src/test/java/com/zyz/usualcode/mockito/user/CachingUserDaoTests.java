@@ -0,0 +1,222 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingUserDaoTests {
+
+    private final MockUserDao delegate = mock(MockUserDao.class);
+
+    @Test
+    void cachesHitsAndMissesUntilExpired() {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        CachingUserDao dao = CachingUserDao.builder(delegate).expireAfterWrite(Duration.ofMinutes(1))
+                .ticker(ticker).build();
+        User admin = new User().setId("1").setLoginName("admin");
+        when(delegate.findUserByLoginName("admin")).thenReturn(admin);
+
+        assertEquals(admin, dao.findUserByLoginName("admin"));
+        User cached = dao.findUserByLoginName("admin");
+        assertEquals(admin, cached);
+        assertNotSame(admin, cached);
+        assertNull(dao.findUserByLoginName("free"));
+        assertNull(dao.findUserByLoginName("free"));
+        verify(delegate, times(1)).findUserByLoginName("admin");
+        verify(delegate, times(1)).findUserByLoginName("free");
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertNull(dao.findUserByLoginName("free"));
+        verify(delegate, times(2)).findUserByLoginName("free");
+
+        CachingUserDao.Stats stats = dao.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getNegativeHits());
+        assertEquals(3, stats.getLoads());
+        assertEquals(0, stats.getBloomRejections());
+    }
+
+    @Test
+    void seededBloomFilterSkipsDatabaseForFreeNames() {
+        doAnswer(invocation -> {
+            Consumer<String> action = invocation.getArgument(0);
+            for (int i = 0; i < 1000; i++) {
+                action.accept("user" + i);
+            }
+            return null;
+        }).when(delegate).forEachLoginName(any());
+        when(delegate.findUserByLoginName("user1")).thenReturn(new User().setLoginName("user1"));
+        CachingUserDao dao = CachingUserDao.builder(delegate).bloomFilter(10_000, 0.001).build();
+        assertEquals(1000, dao.seed());
+
+        for (int i = 0; i < 1000; i++) {
+            assertNull(dao.findUserByLoginName("free" + i));
+        }
+        assertEquals("user1", dao.findUserByLoginName("user1").getLoginName());
+        CachingUserDao.Stats stats = dao.stats();
+        // 误判率 0.1%，1000 次最多查几次数据库
+        assertEquals(1000 - stats.getFalsePositives(), stats.getBloomRejections());
+        assertEquals(stats.getFalsePositives() + 1, stats.getLoads());
+        verify(delegate, times((int) stats.getFalsePositives())).findUserByLoginName(startsWith("free"));
+    }
+
+    @Test
+    void saveInvalidatesCachedMissAndUpdatesBloomFilter() {
+        CachingUserDao dao = CachingUserDao.builder(delegate).build();
+        dao.seed();
+        User admin = new User().setId("1").setLoginName("admin");
+        assertNull(dao.findUserByLoginName("admin"));
+        verify(delegate, never()).findUserByLoginName(anyString());
+
+        dao.save(admin);
+        verify(delegate).save(admin);
+        when(delegate.findUserByLoginName("admin")).thenReturn(admin);
+        assertEquals(admin, dao.findUserByLoginName("admin"));
+
+        // 保存失败也要清掉缓存
+        User other = new User().setId("2").setLoginName("other");
+        assertNull(dao.findUserByLoginName("other"));
+        doThrow(new IllegalStateException("duplicate")).when(delegate).save(other);
+        assertThrows(IllegalStateException.class, () -> dao.save(other));
+        when(delegate.findUserByLoginName("other")).thenReturn(other);
+        assertEquals(other, dao.findUserByLoginName("other"));
+    }
+
+    @Test
+    void findExistingLoginNamesQueriesOnlyUnknownNames() {
+        CachingUserDao dao = CachingUserDao.builder(delegate).build();
+        when(delegate.findUserByLoginName("admin")).thenReturn(new User().setLoginName("admin"));
+        when(delegate.findExistingLoginNames(anyCollection())).thenReturn(Collections.singleton("b"));
+        dao.findUserByLoginName("admin");
+        dao.findUserByLoginName("free");
+
+        assertEquals(new HashSet<>(Arrays.asList("admin", "b")),
+                dao.findExistingLoginNames(Arrays.asList("admin", "free", "a", "b")));
+        verify(delegate).findExistingLoginNames(Arrays.asList("a", "b"));
+        // a 作为空结果缓存
+        assertEquals(Collections.emptySet(), dao.findExistingLoginNames(Collections.singletonList("a")));
+        verify(delegate, times(1)).findExistingLoginNames(anyCollection());
+    }
+
+    @Test
+    void saveDuringLoadDoesNotLeaveCachedMiss() throws Exception {
+        SlowDao slow = new SlowDao();
+        CachingUserDao dao = CachingUserDao.builder(slow).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 查询已经从数据库读到"不存在"，放进缓存之前另一个线程保存了这个登录名
+            Future<User> load = executor.submit(() -> dao.findUserByLoginName("admin"));
+            slow.awaitRead();
+            dao.save(new User().setId("1").setLoginName("admin"));
+            slow.release();
+            assertNull(load.get(5, TimeUnit.SECONDS));
+            assertEquals("1", dao.findUserByLoginName("admin").getId());
+
+            slow.reset();
+            Future<Set<String>> check = executor.submit(() ->
+                    dao.findExistingLoginNames(Arrays.asList("a", "b")));
+            slow.awaitRead();
+            dao.saveAll(Collections.singletonList(new User().setId("2").setLoginName("b")));
+            slow.release();
+            assertEquals(Collections.emptySet(), check.get(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singleton("b"), dao.findExistingLoginNames(Arrays.asList("a", "b")));
+            assertTrue(dao.findExistingLoginNames(Collections.singletonList("a")).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读完数据之后停住，等测试线程放行再返回
+     */
+    private static final class SlowDao extends MockUserDao {
+        private final Map<String, User> users = new ConcurrentHashMap<>();
+        private volatile CountDownLatch read = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public User findUserByLoginName(String loginName) {
+            User user = users.get(loginName);
+            pause();
+            return user;
+        }
+
+        @Override
+        public void save(User user) {
+            users.put(user.getLoginName(), user);
+        }
+
+        @Override
+        public Set<String> findExistingLoginNames(Collection<String> loginNames) {
+            Set<String> existing = new HashSet<>();
+            for (String loginName : loginNames) {
+                if (users.containsKey(loginName)) {
+                    existing.add(loginName);
+                }
+            }
+            pause();
+            return existing;
+        }
+
+        private void pause() {
+            CountDownLatch release = this.release;
+            read.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitRead() throws InterruptedException {
+            assertTrue(read.await(5, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            release.countDown();
+        }
+
+        void reset() {
+            read = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+    }
+}
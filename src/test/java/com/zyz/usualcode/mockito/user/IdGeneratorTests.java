@@ -0,0 +1,83 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdGeneratorTests {
+
+    @Test
+    void formatAndOrdering() {
+        AtomicLong now = new AtomicLong(1602572427000L);
+        IdGenerator generator = new IdGenerator(0xABC, now::get);
+        String first = generator.nextId();
+        assertEquals(32, first.length());
+        assertTrue(first.matches("[0-9a-f]{32}"), first);
+        assertEquals(1602572427000L, IdGenerator.timestampOf(first));
+        assertEquals(0xABC, IdGenerator.nodeOf(first));
+
+        now.incrementAndGet();
+        String second = generator.nextId();
+        assertTrue(second.compareTo(first) > 0);
+        assertEquals(IdGenerator.sequenceOf(first) + 1, IdGenerator.sequenceOf(second));
+
+        char[] chars = new char[40];
+        generator.nextId(chars, 4);
+        assertEquals(0xABC, IdGenerator.nodeOf(new String(chars, 4, 32)));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(0x10000));
+        assertNotEquals(generator.nextId(), new IdGenerator(1).nextId());
+    }
+
+    /**
+     * 多线程大量生成，序号全部不同，每个线程内时间戳不减
+     */
+    @Test
+    void uniqueAcrossThreads() throws Exception {
+        IdGenerator generator = new IdGenerator(7);
+        int threads = 8;
+        int perThread = 500_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Callable<long[]> task = () -> {
+                long[] sequences = new long[perThread];
+                char[] chars = new char[IdGenerator.LENGTH];
+                long lastTimestamp = 0;
+                for (int i = 0; i < perThread; i++) {
+                    generator.nextId(chars, 0);
+                    String id = new String(chars);
+                    long timestamp = IdGenerator.timestampOf(id);
+                    if (timestamp < lastTimestamp || IdGenerator.nodeOf(id) != 7) {
+                        throw new AssertionError(id);
+                    }
+                    lastTimestamp = timestamp;
+                    sequences[i] = IdGenerator.sequenceOf(id);
+                }
+                return sequences;
+            };
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(task);
+            }
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy((long[]) futures[t].get(), 0, all, t * perThread, perThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertNotEquals(all[i - 1], all[i]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
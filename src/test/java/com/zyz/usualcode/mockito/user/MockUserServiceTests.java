@@ -0,0 +1,232 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MockUserServiceTests {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:service" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcUserDao userDao = new JdbcUserDao(dataSource);
+    private final PasswordHasher hasher = new Pbkdf2PasswordHasher(10);
+    private final MockUserService userService = new MockUserService(userDao, hasher);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    MockUserServiceTests() {
+        JdbcUserDao.createTable(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void save() throws ServiceException {
+        String id = userService.save(new User().setLoginName("admin").setPassword("123456"));
+        assertEquals(32, id.length());
+        User saved = userDao.findUserByLoginName("admin");
+        assertEquals(id, saved.getId());
+        assertNotEquals("123456", saved.getPassword());
+        assertTrue(hasher.matches("123456", saved.getPassword()));
+        assertFalse(hasher.matches("654321", saved.getPassword()));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> userService.save(new User().setLoginName("admin").setPassword("x")));
+        assertEquals(MockUserService.DUPLICATE_LOGIN_NAME + "admin", ex.getMessage());
+        assertThrows(ServiceException.class, () -> userService.save(new User().setLoginName("nobody")));
+    }
+
+    @Test
+    void trySaveReturnsErrorCodeWithoutStackTrace() {
+        SaveResult saved = userService.trySave(new User().setLoginName("admin").setPassword("123456"));
+        assertTrue(saved.isSuccess());
+        assertNull(saved.getErrorCode());
+
+        SaveResult duplicate = userService.trySave(new User().setLoginName("admin").setPassword("x"));
+        assertFalse(duplicate.isSuccess());
+        assertEquals(ErrorCode.DUPLICATE_LOGIN_NAME, duplicate.getErrorCode());
+        assertEquals("admin", ((DuplicateLoginNameException) duplicate.getError()).getLoginName());
+        assertEquals(MockUserService.DUPLICATE_LOGIN_NAME + "admin", duplicate.getError().getMessage());
+        assertEquals(0, duplicate.getError().getStackTrace().length);
+
+        // 不带详情的失败共享同一个实例
+        SaveResult empty = userService.trySave(new User().setLoginName("").setPassword("x"));
+        assertSame(ServiceException.of(ErrorCode.EMPTY_LOGIN_NAME), empty.getError());
+        assertEquals(MockUserService.EMPTY_LOGIN_NAME, empty.getError().getMessage());
+        assertEquals(ErrorCode.EMPTY_PASSWORD,
+                userService.trySave(new User().setLoginName("nobody")).getErrorCode());
+    }
+
+    @Test
+    void trySaveAsyncHashesOnHasherPool() {
+        try (PasswordHashingService hashing = PasswordHashingService.builder().threads(1)
+                .targetLatency(Duration.ofMillis(1)).iterations(1000, 2000).build()) {
+            MockUserService service = new MockUserService(userDao, hashing);
+            SaveResult saved = service.trySaveAsync(new User().setLoginName("admin").setPassword("123456")).join();
+            assertTrue(saved.isSuccess());
+            assertEquals(saved.getId(), userDao.findUserByLoginName("admin").getId());
+            assertTrue(hashing.matches("123456", userDao.findUserByLoginName("admin").getPassword()));
+            assertEquals(1, hashing.queueWait().getCount());
+
+            // 校验失败时不提交哈希
+            assertEquals(ErrorCode.DUPLICATE_LOGIN_NAME,
+                    service.trySaveAsync(new User().setLoginName("admin").setPassword("x")).join().getErrorCode());
+            assertEquals(ErrorCode.EMPTY_PASSWORD,
+                    service.trySaveAsync(new User().setLoginName("nobody")).join().getErrorCode());
+            assertEquals(1, hashing.queueWait().getCount());
+        }
+        // 默认实现在调用线程上执行
+        assertTrue(userService.trySaveAsync(new User().setLoginName("zyz").setPassword("p")).isDone());
+    }
+
+    @Test
+    void saveAllReportsEveryRecordInOrder() throws ServiceException {
+        userService.save(new User().setLoginName("user42").setPassword("p"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            users.add(new User().setLoginName("user" + i).setPassword("p" + i));
+        }
+        // 同一块内重复、跨块重复、登录名为空、密码为空
+        users.add(10, new User().setLoginName("user3").setPassword("p"));
+        users.add(new User().setLoginName("user100").setPassword("p"));
+        users.add(new User().setLoginName("").setPassword("p"));
+        users.add(new User().setLoginName("nopassword"));
+
+        BulkSaveOptions options = BulkSaveOptions.builder().chunkSize(300).maxInFlightChunks(3)
+                .hashExecutor(executor).hashParallelism(4).build();
+        List<SaveResult> results;
+        try (Stream<SaveResult> stream = userService.saveAll(users.stream(), options)) {
+            results = stream.collect(Collectors.toList());
+        }
+        assertEquals(users.size(), results.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(users.get(i), results.get(i).getUser());
+        }
+        List<String> failures = results.stream().filter(r -> !r.isSuccess())
+                .map(r -> r.getError().getMessage()).collect(Collectors.toList());
+        List<String> expected = new ArrayList<>();
+        expected.add(MockUserService.REPEATED_LOGIN_NAME + "user3");
+        expected.add(MockUserService.DUPLICATE_LOGIN_NAME + "user42");
+        expected.add(MockUserService.DUPLICATE_LOGIN_NAME + "user100");
+        expected.add(MockUserService.EMPTY_LOGIN_NAME);
+        expected.add(MockUserService.EMPTY_PASSWORD);
+        assertEquals(expected, failures);
+
+        assertEquals(5_000, userDao.count());
+        SaveResult first = results.get(0);
+        assertEquals(first.getId(), userDao.findUserByLoginName("user0").getId());
+        assertTrue(hasher.matches("p0", userDao.findUserByLoginName("user0").getPassword()));
+    }
+
+    @Test
+    void rejectedRowDoesNotClaimLoginName() {
+        List<User> users = Arrays.asList(
+                new User().setLoginName("zyz"),
+                new User().setLoginName("zyz").setPassword("p"),
+                new User().setLoginName("zyz").setPassword("p"));
+        List<SaveResult> results = new ArrayList<>();
+        userService.saveAll(users.iterator()).forEachRemaining(results::add);
+
+        assertEquals(MockUserService.EMPTY_PASSWORD, results.get(0).getError().getMessage());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(MockUserService.REPEATED_LOGIN_NAME + "zyz", results.get(2).getError().getMessage());
+        assertEquals(results.get(1).getId(), userDao.findUserByLoginName("zyz").getId());
+    }
+
+    /**
+     * 哈希任务被拒绝的块不占用登录名
+     */
+    @Test
+    void rejectedHashDoesNotClaimLoginName() {
+        AtomicInteger submitted = new AtomicInteger();
+        Executor rejectFirst = task -> {
+            if (submitted.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("full");
+            }
+            executor.execute(task);
+        };
+        Iterator<SaveResult> results = userService.saveAll(Arrays.asList(
+                new User().setLoginName("zyz").setPassword("p"),
+                new User().setLoginName("zyz").setPassword("p")).iterator(),
+                BulkSaveOptions.builder().chunkSize(1).maxInFlightChunks(1).hashExecutor(rejectFirst).build());
+        assertThrows(RejectedExecutionException.class, results::hasNext);
+        assertTrue(results.next().isSuccess());
+        assertFalse(results.hasNext());
+        assertEquals(1, userDao.count());
+    }
+
+    @Test
+    void saveAllReadsInputLazily() {
+        AtomicInteger read = new AtomicInteger();
+        Iterator<User> source = IntStream.range(0, 10_000)
+                .peek(i -> read.incrementAndGet())
+                .mapToObj(i -> new User().setLoginName("lazy" + i).setPassword("p"))
+                .iterator();
+        Iterator<SaveResult> results = userService.saveAll(source,
+                BulkSaveOptions.builder().chunkSize(100).maxInFlightChunks(2).hashExecutor(executor).build());
+        assertEquals(0, read.get());
+        assertTrue(results.next().isSuccess());
+        // 写入第一块之前最多读入两块
+        assertTrue(read.get() <= 200, "read " + read.get());
+        int count = 1;
+        while (results.hasNext()) {
+            results.next();
+            count++;
+        }
+        assertEquals(10_000, count);
+        assertEquals(10_000, userDao.count());
+    }
+
+    @Test
+    void failedBatchIsRetriedOneByOne() {
+        MockUserDao dao = mock(MockUserDao.class);
+        doThrow(new DuplicateKeyException("uk_user_login_name")).when(dao).saveAll(anyCollection());
+        doThrow(new DuplicateKeyException("uk_user_login_name")).when(dao)
+                .save(argThat(user -> "taken".equals(user.getLoginName())));
+        MockUserService service = new MockUserService(dao, hasher);
+        Iterator<User> users = Stream.of("a", "taken", "b")
+                .map(name -> new User().setLoginName(name).setPassword("p")).iterator();
+        List<SaveResult> results = new ArrayList<>();
+        service.saveAll(users).forEachRemaining(results::add);
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(MockUserService.DUPLICATE_LOGIN_NAME + "taken", results.get(1).getError().getMessage());
+        assertTrue(results.get(2).isSuccess());
+        verify(dao, times(3)).save(any(User.class));
+    }
+}
@@ -0,0 +1,121 @@
+package com.zyz.usualcode.mockito.user;
+
+import com.zyz.usualcode.snapshot.SnapshotConfig;
+import com.zyz.usualcode.snapshot.SnapshotFile;
+import com.zyz.usualcode.snapshot.SnapshotManager;
+import com.zyz.usualcode.web.WebExecutionConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OffHeapUserDaoTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lookupsServedFromRestoredTable() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        IdGenerator ids = IdGenerator.getDefault();
+        User admin = new User().setId(ids.nextId()).setLoginName("admin").setPassword("secret");
+        User zyz = new User().setId(ids.nextId()).setLoginName("zyz");
+
+        MockUserDao database = mock(MockUserDao.class);
+        when(database.findUserByLoginName("admin")).thenReturn(admin);
+        UserTableSnapshot snapshot = new UserTableSnapshot(new OffHeapUserTable());
+        OffHeapUserDao dao = new OffHeapUserDao(database, snapshot);
+        assertEquals(admin, dao.findUserByLoginName("admin"));
+        assertEquals(admin, dao.findUserByLoginName("admin"));
+        verify(database, times(1)).findUserByLoginName("admin");
+        dao.save(zyz);
+        verify(database).save(zyz);
+        // 查不到的不进表
+        assertNull(dao.findUserByLoginName("free"));
+        assertNull(dao.findUserByLoginName("free"));
+        verify(database, times(2)).findUserByLoginName("free");
+        new SnapshotManager(file, Collections.singletonList(snapshot)).close();
+
+        // 重启：从快照恢复后不查数据库
+        MockUserDao restartedDatabase = mock(MockUserDao.class);
+        UserTableSnapshot restored = new UserTableSnapshot(new OffHeapUserTable());
+        SnapshotManager manager = new SnapshotManager(file, Collections.singletonList(restored));
+        assertEquals(Collections.singleton(UserTableSnapshot.NAME), manager.restore());
+        OffHeapUserDao restarted = new OffHeapUserDao(restartedDatabase, restored);
+        assertEquals(admin, restarted.findUserByLoginName("admin"));
+        assertEquals(zyz, restarted.findUserByLoginName("zyz"));
+        when(restartedDatabase.findExistingLoginNames(Collections.singletonList("b")))
+                .thenReturn(Collections.singleton("b"));
+        assertEquals(new HashSet<>(Arrays.asList("admin", "zyz", "b")),
+                restarted.findExistingLoginNames(Arrays.asList("admin", "zyz", "b")));
+        verify(restartedDatabase, never()).findUserByLoginName(anyString());
+        manager.close();
+    }
+
+    /**
+     * 写快照期间（持有表对象的锁）等待追加的线程不挡住查询
+     */
+    @Test
+    void lookupsNotBlockedByAppendDuringSnapshot() throws Exception {
+        IdGenerator ids = IdGenerator.getDefault();
+        User admin = new User().setId(ids.nextId()).setLoginName("admin").setPassword("secret");
+        UserTableSnapshot snapshot = new UserTableSnapshot(new OffHeapUserTable());
+        OffHeapUserDao dao = new OffHeapUserDao(mock(MockUserDao.class), snapshot);
+        dao.save(admin);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> save;
+            synchronized (snapshot.getTable()) {
+                CountDownLatch saving = new CountDownLatch(1);
+                save = executor.submit(() -> {
+                    saving.countDown();
+                    dao.save(new User().setId(ids.nextId()).setLoginName("zyz"));
+                });
+                saving.await();
+                Thread.sleep(100);
+                assertFalse(save.isDone());
+                assertEquals(admin, executor.submit(() -> dao.findUserByLoginName("admin")).get(5, TimeUnit.SECONDS));
+            }
+            save.get(5, TimeUnit.SECONDS);
+            assertEquals("zyz", dao.findUserByLoginName("zyz").getLoginName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void appUserDaoUsesSnapshotTable() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(SnapshotConfig.class, WebExecutionConfig.class);
+        runner.withPropertyValues("usualcode.snapshot.file=" + file)
+                .run(context -> assertTrue(context.getBean(MockUserDao.class) instanceof OffHeapUserDao));
+        // 容器关闭时写的快照中有用户表一段
+        try (SnapshotFile snapshot = SnapshotFile.open(file)) {
+            assertNotNull(snapshot.section(UserTableSnapshot.NAME));
+        }
+        runner.run(context -> assertEquals(MockUserDao.class, context.getBean(MockUserDao.class).getClass()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapUserTableTests {
+
+    private final IdGenerator ids = new IdGenerator(1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void addAndGet() {
+        // 4KB 的段和很小的初始索引，覆盖换段和扩容
+        OffHeapUserTable table = new OffHeapUserTable(4, 12);
+        List<User> users = users(20_000);
+        for (User user : users) {
+            assertTrue(table.add(user));
+        }
+        assertEquals(users.size(), table.size());
+        assertFalse(table.add(new User().setId(ids.nextId()).setLoginName("user42").setPassword("x")));
+        assertEquals(users.size(), table.size());
+
+        UserView view = new UserView();
+        for (User user : users) {
+            assertSame(view, table.get(user.getLoginName(), view));
+            assertEquals(user, view.toUser());
+        }
+        assertNull(table.get("nobody"));
+        assertFalse(table.contains("nobody"));
+        assertTrue(table.contains("用户7"));
+        assertNull(table.get("user3").getPassword());
+
+        List<User> visited = new ArrayList<>();
+        table.forEach(v -> visited.add(v.toUser()));
+        assertEquals(users, visited);
+        assertThrows(IllegalArgumentException.class, () -> table.add(new User().setId("short").setLoginName("a")));
+    }
+
+    @Test
+    void snapshotAndRestore() throws IOException {
+        OffHeapUserTable table = new OffHeapUserTable(16, 12);
+        List<User> users = users(10_000);
+        users.forEach(table::add);
+        Path file = dir.resolve("users.snapshot");
+        table.snapshot(file);
+
+        OffHeapUserTable restored = OffHeapUserTable.restore(file);
+        assertEquals(users.size(), restored.size());
+        for (User user : users) {
+            assertEquals(user, restored.get(user.getLoginName()).toUser());
+        }
+        // 恢复后继续追加（包括扩容），不影响快照文件
+        List<User> more = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            more.add(new User().setId(ids.nextId()).setLoginName("more" + i).setPassword("p" + i));
+        }
+        more.forEach(user -> assertTrue(restored.add(user)));
+        assertEquals(30_000, restored.size());
+        assertEquals(users.get(123), restored.get("user123").toUser());
+        assertEquals(more.get(19_999), restored.get("more19999").toUser());
+        assertEquals(users.size(), OffHeapUserTable.restore(file).size());
+        assertNull(OffHeapUserTable.restore(file).get("more0"));
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> OffHeapUserTable.restore(file));
+    }
+
+    private List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String loginName = i % 10 == 7 ? "用户" + i : "user" + i;
+            users.add(new User().setId(ids.nextId()).setLoginName(loginName).setPassword(i == 3 ? null : "pbkdf2$" + i));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,98 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class PasswordHashingServiceTests {
+
+    @Test
+    void hashAndMatchAsync() {
+        try (PasswordHashingService service = PasswordHashingService.builder().threads(2)
+                .targetLatency(Duration.ofMillis(5)).iterations(1000, 100_000).build()) {
+            String hashed = service.hashAsync("123456").join();
+            assertTrue(hashed.startsWith("pbkdf2$"));
+            assertTrue(service.matchesAsync("123456", hashed).join());
+            assertFalse(service.matchesAsync("1234567", hashed).join());
+            // 其他迭代次数生成的哈希同样可以校验
+            assertTrue(service.matches("abc", new Pbkdf2PasswordHasher(2000).hash("abc")));
+            assertEquals(3, service.queueWait().getCount());
+            assertEquals(4, service.hashTime().getCount());
+        }
+    }
+
+    @Test
+    void iterationsFollowTargetLatency() {
+        try (PasswordHashingService service = PasswordHashingService.builder().threads(1)
+                .targetLatency(Duration.ofMillis(20)).iterations(1000, 10_000_000).build()) {
+            for (int i = 0; i < 30; i++) {
+                service.hash("password" + i);
+            }
+            int iterations = service.getIterations();
+            assertTrue(iterations >= 1000 && iterations % 1000 == 0, "iterations " + iterations);
+            // 耗时在目标附近，测试环境波动较大，只检查数量级
+            long p50 = service.hashTime().percentile(0.5);
+            assertTrue(p50 > Duration.ofMillis(2).toNanos() && p50 < Duration.ofMillis(200).toNanos(), "p50 " + p50);
+        }
+        try (PasswordHashingService service = PasswordHashingService.builder()
+                .targetLatency(Duration.ofNanos(1)).iterations(3000, 5000).build()) {
+            service.hash("password");
+            assertEquals(3000, service.getIterations());
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        try (PasswordHashingService service = PasswordHashingService.builder().threads(1).queueCapacity(1)
+                .targetLatency(Duration.ofMillis(100)).iterations(1000, 10_000_000).build()) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(service.hashAsync("password" + i));
+            }
+            assertTrue(service.rejectedCount() >= 3, "rejected " + service.rejectedCount());
+            CompletionException ex = assertThrows(CompletionException.class, () -> futures.get(4).join());
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+            assertTrue(futures.get(0).join().startsWith("pbkdf2$"));
+        }
+    }
+
+    @Test
+    void bulkExecutorRunsOnCallerWhenFull() throws InterruptedException {
+        try (PasswordHashingService service = PasswordHashingService.builder().threads(1).queueCapacity(1)
+                .targetLatency(Duration.ofMillis(1)).iterations(1000, 2000).build()) {
+            CountDownLatch release = new CountDownLatch(1);
+            Executor executor = service.bulkExecutor();
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            List<String> threads = new ArrayList<>();
+            executor.execute(() -> threads.add(Thread.currentThread().getName()));
+            // 线程和队列都已占满，在当前线程上执行
+            executor.execute(() -> threads.add(Thread.currentThread().getName()));
+            assertEquals(Collections.singletonList(Thread.currentThread().getName()), threads);
+            assertEquals(1, service.rejectedCount());
+            release.countDown();
+
+            service.close();
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> fail("ran after close")));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.zyz.usualcode.mockito.user;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 两种实现都跑在本地文件的 H2（MySQL 兼容模式）上
+ */
+class UserDaoTests {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "mybatis"})
+    void saveAndFindByLoginName(String type) {
+        MockUserDao dao = dao(type);
+        User admin = user("admin");
+        dao.save(admin);
+        assertEquals(admin, dao.findUserByLoginName("admin"));
+        assertNull(dao.findUserByLoginName("nobody"));
+        assertThrows(DuplicateKeyException.class, () -> dao.save(user("admin")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "mybatis"})
+    void saveAllInBatches(String type) {
+        MockUserDao dao = dao(type);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_500; i++) {
+            users.add(user("user" + i));
+        }
+        dao.saveAll(users);
+        assertEquals(5_500, count(dao));
+        assertEquals(users.get(4_321), dao.findUserByLoginName("user4321"));
+        assertEquals(new HashSet<>(Arrays.asList("user0", "user5499")),
+                dao.findExistingLoginNames(Arrays.asList("user0", "user5499", "user5500", "admin")));
+        assertEquals(Collections.emptySet(), dao.findExistingLoginNames(Collections.emptyList()));
+        Set<String> loginNames = new HashSet<>();
+        dao.forEachLoginName(loginNames::add);
+        assertEquals(5_500, loginNames.size());
+
+        // 一批中有重复的登录名时整批回滚
+        List<User> duplicated = Arrays.asList(user("new1"), user("new2"), user("user7"));
+        assertThrows(DuplicateKeyException.class, () -> dao.saveAll(duplicated));
+        assertNull(dao.findUserByLoginName("new1"));
+        assertEquals(5_500, count(dao));
+    }
+
+    private MockUserDao dao(String type) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + dir.resolve(type).toAbsolutePath() + ";MODE=MySQL", "sa", "");
+        JdbcUserDao.createTable(dataSource);
+        return "jdbc".equals(type) ? new JdbcUserDao(dataSource, 1000) : MybatisUserDao.create(dataSource);
+    }
+
+    private static long count(MockUserDao dao) {
+        return dao instanceof JdbcUserDao ? ((JdbcUserDao) dao).count() : ((MybatisUserDao) dao).count();
+    }
+
+    private static User user(String loginName) {
+        return new User().setId(UUID.randomUUID().toString().replace("-", ""))
+                .setLoginName(loginName)
+                .setPassword("123456");
+    }
+}
@@ -0,0 +1,176 @@
+package com.zyz.usualcode.snapshot;
+
+import com.zyz.usualcode.dateTime.format.DateTimeFormatterRegistry;
+import com.zyz.usualcode.dateTime.format.FormatterRegistrySnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.ResolverStyle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotManagerTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeAndRestore() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        Bytes small = new Bytes("small", 1, "hello".getBytes());
+        Bytes large = new Bytes("large", 1, new byte[3 * SnapshotFile.ALIGNMENT + 5]);
+        Arrays.fill(large.data, (byte) 7);
+        Bytes empty = new Bytes("empty", 1, new byte[0]);
+        SnapshotManager manager = new SnapshotManager(file, Arrays.asList(small, large, empty));
+        assertEquals(Collections.emptySet(), manager.restore());
+        manager.close();
+        assertTrue(manager.getLastSnapshotBytes() > 3 * SnapshotFile.ALIGNMENT);
+
+        Bytes small2 = new Bytes("small", 1, null);
+        Bytes large2 = new Bytes("large", 1, null);
+        // 版本不一致的段不恢复
+        Bytes empty2 = new Bytes("empty", 2, null);
+        Bytes missing = new Bytes("missing", 1, null);
+        SnapshotManager restored = new SnapshotManager(file, Arrays.asList(small2, large2, empty2, missing));
+        assertEquals(Arrays.asList("small", "large"), Arrays.asList(restored.restore().toArray()));
+        assertEquals(Collections.emptySet(), restored.getVerification().get());
+        assertArrayEquals(small.data, small2.data);
+        assertArrayEquals(large.data, large2.data);
+        assertNull(empty2.data);
+        assertNull(missing.data);
+
+        // 恢复的映射是写时复制的，修改之后重写快照，已经映射的内容不变
+        large2.mapped.put(0, (byte) 1);
+        large2.data = new byte[]{9};
+        restored.snapshot();
+        assertEquals(7, large2.mapped.get(1));
+        try (SnapshotFile snapshot = SnapshotFile.open(file)) {
+            assertEquals(1, snapshot.section("large").getLength());
+            assertTrue(snapshot.section("large").verify());
+        }
+    }
+
+    @Test
+    void corruptedSectionIsDiscarded() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        SnapshotFile.write(file, Arrays.asList(new Bytes("a", 1, new byte[100]), new Bytes("b", 1, new byte[100])));
+        long offset;
+        try (SnapshotFile snapshot = SnapshotFile.open(file)) {
+            offset = Files.size(file) - snapshot.section("b").getLength();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset + 50);
+            raf.write(1);
+        }
+        Bytes a = new Bytes("a", 1, null);
+        Bytes b = new Bytes("b", 1, null);
+        SnapshotManager manager = new SnapshotManager(file, Arrays.asList(a, b));
+        assertEquals(2, manager.restore().size());
+        assertEquals(Collections.singleton("b"), manager.getVerification().get());
+        assertEquals(100, a.data.length);
+        assertNull(b.data);
+
+        // 丢弃的段不再写进快照，下次启动时只恢复完好的段
+        b.data = new byte[1];
+        manager.close();
+        try (SnapshotFile snapshot = SnapshotFile.open(file)) {
+            assertNotNull(snapshot.section("a"));
+            assertNull(snapshot.section("b"));
+        }
+    }
+
+    @Test
+    void unreadableFileMeansColdStart() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        Bytes a = new Bytes("a", 1, new byte[10]);
+        SnapshotFile.write(file, Collections.singletonList(a));
+        // 改坏文件头中的段长度
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(40);
+            raf.write(0x7F);
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.open(file));
+        assertEquals(Collections.emptySet(), new SnapshotManager(file, Collections.singletonList(a)).restore());
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertEquals(Collections.emptySet(), new SnapshotManager(file, Collections.singletonList(a)).restore());
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.write(file, Arrays.asList(a, a)));
+    }
+
+    @Test
+    void formatterRegistryKeys() throws Exception {
+        Path file = dir.resolve("app.snapshot");
+        DateTimeFormatterRegistry.ofPattern("yyyy/MM/dd HH:mm");
+        DateTimeFormatterRegistry.ofPattern("dd MMM uuuu", Locale.FRANCE, ZoneId.of("Europe/Paris"), ResolverStyle.STRICT);
+        SnapshotFile.write(file, Collections.singletonList(new FormatterRegistrySnapshot()));
+
+        DateTimeFormatterRegistry.clear();
+        long misses = DateTimeFormatterRegistry.stats().missCount();
+        assertEquals(Collections.singleton(FormatterRegistrySnapshot.NAME),
+                new SnapshotManager(file, Collections.singletonList(new FormatterRegistrySnapshot())).restore());
+        assertTrue(DateTimeFormatterRegistry.size() >= 2);
+        long loaded = DateTimeFormatterRegistry.stats().missCount();
+        DateTimeFormatterRegistry.ofPattern("dd MMM uuuu", Locale.FRANCE, ZoneId.of("Europe/Paris"), ResolverStyle.STRICT);
+        DateTimeFormatterRegistry.ofPattern("yyyy/MM/dd HH:mm");
+        assertTrue(loaded > misses);
+        assertEquals(loaded, DateTimeFormatterRegistry.stats().missCount());
+    }
+
+    /**
+     * 整段字节数组
+     */
+    private static final class Bytes implements Snapshotable {
+        private final String name;
+        private final int version;
+        private byte[] data;
+        private ByteBuffer mapped;
+
+        Bytes(String name, int version, byte[] data) {
+            this.name = name;
+            this.version = version;
+            this.data = data;
+        }
+
+        @Override
+        public String snapshotName() {
+            return name;
+        }
+
+        @Override
+        public int snapshotVersion() {
+            return version;
+        }
+
+        @Override
+        public void writeSnapshot(WritableByteChannel out) throws IOException {
+            out.write(ByteBuffer.wrap(data == null ? new byte[0] : data));
+        }
+
+        @Override
+        public void restoreSnapshot(SnapshotFile.Section section) throws IOException {
+            mapped = section.map();
+            data = new byte[mapped.remaining()];
+            mapped.duplicate().get(data);
+        }
+
+        @Override
+        public void discardSnapshot() {
+            data = null;
+        }
+    }
+}
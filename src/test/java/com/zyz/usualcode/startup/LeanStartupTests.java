@@ -0,0 +1,61 @@
+package com.zyz.usualcode.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("lean")
+class LeanStartupTests {
+
+    /**
+     * 从应用启动到容器刷新完成的耗时上限，机器较慢时用系统属性放宽
+     */
+    private static final long BUDGET_MILLIS = Long.getLong("usualcode.startup.budget-millis", 10000);
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private StartupTimeline timeline;
+
+    @Test
+    void webBeansEagerOthersLazy() {
+        List<String> created = timeline.getEntries().stream().map(StartupTimeline.Entry::getBeanName)
+                .collect(Collectors.toList());
+        assertTrue(created.contains("testController"), created::toString);
+        assertTrue(created.contains("requestMappingHandlerAdapter"), created::toString);
+        // 配置类本身用不到，不会被创建
+        assertFalse(context.getBeanFactory().containsSingleton("startupConfig"));
+        assertFalse(context.containsBean("sqlSessionFactory"));
+        assertFalse(context.containsBean("jdbcTemplate"));
+        assertFalse(context.containsBean("applicationTaskExecutor"));
+        assertNotNull(context.getBean("startupConfig"));
+    }
+
+    /**
+     * 从应用启动开始计时，组件扫描和自动配置的导入都算在预算内
+     */
+    @Test
+    void measuredFromApplicationStart() {
+        StartupClock clock = context.getBean(StartupClock.BEAN_NAME, StartupClock.class);
+        assertEquals(clock.getStartNanos(), timeline.getOriginNanos());
+        assertTrue(timeline.getEntries().get(0).getStartNanos() > 0);
+    }
+
+    @Test
+    void refreshWithinBudget() {
+        long refreshMillis = timeline.getRefreshNanos() / 1_000_000;
+        assertTrue(refreshMillis > 0 && refreshMillis < BUDGET_MILLIS, () -> timeline.report(20));
+    }
+}
@@ -0,0 +1,146 @@
+package com.zyz.usualcode.web;
+
+import com.zyz.usualcode.mockito.user.ErrorCode;
+import com.zyz.usualcode.mockito.user.MockUserDao;
+import com.zyz.usualcode.mockito.user.MockUserService;
+import com.zyz.usualcode.mockito.user.PasswordHashingService;
+import com.zyz.usualcode.mockito.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTests {
+
+    private final MockUserDao userDao = mock(MockUserDao.class);
+    private BlockingTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(userDao.findUserByLoginName("zyz"))
+                .thenReturn(new User().setId("0123456789abcdef0123456789abcdef").setLoginName("zyz").setPassword("secret"));
+        executor = BlockingTaskExecutor.create(true, 4, 16);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.close();
+    }
+
+    @Test
+    void syncAndAsyncReturnTheSame() throws Exception {
+        String expected = "{\"id\":\"0123456789abcdef0123456789abcdef\",\"loginName\":\"zyz\"}";
+        MockMvc sync = MockMvcBuilders.standaloneSetup(new UserController(userDao)).build();
+        sync.perform(get("/users/zyz")).andExpect(status().isOk()).andExpect(content().json(expected, true));
+        sync.perform(get("/users/nobody")).andExpect(status().isNotFound());
+
+        MockMvc async = MockMvcBuilders.standaloneSetup(new AsyncUserController(userDao, executor)).build();
+        MvcResult started = async.perform(get("/users/zyz")).andExpect(request().asyncStarted()).andReturn();
+        async.perform(asyncDispatch(started)).andExpect(status().isOk()).andExpect(content().json(expected, true));
+        started = async.perform(get("/users/nobody")).andExpect(request().asyncStarted()).andReturn();
+        async.perform(asyncDispatch(started)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectedWhenExecutorIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MockUserDao slowDao = mock(MockUserDao.class);
+        when(slowDao.findUserByLoginName("zyz")).thenAnswer(invocation -> {
+            release.await();
+            return userDao.findUserByLoginName("zyz");
+        });
+        BlockingTaskExecutor full = BlockingTaskExecutor.create(false, 1, 1);
+        try {
+            MockMvc async = MockMvcBuilders.standaloneSetup(new AsyncUserController(slowDao, full)).build();
+            // 第一个请求占住唯一的线程，第二个进队列，第三个没有位置
+            MvcResult running = async.perform(get("/users/zyz")).andExpect(request().asyncStarted()).andReturn();
+            MvcResult queued = async.perform(get("/users/zyz")).andExpect(request().asyncStarted()).andReturn();
+            MvcResult rejected = async.perform(get("/users/zyz")).andExpect(request().asyncStarted()).andReturn();
+            async.perform(asyncDispatch(rejected)).andExpect(status().isServiceUnavailable());
+
+            release.countDown();
+            async.perform(asyncDispatch(running)).andExpect(status().isOk());
+            async.perform(asyncDispatch(queued)).andExpect(status().isOk());
+        } finally {
+            release.countDown();
+            full.close();
+        }
+    }
+
+    @Test
+    void rejectedAfterClose() throws Exception {
+        executor.close();
+        MockMvc async = MockMvcBuilders.standaloneSetup(new AsyncUserController(userDao, executor)).build();
+        MvcResult started = async.perform(get("/users/zyz")).andExpect(request().asyncStarted()).andReturn();
+        async.perform(asyncDispatch(started)).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void signupHashesOffRequestThread() throws Exception {
+        try (PasswordHashingService hashing = PasswordHashingService.builder().threads(2)
+                .targetLatency(Duration.ofMillis(1)).iterations(1000, 2000).build()) {
+            MockUserService userService = new MockUserService(userDao, hashing);
+            MockMvc mvc = MockMvcBuilders.standaloneSetup(new UserSignupController(userService, hashing, executor)).build();
+
+            MvcResult started = mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"loginName\":\"admin\",\"password\":\"123456\"}"))
+                    .andExpect(request().asyncStarted()).andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.loginName").value("admin")).andExpect(jsonPath("$.id").isString())
+                    .andExpect(jsonPath("$.password").doesNotExist());
+            started = mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"loginName\":\"zyz\",\"password\":\"123456\"}")).andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value(ErrorCode.DUPLICATE_LOGIN_NAME.getCode()));
+            started = mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"loginName\":\"admin\"}")).andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value(ErrorCode.EMPTY_PASSWORD.getCode()));
+
+            started = mvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"loginName\":\"a\",\"password\":\"1\"},{\"loginName\":\"a\",\"password\":\"2\"},"
+                            + "{\"loginName\":\"b\",\"password\":\"3\"}]"))
+                    .andExpect(request().asyncStarted()).andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].id").isString())
+                    .andExpect(jsonPath("$[1].code").value(ErrorCode.REPEATED_LOGIN_NAME.getCode()))
+                    .andExpect(jsonPath("$[2].loginName").value("b"));
+            // 单个注册一次、批量两条，都经过哈希线程池
+            assertEquals(3, hashing.hashTime().getCount());
+            assertTrue(hashing.queueWait().getCount() >= 2);
+        }
+    }
+
+    @Test
+    void virtualThreadsWhenAvailable() throws InterruptedException {
+        ExecutorService probe = BlockingTaskExecutor.virtualThreadExecutor();
+        if (probe != null) {
+            probe.shutdown();
+        }
+        assertEquals(probe != null, executor.isVirtual());
+        try (BlockingTaskExecutor pool = BlockingTaskExecutor.create(false, 1, 1)) {
+            assertFalse(pool.isVirtual());
+        }
+    }
+}